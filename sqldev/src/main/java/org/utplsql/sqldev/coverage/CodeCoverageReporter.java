@@ -28,6 +28,7 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.sql.Connection;
 import java.util.*;
+import java.util.concurrent.Future;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.logging.Logger;
@@ -38,10 +39,11 @@ import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
 import org.utplsql.sqldev.dal.RealtimeReporterDao;
 import org.utplsql.sqldev.dal.UtplsqlDao;
-import org.utplsql.sqldev.exception.GenericDatabaseAccessException;
+import org.utplsql.sqldev.dal.UtplsqlSessionPool;
 import org.utplsql.sqldev.exception.GenericRuntimeException;
 import org.utplsql.sqldev.model.DatabaseTools;
 import org.utplsql.sqldev.model.FileTools;
+import org.utplsql.sqldev.model.UtplsqlExecutor;
 import org.utplsql.sqldev.model.preference.PreferenceModel;
 import org.utplsql.sqldev.runner.UtplsqlRunner;
 import org.utplsql.sqldev.ui.coverage.CodeCoverageReporterDialog;
@@ -54,6 +56,8 @@ public class CodeCoverageReporter {
 
     private String connectionName;
     private Connection conn;
+    // session borrowed from the pool while running standalone
+    private volatile Connection borrowedConn;
     private final List<String> pathList;
     private final List<String> includeObjectList;
     private CodeCoverageReporterDialog frame;
@@ -213,21 +217,20 @@ public class CodeCoverageReporter {
     }
     
     private void runCodeCoverageStandalone() {
-        Connection coverageConn = null;
         try {
-            coverageConn = conn != null ? conn : DatabaseTools.cloneConnection(connectionName);
-            final UtplsqlDao dao = new UtplsqlDao(coverageConn);
+            if (connectionName != null) {
+                // keep the connection of SQL Developer free, use a pooled session
+                borrowedConn = UtplsqlSessionPool.getInstance().borrow(connectionName);
+            }
+            final UtplsqlDao dao = new UtplsqlDao(borrowedConn != null ? borrowedConn : conn);
             final String html = dao.htmlCodeCoverage(pathList, toStringList(schemas),
                     toStringList(includeObjects), toStringList(excludeObjects), getHtmlReportAssetPath());
             openInBrowser(html);
         } finally {
-            try {
-                if (coverageConn != null && conn == null) {
-                    // close only if connection has been cloned
-                    DatabaseTools.closeConnection(coverageConn);
-                }
-            } catch (GenericDatabaseAccessException e) {
-                // ignore
+            if (borrowedConn != null) {
+                // an aborted session is closed by the pool
+                UtplsqlSessionPool.getInstance().release(connectionName, borrowedConn);
+                borrowedConn = null;
             }
         }
     }
@@ -262,8 +265,12 @@ public class CodeCoverageReporter {
         return frame;
     }
 
+    /**
+     * @return the session used to produce the report
+     */
     public Connection getConnection() {
-        return conn;
+        final Connection activeConn = borrowedConn;
+        return activeConn != null ? activeConn : conn;
     }
 
     public List<String> getPathList() {
@@ -294,11 +301,8 @@ public class CodeCoverageReporter {
         this.excludeObjects = excludeObjects;
     }
 
-    public Thread runAsync() {
-        final Thread thread = new Thread(this::run);
-        thread.setName("code coverage reporter");
-        thread.start();
-        return thread;
+    public Future<?> runAsync() {
+        return UtplsqlExecutor.getInstance().execute("code coverage reporter", this::run);
     }
 
     public void showParameterWindow() {
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.dal;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calculates the fetch size of the realtime reporter cursor based on the arrival of rows.
+ *
+ * Starts with a fetch size of 1. The fetch size is doubled whenever a complete batch
+ * has arrived within the threshold and is reset to 1 when a batch took longer. The
+ * cursor is based on a pipelined table function. A fetch blocks until the batch is
+ * complete. Hence, when a burst ends, up to maxFetchSize - 1 rows may be delayed until
+ * the remaining rows of the batch are produced. Afterwards the rows are streamed again.
+ */
+public class AdaptiveFetchSize {
+    public static final int DEFAULT_MAX_FETCH_SIZE = 16;
+    public static final long DEFAULT_THRESHOLD_MILLIS = 10;
+    private final int maxFetchSize;
+    private final long thresholdNanos;
+    private int fetchSize = 1;
+    private int batchRows = 0;
+    private long batchNanos = 0;
+
+    public AdaptiveFetchSize() {
+        this(DEFAULT_MAX_FETCH_SIZE, DEFAULT_THRESHOLD_MILLIS);
+    }
+
+    public AdaptiveFetchSize(final int maxFetchSize, final long thresholdMillis) {
+        this.maxFetchSize = maxFetchSize;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    /**
+     * Calculates the fetch size after a row has been fetched.
+     *
+     * @param gapNanos time elapsed between the previous and the current row
+     * @return the fetch size for the next round trip
+     */
+    public int next(final long gapNanos) {
+        batchRows++;
+        batchNanos += gapNanos;
+        if (batchRows >= fetchSize) {
+            // rows of a batch are buffered by the driver, only the time of the whole batch is meaningful
+            if (batchNanos > thresholdNanos) {
+                fetchSize = 1;
+            } else {
+                fetchSize = Math.min(fetchSize * 2, maxFetchSize);
+            }
+            batchRows = 0;
+            batchNanos = 0;
+        }
+        return fetchSize;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+}
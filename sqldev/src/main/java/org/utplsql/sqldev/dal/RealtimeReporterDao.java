@@ -15,49 +15,42 @@
  */
 package org.utplsql.sqldev.dal;
 
+import java.io.FilterReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.net.URL;
 import java.sql.Clob;
 import java.sql.Connection;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
-import javax.xml.parsers.DocumentBuilder;
-
 import org.springframework.jdbc.core.CallableStatementCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.utplsql.sqldev.exception.GenericRuntimeException;
 import org.utplsql.sqldev.model.StringTools;
-import org.utplsql.sqldev.model.XMLTools;
-import org.utplsql.sqldev.model.runner.Counter;
-import org.utplsql.sqldev.model.runner.Expectation;
-import org.utplsql.sqldev.model.runner.PostEvent;
-import org.utplsql.sqldev.model.runner.PostRunEvent;
-import org.utplsql.sqldev.model.runner.PostSuiteEvent;
-import org.utplsql.sqldev.model.runner.PostTestEvent;
-import org.utplsql.sqldev.model.runner.PreRunEvent;
-import org.utplsql.sqldev.model.runner.PreSuiteEvent;
-import org.utplsql.sqldev.model.runner.PreTestEvent;
 import org.utplsql.sqldev.model.runner.RealtimeReporterEvent;
-import org.utplsql.sqldev.model.runner.Suite;
-import org.utplsql.sqldev.model.runner.Test;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
 
+import oracle.jdbc.OracleStatement;
 import oracle.jdbc.OracleTypes;
 
 public class RealtimeReporterDao {
     private static final Logger logger = Logger.getLogger(RealtimeReporterDao.class.getName());
     private static final int FIRST_VERSION_WITH_REALTIME_REPORTER = 3001004;
-    private final XMLTools xmlTools = new XMLTools();
+    /** Payloads up to this number of characters are prefetched with the row and passed as string to the pipeline. */
+    public static final int MAX_INLINE_TEXT_LENGTH = 32767;
+    public static final int DEFAULT_CONSUMER_TIMEOUT_SECONDS = 60;
     private final Connection conn;
     private final JdbcTemplate jdbcTemplate;
+    private RealtimeReporterEventDecoder eventDecoder = new RealtimeReporterStaxEventDecoder();
+    private volatile RealtimeReporterEventPipeline eventPipeline;
+    private boolean useAdaptiveFetchSize = false;
+    private volatile long lobCalls;
 
     public RealtimeReporterDao(final Connection conn) {
         this.conn = conn;
@@ -70,6 +63,40 @@ public class RealtimeReporterDao {
                 .normalizedUtPlsqlVersionNumber() >= RealtimeReporterDao.FIRST_VERSION_WITH_REALTIME_REPORTER;
     }
 
+    public RealtimeReporterEventDecoder getEventDecoder() {
+        return eventDecoder;
+    }
+
+    public void setEventDecoder(final RealtimeReporterEventDecoder eventDecoder) {
+        this.eventDecoder = eventDecoder;
+    }
+
+    public boolean isUseAdaptiveFetchSize() {
+        return useAdaptiveFetchSize;
+    }
+
+    /**
+     * Fetch size 1 (default) guarantees delay-free streaming of events at the cost
+     * of a round trip per event. See {@link AdaptiveFetchSize} for the alternative.
+     */
+    public void setUseAdaptiveFetchSize(final boolean useAdaptiveFetchSize) {
+        this.useAdaptiveFetchSize = useAdaptiveFetchSize;
+    }
+
+    /**
+     * @return number of calls to the CLOB API in the last consumeReport call
+     */
+    public long getLobCalls() {
+        return lobCalls;
+    }
+
+    /**
+     * @return the event pipeline of the current or last consumeReport call, null if never called
+     */
+    public RealtimeReporterEventPipeline getEventPipeline() {
+        return eventPipeline;
+    }
+
     // used for execution via PL/SQL Debugger
     public String getProduceReportPlsql(final String reporterId, final List<String> pathList) {
         return getProduceReportPlsql(reporterId, pathList, false);
@@ -148,10 +175,21 @@ public class RealtimeReporterDao {
     }
 
     public void consumeReport(final String reporterId, final RealtimeReporterEventConsumer consumer) {
-        consumeReport(reporterId, consumer, 60);
+        consumeReport(reporterId, consumer, DEFAULT_CONSUMER_TIMEOUT_SECONDS);
     }
 
     public void consumeReport(final String reporterId, final RealtimeReporterEventConsumer consumer, final int timeoutSeconds) {
+        consumeReport(reporterId, consumer, timeoutSeconds, null);
+    }
+
+    /**
+     * Consumes the events of a reporter.
+     * 
+     * @param onCursorOpened is called when the cursor is opened and the producer
+     *        may start, may be null
+     */
+    public void consumeReport(final String reporterId, final RealtimeReporterEventConsumer consumer,
+            final int timeoutSeconds, final Runnable onCursorOpened) {
         StringBuilder sb = new StringBuilder();
         sb.append("DECLARE\n");
         sb.append("   l_reporter ut_realtime_reporter := ut_realtime_reporter();\n");
@@ -168,15 +206,11 @@ public class RealtimeReporterDao {
                 cs.registerOutParameter(2, OracleTypes.CURSOR);
                 cs.execute();
                 final ResultSet rs = (ResultSet) cs.getObject(2);
-                while (rs.next()) {
-                    final String itemType = rs.getString("item_type");
-                    final Clob textClob = rs.getClob("text");
-                    final String textString = textClob.getSubString(1, ((int) textClob.length()));
-                    final RealtimeReporterEvent event = convert(itemType, textString);
-                    if (event != null) {
-                        consumer.process(event);
-                    }
+                if (onCursorOpened != null) {
+                    onCursorOpened.run();
                 }
+                enableLobPrefetch(rs);
+                consumeLines(rs, consumer);
                 rs.close();
                 return null;
             });
@@ -185,6 +219,100 @@ public class RealtimeReporterDao {
         }
     }
 
+    private void enableLobPrefetch(final ResultSet rs) {
+        try {
+            final Statement stmt = rs.getStatement();
+            if (stmt != null && stmt.isWrapperFor(OracleStatement.class)) {
+                // the locator, the length and the data of small CLOBs are sent with the row
+                stmt.unwrap(OracleStatement.class).setLobPrefetchSize(MAX_INLINE_TEXT_LENGTH + 1);
+            }
+        } catch (SQLException e) {
+            logger.fine(() -> "Cannot enable LOB prefetch: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Consumes the rows of a cursor opened by ut_realtime_reporter.get_lines_cursor.
+     * The cursor is drained by the calling thread, parsing and processing events is done by the pipeline.
+     * Payloads exceeding MAX_INLINE_TEXT_LENGTH are streamed into the decoder by the calling thread
+     * to avoid building an intermediate string.
+     */
+    public void consumeLines(final ResultSet rs, final RealtimeReporterEventConsumer consumer) throws SQLException {
+        final RealtimeReporterEventPipeline pipeline = new RealtimeReporterEventPipeline(this::convert, consumer);
+        eventPipeline = pipeline;
+        lobCalls = 0;
+        pipeline.start();
+        final AtomicLong calls = new AtomicLong();
+        long rows = 0;
+        long streamedRows = 0;
+        try {
+            final AdaptiveFetchSize adaptiveFetchSize = useAdaptiveFetchSize ? new AdaptiveFetchSize() : null;
+            int fetchSize = rs.getFetchSize();
+            long start = System.nanoTime();
+            while (rs.next()) {
+                final long gapNanos = System.nanoTime() - start;
+                rows++;
+                final String itemType = rs.getString("item_type");
+                final Clob textClob = rs.getClob("text");
+                if (textClob == null) {
+                    logger.warning(() -> "Skipping " + itemType + " row without text.");
+                } else {
+                    // the length is part of the prefetched LOB data, no round trip
+                    final long length = textClob.length();
+                    if (length <= MAX_INLINE_TEXT_LENGTH) {
+                        // reads the whole payload in one call
+                        final String text = length == 0 ? "" : textClob.getSubString(1, (int) length);
+                        calls.incrementAndGet();
+                        pipeline.put(itemType, text, System.nanoTime() - start);
+                    } else {
+                        streamedRows++;
+                        pipeline.putEvent(decode(itemType, textClob, calls), System.nanoTime() - start);
+                    }
+                }
+                if (adaptiveFetchSize != null && adaptiveFetchSize.next(gapNanos) != fetchSize) {
+                    fetchSize = adaptiveFetchSize.getFetchSize();
+                    rs.setFetchSize(fetchSize);
+                }
+                start = System.nanoTime();
+            }
+        } finally {
+            lobCalls = calls.get();
+            final long totalRows = rows;
+            final long totalStreamedRows = streamedRows;
+            logger.fine(() -> "Realtime reporter cursor: rows: " + totalRows + ", LOB calls: " + calls.get()
+                    + ", streamed payloads: " + totalStreamedRows);
+            pipeline.finish();
+        }
+    }
+
+    private RealtimeReporterEvent decode(final String itemType, final Clob textClob, final AtomicLong calls)
+            throws SQLException {
+        calls.incrementAndGet();
+        try (Reader reader = new FilterReader(textClob.getCharacterStream()) {
+            @Override
+            public int read() throws IOException {
+                calls.incrementAndGet();
+                return super.read();
+            }
+
+            @Override
+            public int read(final char[] cbuf, final int off, final int len) throws IOException {
+                calls.incrementAndGet();
+                return super.read(cbuf, off, len);
+            }
+        }) {
+            logger.fine(() -> "\n---- " + itemType + " ----\n(streamed)");
+            return eventDecoder.decode(itemType, reader);
+        } catch (IOException e) {
+            logger.severe(() -> "I/O error while streaming " + itemType + ": " + e.getMessage());
+            return null;
+        } catch (GenericRuntimeException e) {
+            // continue processing, see https://github.com/utPLSQL/utPLSQL-SQLDeveloper/issues/107
+            logger.severe(() -> e.getMessage() + " with streamed content.");
+            return null;
+        }
+    }
+
     public String getHtmlCoverage(final String reporterId) {
         StringBuilder sb = new StringBuilder();
         sb.append("DECLARE\n");
@@ -215,183 +343,12 @@ public class RealtimeReporterDao {
     private RealtimeReporterEvent convert(final String itemType, final String text) {
         logger.fine(() -> "\n---- " + itemType + " ----\n" + text);
         try {
-            final DocumentBuilder docBuilder = xmlTools.createDocumentBuilder();
-            final Document doc = docBuilder.parse(new InputSource(new StringReader(text)));
-            RealtimeReporterEvent event = null;
-            if ("pre-run".equals(itemType)) {
-                event = convertToPreRunEvent(doc);
-            } else if ("post-run".equals(itemType)) {
-                event = convertToPostRunEvent(doc);
-            } else if ("pre-suite".equals(itemType)) {
-                event = convertToPreSuiteEvent(doc);
-            } else if ("post-suite".equals(itemType)) {
-                event = convertToPostSuiteEvent(doc);
-            } else if ("pre-test".equals(itemType)) {
-                event = convertToPreTestEvent(doc);
-            } else if ("post-test".equals(itemType)) {
-                event = convertToPostTestEvent(doc);
-            }
-            return event;
-        } catch (SAXException e) {
+            return eventDecoder.decode(itemType, new StringReader(text));
+        } catch (GenericRuntimeException e) {
             // continue processing, see https://github.com/utPLSQL/utPLSQL-SQLDeveloper/issues/107
-            final String msg = "Parse error while processing " + itemType + " with content: " + text;
+            final String msg = e.getMessage() + " with content: " + text;
             logger.severe(() -> msg);
             return null;
-        } catch (IOException e) {
-            // continue processing, see https://github.com/utPLSQL/utPLSQL-SQLDeveloper/issues/107
-            final String msg = "I/O error while processing " + itemType + " with content: " + text;
-            logger.severe(() -> msg);
-            return null;
-        }
-    }
-
-    private RealtimeReporterEvent convertToPreRunEvent(final Document doc) {
-        final PreRunEvent event = new PreRunEvent();
-        final Node totalNumberOfTestsNode = xmlTools.getNode(doc, "/event/totalNumberOfTests");
-        String totalNumberOfTestsTextContent = null;
-        if (totalNumberOfTestsNode != null) {
-            totalNumberOfTestsTextContent = totalNumberOfTestsNode.getTextContent();
-        }
-        event.setTotalNumberOfTests(Integer.valueOf(totalNumberOfTestsTextContent != null ? totalNumberOfTestsTextContent : "0"));
-        final NodeList nodes = xmlTools.getNodeList(doc, "/event/items/*");
-        for (int i = 0; i < nodes.getLength(); i++) {
-            final Node node = nodes.item(i);
-            final String nodeName = node.getNodeName();
-            if ("suite".equals(nodeName)) {
-                final Suite suite = new Suite();
-                event.getItems().add(suite);
-                populate(suite, node);
-            } else if ("test".equals(nodeName)) {
-                final Test test = new Test();
-                event.getItems().add(test);
-                populate(test, node);
-            }
-        }
-        return event;
-    }
-
-    private RealtimeReporterEvent convertToPostRunEvent(final Document doc) {
-        final PostRunEvent event = new PostRunEvent();
-        populate(event, xmlTools.getNode(doc, "/event/run"));
-        return event;
-    }
-
-    private RealtimeReporterEvent convertToPreSuiteEvent(final Document doc) {
-        final PreSuiteEvent event = new PreSuiteEvent();
-        final Node node = xmlTools.getNode(doc, "/event/suite");
-        if (node instanceof Element) {
-            event.setId(xmlTools.getAttributeValue(node, "id"));
-        }
-        return event;
-    }
-
-    private RealtimeReporterEvent convertToPostSuiteEvent(final Document doc) {
-        final PostSuiteEvent event = new PostSuiteEvent();
-        final Node node = xmlTools.getNode(doc, "/event/suite");
-        if (node instanceof Element) {
-            event.setId(xmlTools.getAttributeValue(node, "id"));
-            populate(event, node);
-        }
-        return event;
-    }
-
-    private RealtimeReporterEvent convertToPreTestEvent(final Document doc) {
-        final PreTestEvent event = new PreTestEvent();
-        final Node node = xmlTools.getNode(doc, "/event/test");
-        if (node instanceof Element) {
-            event.setId(xmlTools.getAttributeValue(node, "id"));
-            event.setTestNumber(Integer.valueOf(xmlTools.getElementValue(node, "testNumber")));
-            event.setTotalNumberOfTests(Integer.valueOf(xmlTools.getElementValue(node, "totalNumberOfTests")));
-        }
-        return event;
-    }
-
-    private RealtimeReporterEvent convertToPostTestEvent(final Document doc) {
-        final PostTestEvent event = new PostTestEvent();
-        final Node node = xmlTools.getNode(doc, "/event/test");
-        if (node instanceof Element) {
-            event.setId(xmlTools.getAttributeValue(node, "id"));
-            event.setTestNumber(Integer.valueOf(xmlTools.getElementValue(node, "testNumber")));
-            event.setTotalNumberOfTests(Integer.valueOf(xmlTools.getElementValue(node, "totalNumberOfTests")));
-            populate(event, node);
-            final NodeList failedExpectations = xmlTools.getNodeList(node, "failedExpectations/expectation");
-            for (int i = 0; i < failedExpectations.getLength(); i++) {
-                final Node expectationNode = failedExpectations.item(i);
-                final Expectation expectation = new Expectation();
-                event.getFailedExpectations().add(expectation);
-                populate(expectation, expectationNode);
-            }
-        }
-        return event;
-    }
-
-    private void populate(final Suite suite, final Node node) {
-        if (node instanceof Element) {
-            suite.setId(xmlTools.getAttributeValue(node, "id"));
-            suite.setName(xmlTools.getElementValue(node, "name"));
-            suite.setDescription(xmlTools.getElementValue(node, "description"));
-            final NodeList nodeList = xmlTools.getNodeList(node, "items/*");
-            for (int i = 0; i < nodeList.getLength(); i++) {
-                final Node childNode = nodeList.item(i);
-                final String nodeName = childNode.getNodeName();
-                if ("suite".equals(nodeName)) {
-                    final Suite childSuite = new Suite();
-                    suite.getItems().add(childSuite);
-                    populate(childSuite, childNode);
-                } else if ("test".equals(nodeName)) {
-                    final Test childTest = new Test();
-                    suite.getItems().add(childTest);
-                    populate(childTest, childNode);
-                }
-            }
-        }
-    }
-
-    private void populate(final Test test, final Node node) {
-        if (node instanceof Element) {
-            test.setId(xmlTools.getAttributeValue(node, "id"));
-            test.setExecutableType(xmlTools.getElementValue(node, "executableType"));
-            test.setOwnerName(xmlTools.getElementValue(node, "ownerName"));
-            test.setObjectName(xmlTools.getElementValue(node, "objectName"));
-            test.setProcedureName(xmlTools.getElementValue(node, "procedureName"));
-            test.setDisabled("true".equals(xmlTools.getElementValue(node, "disabled")));
-            test.setDisabledReason(xmlTools.getElementValue(node, "disabledReason"));
-            test.setName(xmlTools.getElementValue(node, "name"));
-            test.setDescription(xmlTools.getElementValue(node, "description"));
-            test.setTestNumber(Integer.valueOf(xmlTools.getElementValue(node, "testNumber")));
-        }
-    }
-
-    private void populate(final PostEvent event, final Node node) {
-        if (node instanceof Element) {
-            event.setStartTime(xmlTools.getElementValue(node, "startTime"));
-            event.setEndTime(xmlTools.getElementValue(node, "endTime"));
-            event.setExecutionTime(Double.valueOf(xmlTools.getElementValue(node, "executionTime")));
-            populate(event.getCounter(), node);
-            event.setErrorStack(xmlTools.getElementValue(node, "errorStack"));
-            event.setServerOutput(xmlTools.getElementValue(node, "serverOutput"));
-            event.setWarnings(xmlTools.getElementValue(node, "warnings"));
-        }
-    }
-
-    private void populate(final Counter counter, final Node node) {
-        if (node instanceof Element) {
-            final Node counterNode = xmlTools.getElementNode(node, "counter");
-            if (counterNode instanceof Element) {
-                counter.setDisabled(Integer.valueOf(xmlTools.getElementValue(counterNode, "disabled")));
-                counter.setSuccess(Integer.valueOf(xmlTools.getElementValue(counterNode, "success")));
-                counter.setFailure(Integer.valueOf(xmlTools.getElementValue(counterNode, "failure")));
-                counter.setError(Integer.valueOf(xmlTools.getElementValue(counterNode, "error")));
-                counter.setWarning(Integer.valueOf(xmlTools.getElementValue(counterNode, "warning")));
-            }
-        }
-    }
-
-    private void populate(final Expectation expectation, final Node node) {
-        if (node instanceof Element) {
-            expectation.setDescription(xmlTools.getElementValue(node, "description"));
-            expectation.setMessage(xmlTools.getElementValue(node, "message"));
-            expectation.setCaller(xmlTools.getElementValue(node, "caller"));
         }
     }
 }
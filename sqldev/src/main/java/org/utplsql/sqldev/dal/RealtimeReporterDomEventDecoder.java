@@ -0,0 +1,228 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.dal;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import javax.xml.parsers.DocumentBuilder;
+
+import org.utplsql.sqldev.exception.GenericRuntimeException;
+import org.utplsql.sqldev.model.XMLTools;
+import org.utplsql.sqldev.model.runner.Counter;
+import org.utplsql.sqldev.model.runner.Expectation;
+import org.utplsql.sqldev.model.runner.PostEvent;
+import org.utplsql.sqldev.model.runner.PostRunEvent;
+import org.utplsql.sqldev.model.runner.PostSuiteEvent;
+import org.utplsql.sqldev.model.runner.PostTestEvent;
+import org.utplsql.sqldev.model.runner.PreRunEvent;
+import org.utplsql.sqldev.model.runner.PreSuiteEvent;
+import org.utplsql.sqldev.model.runner.PreTestEvent;
+import org.utplsql.sqldev.model.runner.RealtimeReporterEvent;
+import org.utplsql.sqldev.model.runner.Suite;
+import org.utplsql.sqldev.model.runner.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Builds a DOM per event and navigates it via XPath. This was the only decoder
+ * before {@link RealtimeReporterStaxEventDecoder} has been introduced. It is kept
+ * as reference implementation for tests and benchmarks.
+ */
+public class RealtimeReporterDomEventDecoder implements RealtimeReporterEventDecoder {
+    private final XMLTools xmlTools = new XMLTools();
+
+    @Override
+    public RealtimeReporterEvent decode(final String itemType, final Reader reader) {
+        try {
+            final DocumentBuilder docBuilder = xmlTools.createDocumentBuilder();
+            final Document doc = docBuilder.parse(new InputSource(reader));
+            RealtimeReporterEvent event = null;
+            if ("pre-run".equals(itemType)) {
+                event = convertToPreRunEvent(doc);
+            } else if ("post-run".equals(itemType)) {
+                event = convertToPostRunEvent(doc);
+            } else if ("pre-suite".equals(itemType)) {
+                event = convertToPreSuiteEvent(doc);
+            } else if ("post-suite".equals(itemType)) {
+                event = convertToPostSuiteEvent(doc);
+            } else if ("pre-test".equals(itemType)) {
+                event = convertToPreTestEvent(doc);
+            } else if ("post-test".equals(itemType)) {
+                event = convertToPostTestEvent(doc);
+            }
+            return event;
+        } catch (SAXException e) {
+            throw new GenericRuntimeException("Parse error while processing " + itemType, e);
+        } catch (IOException e) {
+            throw new GenericRuntimeException("I/O error while processing " + itemType, e);
+        }
+    }
+
+    private RealtimeReporterEvent convertToPreRunEvent(final Document doc) {
+        final PreRunEvent event = new PreRunEvent();
+        final Node totalNumberOfTestsNode = xmlTools.getNode(doc, "/event/totalNumberOfTests");
+        String totalNumberOfTestsTextContent = null;
+        if (totalNumberOfTestsNode != null) {
+            totalNumberOfTestsTextContent = totalNumberOfTestsNode.getTextContent();
+        }
+        event.setTotalNumberOfTests(Integer.valueOf(totalNumberOfTestsTextContent != null ? totalNumberOfTestsTextContent : "0"));
+        final NodeList nodes = xmlTools.getNodeList(doc, "/event/items/*");
+        for (int i = 0; i < nodes.getLength(); i++) {
+            final Node node = nodes.item(i);
+            final String nodeName = node.getNodeName();
+            if ("suite".equals(nodeName)) {
+                final Suite suite = new Suite();
+                event.getItems().add(suite);
+                populate(suite, node);
+            } else if ("test".equals(nodeName)) {
+                final Test test = new Test();
+                event.getItems().add(test);
+                populate(test, node);
+            }
+        }
+        return event;
+    }
+
+    private RealtimeReporterEvent convertToPostRunEvent(final Document doc) {
+        final PostRunEvent event = new PostRunEvent();
+        populate(event, xmlTools.getNode(doc, "/event/run"));
+        return event;
+    }
+
+    private RealtimeReporterEvent convertToPreSuiteEvent(final Document doc) {
+        final PreSuiteEvent event = new PreSuiteEvent();
+        final Node node = xmlTools.getNode(doc, "/event/suite");
+        if (node instanceof Element) {
+            event.setId(xmlTools.getAttributeValue(node, "id"));
+        }
+        return event;
+    }
+
+    private RealtimeReporterEvent convertToPostSuiteEvent(final Document doc) {
+        final PostSuiteEvent event = new PostSuiteEvent();
+        final Node node = xmlTools.getNode(doc, "/event/suite");
+        if (node instanceof Element) {
+            event.setId(xmlTools.getAttributeValue(node, "id"));
+            populate(event, node);
+        }
+        return event;
+    }
+
+    private RealtimeReporterEvent convertToPreTestEvent(final Document doc) {
+        final PreTestEvent event = new PreTestEvent();
+        final Node node = xmlTools.getNode(doc, "/event/test");
+        if (node instanceof Element) {
+            event.setId(xmlTools.getAttributeValue(node, "id"));
+            event.setTestNumber(Integer.valueOf(xmlTools.getElementValue(node, "testNumber")));
+            event.setTotalNumberOfTests(Integer.valueOf(xmlTools.getElementValue(node, "totalNumberOfTests")));
+        }
+        return event;
+    }
+
+    private RealtimeReporterEvent convertToPostTestEvent(final Document doc) {
+        final PostTestEvent event = new PostTestEvent();
+        final Node node = xmlTools.getNode(doc, "/event/test");
+        if (node instanceof Element) {
+            event.setId(xmlTools.getAttributeValue(node, "id"));
+            event.setTestNumber(Integer.valueOf(xmlTools.getElementValue(node, "testNumber")));
+            event.setTotalNumberOfTests(Integer.valueOf(xmlTools.getElementValue(node, "totalNumberOfTests")));
+            populate(event, node);
+            final NodeList failedExpectations = xmlTools.getNodeList(node, "failedExpectations/expectation");
+            for (int i = 0; i < failedExpectations.getLength(); i++) {
+                final Node expectationNode = failedExpectations.item(i);
+                final Expectation expectation = new Expectation();
+                event.getFailedExpectations().add(expectation);
+                populate(expectation, expectationNode);
+            }
+        }
+        return event;
+    }
+
+    private void populate(final Suite suite, final Node node) {
+        if (node instanceof Element) {
+            suite.setId(xmlTools.getAttributeValue(node, "id"));
+            suite.setName(xmlTools.getElementValue(node, "name"));
+            suite.setDescription(xmlTools.getElementValue(node, "description"));
+            final NodeList nodeList = xmlTools.getNodeList(node, "items/*");
+            for (int i = 0; i < nodeList.getLength(); i++) {
+                final Node childNode = nodeList.item(i);
+                final String nodeName = childNode.getNodeName();
+                if ("suite".equals(nodeName)) {
+                    final Suite childSuite = new Suite();
+                    suite.getItems().add(childSuite);
+                    populate(childSuite, childNode);
+                } else if ("test".equals(nodeName)) {
+                    final Test childTest = new Test();
+                    suite.getItems().add(childTest);
+                    populate(childTest, childNode);
+                }
+            }
+        }
+    }
+
+    private void populate(final Test test, final Node node) {
+        if (node instanceof Element) {
+            test.setId(xmlTools.getAttributeValue(node, "id"));
+            test.setExecutableType(xmlTools.getElementValue(node, "executableType"));
+            test.setOwnerName(xmlTools.getElementValue(node, "ownerName"));
+            test.setObjectName(xmlTools.getElementValue(node, "objectName"));
+            test.setProcedureName(xmlTools.getElementValue(node, "procedureName"));
+            test.setDisabled("true".equals(xmlTools.getElementValue(node, "disabled")));
+            test.setDisabledReason(xmlTools.getElementValue(node, "disabledReason"));
+            test.setName(xmlTools.getElementValue(node, "name"));
+            test.setDescription(xmlTools.getElementValue(node, "description"));
+            test.setTestNumber(Integer.valueOf(xmlTools.getElementValue(node, "testNumber")));
+        }
+    }
+
+    private void populate(final PostEvent event, final Node node) {
+        if (node instanceof Element) {
+            event.setStartTime(xmlTools.getElementValue(node, "startTime"));
+            event.setEndTime(xmlTools.getElementValue(node, "endTime"));
+            event.setExecutionTime(Double.valueOf(xmlTools.getElementValue(node, "executionTime")));
+            populate(event.getCounter(), node);
+            event.setErrorStack(xmlTools.getElementValue(node, "errorStack"));
+            event.setServerOutput(xmlTools.getElementValue(node, "serverOutput"));
+            event.setWarnings(xmlTools.getElementValue(node, "warnings"));
+        }
+    }
+
+    private void populate(final Counter counter, final Node node) {
+        if (node instanceof Element) {
+            final Node counterNode = xmlTools.getElementNode(node, "counter");
+            if (counterNode instanceof Element) {
+                counter.setDisabled(Integer.valueOf(xmlTools.getElementValue(counterNode, "disabled")));
+                counter.setSuccess(Integer.valueOf(xmlTools.getElementValue(counterNode, "success")));
+                counter.setFailure(Integer.valueOf(xmlTools.getElementValue(counterNode, "failure")));
+                counter.setError(Integer.valueOf(xmlTools.getElementValue(counterNode, "error")));
+                counter.setWarning(Integer.valueOf(xmlTools.getElementValue(counterNode, "warning")));
+            }
+        }
+    }
+
+    private void populate(final Expectation expectation, final Node node) {
+        if (node instanceof Element) {
+            expectation.setDescription(xmlTools.getElementValue(node, "description"));
+            expectation.setMessage(xmlTools.getElementValue(node, "message"));
+            expectation.setCaller(xmlTools.getElementValue(node, "caller"));
+        }
+    }
+}
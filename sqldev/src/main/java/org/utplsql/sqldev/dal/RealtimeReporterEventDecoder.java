@@ -0,0 +1,32 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.dal;
+
+import java.io.Reader;
+
+import org.utplsql.sqldev.model.runner.RealtimeReporterEvent;
+
+public interface RealtimeReporterEventDecoder {
+    /**
+     * Converts the XML payload of a row produced by ut_realtime_reporter.get_lines_cursor.
+     *
+     * @param itemType the item_type column, e.g. pre-run, post-test
+     * @param reader the text column
+     * @return the event or null for unknown item types
+     * @throws org.utplsql.sqldev.exception.GenericRuntimeException if the payload cannot be parsed
+     */
+    RealtimeReporterEvent decode(final String itemType, final Reader reader);
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.dal;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.logging.Logger;
+
+import org.springframework.core.style.ToStringCreator;
+import org.utplsql.sqldev.exception.GenericRuntimeException;
+import org.utplsql.sqldev.model.JsonToStringStyler;
+import org.utplsql.sqldev.model.UtplsqlExecutor;
+import org.utplsql.sqldev.model.runner.RealtimeReporterEvent;
+
+/**
+ * Decouples fetching rows from the realtime reporter cursor from parsing and
+ * dispatching the events. Each stage runs in its own task of the shared executor.
+ * The stages are connected by bounded queues, a full queue blocks the previous
+ * stage (backpressure).
+ * Every stage is single-threaded, hence the order of the events is preserved.
+ */
+public class RealtimeReporterEventPipeline {
+    private static final Logger logger = Logger.getLogger(RealtimeReporterEventPipeline.class.getName());
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final Row END_OF_ROWS = new Row(null, null, null);
+    private static final RealtimeReporterEvent END_OF_EVENTS = new RealtimeReporterEvent() {};
+
+    private final BiFunction<String, String, RealtimeReporterEvent> decoder;
+    private final RealtimeReporterEventConsumer consumer;
+    private final BlockingQueue<Row> rowQueue;
+    private final BlockingQueue<RealtimeReporterEvent> eventQueue;
+    private final Stage fetchStage = new Stage();
+    private final Stage parseStage = new Stage();
+    private final Stage dispatchStage = new Stage();
+    private final AtomicLong maxRowQueueSize = new AtomicLong();
+    private final AtomicLong maxEventQueueSize = new AtomicLong();
+    private Future<?> parserTask;
+    private Future<?> dispatcherTask;
+    private volatile Throwable failure;
+
+    private static class Row {
+        private final String itemType;
+        private final String text;
+        private final RealtimeReporterEvent event;
+
+        Row(final String itemType, final String text, final RealtimeReporterEvent event) {
+            this.itemType = itemType;
+            this.text = text;
+            this.event = event;
+        }
+    }
+
+    /**
+     * Statistics of a pipeline stage. Updated by a single thread, read by any thread.
+     */
+    public static class Stage {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong nanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private void record(final long elapsedNanos) {
+            count.incrementAndGet();
+            nanos.addAndGet(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        }
+
+        @Override
+        public String toString() {
+            return new ToStringCreator(this, JsonToStringStyler.getInstance())
+                    .append("count", getCount())
+                    .append("averageMillis", getAverageMillis())
+                    .append("maxMillis", getMaxMillis())
+                    .toString();
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public double getAverageMillis() {
+            final long c = count.get();
+            return c == 0 ? 0d : nanos.get() / 1000000d / c;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos.get() / 1000000d;
+        }
+    }
+
+    public RealtimeReporterEventPipeline(final BiFunction<String, String, RealtimeReporterEvent> decoder,
+            final RealtimeReporterEventConsumer consumer) {
+        this(decoder, consumer, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public RealtimeReporterEventPipeline(final BiFunction<String, String, RealtimeReporterEvent> decoder,
+            final RealtimeReporterEventConsumer consumer, final int queueCapacity) {
+        this.decoder = decoder;
+        this.consumer = consumer;
+        rowQueue = new ArrayBlockingQueue<>(queueCapacity);
+        eventQueue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringCreator(this, JsonToStringStyler.getInstance())
+                .append("rowQueueSize", getRowQueueSize())
+                .append("eventQueueSize", getEventQueueSize())
+                .append("maxRowQueueSize", getMaxRowQueueSize())
+                .append("maxEventQueueSize", getMaxEventQueueSize())
+                .append("fetchStage", fetchStage)
+                .append("parseStage", parseStage)
+                .append("dispatchStage", dispatchStage)
+                .toString();
+    }
+
+    public void start() {
+        final UtplsqlExecutor executor = UtplsqlExecutor.getInstance();
+        parserTask = executor.execute("realtime parser", this::parse);
+        dispatcherTask = executor.execute("realtime dispatcher", this::dispatch);
+    }
+
+    /**
+     * Passes a row fetched from the cursor to the parse stage.
+     * Blocks while the parse stage is saturated. Never calls the consumer.
+     *
+     * @param itemType the item_type column
+     * @param text the text column
+     * @param fetchNanos time used to fetch the row, for statistics only
+     */
+    public void put(final String itemType, final String text, final long fetchNanos) {
+        offer(rowQueue, new Row(itemType, text, null));
+        fetchStage.record(fetchNanos);
+        maxRowQueueSize.accumulateAndGet(rowQueue.size(), Math::max);
+    }
+
+    /**
+     * Passes an event decoded by the fetching thread to the dispatch stage.
+     * The event keeps its position relative to the rows passed via put.
+     *
+     * @param event the decoded event, ignored if null
+     * @param fetchNanos time used to fetch and decode the row, for statistics only
+     */
+    public void putEvent(final RealtimeReporterEvent event, final long fetchNanos) {
+        if (event != null) {
+            offer(rowQueue, new Row(null, null, event));
+            maxRowQueueSize.accumulateAndGet(rowQueue.size(), Math::max);
+        }
+        fetchStage.record(fetchNanos);
+    }
+
+    /**
+     * Signals the end of the cursor and waits until all queued events are dispatched.
+     * Rethrows the first exception of the parse or dispatch stage.
+     */
+    public void finish() {
+        try {
+            if (failure == null) {
+                offer(rowQueue, END_OF_ROWS);
+            }
+        } catch (GenericRuntimeException e) {
+            // failure is thrown below
+        }
+        join(parserTask);
+        join(dispatcherTask);
+        logger.fine(() -> "Event pipeline statistics: " + this);
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure != null) {
+            throw new GenericRuntimeException("Error in realtime reporter event pipeline.", failure);
+        }
+    }
+
+    private void join(final Future<?> task) {
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(e);
+        } catch (ExecutionException e) {
+            // the stages report their failures via fail
+            fail(e.getCause());
+        }
+    }
+
+    private void fail(final Throwable t) {
+        if (failure == null) {
+            failure = t;
+        }
+    }
+
+    private <T> void offer(final BlockingQueue<T> queue, final T element) {
+        try {
+            while (!queue.offer(element, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (failure != null) {
+                    throw new GenericRuntimeException("Realtime reporter event pipeline failed.", failure);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(e);
+            throw new GenericRuntimeException("Interrupted while queuing realtime reporter event.", e);
+        }
+    }
+
+    /**
+     * Waits for the next element. Returns null if another stage failed.
+     */
+    private <T> T take(final BlockingQueue<T> queue) throws InterruptedException {
+        T element = null;
+        while (element == null && failure == null) {
+            element = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return element;
+    }
+
+    private void parse() {
+        try {
+            Row row = take(rowQueue);
+            while (row != null && row != END_OF_ROWS) {
+                final RealtimeReporterEvent event;
+                if (row.event != null) {
+                    event = row.event;
+                } else {
+                    final long start = System.nanoTime();
+                    event = decoder.apply(row.itemType, row.text);
+                    parseStage.record(System.nanoTime() - start);
+                }
+                if (event != null) {
+                    offer(eventQueue, event);
+                    maxEventQueueSize.accumulateAndGet(eventQueue.size(), Math::max);
+                }
+                row = take(rowQueue);
+            }
+            if (row == END_OF_ROWS) {
+                offer(eventQueue, END_OF_EVENTS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(e);
+        } catch (Throwable t) {
+            fail(t);
+        }
+    }
+
+    private void dispatch() {
+        try {
+            RealtimeReporterEvent event = take(eventQueue);
+            while (event != null && event != END_OF_EVENTS) {
+                final long start = System.nanoTime();
+                consumer.process(event);
+                dispatchStage.record(System.nanoTime() - start);
+                event = take(eventQueue);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(e);
+        } catch (Throwable t) {
+            fail(t);
+        }
+    }
+
+    public int getRowQueueSize() {
+        return rowQueue.size();
+    }
+
+    public int getEventQueueSize() {
+        return eventQueue.size();
+    }
+
+    public long getMaxRowQueueSize() {
+        return maxRowQueueSize.get();
+    }
+
+    public long getMaxEventQueueSize() {
+        return maxEventQueueSize.get();
+    }
+
+    public Stage getFetchStage() {
+        return fetchStage;
+    }
+
+    public Stage getParseStage() {
+        return parseStage;
+    }
+
+    public Stage getDispatchStage() {
+        return dispatchStage;
+    }
+}
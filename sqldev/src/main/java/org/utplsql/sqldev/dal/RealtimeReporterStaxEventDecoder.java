@@ -0,0 +1,389 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.dal;
+
+import java.io.Reader;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.utplsql.sqldev.exception.GenericRuntimeException;
+import org.utplsql.sqldev.model.runner.Counter;
+import org.utplsql.sqldev.model.runner.Expectation;
+import org.utplsql.sqldev.model.runner.Item;
+import org.utplsql.sqldev.model.runner.PostEvent;
+import org.utplsql.sqldev.model.runner.PostRunEvent;
+import org.utplsql.sqldev.model.runner.PostSuiteEvent;
+import org.utplsql.sqldev.model.runner.PostTestEvent;
+import org.utplsql.sqldev.model.runner.PreRunEvent;
+import org.utplsql.sqldev.model.runner.PreSuiteEvent;
+import org.utplsql.sqldev.model.runner.PreTestEvent;
+import org.utplsql.sqldev.model.runner.RealtimeReporterEvent;
+import org.utplsql.sqldev.model.runner.Suite;
+import org.utplsql.sqldev.model.runner.Test;
+
+/**
+ * Maps the XML payload of an event in a single pass to the model without building a DOM.
+ * The result is the same as produced by {@link RealtimeReporterDomEventDecoder}.
+ */
+public class RealtimeReporterStaxEventDecoder implements RealtimeReporterEventDecoder {
+    private final XMLInputFactory inputFactory;
+
+    public RealtimeReporterStaxEventDecoder() {
+        inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+    }
+
+    @Override
+    public RealtimeReporterEvent decode(final String itemType, final Reader reader) {
+        XMLStreamReader xsr = null;
+        try {
+            xsr = inputFactory.createXMLStreamReader(reader);
+            RealtimeReporterEvent event = null;
+            if (xsr.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if ("pre-run".equals(itemType)) {
+                    event = convertToPreRunEvent(xsr);
+                } else if ("post-run".equals(itemType)) {
+                    event = convertToPostRunEvent(xsr);
+                } else if ("pre-suite".equals(itemType)) {
+                    event = convertToPreSuiteEvent(xsr);
+                } else if ("post-suite".equals(itemType)) {
+                    event = convertToPostSuiteEvent(xsr);
+                } else if ("pre-test".equals(itemType)) {
+                    event = convertToPreTestEvent(xsr);
+                } else if ("post-test".equals(itemType)) {
+                    event = convertToPostTestEvent(xsr);
+                }
+            }
+            return event;
+        } catch (XMLStreamException e) {
+            throw new GenericRuntimeException("Parse error while processing " + itemType, e);
+        } finally {
+            close(xsr);
+        }
+    }
+
+    private void close(final XMLStreamReader xsr) {
+        if (xsr != null) {
+            try {
+                xsr.close();
+            } catch (XMLStreamException e) {
+                // ignore, the underlying reader is closed by the caller
+            }
+        }
+    }
+
+    /**
+     * Moves to the next child element of the current element.
+     * Returns false when the end tag of the current element is reached.
+     * Expects that previously visited children have been consumed completely.
+     */
+    private boolean nextChild(final XMLStreamReader xsr) throws XMLStreamException {
+        while (xsr.hasNext()) {
+            final int eventType = xsr.next();
+            if (eventType == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            } else if (eventType == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the text content of the current element including all descendants
+     * (same as {@link org.w3c.dom.Node#getTextContent()}) and moves to its end tag.
+     */
+    private String readText(final XMLStreamReader xsr) throws XMLStreamException {
+        StringBuilder sb = null;
+        String text = "";
+        int depth = 1;
+        while (depth > 0) {
+            final int eventType = xsr.next();
+            if (eventType == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (eventType == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (eventType == XMLStreamConstants.CHARACTERS || eventType == XMLStreamConstants.CDATA
+                    || eventType == XMLStreamConstants.SPACE) {
+                // avoid a StringBuilder for the common case of a single text node
+                if (sb == null && text.isEmpty()) {
+                    text = xsr.getText();
+                } else {
+                    if (sb == null) {
+                        sb = new StringBuilder(text);
+                    }
+                    sb.append(xsr.getText());
+                }
+            }
+        }
+        return sb == null ? text : sb.toString();
+    }
+
+    private void skip(final XMLStreamReader xsr) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            final int eventType = xsr.next();
+            if (eventType == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (eventType == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private RealtimeReporterEvent convertToPreRunEvent(final XMLStreamReader xsr) throws XMLStreamException {
+        final PreRunEvent event = new PreRunEvent();
+        String totalNumberOfTestsTextContent = null;
+        while (nextChild(xsr)) {
+            final String name = xsr.getLocalName();
+            if ("items".equals(name)) {
+                populateItems(event.getItems(), xsr);
+            } else if ("totalNumberOfTests".equals(name)) {
+                totalNumberOfTestsTextContent = readText(xsr);
+            } else {
+                skip(xsr);
+            }
+        }
+        event.setTotalNumberOfTests(Integer.valueOf(totalNumberOfTestsTextContent != null ? totalNumberOfTestsTextContent : "0"));
+        return event;
+    }
+
+    private RealtimeReporterEvent convertToPostRunEvent(final XMLStreamReader xsr) throws XMLStreamException {
+        final PostRunEvent event = new PostRunEvent();
+        while (nextChild(xsr)) {
+            if ("run".equals(xsr.getLocalName())) {
+                while (nextChild(xsr)) {
+                    if (!populate(event, xsr)) {
+                        skip(xsr);
+                    }
+                }
+            } else {
+                skip(xsr);
+            }
+        }
+        return event;
+    }
+
+    private RealtimeReporterEvent convertToPreSuiteEvent(final XMLStreamReader xsr) throws XMLStreamException {
+        final PreSuiteEvent event = new PreSuiteEvent();
+        while (nextChild(xsr)) {
+            if ("suite".equals(xsr.getLocalName())) {
+                event.setId(xsr.getAttributeValue(null, "id"));
+            }
+            skip(xsr);
+        }
+        return event;
+    }
+
+    private RealtimeReporterEvent convertToPostSuiteEvent(final XMLStreamReader xsr) throws XMLStreamException {
+        final PostSuiteEvent event = new PostSuiteEvent();
+        while (nextChild(xsr)) {
+            if ("suite".equals(xsr.getLocalName())) {
+                event.setId(xsr.getAttributeValue(null, "id"));
+                while (nextChild(xsr)) {
+                    if (!populate(event, xsr)) {
+                        skip(xsr);
+                    }
+                }
+            } else {
+                skip(xsr);
+            }
+        }
+        return event;
+    }
+
+    private RealtimeReporterEvent convertToPreTestEvent(final XMLStreamReader xsr) throws XMLStreamException {
+        final PreTestEvent event = new PreTestEvent();
+        while (nextChild(xsr)) {
+            if ("test".equals(xsr.getLocalName())) {
+                event.setId(xsr.getAttributeValue(null, "id"));
+                while (nextChild(xsr)) {
+                    final String name = xsr.getLocalName();
+                    if ("testNumber".equals(name)) {
+                        event.setTestNumber(Integer.valueOf(readText(xsr)));
+                    } else if ("totalNumberOfTests".equals(name)) {
+                        event.setTotalNumberOfTests(Integer.valueOf(readText(xsr)));
+                    } else {
+                        skip(xsr);
+                    }
+                }
+            } else {
+                skip(xsr);
+            }
+        }
+        return event;
+    }
+
+    private RealtimeReporterEvent convertToPostTestEvent(final XMLStreamReader xsr) throws XMLStreamException {
+        final PostTestEvent event = new PostTestEvent();
+        while (nextChild(xsr)) {
+            if ("test".equals(xsr.getLocalName())) {
+                event.setId(xsr.getAttributeValue(null, "id"));
+                while (nextChild(xsr)) {
+                    final String name = xsr.getLocalName();
+                    if ("testNumber".equals(name)) {
+                        event.setTestNumber(Integer.valueOf(readText(xsr)));
+                    } else if ("totalNumberOfTests".equals(name)) {
+                        event.setTotalNumberOfTests(Integer.valueOf(readText(xsr)));
+                    } else if ("failedExpectations".equals(name)) {
+                        populateExpectations(event.getFailedExpectations(), xsr);
+                    } else if (!populate(event, xsr)) {
+                        skip(xsr);
+                    }
+                }
+            } else {
+                skip(xsr);
+            }
+        }
+        return event;
+    }
+
+    private void populateItems(final List<Item> items, final XMLStreamReader xsr) throws XMLStreamException {
+        while (nextChild(xsr)) {
+            final String name = xsr.getLocalName();
+            if ("suite".equals(name)) {
+                final Suite suite = new Suite();
+                items.add(suite);
+                populate(suite, xsr);
+            } else if ("test".equals(name)) {
+                final Test test = new Test();
+                items.add(test);
+                populate(test, xsr);
+            } else {
+                skip(xsr);
+            }
+        }
+    }
+
+    private void populate(final Suite suite, final XMLStreamReader xsr) throws XMLStreamException {
+        suite.setId(xsr.getAttributeValue(null, "id"));
+        while (nextChild(xsr)) {
+            final String name = xsr.getLocalName();
+            if ("name".equals(name)) {
+                suite.setName(readText(xsr));
+            } else if ("description".equals(name)) {
+                suite.setDescription(readText(xsr));
+            } else if ("items".equals(name)) {
+                populateItems(suite.getItems(), xsr);
+            } else {
+                skip(xsr);
+            }
+        }
+    }
+
+    private void populate(final Test test, final XMLStreamReader xsr) throws XMLStreamException {
+        test.setId(xsr.getAttributeValue(null, "id"));
+        test.setDisabled(false);
+        while (nextChild(xsr)) {
+            final String name = xsr.getLocalName();
+            if ("executableType".equals(name)) {
+                test.setExecutableType(readText(xsr));
+            } else if ("ownerName".equals(name)) {
+                test.setOwnerName(readText(xsr));
+            } else if ("objectName".equals(name)) {
+                test.setObjectName(readText(xsr));
+            } else if ("procedureName".equals(name)) {
+                test.setProcedureName(readText(xsr));
+            } else if ("disabled".equals(name)) {
+                test.setDisabled("true".equals(readText(xsr)));
+            } else if ("disabledReason".equals(name)) {
+                test.setDisabledReason(readText(xsr));
+            } else if ("name".equals(name)) {
+                test.setName(readText(xsr));
+            } else if ("description".equals(name)) {
+                test.setDescription(readText(xsr));
+            } else if ("testNumber".equals(name)) {
+                test.setTestNumber(Integer.valueOf(readText(xsr)));
+            } else {
+                skip(xsr);
+            }
+        }
+    }
+
+    /**
+     * Populates the event with the current element, if it's a known PostEvent element.
+     * Returns false for unknown elements, they have to be consumed by the caller.
+     */
+    private boolean populate(final PostEvent event, final XMLStreamReader xsr) throws XMLStreamException {
+        final String name = xsr.getLocalName();
+        if ("startTime".equals(name)) {
+            event.setStartTime(readText(xsr));
+        } else if ("endTime".equals(name)) {
+            event.setEndTime(readText(xsr));
+        } else if ("executionTime".equals(name)) {
+            event.setExecutionTime(Double.valueOf(readText(xsr)));
+        } else if ("counter".equals(name)) {
+            populate(event.getCounter(), xsr);
+        } else if ("errorStack".equals(name)) {
+            event.setErrorStack(readText(xsr));
+        } else if ("serverOutput".equals(name)) {
+            event.setServerOutput(readText(xsr));
+        } else if ("warnings".equals(name)) {
+            event.setWarnings(readText(xsr));
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private void populate(final Counter counter, final XMLStreamReader xsr) throws XMLStreamException {
+        while (nextChild(xsr)) {
+            final String name = xsr.getLocalName();
+            if ("disabled".equals(name)) {
+                counter.setDisabled(Integer.valueOf(readText(xsr)));
+            } else if ("success".equals(name)) {
+                counter.setSuccess(Integer.valueOf(readText(xsr)));
+            } else if ("failure".equals(name)) {
+                counter.setFailure(Integer.valueOf(readText(xsr)));
+            } else if ("error".equals(name)) {
+                counter.setError(Integer.valueOf(readText(xsr)));
+            } else if ("warning".equals(name)) {
+                counter.setWarning(Integer.valueOf(readText(xsr)));
+            } else {
+                skip(xsr);
+            }
+        }
+    }
+
+    private void populateExpectations(final List<Expectation> expectations, final XMLStreamReader xsr) throws XMLStreamException {
+        while (nextChild(xsr)) {
+            if ("expectation".equals(xsr.getLocalName())) {
+                final Expectation expectation = new Expectation();
+                expectations.add(expectation);
+                while (nextChild(xsr)) {
+                    final String name = xsr.getLocalName();
+                    if ("description".equals(name)) {
+                        expectation.setDescription(readText(xsr));
+                    } else if ("message".equals(name)) {
+                        expectation.setMessage(readText(xsr));
+                    } else if ("caller".equals(name)) {
+                        expectation.setCaller(readText(xsr));
+                    } else {
+                        skip(xsr);
+                    }
+                }
+            } else {
+                skip(xsr);
+            }
+        }
+    }
+}
@@ -16,10 +16,19 @@
 package org.utplsql.sqldev.dal;
 
 import java.net.URL;
+import java.sql.Array;
 import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -30,10 +39,13 @@ import org.springframework.jdbc.core.BeanPropertyRowMapper;
 import org.springframework.jdbc.core.CallableStatementCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.utplsql.sqldev.exception.GenericDatabaseAccessException;
 import org.utplsql.sqldev.model.StringTools;
 import org.utplsql.sqldev.model.ut.Annotation;
 import org.utplsql.sqldev.model.ut.OutputLines;
 
+import oracle.jdbc.OracleConnection;
+
 public class UtplsqlDao {
     public static final String UTPLSQL_PACKAGE_NAME = "UT";
     public static final int FIRST_VERSION_WITH_INTERNAL_ANNOTATION_API = 3000004;
@@ -41,13 +53,18 @@ public class UtplsqlDao {
     public static final int FIRST_VERSION_WITHOUT_INTERNAL_API = 3001008;
     public static final int FIRST_VERSION_WITH_HAS_SUITES_API = 3001008;
     public static final int FETCH_ROWS = 100;
+    private static final String CACHE_KEY_UTPLSQL_VERSION = "utPlsqlVersion";
+    private static final String CACHE_KEY_DBA_VIEW_ACCESSIBLE = "dbaViewAccessible";
+    private static final String CACHE_KEY_UTPLSQL_SCHEMA = "utplsqlSchema";
+    private final Connection conn;
     private final JdbcTemplate jdbcTemplate;
-    // cache fields
+    // cache fields, backed by the process-wide UtplsqlMetadataCache
     private Boolean cachedDbaViewAccessible;
     private String cachedUtplsqlSchema;
     private String cachedUtPlsqlVersion;
 
     public UtplsqlDao(final Connection conn) {
+        this.conn = conn;
         jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(conn, true));
         jdbcTemplate.setFetchSize(FETCH_ROWS);
     }
@@ -95,48 +112,59 @@ public class UtplsqlDao {
      */
     public String getUtPlsqlVersion() {
         if (cachedUtPlsqlVersion == null) {
-            final StringBuilder sb = new StringBuilder();
-            sb.append("BEGIN\n");
-            sb.append("   ? := ut.version;\n");
-            sb.append("END;");
-            final String sql = sb.toString();
-            try {
-                cachedUtPlsqlVersion = jdbcTemplate.execute(sql, (CallableStatementCallback<String>) cs -> {
-                    cs.registerOutParameter(1, Types.VARCHAR);
-                    cs.execute();
-                    return cs.getString(1);
-                });
-            } catch (DataAccessException e) {
-                // ignore error
-            }
+            cachedUtPlsqlVersion = UtplsqlMetadataCache.getInstance().get(conn, CACHE_KEY_UTPLSQL_VERSION,
+                    this::queryUtPlsqlVersion);
         }
         return cachedUtPlsqlVersion;
     }
 
+    private String queryUtPlsqlVersion() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("BEGIN\n");
+        sb.append("   ? := ut.version;\n");
+        sb.append("END;");
+        final String sql = sb.toString();
+        try {
+            return jdbcTemplate.execute(sql, (CallableStatementCallback<String>) cs -> {
+                cs.registerOutParameter(1, Types.VARCHAR);
+                cs.execute();
+                return cs.getString(1);
+            });
+        } catch (DataAccessException e) {
+            // ignore error
+            return null;
+        }
+    }
+
     public boolean isDbaViewAccessible() {
         if (cachedDbaViewAccessible == null) {
-            try {
-                final StringBuilder sb = new StringBuilder();
-                sb.append("SELECT 1 AS dummy\n");
-                sb.append("  FROM dba_objects\n");
-                sb.append(" WHERE 1=2\n");
-                sb.append("UNION ALL\n");
-                sb.append("SELECT 1\n");
-                sb.append("  FROM dba_synonyms\n");
-                sb.append(" WHERE 1=2\n");
-                sb.append("UNION ALL\n");
-                sb.append("SELECT 1\n");
-                sb.append("  FROM dba_dependencies\n");
-                sb.append(" WHERE 1=2\n");
-                final String sql = sb.toString();
-                jdbcTemplate.execute(sql);
-                cachedDbaViewAccessible = true;
-            } catch (DataAccessException e) {
-                cachedDbaViewAccessible = false;
-            }
+            cachedDbaViewAccessible = UtplsqlMetadataCache.getInstance().get(conn, CACHE_KEY_DBA_VIEW_ACCESSIBLE,
+                    this::queryDbaViewAccessible);
         }
         return cachedDbaViewAccessible;
     }
+
+    private boolean queryDbaViewAccessible() {
+        try {
+            final StringBuilder sb = new StringBuilder();
+            sb.append("SELECT 1 AS dummy\n");
+            sb.append("  FROM dba_objects\n");
+            sb.append(" WHERE 1=2\n");
+            sb.append("UNION ALL\n");
+            sb.append("SELECT 1\n");
+            sb.append("  FROM dba_synonyms\n");
+            sb.append(" WHERE 1=2\n");
+            sb.append("UNION ALL\n");
+            sb.append("SELECT 1\n");
+            sb.append("  FROM dba_dependencies\n");
+            sb.append(" WHERE 1=2\n");
+            final String sql = sb.toString();
+            jdbcTemplate.execute(sql);
+            return true;
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
     
     public String getDbaView(String viewName) {
         StringBuilder sb = new StringBuilder();
@@ -159,27 +187,77 @@ public class UtplsqlDao {
      */
     public String getUtplsqlSchema() {
         if (cachedUtplsqlSchema == null) {
-            final StringBuilder sb = new StringBuilder();
-            sb.append("SELECT table_owner\n");
-            sb.append("  FROM ");
-            sb.append(getDbaView("synonyms\n"));
-            sb.append(" WHERE owner = 'PUBLIC'\n");
-            sb.append("   AND synonym_name = '");
-            sb.append(UtplsqlDao.UTPLSQL_PACKAGE_NAME);
-            sb.append("'\n");
-            sb.append("   AND table_name = '");
-            sb.append(UtplsqlDao.UTPLSQL_PACKAGE_NAME);
-            sb.append("'");
-            final String sql = sb.toString();
-            try {
-                cachedUtplsqlSchema = jdbcTemplate.queryForObject(sql, String.class);
-            } catch (EmptyResultDataAccessException e) {
-                cachedUtplsqlSchema = null;
-            }
+            cachedUtplsqlSchema = UtplsqlMetadataCache.getInstance().get(conn, CACHE_KEY_UTPLSQL_SCHEMA,
+                    this::queryUtplsqlSchema);
         }
         return cachedUtplsqlSchema;
     }
 
+    private String queryUtplsqlSchema() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("SELECT table_owner\n");
+        sb.append("  FROM ");
+        sb.append(getDbaView("synonyms\n"));
+        sb.append(" WHERE owner = 'PUBLIC'\n");
+        sb.append("   AND synonym_name = '");
+        sb.append(UtplsqlDao.UTPLSQL_PACKAGE_NAME);
+        sb.append("'\n");
+        sb.append("   AND table_name = '");
+        sb.append(UtplsqlDao.UTPLSQL_PACKAGE_NAME);
+        sb.append("'");
+        final String sql = sb.toString();
+        try {
+            return jdbcTemplate.queryForObject(sql, String.class);
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        }
+    }
+
+    private String getUserName() {
+        try {
+            return conn.getMetaData().getUserName();
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the up-to-date suite catalog of a schema. The catalog is shared by all
+     * connections of the same user and URL.
+     * 
+     * @param owner
+     *            schema name, case-insensitive
+     * @return suite catalog or null if the installed utPLSQL version does not
+     *         provide ut_runner.get_suites_info
+     */
+    public UtplsqlSuiteCatalog getSuiteCatalog(final String owner) {
+        if (owner == null || normalizedUtPlsqlVersionNumber() < FIRST_VERSION_WITH_ANNOTATION_API) {
+            return null;
+        }
+        final String catalogOwner = owner.toUpperCase();
+        final UtplsqlSuiteCatalog catalog = UtplsqlSuiteCatalog.getCatalog(UtplsqlMetadataCache.getKey(conn),
+                catalogOwner, catalogOwner.equalsIgnoreCase(getUserName()));
+        catalog.refresh(jdbcTemplate);
+        return catalog;
+    }
+
+    /**
+     * Gets the suite catalog of a schema if it has been loaded already.
+     * 
+     * @param owner
+     *            schema name, case-insensitive
+     * @return up-to-date suite catalog or null if it has not been loaded yet
+     */
+    private UtplsqlSuiteCatalog getLoadedSuiteCatalog(final String owner) {
+        final UtplsqlSuiteCatalog catalog = UtplsqlSuiteCatalog.findCatalog(UtplsqlMetadataCache.getKey(conn),
+                owner.toUpperCase());
+        if (catalog == null || !catalog.isLoaded()) {
+            return null;
+        }
+        catalog.refresh(jdbcTemplate);
+        return catalog;
+    }
+
     /**
      * Checks if the package ut_annotation_manager is installed. This package has
      * been introduced with utPLSQL 3.0.4. This version is a prerequisite to
@@ -208,6 +286,10 @@ public class UtplsqlDao {
      *             other problems
      */
     public boolean containsUtplsqlTest(final String owner, final String objectName, final String subobjectName) {
+        final UtplsqlSuiteCatalog catalog = getSuiteCatalog(owner);
+        if (catalog != null) {
+            return catalog.containsUtplsqlTest(objectName, subobjectName);
+        }
         try {
             if (normalizedUtPlsqlVersionNumber() >= UtplsqlDao.FIRST_VERSION_WITH_HAS_SUITES_API && objectName != null
                     && subobjectName != null) {
@@ -282,6 +364,10 @@ public class UtplsqlDao {
     }
 
     public boolean containsUtplsqlTest(final String owner) {
+        final UtplsqlSuiteCatalog catalog = getSuiteCatalog(owner);
+        if (catalog != null) {
+            return catalog.containsUtplsqlTest(null, null);
+        }
         if (normalizedUtPlsqlVersionNumber() >= org.utplsql.sqldev.dal.UtplsqlDao.FIRST_VERSION_WITH_HAS_SUITES_API) {
             // use faster check function available since v3.1.3 (reliable in v3.1.8)
             StringBuilder sb = new StringBuilder();
@@ -308,6 +394,10 @@ public class UtplsqlDao {
     }
 
     public boolean containsUtplsqlTest(final String owner, final String objectName) {
+        final UtplsqlSuiteCatalog catalog = getSuiteCatalog(owner);
+        if (catalog != null) {
+            return catalog.containsUtplsqlTest(objectName, null);
+        }
         if (normalizedUtPlsqlVersionNumber() >= org.utplsql.sqldev.dal.UtplsqlDao.FIRST_VERSION_WITH_HAS_SUITES_API) {
             StringBuilder sb = new StringBuilder();
             sb.append("DECLARE\n");
@@ -333,6 +423,117 @@ public class UtplsqlDao {
         }
     }
 
+    /**
+     * Checks if utPLSQL tests exist for a list of paths with a single query.
+     * Paths of owners with a loaded suite catalog are checked in the catalog. A
+     * single path is checked like a single node.
+     * 
+     * @param paths
+     *            list of paths in the format owner[.object_name[.subobject_name]],
+     *            case-insensitive
+     * @return true if at least one test has been found for every path
+     * @throws DataAccessException
+     *             if a utPLSQL version less than 3.0.4 is installed or if there are
+     *             other problems
+     */
+    public boolean containsUtplsqlTests(final List<String> paths) {
+        if (paths.isEmpty()) {
+            return true;
+        }
+        if (paths.size() > 1 && normalizedUtPlsqlVersionNumber() >= FIRST_VERSION_WITH_ANNOTATION_API) {
+            final List<String> uncheckedPaths = new ArrayList<>();
+            for (final String path : paths) {
+                final String[] parts = path.split("\\.");
+                final UtplsqlSuiteCatalog catalog = getLoadedSuiteCatalog(parts[0]);
+                if (catalog == null) {
+                    uncheckedPaths.add(path);
+                } else if (!catalog.containsUtplsqlTest(parts.length > 1 ? parts[1] : null,
+                        parts.length > 2 ? parts[2] : null)) {
+                    return false;
+                }
+            }
+            if (uncheckedPaths.isEmpty()) {
+                return true;
+            }
+            // using API available since 3.1.3, one call of get_suites_info per owner or per
+            // package when no path of the owner addresses the whole schema
+            final StringBuilder sb = new StringBuilder();
+            sb.append("WITH\n");
+            sb.append("   paths AS (\n");
+            sb.append("      SELECT upper(regexp_substr(column_value, '[^.]+', 1, 1)) AS owner,\n");
+            sb.append("             upper(regexp_substr(column_value, '[^.]+', 1, 2)) AS object_name,\n");
+            sb.append("             upper(regexp_substr(column_value, '[^.]+', 1, 3)) AS item_name\n");
+            sb.append("        FROM TABLE(?)\n");
+            sb.append("   ),\n");
+            sb.append("   objects AS (\n");
+            sb.append("      SELECT owner, NULL AS object_name\n");
+            sb.append("        FROM paths\n");
+            sb.append("       WHERE object_name IS NULL\n");
+            sb.append("      UNION\n");
+            sb.append("      SELECT owner, object_name\n");
+            sb.append("        FROM paths p\n");
+            sb.append("       WHERE object_name IS NOT NULL\n");
+            sb.append("         AND NOT EXISTS (\n");
+            sb.append("                SELECT 1\n");
+            sb.append("                  FROM paths p2\n");
+            sb.append("                 WHERE p2.owner = p.owner\n");
+            sb.append("                   AND p2.object_name IS NULL\n");
+            sb.append("             )\n");
+            sb.append("   ),\n");
+            sb.append("   items AS (\n");
+            sb.append("      SELECT s.object_owner,\n");
+            sb.append("             s.object_name,\n");
+            sb.append("             s.item_name\n");
+            sb.append("        FROM objects o\n");
+            sb.append("       CROSS JOIN TABLE(ut_runner.get_suites_info(o.owner, o.object_name)) s\n");
+            sb.append("       WHERE s.item_type IN ('UT_TEST', 'UT_SUITE')\n");
+            sb.append("   )\n");
+            sb.append("SELECT count(*)\n");
+            sb.append("  FROM paths p\n");
+            sb.append(" WHERE NOT EXISTS (\n");
+            sb.append("          SELECT 1\n");
+            sb.append("            FROM items i\n");
+            sb.append("           WHERE i.object_owner = p.owner\n");
+            sb.append("             AND (i.object_name = p.object_name OR p.object_name IS NULL)\n");
+            sb.append("             AND (i.item_name = p.item_name OR p.item_name IS NULL)\n");
+            sb.append("       )");
+            final String sql = sb.toString();
+            final Array pathArray = createVarchar2List(uncheckedPaths);
+            try {
+                final Integer notFound = jdbcTemplate.queryForObject(sql, Integer.class, pathArray);
+                return notFound != null && notFound == 0;
+            } finally {
+                freeArray(pathArray);
+            }
+        } else {
+            for (final String path : paths) {
+                final String[] parts = path.split("\\.");
+                if (!containsUtplsqlTest(parts[0], parts.length > 1 ? parts[1] : null,
+                        parts.length > 2 ? parts[2] : null)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private Array createVarchar2List(final List<String> values) {
+        try {
+            return conn.unwrap(OracleConnection.class).createOracleArray("SYS.ODCIVARCHAR2LIST",
+                    values.toArray(new String[0]));
+        } catch (SQLException e) {
+            throw new GenericDatabaseAccessException("Error creating collection.", e);
+        }
+    }
+
+    private void freeArray(final Array array) {
+        try {
+            array.free();
+        } catch (SQLException e) {
+            // ignore
+        }
+    }
+
     /**
      * Gets a list of utPLSQL annotations for a given PL/SQL package specification
      * 
@@ -346,6 +547,10 @@ public class UtplsqlDao {
      *             other problems
      */
     public List<Annotation> annotations(final String owner, final String objectName) {
+        final UtplsqlSuiteCatalog catalog = getSuiteCatalog(owner);
+        if (catalog != null) {
+            return catalog.getAnnotations(objectName);
+        }
         StringBuilder sb = new StringBuilder();
         if (normalizedUtPlsqlVersionNumber() >= FIRST_VERSION_WITH_ANNOTATION_API) {
             sb.append("SELECT object_owner,\n");
@@ -371,6 +576,140 @@ public class UtplsqlDao {
         return jdbcTemplate.query(sql, rowMapper, binds);
     }
 
+    /**
+     * Gets the utPLSQL annotations of several PL/SQL package specifications
+     * with a single query.
+     * 
+     * @param owner
+     *            schema name, mandatory, case-insensitive
+     * @param objectNames
+     *            names of the packages, case-insensitive
+     * @return annotations by upper case object name, packages without
+     *         annotations are not part of the result
+     * @throws DataAccessException
+     *             if there is a problem
+     */
+    public Map<String, List<Annotation>> annotations(final String owner, final Collection<String> objectNames) {
+        final Map<String, List<Annotation>> result = new HashMap<>();
+        if (objectNames.isEmpty()) {
+            return result;
+        }
+        final UtplsqlSuiteCatalog catalog = getSuiteCatalog(owner);
+        if (catalog != null) {
+            // one round trip to refresh the catalog, changed packages are reloaded by last_ddl_time
+            for (final String objectName : objectNames) {
+                final List<Annotation> objectAnnotations = catalog.getAnnotations(objectName);
+                if (!objectAnnotations.isEmpty()) {
+                    result.put(objectName.toUpperCase(), objectAnnotations);
+                }
+            }
+            return result;
+        }
+        final StringBuilder sb = new StringBuilder();
+        sb.append("SELECT o.object_owner,\n");
+        sb.append("       o.object_name,\n");
+        sb.append("       a.name,\n");
+        sb.append("       a.text,\n");
+        sb.append("       coalesce(upper(a.subobject_name), o.object_name) AS subobject_name\n");
+        sb.append("  FROM TABLE(");
+        sb.append(getUtplsqlSchema());
+        sb.append(".ut_annotation_manager.get_annotated_objects(upper(?), 'PACKAGE')) o\n");
+        sb.append(" CROSS JOIN TABLE(o.annotations) a\n");
+        sb.append(" WHERE o.object_name IN (SELECT upper(column_value) FROM TABLE(?))");
+        final String sql = sb.toString();
+        final BeanPropertyRowMapper<Annotation> rowMapper = new BeanPropertyRowMapper<>(Annotation.class);
+        final Array nameArray = createVarchar2List(new ArrayList<>(objectNames));
+        try {
+            for (final Annotation annotation : jdbcTemplate.query(sql, rowMapper, owner, nameArray)) {
+                result.computeIfAbsent(annotation.getObjectName(), k -> new ArrayList<>()).add(annotation);
+            }
+        } finally {
+            freeArray(nameArray);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the suite paths of all test packages of several schemas with a single
+     * query. Requires utPLSQL 3.1.3 or newer.
+     * 
+     * @param owners
+     *            schema names, case-insensitive
+     * @return suite path by OWNER.OBJECT_NAME ordered by owner and suite path,
+     *         empty for older utPLSQL versions
+     * @throws DataAccessException
+     *             if there is a problem
+     */
+    public Map<String, String> getSuitePaths(final Collection<String> owners) {
+        final Map<String, String> result = new LinkedHashMap<>();
+        if (owners.isEmpty() || normalizedUtPlsqlVersionNumber() < FIRST_VERSION_WITH_ANNOTATION_API) {
+            return result;
+        }
+        final StringBuilder sb = new StringBuilder();
+        sb.append("WITH\n");
+        sb.append("   owners AS (\n");
+        sb.append("      SELECT DISTINCT upper(column_value) AS owner\n");
+        sb.append("        FROM TABLE(?)\n");
+        sb.append("   )\n");
+        sb.append("SELECT s.object_owner, s.object_name, s.path\n");
+        sb.append("  FROM owners o\n");
+        sb.append(" CROSS JOIN TABLE(ut_runner.get_suites_info(o.owner)) s\n");
+        sb.append(" WHERE s.item_type = 'UT_SUITE'\n");
+        sb.append(" ORDER BY s.object_owner, s.path");
+        final String sql = sb.toString();
+        final Array ownerArray = createVarchar2List(new ArrayList<>(owners));
+        try {
+            jdbcTemplate.query(sql, (rs, rowNum) -> {
+                result.put(rs.getString(1) + "." + rs.getString(2), rs.getString(3));
+                return null;
+            }, ownerArray);
+        } finally {
+            freeArray(ownerArray);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of tests of all test packages of several schemas with a
+     * single query. Requires utPLSQL 3.1.3 or newer.
+     * 
+     * @param owners
+     *            schema names, case-insensitive
+     * @return number of tests by OWNER.OBJECT_NAME, empty for older utPLSQL
+     *         versions
+     * @throws DataAccessException
+     *             if there is a problem
+     */
+    public Map<String, Integer> getNumberOfTests(final Collection<String> owners) {
+        final Map<String, Integer> result = new LinkedHashMap<>();
+        if (owners.isEmpty() || normalizedUtPlsqlVersionNumber() < FIRST_VERSION_WITH_ANNOTATION_API) {
+            return result;
+        }
+        final StringBuilder sb = new StringBuilder();
+        sb.append("WITH\n");
+        sb.append("   owners AS (\n");
+        sb.append("      SELECT DISTINCT upper(column_value) AS owner\n");
+        sb.append("        FROM TABLE(?)\n");
+        sb.append("   )\n");
+        sb.append("SELECT s.object_owner, s.object_name, count(*) AS number_of_tests\n");
+        sb.append("  FROM owners o\n");
+        sb.append(" CROSS JOIN TABLE(ut_runner.get_suites_info(o.owner)) s\n");
+        sb.append(" WHERE s.item_type = 'UT_TEST'\n");
+        sb.append(" GROUP BY s.object_owner, s.object_name\n");
+        sb.append(" ORDER BY s.object_owner, s.object_name");
+        final String sql = sb.toString();
+        final Array ownerArray = createVarchar2List(new ArrayList<>(owners));
+        try {
+            jdbcTemplate.query(sql, (rs, rowNum) -> {
+                result.put(rs.getString(1) + "." + rs.getString(2), rs.getInt(3));
+                return null;
+            }, ownerArray);
+        } finally {
+            freeArray(ownerArray);
+        }
+        return result;
+    }
+
     /**
      * Gets a list of public units in the object type
      * 
@@ -415,8 +754,21 @@ public class UtplsqlDao {
      */
     public List<Node> testables(final String objectType) {
         StringBuilder sb = new StringBuilder();
+        UtplsqlSuiteCatalog catalog = null;
         if ("PACKAGE".equals(objectType)) {
-            if (normalizedUtPlsqlVersionNumber() >= FIRST_VERSION_WITH_ANNOTATION_API) {
+            catalog = getSuiteCatalog(getUserName());
+            if (catalog != null) {
+                // suites are removed from the result via suite catalog
+                sb.append("SELECT DISTINCT\n");
+                sb.append("       object_type || '.' || object_name AS id,\n");
+                sb.append("       object_type AS parent_id,\n");
+                sb.append("       1 AS leaf,\n");
+                sb.append("       1 AS generatable,\n");
+                sb.append("       1 AS multiselectable\n");
+                sb.append("  FROM user_procedures\n");
+                sb.append(" WHERE object_type = ?\n");
+                sb.append("   AND procedure_name IS NOT NULL");
+            } else if (normalizedUtPlsqlVersionNumber() >= FIRST_VERSION_WITH_ANNOTATION_API) {
                 // using API available since 3.1.3
                 sb.append("SELECT DISTINCT\n");
                 sb.append("       object_type || '.' || object_name AS id,\n");
@@ -473,7 +825,12 @@ public class UtplsqlDao {
         final String sql = sb.toString();
         final Object[] binds = new Object[] {objectType};
         BeanPropertyRowMapper<Node> rowMapper = new BeanPropertyRowMapper<>(Node.class);
-        return jdbcTemplate.query(sql, rowMapper, binds);
+        final List<Node> nodes = jdbcTemplate.query(sql, rowMapper, binds);
+        if (catalog != null) {
+            final Set<String> suiteNames = catalog.getSuiteNames();
+            nodes.removeIf(node -> suiteNames.contains(node.getId().substring(objectType.length() + 1)));
+        }
+        return nodes;
     }
 
     /**
@@ -1060,4 +1417,45 @@ public class UtplsqlDao {
         final Object[] binds = new Object[] {owner, objectName};
         return jdbcTemplate.queryForObject(sql, String.class, binds);
     }
+
+    /**
+     * Gets the object types and last DDL times of several objects with a single
+     * query.
+     * 
+     * @param owner
+     *            owner of the objects (schema)
+     * @param objectNames
+     *            names of the objects
+     * @return last DDL time by object type per object name. The object types are
+     *         ordered by the priority used in getObjectType. Objects not found
+     *         are not part of the result.
+     * @throws DataAccessException
+     *             if there is a problem
+     */
+    public Map<String, Map<String, Timestamp>> getLastDdlTimes(final String owner,
+            final Collection<String> objectNames) {
+        final Map<String, Map<String, Timestamp>> result = new HashMap<>();
+        if (objectNames.isEmpty()) {
+            return result;
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("SELECT object_name, object_type, last_ddl_time\n");
+        sb.append("  FROM ");
+        sb.append(getDbaView("objects\n"));
+        sb.append(" WHERE owner = ?\n");
+        sb.append("   AND object_name IN (SELECT column_value FROM TABLE(?))\n");
+        sb.append(" ORDER BY object_name, decode(object_type, 'PACKAGE', 10, 'TYPE', 10, 'SYNONYM', 20, 1)");
+        final String sql = sb.toString();
+        final Array nameArray = createVarchar2List(new ArrayList<>(objectNames));
+        try {
+            jdbcTemplate.query(sql, (rs, rowNum) -> {
+                result.computeIfAbsent(rs.getString(1), k -> new LinkedHashMap<>()).put(rs.getString(2),
+                        rs.getTimestamp(3));
+                return null;
+            }, owner, nameArray);
+        } finally {
+            freeArray(nameArray);
+        }
+        return result;
+    }
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.dal;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import org.springframework.core.style.ToStringCreator;
+import org.utplsql.sqldev.model.DatabaseTools;
+import org.utplsql.sqldev.model.JsonToStringStyler;
+
+/**
+ * Process-wide cache for metadata of a database connection such as the installed
+ * utPLSQL version. Shared by all {@link UtplsqlDao} instances.
+ * 
+ * Entries are identified by the URL and the user of a connection. Hence, cloned
+ * connections share the entry of their origin. Entries expire after the time to
+ * live or when they are invalidated explicitly, e.g. after a reconnect. Null
+ * values are not cached. They are returned when a query failed or utPLSQL is
+ * not installed, hence they are loaded again on the next call.
+ */
+public class UtplsqlMetadataCache {
+    private static final Logger logger = Logger.getLogger(UtplsqlMetadataCache.class.getName());
+    public static final long DEFAULT_TIME_TO_LIVE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final UtplsqlMetadataCache INSTANCE = new UtplsqlMetadataCache();
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private volatile long timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_TIME_TO_LIVE_MILLIS);
+
+    private static class Entry {
+        private final long created = System.nanoTime();
+        private final Map<String, Object> values = new HashMap<>();
+    }
+
+    private UtplsqlMetadataCache() {
+        super();
+        DatabaseTools.addReconnectListener((connectionName, conn) -> invalidate(conn));
+    }
+
+    public static UtplsqlMetadataCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Identifies the database session owner of a connection. The JDBC driver
+     * answers these calls without a server round trip.
+     * 
+     * @return user@url or null if the connection is not usable
+     */
+    public static String getKey(final Connection conn) {
+        try {
+            final DatabaseMetaData metaData = conn.getMetaData();
+            return metaData.getUserName() + "@" + metaData.getURL();
+        } catch (SQLException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private synchronized Entry getEntry(final String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && System.nanoTime() - entry.created > timeToLiveNanos) {
+            entries.remove(key);
+            invalidations.incrementAndGet();
+            entry = null;
+        }
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Gets a cached value or loads it. The loader is called without holding a
+     * lock, concurrent misses for the same key may load the value more than once.
+     * 
+     * @param conn connection the value belongs to
+     * @param key name of the value
+     * @param loader called to get the value in case of a cache miss
+     * @return the cached or loaded value, may be null (not cached)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(final Connection conn, final String key, final Supplier<T> loader) {
+        final String entryKey = conn == null ? null : getKey(conn);
+        if (entryKey == null) {
+            misses.incrementAndGet();
+            return loader.get();
+        }
+        final Entry entry = getEntry(entryKey);
+        synchronized (entry) {
+            if (entry.values.containsKey(key)) {
+                hits.incrementAndGet();
+                return (T) entry.values.get(key);
+            }
+        }
+        misses.incrementAndGet();
+        final T value = loader.get();
+        if (value == null) {
+            return null;
+        }
+        synchronized (entry) {
+            entry.values.put(key, value);
+        }
+        logger.fine(() -> "loaded " + key + " = " + value + " for " + entryKey + " into metadata cache.");
+        return value;
+    }
+
+    /**
+     * Removes all cached values of a connection, e.g. after a reconnect.
+     */
+    public void invalidate(final Connection conn) {
+        final String key = getKey(conn);
+        if (key != null) {
+            synchronized (this) {
+                if (entries.remove(key) != null) {
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        invalidations.addAndGet(entries.size());
+        entries.clear();
+    }
+
+    public void setTimeToLive(final long millis) {
+        timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    public long getTimeToLive() {
+        return TimeUnit.NANOSECONDS.toMillis(timeToLiveNanos);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringCreator(this, JsonToStringStyler.getInstance())
+                .append("size", size())
+                .append("hits", getHits())
+                .append("misses", getMisses())
+                .append("invalidations", getInvalidations())
+                .append("timeToLive", getTimeToLive())
+                .toString();
+    }
+}
@@ -0,0 +1,394 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.dal;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import org.springframework.core.style.ToStringCreator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.utplsql.sqldev.model.DatabaseTools;
+import org.utplsql.sqldev.model.JsonToStringStyler;
+
+/**
+ * Process-wide pool of database sessions cloned from SQL Developer connections.
+ * Saves the logons of the producer and consumer sessions when tests are run
+ * repeatedly.
+ * 
+ * Sessions are pooled per connection name. Idle sessions are closed when the
+ * connection is reconnected. An idle session is also not reused when the user
+ * or URL of the connection differs from the one it was created for. A borrowed
+ * session is checked with a ping and replaced when it is not usable anymore. The package states of a
+ * returned session are reset and open transactions are rolled back. Sessions
+ * that are idle longer than the idle timeout are closed.
+ */
+public class UtplsqlSessionPool {
+    private static final Logger logger = Logger.getLogger(UtplsqlSessionPool.class.getName());
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    // a producer and a consumer session for two runs
+    public static final int DEFAULT_MAX_IDLE_SESSIONS = 4;
+    private static final int HEALTH_CHECK_TIMEOUT_SECONDS = 5;
+    private static final UtplsqlSessionPool INSTANCE = new UtplsqlSessionPool();
+    private final Map<String, Deque<IdleSession>> idleSessions = new HashMap<>();
+    private final Map<Connection, String> borrowedKeys = new IdentityHashMap<>();
+    private Function<String, Connection> sessionFactory = DatabaseTools::cloneConnection;
+    private Function<String, String> originKeyProvider = UtplsqlSessionPool::getOriginKey;
+    private long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_IDLE_TIMEOUT_MILLIS);
+    private int maxIdleSessions = DEFAULT_MAX_IDLE_SESSIONS;
+    private ScheduledExecutorService evictor;
+    private int borrowedSessions;
+    private long created;
+    private long reused;
+    private long discarded;
+    private long borrows;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+
+    private static class IdleSession {
+        private final Connection conn;
+        private final String originKey;
+        private final long since = System.nanoTime();
+
+        IdleSession(final Connection conn, final String originKey) {
+            this.conn = conn;
+            this.originKey = originKey;
+        }
+    }
+
+    private UtplsqlSessionPool() {
+        super();
+        DatabaseTools.addReconnectListener((connectionName, conn) -> evict(connectionName));
+    }
+
+    public static UtplsqlSessionPool getInstance() {
+        return INSTANCE;
+    }
+
+    private static boolean isUsable(final Connection conn) {
+        try {
+            return conn.isValid(HEALTH_CHECK_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void close(final Connection conn) {
+        try {
+            DatabaseTools.closeConnection(conn);
+        } catch (RuntimeException e) {
+            // ignore, session is not usable anymore
+        }
+    }
+
+    /**
+     * Identifies the user and URL of a SQL Developer connection.
+     * 
+     * @param connectionName name of the connection in SQL Developer
+     * @return user@url or null if the connection is not usable
+     */
+    public static String getOriginKey(final String connectionName) {
+        try {
+            return UtplsqlMetadataCache.getKey(DatabaseTools.getConnection(connectionName));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private synchronized IdleSession pollIdleSession(final String connectionName) {
+        final Deque<IdleSession> sessions = idleSessions.get(connectionName);
+        return sessions == null ? null : sessions.pollFirst();
+    }
+
+    /**
+     * Gets a session of a connection. An idle session is reused if it passes
+     * the health check, otherwise a new session is created.
+     * 
+     * @param connectionName name of the connection in SQL Developer
+     * @return session to be returned via {@link #release(String, Connection)}
+     */
+    public Connection borrow(final String connectionName) {
+        final long start = System.nanoTime();
+        evictIdleSessions();
+        final Function<String, String> keyProvider;
+        synchronized (this) {
+            keyProvider = originKeyProvider;
+        }
+        final String originKey = keyProvider.apply(connectionName);
+        Connection conn = null;
+        IdleSession idleSession;
+        while (conn == null && (idleSession = pollIdleSession(connectionName)) != null) {
+            if (originKey != null && originKey.equals(idleSession.originKey) && isUsable(idleSession.conn)) {
+                conn = idleSession.conn;
+                synchronized (this) {
+                    reused++;
+                }
+            } else {
+                close(idleSession.conn);
+                synchronized (this) {
+                    discarded++;
+                }
+            }
+        }
+        if (conn == null) {
+            conn = sessionFactory.apply(connectionName);
+            synchronized (this) {
+                created++;
+            }
+        }
+        final long wait = System.nanoTime() - start;
+        synchronized (this) {
+            borrowedKeys.put(conn, originKey);
+            borrowedSessions++;
+            borrows++;
+            totalWaitNanos += wait;
+            maxWaitNanos = Math.max(maxWaitNanos, wait);
+        }
+        logger.fine(() -> "borrowed session of " + connectionName + " in "
+                + TimeUnit.NANOSECONDS.toMillis(wait) + " ms, " + this + ".");
+        return conn;
+    }
+
+    /**
+     * Returns a session to the pool. The package states are reset, open
+     * transactions are rolled back. The session is closed if this fails, if
+     * the pool is full or if the user and URL of the connection are unknown.
+     * 
+     * @param connectionName name of the connection the session was borrowed for
+     * @param conn session returned by {@link #borrow(String)}
+     */
+    public void release(final String connectionName, final Connection conn) {
+        final String originKey;
+        synchronized (this) {
+            originKey = borrowedKeys.remove(conn);
+        }
+        boolean pooled = false;
+        try {
+            if (!conn.isClosed()) {
+                if (!conn.getAutoCommit()) {
+                    conn.rollback();
+                }
+                new JdbcTemplate(new SingleConnectionDataSource(conn, true))
+                        .execute("BEGIN dbms_session.reset_package; END;");
+                pooled = originKey != null && addIdleSession(connectionName, conn, originKey);
+            }
+        } catch (SQLException | RuntimeException e) {
+            logger.fine(() -> "cannot reuse session of " + connectionName + ": " + e.getMessage() + ".");
+        }
+        if (!pooled) {
+            close(conn);
+        }
+        synchronized (this) {
+            borrowedSessions--;
+            if (!pooled) {
+                discarded++;
+            }
+        }
+    }
+
+    /**
+     * Closes a borrowed session without returning it to the pool, e.g. when a
+     * statement might still be running.
+     */
+    public void discard(final Connection conn) {
+        close(conn);
+        synchronized (this) {
+            borrowedKeys.remove(conn);
+            borrowedSessions--;
+            discarded++;
+        }
+    }
+
+    private synchronized boolean addIdleSession(final String connectionName, final Connection conn,
+            final String originKey) {
+        if (getIdleCount() >= maxIdleSessions) {
+            return false;
+        }
+        idleSessions.computeIfAbsent(connectionName, k -> new ArrayDeque<>())
+                .addFirst(new IdleSession(conn, originKey));
+        if (evictor == null) {
+            evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "utPLSQL session pool evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            evictor.scheduleWithFixedDelay(this::evictIdleSessions, 1, 1, TimeUnit.MINUTES);
+        }
+        return true;
+    }
+
+    /**
+     * Closes the sessions that are idle longer than the idle timeout.
+     * 
+     * @return number of closed sessions
+     */
+    public int evictIdleSessions() {
+        final Deque<Connection> expired = new ArrayDeque<>();
+        synchronized (this) {
+            final long now = System.nanoTime();
+            for (final Deque<IdleSession> sessions : idleSessions.values()) {
+                final Iterator<IdleSession> iterator = sessions.iterator();
+                while (iterator.hasNext()) {
+                    final IdleSession session = iterator.next();
+                    if (now - session.since > idleTimeoutNanos) {
+                        iterator.remove();
+                        expired.add(session.conn);
+                    }
+                }
+            }
+            discarded += expired.size();
+        }
+        // closing may take a while, do it without holding the lock
+        for (final Connection conn : expired) {
+            close(conn);
+        }
+        return expired.size();
+    }
+
+    /**
+     * Closes the idle sessions of a connection, e.g. after a reconnect.
+     * 
+     * @param connectionName name of the connection in SQL Developer
+     * @return number of closed sessions
+     */
+    public int evict(final String connectionName) {
+        final Deque<IdleSession> sessions;
+        synchronized (this) {
+            sessions = idleSessions.remove(connectionName);
+            if (sessions == null) {
+                return 0;
+            }
+            discarded += sessions.size();
+        }
+        for (final IdleSession session : sessions) {
+            close(session.conn);
+        }
+        logger.fine(() -> "closed " + sessions.size() + " idle sessions of " + connectionName + ".");
+        return sessions.size();
+    }
+
+    /**
+     * Closes all idle sessions.
+     */
+    public void clear() {
+        final Deque<Connection> closing = new ArrayDeque<>();
+        synchronized (this) {
+            for (final Deque<IdleSession> sessions : idleSessions.values()) {
+                for (final IdleSession session : sessions) {
+                    closing.add(session.conn);
+                }
+            }
+            idleSessions.clear();
+            discarded += closing.size();
+        }
+        for (final Connection conn : closing) {
+            close(conn);
+        }
+    }
+
+    /**
+     * used for testing purposes only
+     */
+    public synchronized void setSessionFactory(final Function<String, Connection> sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    /**
+     * used for testing purposes only
+     */
+    public synchronized void setOriginKeyProvider(final Function<String, String> originKeyProvider) {
+        this.originKeyProvider = originKeyProvider;
+    }
+
+    public synchronized void setIdleTimeout(final long millis) {
+        idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    public synchronized long getIdleTimeout() {
+        return TimeUnit.NANOSECONDS.toMillis(idleTimeoutNanos);
+    }
+
+    public synchronized void setMaxIdleSessions(final int maxIdleSessions) {
+        this.maxIdleSessions = maxIdleSessions;
+    }
+
+    public synchronized int getMaxIdleSessions() {
+        return maxIdleSessions;
+    }
+
+    public synchronized int getIdleCount() {
+        int count = 0;
+        for (final Deque<IdleSession> sessions : idleSessions.values()) {
+            count += sessions.size();
+        }
+        return count;
+    }
+
+    public synchronized int getBorrowedCount() {
+        return borrowedSessions;
+    }
+
+    public synchronized long getCreated() {
+        return created;
+    }
+
+    public synchronized long getReused() {
+        return reused;
+    }
+
+    public synchronized long getDiscarded() {
+        return discarded;
+    }
+
+    /**
+     * @return average time to borrow a session in milliseconds, including logons
+     */
+    public synchronized double getAverageWait() {
+        return borrows == 0 ? 0.0 : totalWaitNanos / 1000000.0 / borrows;
+    }
+
+    /**
+     * @return maximum time to borrow a session in milliseconds, including logons
+     */
+    public synchronized double getMaxWait() {
+        return maxWaitNanos / 1000000.0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return new ToStringCreator(this, JsonToStringStyler.getInstance())
+                .append("idle", getIdleCount())
+                .append("borrowed", getBorrowedCount())
+                .append("created", getCreated())
+                .append("reused", getReused())
+                .append("discarded", getDiscarded())
+                .append("averageWait", getAverageWait())
+                .append("maxWait", getMaxWait())
+                .append("idleTimeout", getIdleTimeout())
+                .toString();
+    }
+}
@@ -0,0 +1,394 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.dal;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.springframework.core.style.ToStringCreator;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.utplsql.sqldev.model.JsonToStringStyler;
+import org.utplsql.sqldev.model.LimitedLinkedHashMap;
+import org.utplsql.sqldev.model.ut.Annotation;
+
+/**
+ * In-memory catalog of the utPLSQL suites and tests of a schema as provided by
+ * ut_runner.get_suites_info (utPLSQL 3.1.3 and newer).
+ * 
+ * A refresh compares the number of packages and their last DDL time with the
+ * state of the previous refresh. Only changed packages are read again. A full
+ * reload is done on the first refresh, when packages have been dropped or when
+ * too many packages have changed. The state is checked at most once within the
+ * check interval.
+ * 
+ * Catalogs are kept in a process-wide registry, independent of the time to live
+ * of the {@link UtplsqlMetadataCache}, since they keep themselves up to date.
+ */
+public class UtplsqlSuiteCatalog {
+    private static final Logger logger = Logger.getLogger(UtplsqlSuiteCatalog.class.getName());
+    public static final int MAX_INCREMENTAL_OBJECTS = 20;
+    public static final long DEFAULT_CHECK_INTERVAL_MILLIS = 2000;
+    private static final int MAX_CATALOGS = 50;
+    private static final Map<String, UtplsqlSuiteCatalog> catalogs = new LimitedLinkedHashMap<>(MAX_CATALOGS);
+    private static volatile long checkIntervalNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_CHECK_INTERVAL_MILLIS);
+    private final String owner;
+    private final boolean ownedByCurrentUser;
+    private final Map<String, List<Annotation>> annotations = new HashMap<>();
+    private boolean loaded = false;
+    private int packageCount;
+    private Timestamp maxLastDdlTime;
+    private Timestamp checkTime;
+    private long lastCheckNanos;
+    private long checks;
+    private long fullLoads;
+    private long incrementalLoads;
+
+    private static class PackageState {
+        private final int packageCount;
+        private final Timestamp maxLastDdlTime;
+        private final Timestamp checkTime;
+
+        PackageState(final int packageCount, final Timestamp maxLastDdlTime, final Timestamp checkTime) {
+            this.packageCount = packageCount;
+            this.maxLastDdlTime = maxLastDdlTime;
+            this.checkTime = checkTime;
+        }
+    }
+
+    private static class ChangedPackage {
+        private final String objectName;
+        private final Timestamp created;
+
+        ChangedPackage(final String objectName, final Timestamp created) {
+            this.objectName = objectName;
+            this.created = created;
+        }
+    }
+
+    /**
+     * @param owner schema name in upper case
+     */
+    public UtplsqlSuiteCatalog(final String owner) {
+        this(owner, false);
+    }
+
+    /**
+     * @param owner schema name in upper case
+     * @param ownedByCurrentUser true if owner is the user of the connection, uses user_objects instead of all_objects
+     */
+    public UtplsqlSuiteCatalog(final String owner, final boolean ownedByCurrentUser) {
+        this.owner = owner;
+        this.ownedByCurrentUser = ownedByCurrentUser;
+    }
+
+    /**
+     * Gets the catalog of a schema from the process-wide registry or creates it.
+     * 
+     * @param connectionKey user@url of the connection, see {@link UtplsqlMetadataCache#getKey(java.sql.Connection)}
+     * @param owner schema name in upper case
+     * @param ownedByCurrentUser true if owner is the user of the connection
+     * @return registered catalog, a new unregistered catalog if connectionKey is null
+     */
+    public static UtplsqlSuiteCatalog getCatalog(final String connectionKey, final String owner,
+            final boolean ownedByCurrentUser) {
+        if (connectionKey == null) {
+            return new UtplsqlSuiteCatalog(owner, ownedByCurrentUser);
+        }
+        synchronized (catalogs) {
+            return catalogs.computeIfAbsent(connectionKey + "/" + owner,
+                    k -> new UtplsqlSuiteCatalog(owner, ownedByCurrentUser));
+        }
+    }
+
+    /**
+     * Gets the catalog of a schema from the process-wide registry.
+     * 
+     * @param connectionKey user@url of the connection
+     * @param owner schema name in upper case
+     * @return registered catalog or null
+     */
+    public static UtplsqlSuiteCatalog findCatalog(final String connectionKey, final String owner) {
+        if (connectionKey == null) {
+            return null;
+        }
+        synchronized (catalogs) {
+            return catalogs.get(connectionKey + "/" + owner);
+        }
+    }
+
+    /**
+     * Removes all catalogs from the registry.
+     */
+    public static void clearCatalogs() {
+        synchronized (catalogs) {
+            catalogs.clear();
+        }
+    }
+
+    /**
+     * Sets the minimal time between two checks of the package state. Zero checks
+     * on every refresh.
+     */
+    public static void setCheckInterval(final long millis) {
+        checkIntervalNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    public static long getCheckInterval() {
+        return TimeUnit.NANOSECONDS.toMillis(checkIntervalNanos);
+    }
+
+    private String getObjectsView() {
+        return ownedByCurrentUser ? "user_objects" : "all_objects";
+    }
+
+    private Object[] getBinds(final Object... values) {
+        if (ownedByCurrentUser) {
+            return values;
+        }
+        final Object[] binds = new Object[values.length + 1];
+        binds[0] = owner;
+        System.arraycopy(values, 0, binds, 1, values.length);
+        return binds;
+    }
+
+    /**
+     * Brings the catalog up to date. Executes a single query when no package
+     * has changed since the last refresh and no query at all when the last
+     * check happened within the check interval.
+     */
+    public synchronized void refresh(final JdbcTemplate jdbcTemplate) {
+        final long now = System.nanoTime();
+        if (loaded && checkTime != null && now - lastCheckNanos < checkIntervalNanos) {
+            return;
+        }
+        checks++;
+        StringBuilder sb = new StringBuilder();
+        sb.append("SELECT count(*) AS package_count,\n");
+        sb.append("       max(last_ddl_time) AS max_last_ddl_time,\n");
+        sb.append("       sysdate AS check_time\n");
+        sb.append("  FROM ");
+        sb.append(getObjectsView());
+        sb.append("\n");
+        sb.append(" WHERE ");
+        if (!ownedByCurrentUser) {
+            sb.append("owner = ?\n");
+            sb.append("   AND ");
+        }
+        sb.append("object_type = 'PACKAGE'");
+        final PackageState state = jdbcTemplate.queryForObject(sb.toString(),
+                (rs, rowNum) -> new PackageState(rs.getInt(1), rs.getTimestamp(2), rs.getTimestamp(3)),
+                getBinds());
+        if (state == null) {
+            return;
+        }
+        if (!loaded) {
+            load(queryAnnotations(jdbcTemplate, null));
+        } else if (state.packageCount != packageCount || isChanged(state.maxLastDdlTime, maxLastDdlTime)
+                || !isSettled()) {
+            // DDL times have a precision of one second, changes within the second of the
+            // last check are only visible when comparing inclusively
+            sb = new StringBuilder();
+            sb.append("SELECT object_name, created\n");
+            sb.append("  FROM ");
+            sb.append(getObjectsView());
+            sb.append("\n");
+            sb.append(" WHERE ");
+            if (!ownedByCurrentUser) {
+                sb.append("owner = ?\n");
+                sb.append("   AND ");
+            }
+            sb.append("object_type = 'PACKAGE'\n");
+            sb.append("   AND last_ddl_time ");
+            sb.append(isSettled() ? ">" : ">=");
+            sb.append(" ?");
+            final List<ChangedPackage> changedPackages = maxLastDdlTime == null ? Collections.emptyList()
+                    : jdbcTemplate.query(sb.toString(),
+                            (rs, rowNum) -> new ChangedPackage(rs.getString(1), rs.getTimestamp(2)),
+                            getBinds(maxLastDdlTime));
+            int newPackages = 0;
+            final List<String> objectNames = new ArrayList<>();
+            for (final ChangedPackage changedPackage : changedPackages) {
+                objectNames.add(changedPackage.objectName);
+                if (!changedPackage.created.before(checkTime)) {
+                    newPackages++;
+                }
+            }
+            if (maxLastDdlTime == null || changedPackages.size() > MAX_INCREMENTAL_OBJECTS
+                    || state.packageCount != packageCount + newPackages) {
+                // dropped packages are not visible in user_objects/all_objects anymore
+                load(queryAnnotations(jdbcTemplate, null));
+            } else {
+                final List<Annotation> changedAnnotations = new ArrayList<>();
+                for (final String objectName : objectNames) {
+                    changedAnnotations.addAll(queryAnnotations(jdbcTemplate, objectName));
+                }
+                replace(objectNames, changedAnnotations);
+            }
+        }
+        packageCount = state.packageCount;
+        maxLastDdlTime = state.maxLastDdlTime;
+        checkTime = state.checkTime;
+        lastCheckNanos = now;
+    }
+
+    private boolean isChanged(final Timestamp t1, final Timestamp t2) {
+        return t1 == null ? t2 != null : !t1.equals(t2);
+    }
+
+    /**
+     * @return true if the last check happened after the last DDL time (in another second)
+     */
+    private boolean isSettled() {
+        return maxLastDdlTime == null || checkTime != null && checkTime.after(maxLastDdlTime);
+    }
+
+    private List<Annotation> queryAnnotations(final JdbcTemplate jdbcTemplate, final String objectName) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("SELECT object_owner,\n");
+        sb.append("       object_name,\n");
+        sb.append("       lower(substr(item_type, 4)) AS name,\n");
+        sb.append("       item_name as subobject_name\n");
+        if (objectName == null) {
+            sb.append("  FROM TABLE(ut_runner.get_suites_info(?))\n");
+        } else {
+            sb.append("  FROM TABLE(ut_runner.get_suites_info(?, ?))\n");
+        }
+        sb.append(" WHERE object_name IS NOT NULL");
+        final BeanPropertyRowMapper<Annotation> rowMapper = new BeanPropertyRowMapper<>(Annotation.class);
+        final Object[] binds = objectName == null ? new Object[] {owner} : new Object[] {owner, objectName};
+        return jdbcTemplate.query(sb.toString(), rowMapper, binds);
+    }
+
+    /**
+     * Replaces the content of the catalog.
+     */
+    public synchronized void load(final List<Annotation> allAnnotations) {
+        annotations.clear();
+        add(allAnnotations);
+        loaded = true;
+        fullLoads++;
+        logger.fine(() -> "loaded " + annotations.size() + " suites of " + owner + " into suite catalog.");
+    }
+
+    /**
+     * Replaces the annotations of some objects.
+     * 
+     * @param objectNames objects to be replaced, objects without annotations are removed
+     * @param changedAnnotations new annotations of these objects
+     */
+    public synchronized void replace(final Collection<String> objectNames, final List<Annotation> changedAnnotations) {
+        for (final String objectName : objectNames) {
+            annotations.remove(objectName);
+        }
+        add(changedAnnotations);
+        incrementalLoads++;
+        logger.fine(() -> "reloaded " + objectNames + " of " + owner + " in suite catalog.");
+    }
+
+    private void add(final List<Annotation> newAnnotations) {
+        for (final Annotation annotation : newAnnotations) {
+            annotations.computeIfAbsent(annotation.getObjectName(), k -> new ArrayList<>()).add(annotation);
+        }
+    }
+
+    /**
+     * Same semantic as {@link UtplsqlDao#containsUtplsqlTest(String, String, String)}.
+     * 
+     * @param objectName name of the package, optional, case-insensitive
+     * @param subobjectName name of the procedure, optional, case-insensitive
+     * @return true if a matching suite or test exists
+     */
+    public synchronized boolean containsUtplsqlTest(final String objectName, final String subobjectName) {
+        final Collection<List<Annotation>> candidates = objectName == null ? annotations.values()
+                : Collections.singletonList(getAnnotations(objectName));
+        for (final List<Annotation> objectAnnotations : candidates) {
+            for (final Annotation annotation : objectAnnotations) {
+                if (("test".equals(annotation.getName()) || "suite".equals(annotation.getName()))
+                        && (subobjectName == null || subobjectName.equalsIgnoreCase(annotation.getSubobjectName()))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param objectName name of the package, optional, case-insensitive
+     * @return annotations of the package or of all packages, empty list if the package is not a suite
+     */
+    public synchronized List<Annotation> getAnnotations(final String objectName) {
+        if (objectName == null) {
+            final List<Annotation> allAnnotations = new ArrayList<>();
+            for (final List<Annotation> objectAnnotations : annotations.values()) {
+                allAnnotations.addAll(objectAnnotations);
+            }
+            return allAnnotations;
+        }
+        final List<Annotation> objectAnnotations = annotations.get(objectName.toUpperCase());
+        return objectAnnotations == null ? Collections.emptyList() : new ArrayList<>(objectAnnotations);
+    }
+
+    /**
+     * @return names of all packages containing a suite
+     */
+    public synchronized Set<String> getSuiteNames() {
+        return new TreeSet<>(annotations.keySet());
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    public synchronized long getChecks() {
+        return checks;
+    }
+
+    public synchronized long getFullLoads() {
+        return fullLoads;
+    }
+
+    public synchronized long getIncrementalLoads() {
+        return incrementalLoads;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return new ToStringCreator(this, JsonToStringStyler.getInstance())
+                .append("owner", owner)
+                .append("ownedByCurrentUser", ownedByCurrentUser)
+                .append("suites", annotations.size())
+                .append("packageCount", packageCount)
+                .append("maxLastDdlTime", maxLastDdlTime)
+                .append("checks", checks)
+                .append("fullLoads", fullLoads)
+                .append("incrementalLoads", incrementalLoads)
+                .toString();
+    }
+}
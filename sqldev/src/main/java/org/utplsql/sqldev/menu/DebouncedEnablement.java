@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.menu;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Evaluates the enablement of actions in the background.
+ * 
+ * The caller gets the known state immediately, a state not evaluated yet is
+ * disabled until the result of its evaluation is known. The evaluation starts after
+ * a debounce window and is superseded when the state of the caller (e.g. caret
+ * position or selection) changes in the meantime. Results of superseded
+ * evaluations are discarded.
+ */
+public class DebouncedEnablement {
+    private static final Logger logger = Logger.getLogger(DebouncedEnablement.class.getName());
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 250;
+    private final ScheduledExecutorService executor;
+    private final long debounceMillis;
+    private Object resultKey;
+    private boolean result = false;
+    private Object pendingKey;
+    private ScheduledFuture<?> pendingFuture;
+
+    public DebouncedEnablement(final String threadName, final long debounceMillis) {
+        this.debounceMillis = debounceMillis;
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable);
+            thread.setName(threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the enablement for a state.
+     * 
+     * @param key identifies the state the enablement is evaluated for, must implement equals
+     * @param evaluation computes the enablement, called in a background thread
+     * @param onResult called on the event dispatch thread with the result of the evaluation
+     * @return the result for the key if known, otherwise false
+     */
+    public synchronized boolean get(final Object key, final BooleanSupplier evaluation,
+            final Consumer<Boolean> onResult) {
+        if (key.equals(resultKey)) {
+            return result;
+        }
+        if (key.equals(pendingKey)) {
+            return false;
+        }
+        if (pendingFuture != null) {
+            pendingFuture.cancel(false);
+        }
+        pendingKey = key;
+        pendingFuture = executor.schedule(() -> evaluate(key, evaluation, onResult), debounceMillis,
+                TimeUnit.MILLISECONDS);
+        return false;
+    }
+
+    private void evaluate(final Object key, final BooleanSupplier evaluation, final Consumer<Boolean> onResult) {
+        if (!isPending(key)) {
+            return;
+        }
+        boolean value;
+        try {
+            value = evaluation.getAsBoolean();
+        } catch (RuntimeException e) {
+            logger.warning(() -> "Evaluation of " + key + " failed with " + (e.getMessage() == null
+                    ? e.getClass().getSimpleName() : e.getMessage()) + ".");
+            value = false;
+        }
+        synchronized (this) {
+            if (!key.equals(pendingKey)) {
+                logger.finer(() -> "discarded stale result of " + key + ".");
+                return;
+            }
+            resultKey = key;
+            result = value;
+            pendingKey = null;
+            pendingFuture = null;
+        }
+        final boolean newResult = value;
+        SwingUtilities.invokeLater(() -> onResult.accept(newResult));
+    }
+
+    private synchronized boolean isPending(final Object key) {
+        return key.equals(pendingKey);
+    }
+}
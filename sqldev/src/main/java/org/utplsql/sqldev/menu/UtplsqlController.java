@@ -19,6 +19,7 @@ import java.awt.Component;
 import java.net.URL;
 import java.sql.Connection;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.logging.Logger;
@@ -27,6 +28,7 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import javax.swing.JEditorPane;
+import javax.swing.text.Document;
 
 import org.utplsql.sqldev.coverage.CodeCoverageReporter;
 import org.utplsql.sqldev.dal.RealtimeReporterDao;
@@ -40,6 +42,7 @@ import org.utplsql.sqldev.model.parser.PlsqlObject;
 import org.utplsql.sqldev.model.preference.PreferenceModel;
 import org.utplsql.sqldev.oddgen.TestTemplate;
 import org.utplsql.sqldev.parser.UtplsqlParser;
+import org.utplsql.sqldev.parser.UtplsqlParserCache;
 import org.utplsql.sqldev.runner.UtplsqlRunner;
 import org.utplsql.sqldev.runner.UtplsqlWorksheetRunner;
 
@@ -74,6 +77,9 @@ public class UtplsqlController implements Controller {
     public static final IdeAction UTPLSQL_COVERAGE_ACTION = IdeAction.get(UTPLSQL_COVERAGE_CMD_ID);
     public static final IdeAction UTPLSQL_DEBUG_ACTION = IdeAction.get(UTPLSQL_DEBUG_CMD_ID);
     public static final IdeAction UTPLSQL_GENERATE_ACTION = IdeAction.get(UTPLSQL_GENERATE_CMD_ID);
+    // enablement of test, coverage and debug actions, evaluated in the background
+    private final DebouncedEnablement runEnablement = new DebouncedEnablement("utPLSQL run enablement",
+            DebouncedEnablement.DEFAULT_DEBOUNCE_MILLIS);
 
     @Override
     public boolean handleEvent(final IdeAction action, final Context context) {
@@ -126,53 +132,32 @@ public class UtplsqlController implements Controller {
                             }
                         }
                         logger.fine("connectionName: " + connectionName);
-                        final String text = ((JEditorPane) component).getText();
-                        final Connection conn = DatabaseTools.getConnection(connectionName);
-                        final UtplsqlParser parser = new UtplsqlParser(text, conn, owner);
-                        if (!parser.getPathAt(((JEditorPane) component).getCaretPosition()).isEmpty()) {
-                            action.setEnabled(true);
-                        }
+                        final Document document = ((JEditorPane) component).getDocument();
+                        final long version = UtplsqlParserCache.getInstance().getVersion(document);
+                        final int caretPosition = ((JEditorPane) component).getCaretPosition();
+                        final String finalConnectionName = connectionName;
+                        final String finalOwner = owner;
+                        final List<Object> key = Arrays.asList(connectionName, owner, document, version,
+                                caretPosition);
+                        action.setEnabled(runEnablement.get(key,
+                                () -> isTestAt(document, caretPosition, finalConnectionName, finalOwner),
+                                this::setRunActionsEnabled));
                     } else {
                         action.setEnabled(true);
                     }
                 }
             } else if (view instanceof DBNavigatorWindow || view instanceof SBWindow) {
-                action.setEnabled(true);
-                // disable action if a node in the selection is not runnable
-                for (int i = 0; i < context.getSelection().length; i++) {
-                    logger.fine("section " + i + " is " + context.getSelection()[i].toString() + " of class "
-                            + context.getSelection()[i].getClass().getName());
-                    if (action.isEnabled()) {
-                        final Object element = context.getSelection()[i];
-                        final String connectionName = URLTools.getConnectionName(getURL(context));
-                        if (Connections.getInstance().isConnectionOpen(connectionName)) {
-                            Connection conn = DatabaseTools.getConnection(connectionName);
-                            final UtplsqlDao dao = new UtplsqlDao(conn);
-                            if (preferences.isCheckRunUtplsqlTest() && dao.isUtAnnotationManagerInstalled()) {
-                                if (element instanceof DatabaseConnection) {
-                                    final String schema = DatabaseTools.getSchema((DatabaseConnection) element);
-                                    action.setEnabled(dao.containsUtplsqlTest(schema));
-                                } else if (element instanceof SchemaFolder) {
-                                    final String schema = ((SchemaFolder) element).getSchemaName();
-                                    action.setEnabled(dao.containsUtplsqlTest(schema));
-                                } else if (element instanceof ObjectFolder) {
-                                    final String schema = URLTools.getSchema(((ObjectFolder) element).getURL());
-                                    action.setEnabled(dao.containsUtplsqlTest(schema));
-                                } else if (element instanceof PlSqlNode) {
-                                    final String schema = ((PlSqlNode) element).getOwner();
-                                    final String objectName = ((PlSqlNode) element).getObjectName();
-                                    action.setEnabled(dao.containsUtplsqlTest(schema, objectName));
-                                } else if (element instanceof ChildObjectElement) {
-                                    final String schema = URLTools.getSchema(((ChildObjectElement) element).getURL());
-                                    final String objectName = URLTools.getMemberObject(((ChildObjectElement) element).getURL());
-                                    final String subObjectName = ((ChildObjectElement) element).getShortLabel();
-                                    action.setEnabled(dao.containsUtplsqlTest(schema, objectName, subObjectName));
-                                }
-                            }
-                        } else {
-                            action.setEnabled(false);
-                        }
-                    }
+                final Object[] selection = context.getSelection();
+                if (selection.length == 0) {
+                    action.setEnabled(true);
+                } else {
+                    final String connectionName = URLTools.getConnectionName(getURL(context));
+                    final boolean checkRunUtplsqlTest = preferences.isCheckRunUtplsqlTest();
+                    final List<Object> key = Arrays.asList(connectionName, checkRunUtplsqlTest,
+                            Arrays.asList(selection));
+                    action.setEnabled(runEnablement.get(key,
+                            () -> isRunnable(selection, connectionName, checkRunUtplsqlTest),
+                            this::setRunActionsEnabled));
                 }
             }
             return true;
@@ -185,8 +170,8 @@ public class UtplsqlController implements Controller {
                 if (component instanceof JEditorPane) {
                     final PreferenceModel preferences = PreferenceModel.getInstance(Preferences.getPreferences());
                     if (preferences.isCheckGenerateUtplsqlTest()) {
-                        final String text = ((JEditorPane) component).getText();
-                        final UtplsqlParser parser = new UtplsqlParser(text);
+                        final UtplsqlParser parser = UtplsqlParserCache.getInstance()
+                                .getParser(((JEditorPane) component).getDocument(), null, null);
                         PlsqlObject plsqlObject = parser.getObjectAt(((JEditorPane) component).getCaretPosition());
                         action.setEnabled(plsqlObject != null);
                     } else {
@@ -209,6 +194,42 @@ public class UtplsqlController implements Controller {
         return false;
     }
 
+    private void setRunActionsEnabled(final boolean enabled) {
+        UTPLSQL_TEST_ACTION.setEnabled(enabled);
+        UTPLSQL_COVERAGE_ACTION.setEnabled(enabled);
+        UTPLSQL_DEBUG_ACTION.setEnabled(enabled);
+    }
+
+    private boolean isTestAt(final Document document, final int caretPosition, final String connectionName,
+            final String owner) {
+        final Connection conn = DatabaseTools.getConnection(connectionName);
+        final UtplsqlParser parser = UtplsqlParserCache.getInstance().getParser(document, conn, owner);
+        return !parser.getPathAt(caretPosition).isEmpty();
+    }
+
+    private boolean isRunnable(final Object[] selection, final String connectionName,
+            final boolean checkRunUtplsqlTest) {
+        if (!Connections.getInstance().isConnectionOpen(connectionName)) {
+            return false;
+        }
+        final Connection conn = DatabaseTools.getConnection(connectionName);
+        final UtplsqlDao dao = new UtplsqlDao(conn);
+        if (checkRunUtplsqlTest && dao.isUtAnnotationManagerInstalled()) {
+            // not runnable if a node in the selection is not runnable, checked with a single query
+            final List<String> paths = new ArrayList<>();
+            for (int i = 0; i < selection.length; i++) {
+                logger.fine("section " + i + " is " + selection[i].toString() + " of class "
+                        + selection[i].getClass().getName());
+                final String path = getPath(selection[i]);
+                if (!path.isEmpty()) {
+                    paths.add(path);
+                }
+            }
+            return dao.containsUtplsqlTests(paths);
+        }
+        return true;
+    }
+
     private String getPath(final Object element) {
         String path = null;
         if (element instanceof DatabaseConnection) {
@@ -349,8 +370,8 @@ public class UtplsqlController implements Controller {
                 }
                 logger.fine("connectionName: " + connectionName);
                 final Connection conn = DatabaseTools.getConnection(connectionName);
-                String text = ((JEditorPane) component).getText();
-                final UtplsqlParser parser = new UtplsqlParser(text, conn, owner);
+                final UtplsqlParser parser = UtplsqlParserCache.getInstance()
+                        .getParser(((JEditorPane) component).getDocument(), conn, owner);
                 final int position = ((JEditorPane) component).getCaretPosition();
                 final String path = parser.getPathAt(position);
                 final RealtimeReporterDao rrDao = new RealtimeReporterDao(conn);
@@ -455,14 +476,14 @@ public class UtplsqlController implements Controller {
                 }
                 logger.fine("connectionName: " + connectionName);
                 final PreferenceModel preferences = PreferenceModel.getInstance(Preferences.getPreferences());
-                String text = ((JEditorPane) component).getText();
                 Connection conn = null;
                 if (preferences.isCheckRunUtplsqlTest()) {
                     conn = DatabaseTools.getConnection(connectionName);
                 } else {
                     conn = null;
                 }
-                final UtplsqlParser parser = new UtplsqlParser(text, conn, owner);
+                final UtplsqlParser parser = UtplsqlParserCache.getInstance()
+                        .getParser(((JEditorPane) component).getDocument(), conn, owner);
                 final int position = ((JEditorPane) component).getCaretPosition();
                 final String path = parser.getPathAt(position);
                 final PlsqlObject object = parser.getObjectAt(position);
@@ -513,8 +534,8 @@ public class UtplsqlController implements Controller {
                     if (Connections.getInstance().isConnectionOpen(connectionName)) {
                         final GenContext genContext = new GenContext();
                         genContext.setConn(DatabaseTools.getConnection(connectionName));
-                        String text = ((JEditorPane) component).getText();
-                        final UtplsqlParser parser = new UtplsqlParser(text);
+                        final UtplsqlParser parser = UtplsqlParserCache.getInstance()
+                                .getParser(((JEditorPane) component).getDocument(), null, null);
                         final int position = ((JEditorPane) component).getCaretPosition();
                         final PlsqlObject obj = parser.getObjectAt(position);
                         if (obj != null) {
@@ -16,12 +16,17 @@
 package org.utplsql.sqldev.model;
 
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
 
 import javax.sql.DataSource;
 
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.utplsql.sqldev.exception.GenericDatabaseAccessException;
 import org.utplsql.sqldev.exception.GenericRuntimeException;
 
@@ -31,6 +36,10 @@ import oracle.javatools.db.DBException;
 import oracle.jdeveloper.db.ConnectionException;
 
 public class DatabaseTools {
+    // connections of SQL Developer connection names, another connection indicates a reconnect
+    private static final Map<String, WeakReference<Connection>> knownConnections = new HashMap<>();
+    private static final List<BiConsumer<String, Connection>> reconnectListeners = new CopyOnWriteArrayList<>();
+
     // do not instantiate this class
     private DatabaseTools() {
         super();
@@ -55,12 +64,41 @@ public class DatabaseTools {
 
     public static Connection getConnection(String connectionName) {
         try {
-            return Connections.getInstance().getConnection(connectionName);
+            final Connection conn = Connections.getInstance().getConnection(connectionName);
+            checkReconnect(connectionName, conn);
+            return conn;
         } catch (DBException e) {
             final String msg = "Error getting connection for " + connectionName + ".";
             throw new GenericDatabaseAccessException(msg, e);
         }
     }
+
+    /**
+     * Registers a listener to be notified when a SQL Developer connection is used
+     * with another connection than before. This happens after a disconnect and
+     * connect, e.g. after changing the user or URL of the connection.
+     * 
+     * @param listener called with the connection name and the new connection
+     */
+    public static void addReconnectListener(BiConsumer<String, Connection> listener) {
+        reconnectListeners.add(listener);
+    }
+
+    private static void checkReconnect(String connectionName, Connection conn) {
+        final WeakReference<Connection> previous;
+        synchronized (knownConnections) {
+            previous = knownConnections.get(connectionName);
+            if (previous != null && previous.get() == conn) {
+                return;
+            }
+            knownConnections.put(connectionName, new WeakReference<>(conn));
+        }
+        if (previous != null) {
+            for (final BiConsumer<String, Connection> listener : reconnectListeners) {
+                listener.accept(connectionName, conn);
+            }
+        }
+    }
     
     public static Connection cloneConnection(String connectionName) {
         final Connection conn = getConnection(connectionName);
@@ -109,9 +147,8 @@ public class DatabaseTools {
     }
     
     public static void abortConnection(Connection conn) {
-        final SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor();
         try {
-            conn.abort(taskExecutor);
+            conn.abort(UtplsqlExecutor.getInstance().getExecutor());
         } catch (SQLException e) {
             throw new GenericDatabaseAccessException("Could not abort connection.");
         }
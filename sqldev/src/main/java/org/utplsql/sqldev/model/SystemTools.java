@@ -15,7 +15,15 @@
  */
 package org.utplsql.sqldev.model;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+
 public class SystemTools {
+    private static final int POLL_INTERVAL_MILLIS = 10;
+
     // do not instantiate this class
     private SystemTools() {
         super();
@@ -36,4 +44,30 @@ public class SystemTools {
             Thread.currentThread().interrupt();
         }
     }
+
+    public static void waitForFuture(Future<?> future, int maxTimeInMillis) {
+        try {
+            future.get(maxTimeInMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // like waitForThread, the caller checks the outcome
+        }
+    }
+
+    /**
+     * Waits until a condition is met, polls every 10 ms.
+     * 
+     * @return true if the condition has been met, false after the maximum time
+     */
+    public static boolean waitFor(BooleanSupplier condition, int maxTimeInMillis) {
+        final long end = System.currentTimeMillis() + maxTimeInMillis;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() >= end || Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            sleep(POLL_INTERVAL_MILLIS);
+        }
+        return true;
+    }
 }
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.model;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import org.springframework.core.style.ToStringCreator;
+
+/**
+ * Process-wide executor for the background work of the extension. Used by the
+ * realtime runner, the worksheet runner, the code coverage reporter and to
+ * abort sessions.
+ * 
+ * A run is started via {@link #startRun(Runnable)}. At most the configured
+ * number of runs are active at the same time. Further starts are queued and
+ * started in order when an active run completes via {@link #runCompleted()}.
+ * 
+ * The threads are named and daemon threads. The number of platform threads is
+ * bounded by the number of concurrent runs, further tasks are queued. Idle
+ * threads terminate after a minute. On Java 21 or newer virtual threads are
+ * used on request, they are not bounded.
+ */
+public class UtplsqlExecutor {
+    private static final Logger logger = Logger.getLogger(UtplsqlExecutor.class.getName());
+    public static final int DEFAULT_MAX_CONCURRENT_RUNS = 4;
+    private static final String THREAD_NAME_PREFIX = "utPLSQL worker ";
+    // up to 32 shards with a producer, consumer, parser and dispatcher task each
+    private static final int MAX_THREADS_PER_RUN = 32 * 4;
+    // tasks outside of runs, e.g. to abort sessions or to report code coverage
+    private static final int ADDITIONAL_THREADS = 64;
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+    private static final UtplsqlExecutor INSTANCE = new UtplsqlExecutor();
+    private final AtomicInteger threadNumber = new AtomicInteger();
+    private final Deque<Runnable> queuedRuns = new ArrayDeque<>();
+    private ExecutorService executorService;
+    private int maxConcurrentRuns = DEFAULT_MAX_CONCURRENT_RUNS;
+    private boolean useVirtualThreads = false;
+    private boolean virtualThreads = false;
+    private int runningRuns;
+    private long startedRuns;
+    private long queuedStarts;
+
+    private UtplsqlExecutor() {
+        super();
+    }
+
+    public static UtplsqlExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    private ExecutorService newVirtualThreadExecutor() {
+        try {
+            final Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            logger.fine(() -> "Virtual threads are not supported by this JVM, using platform threads.");
+            return null;
+        }
+    }
+
+    private static int getMaxThreads(final int maxConcurrentRuns) {
+        return maxConcurrentRuns * MAX_THREADS_PER_RUN + ADDITIONAL_THREADS;
+    }
+
+    private ExecutorService newPlatformThreadExecutor() {
+        final int maxThreads = getMaxThreads(maxConcurrentRuns);
+        // core threads time out, threads are created up to the maximum before tasks are queued
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    final Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private void resizePlatformThreadExecutor() {
+        if (executorService instanceof ThreadPoolExecutor) {
+            final ThreadPoolExecutor executor = (ThreadPoolExecutor) executorService;
+            final int maxThreads = getMaxThreads(maxConcurrentRuns);
+            // the core pool size must not exceed the maximum pool size
+            if (maxThreads > executor.getMaximumPoolSize()) {
+                executor.setMaximumPoolSize(maxThreads);
+                executor.setCorePoolSize(maxThreads);
+            } else {
+                executor.setCorePoolSize(maxThreads);
+                executor.setMaximumPoolSize(maxThreads);
+            }
+        }
+    }
+
+    private synchronized ExecutorService getExecutorService() {
+        if (executorService == null) {
+            executorService = useVirtualThreads ? newVirtualThreadExecutor() : null;
+            virtualThreads = executorService != null;
+            if (executorService == null) {
+                executorService = newPlatformThreadExecutor();
+            }
+        }
+        return executorService;
+    }
+
+    /**
+     * Executes a task in the background. The thread is named for the duration
+     * of the task. Exceptions of the task are logged.
+     * 
+     * @param threadName name of the thread while the task is running
+     * @param task task to execute
+     * @return future to wait for the completion of the task
+     */
+    public Future<?> execute(final String threadName, final Runnable task) {
+        return getExecutorService().submit(() -> {
+            final Thread thread = Thread.currentThread();
+            final String originalName = thread.getName();
+            thread.setName(threadName);
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.severe(() -> "Error in " + threadName + ": " + e.getMessage() + ".");
+                throw e;
+            } finally {
+                thread.setName(originalName);
+            }
+        });
+    }
+
+    /**
+     * Gets the executor for tasks without a dedicated thread name, e.g. to
+     * abort connections.
+     * 
+     * @return executor using the threads of this instance
+     */
+    public Executor getExecutor() {
+        return task -> getExecutorService().execute(task);
+    }
+
+    /**
+     * Starts a run or queues it when the maximum number of concurrent runs is
+     * reached. Every started run must call {@link #runCompleted()} when it is
+     * done.
+     * 
+     * @param starter task starting the run, executed in the calling thread or
+     *            in the thread of a completing run
+     * @return position in the queue, 0 if the run was started immediately
+     */
+    public int startRun(final Runnable starter) {
+        synchronized (this) {
+            if (runningRuns >= maxConcurrentRuns) {
+                queuedRuns.addLast(starter);
+                queuedStarts++;
+                return queuedRuns.size();
+            }
+            runningRuns++;
+            startedRuns++;
+        }
+        start(starter);
+        return 0;
+    }
+
+    private void start(final Runnable starter) {
+        try {
+            starter.run();
+        } catch (RuntimeException e) {
+            runCompleted();
+            throw e;
+        }
+    }
+
+    /**
+     * Marks a run as completed and starts the next queued run, if any.
+     */
+    public void runCompleted() {
+        Runnable next;
+        synchronized (this) {
+            runningRuns = Math.max(0, runningRuns - 1);
+            next = runningRuns < maxConcurrentRuns ? queuedRuns.pollFirst() : null;
+            if (next != null) {
+                runningRuns++;
+                startedRuns++;
+            }
+        }
+        if (next != null) {
+            start(next);
+        }
+    }
+
+    /**
+     * Removes a queued run that was not started yet.
+     * 
+     * @param starter task passed to {@link #startRun(Runnable)}
+     * @return true if the run was removed from the queue
+     */
+    public synchronized boolean cancelQueuedRun(final Runnable starter) {
+        return queuedRuns.remove(starter);
+    }
+
+    public synchronized int getQueueDepth() {
+        return queuedRuns.size();
+    }
+
+    public synchronized int getRunningRuns() {
+        return runningRuns;
+    }
+
+    public synchronized long getStartedRuns() {
+        return startedRuns;
+    }
+
+    public synchronized long getQueuedStarts() {
+        return queuedStarts;
+    }
+
+    public synchronized int getMaxConcurrentRuns() {
+        return maxConcurrentRuns;
+    }
+
+    /**
+     * @return maximum number of platform threads
+     */
+    public synchronized int getMaxThreads() {
+        return getMaxThreads(maxConcurrentRuns);
+    }
+
+    /**
+     * Sets the maximum number of concurrent runs and the maximum number of
+     * platform threads. Queued runs are started when the maximum is increased.
+     * 
+     * @param maxConcurrentRuns maximum number of concurrent runs, at least 1
+     */
+    public void setMaxConcurrentRuns(final int maxConcurrentRuns) {
+        final List<Runnable> startable = new ArrayList<>();
+        synchronized (this) {
+            this.maxConcurrentRuns = Math.max(1, maxConcurrentRuns);
+            resizePlatformThreadExecutor();
+            while (runningRuns < this.maxConcurrentRuns && !queuedRuns.isEmpty()) {
+                startable.add(queuedRuns.pollFirst());
+                runningRuns++;
+                startedRuns++;
+            }
+        }
+        startable.forEach(this::start);
+    }
+
+    public synchronized boolean isUseVirtualThreads() {
+        return useVirtualThreads;
+    }
+
+    /**
+     * Requests virtual threads for new tasks. Running tasks complete in their
+     * current threads. The previous executor is not shut down, a task of a
+     * running run might still submit to it. Its idle threads terminate after
+     * the keep-alive time. Ignored on Java versions without virtual threads.
+     * 
+     * @param useVirtualThreads true to use virtual threads
+     */
+    public synchronized void setUseVirtualThreads(final boolean useVirtualThreads) {
+        if (this.useVirtualThreads != useVirtualThreads) {
+            this.useVirtualThreads = useVirtualThreads;
+            executorService = null;
+        }
+    }
+
+    public synchronized boolean isVirtualThreads() {
+        getExecutorService();
+        return virtualThreads;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return new ToStringCreator(this, JsonToStringStyler.getInstance())
+                .append("maxConcurrentRuns", maxConcurrentRuns)
+                .append("runningRuns", runningRuns)
+                .append("queueDepth", queuedRuns.size())
+                .append("startedRuns", startedRuns)
+                .append("queuedStarts", queuedStarts)
+                .append("useVirtualThreads", useVirtualThreads)
+                .append("virtualThreads", virtualThreads)
+                .toString();
+    }
+}
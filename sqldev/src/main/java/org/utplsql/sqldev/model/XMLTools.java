@@ -17,6 +17,8 @@ package org.utplsql.sqldev.model;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 import javax.xml.XMLConstants;
@@ -46,12 +48,39 @@ import org.xml.sax.SAXException;
 
 public class XMLTools {
     private static final Logger logger = Logger.getLogger(XMLTools.class.getName());
-    private final XPathFactory xpathFactory = XPathFactory.newInstance();
-    private final XPath xpath = xpathFactory.newXPath();
+    private static final int MAX_CACHED_EXPRESSIONS_PER_THREAD = 100;
+    // XPath and XPathExpression are not thread-safe, hence every thread gets its own instances
+    private static final ThreadLocal<XPath> xpath = ThreadLocal
+            .withInitial(() -> XPathFactory.newInstance().newXPath());
+    private static final ThreadLocal<Map<String, XPathExpression>> expressionCache = ThreadLocal
+            .withInitial(() -> new LimitedLinkedHashMap<>(MAX_CACHED_EXPRESSIONS_PER_THREAD));
+    private static final AtomicLong expressionCacheHits = new AtomicLong();
+    private static final AtomicLong expressionCacheMisses = new AtomicLong();
+
+    public static long getExpressionCacheHits() {
+        return expressionCacheHits.get();
+    }
+
+    public static long getExpressionCacheMisses() {
+        return expressionCacheMisses.get();
+    }
+
+    private XPathExpression compile(final String xpathString) throws XPathExpressionException {
+        final Map<String, XPathExpression> cache = expressionCache.get();
+        XPathExpression expr = cache.get(xpathString);
+        if (expr == null) {
+            expressionCacheMisses.incrementAndGet();
+            expr = xpath.get().compile(xpathString);
+            cache.put(xpathString, expr);
+        } else {
+            expressionCacheHits.incrementAndGet();
+        }
+        return expr;
+    }
 
     public NodeList getNodeList(final Node doc, final String xpathString) {
         try {
-            final XPathExpression expr = xpath.compile(xpathString);
+            final XPathExpression expr = compile(xpathString);
             return ((NodeList) expr.evaluate(doc, XPathConstants.NODESET));
         } catch (XPathExpressionException e) {
             final String msg = "XPathExpressionException for " + xpathString + ".";
@@ -62,7 +91,7 @@ public class XMLTools {
 
     public Node getNode(final Node doc, final String xpathString) {
         try {
-            final XPathExpression expr = xpath.compile(xpathString);
+            final XPathExpression expr = compile(xpathString);
             return ((Node) expr.evaluate(doc, XPathConstants.NODE));
         } catch (XPathExpressionException e) {
             final String msg = "XPathExpressionException for " + xpathString + ".";
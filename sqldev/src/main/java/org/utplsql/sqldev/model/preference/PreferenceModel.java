@@ -54,6 +54,12 @@ public class PreferenceModel extends HashStructureAdapter {
     private static final String KEY_SHOW_TEST_DESCRIPTION = "showTestDescription";
     private static final String KEY_SYNC_DETAIL_TAB = "syncDetailTab";
     private static final String KEY_SHOW_SUITES = "showSuites";
+    private static final String KEY_USE_ADAPTIVE_FETCH_SIZE = "useAdaptiveFetchSize";
+    private static final String KEY_SHOW_TOP_LEVEL_SUITES_FIRST = "showTopLevelSuitesFirst";
+    private static final String KEY_UPDATE_FRAMES_PER_SECOND = "updateFramesPerSecond";
+    private static final String KEY_NUMBER_OF_SHARDS = "numberOfShards";
+    private static final String KEY_MAX_CONCURRENT_RUNS = "maxConcurrentRuns";
+    private static final String KEY_USE_VIRTUAL_THREADS = "useVirtualThreads";
     private static final String KEY_TEST_PACKAGE_PREFIX = "testPackagePrefix";
     private static final String KEY_TEST_PACKAGE_SUFFIX = "testPackageSuffix";
     private static final String KEY_TEST_UNIT_PREFIX = "testUnitPrefix";
@@ -90,6 +96,12 @@ public class PreferenceModel extends HashStructureAdapter {
                 .append(KEY_SHOW_TEST_DESCRIPTION, isShowTestDescription())
                 .append(KEY_SYNC_DETAIL_TAB, isSyncDetailTab())
                 .append(KEY_SHOW_SUITES, isShowSuites())
+                .append(KEY_USE_ADAPTIVE_FETCH_SIZE, isUseAdaptiveFetchSize())
+                .append(KEY_SHOW_TOP_LEVEL_SUITES_FIRST, isShowTopLevelSuitesFirst())
+                .append(KEY_UPDATE_FRAMES_PER_SECOND, getUpdateFramesPerSecond())
+                .append(KEY_NUMBER_OF_SHARDS, getNumberOfShards())
+                .append(KEY_MAX_CONCURRENT_RUNS, getMaxConcurrentRuns())
+                .append(KEY_USE_VIRTUAL_THREADS, isUseVirtualThreads())
                 .append(KEY_TEST_PACKAGE_PREFIX, getTestPackagePrefix())
                 .append(KEY_TEST_PACKAGE_SUFFIX, getTestPackageSuffix())
                 .append(KEY_TEST_UNIT_PREFIX, getTestUnitPrefix())
@@ -250,6 +262,54 @@ public class PreferenceModel extends HashStructureAdapter {
     public void setShowSuites(final boolean showSuites) {
         getHashStructure().putBoolean(KEY_SHOW_SUITES, showSuites);
     }
+
+    public boolean isUseAdaptiveFetchSize() {
+        return getHashStructure().getBoolean(KEY_USE_ADAPTIVE_FETCH_SIZE, false);
+    }
+
+    public void setUseAdaptiveFetchSize(final boolean useAdaptiveFetchSize) {
+        getHashStructure().putBoolean(KEY_USE_ADAPTIVE_FETCH_SIZE, useAdaptiveFetchSize);
+    }
+
+    public boolean isShowTopLevelSuitesFirst() {
+        return getHashStructure().getBoolean(KEY_SHOW_TOP_LEVEL_SUITES_FIRST, false);
+    }
+
+    public void setShowTopLevelSuitesFirst(final boolean showTopLevelSuitesFirst) {
+        getHashStructure().putBoolean(KEY_SHOW_TOP_LEVEL_SUITES_FIRST, showTopLevelSuitesFirst);
+    }
+
+    public int getUpdateFramesPerSecond() {
+        return getHashStructure().getInt(KEY_UPDATE_FRAMES_PER_SECOND, 20);
+    }
+
+    public void setUpdateFramesPerSecond(final int updateFramesPerSecond) {
+        getHashStructure().putInt(KEY_UPDATE_FRAMES_PER_SECOND, updateFramesPerSecond);
+    }
+
+    public int getNumberOfShards() {
+        return getHashStructure().getInt(KEY_NUMBER_OF_SHARDS, 1);
+    }
+
+    public void setNumberOfShards(final int numberOfShards) {
+        getHashStructure().putInt(KEY_NUMBER_OF_SHARDS, numberOfShards);
+    }
+
+    public int getMaxConcurrentRuns() {
+        return getHashStructure().getInt(KEY_MAX_CONCURRENT_RUNS, 4);
+    }
+
+    public void setMaxConcurrentRuns(final int maxConcurrentRuns) {
+        getHashStructure().putInt(KEY_MAX_CONCURRENT_RUNS, maxConcurrentRuns);
+    }
+
+    public boolean isUseVirtualThreads() {
+        return getHashStructure().getBoolean(KEY_USE_VIRTUAL_THREADS, false);
+    }
+
+    public void setUseVirtualThreads(final boolean useVirtualThreads) {
+        getHashStructure().putBoolean(KEY_USE_VIRTUAL_THREADS, useVirtualThreads);
+    }
     
     public String getTestPackagePrefix() {
         return getHashStructure().getString(KEY_TEST_PACKAGE_PREFIX, "test_");
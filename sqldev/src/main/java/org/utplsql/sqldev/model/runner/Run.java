@@ -16,11 +16,12 @@
 package org.utplsql.sqldev.model.runner;
 
 import java.sql.Connection;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 import org.springframework.core.style.ToStringCreator;
 import org.utplsql.sqldev.model.JsonToStringStyler;
@@ -40,13 +41,16 @@ public class Run {
     private Integer infoCount;
     private String errorStack;
     private String serverOutput;
-    private final Set<Item> items;
     private Map<String, Test> tests;
     private Map<String, ItemNode> itemNodes;
     private String status;
     private Long start;
     // to abort connections, producerConn is handled by UtplsqlRunner
     private Connection consumerConn;
+    // consumer connections of the other shards in a parallel run
+    private List<Connection> shardConsumerConns = new ArrayList<>();
+    // requests to stop the run, true if the run was queued and will not be started
+    private BooleanSupplier stopRequest;
 
     @Override
     public String toString() {
@@ -78,7 +82,6 @@ public class Run {
         this.connectionName = connectionName;
         this.pathList = pathList;
         counter = new Counter();
-        items = new LinkedHashSet<>();
         tests = new LinkedHashMap<>();
         itemNodes = new LinkedHashMap<>();
         createRootNode();
@@ -102,9 +105,44 @@ public class Run {
      * @param items items of a run, to be shown in the runner right after starting a run.
      */
     public void put(final List<Item> items) {
-        populateItems(items);
-        populateItemNodes();
-        populateItemNodeChildren();
+        put(items, (Consumer<Runnable>) null);
+    }
+
+    /**
+     * Is called after consuming the pre-run event to populate all items of a run.
+     * The item nodes are created and attached in a single pass over the nested items.
+     * It's called once per shard in a parallel run. The test numbers of subsequent
+     * calls continue after the tests of the previous calls.
+     * 
+     * With a publisher, the structures of this run are only changed by the
+     * publisher. It's called once with the top-level items and once with the
+     * deeper levels, which are built in separate structures in the meantime.
+     * 
+     * @param items items of a run, to be shown in the runner right after starting a run.
+     * @param publisher applies a change to this run and shows it, e.g. on the event
+     *        dispatch thread. May be null to change this run directly.
+     */
+    public void put(final List<Item> items, final Consumer<Runnable> publisher) {
+        final int testNumberOffset = tests.size();
+        final Build topLevel = new Build(publisher != null, testNumberOffset);
+        for (final Item item : items) {
+            topLevel.attach(item, reporterId);
+        }
+        final Build deeperLevels;
+        if (publisher == null) {
+            deeperLevels = topLevel;
+        } else {
+            publisher.accept(topLevel::apply);
+            deeperLevels = new Build(true, testNumberOffset);
+        }
+        for (final Item item : items) {
+            if (item instanceof Suite) {
+                deeperLevels.attachChildren((Suite) item);
+            }
+        }
+        if (publisher != null) {
+            publisher.accept(deeperLevels::apply);
+        }
     }
     
     private void createRootNode() {
@@ -116,31 +154,99 @@ public class Run {
         ItemNode rootNode = new ItemNode(rootSuite);
         itemNodes.put(rootSuite.getId(), rootNode);
     }
-    
-    private void populateItems(List<Item> items) {
-        for (final Item item : items) {
-            this.items.add(item);
-            if (item instanceof Suite) {
-                populateItems(((Suite) item).getItems());
-            } else if (item instanceof Test) {
-                this.tests.put(item.getId(), (Test) item);
+
+    /**
+     * Creates and attaches item nodes. A staged build collects new nodes and
+     * tests in separate maps. Changes of nodes that are already part of this run
+     * are deferred until the build is applied.
+     */
+    private class Build {
+        private final Map<String, ItemNode> newNodes;
+        private final Map<String, Test> newTests;
+        private final List<Runnable> deferredChanges;
+        private final int testNumberOffset;
+
+        Build(final boolean staged, final int testNumberOffset) {
+            newNodes = staged ? new LinkedHashMap<>() : itemNodes;
+            newTests = staged ? new LinkedHashMap<>() : tests;
+            deferredChanges = staged ? new ArrayList<>() : null;
+            this.testNumberOffset = testNumberOffset;
+        }
+
+        private ItemNode getNode(final String id) {
+            final ItemNode node = newNodes.get(id);
+            return node != null ? node : itemNodes.get(id);
+        }
+
+        private void change(final ItemNode node, final Runnable change) {
+            if (deferredChanges != null && !newNodes.containsKey(node.getId())) {
+                deferredChanges.add(change);
+            } else {
+                change.run();
             }
         }
-    }
-    
-    private void populateItemNodes() {
-        for (final Item item : items) {
-            itemNodes.put(item.getId(), new ItemNode(item));
+
+        private void attachChildren(final Suite suite) {
+            if (suite.getItems() != null) {
+                for (final Item item : suite.getItems()) {
+                    attach(item, suite.getId());
+                    if (item instanceof Suite) {
+                        attachChildren((Suite) item);
+                    }
+                }
+            }
+        }
+
+        private void attach(final Item item, final String containerId) {
+            // Suites can be delivered multiple times. The last one wins, as the node is moved.
+            // A suite started by another shard of a parallel run keeps its state.
+            ItemNode existingNode = getNode(item.getId());
+            if (existingNode == null) {
+                existingNode = new ItemNode(item);
+                newNodes.put(item.getId(), existingNode);
+            } else if (!(existingNode.getUserObject() instanceof Suite
+                    && ((Suite) existingNode.getUserObject()).getStartTime() != null)) {
+                final ItemNode changedNode = existingNode;
+                change(changedNode, () -> changedNode.setUserObject(item));
+            }
+            final ItemNode node = existingNode;
+            if (item instanceof Test) {
+                final Test test = (Test) item;
+                if (testNumberOffset > 0 && test.getTestNumber() != null) {
+                    test.setTestNumber(test.getTestNumber() + testNumberOffset);
+                }
+                newTests.put(item.getId(), test);
+            }
+            ItemNode parentNode = getNode(getParentId(item, containerId));
+            if (parentNode == null) {
+                parentNode = getNode(containerId);
+            }
+            final ItemNode parent = parentNode;
+            // moving a node changes its previous parent
+            change(newNodes.containsKey(node.getId()) ? parent : node, () -> parent.add(node));
+        }
+
+        private void apply() {
+            if (deferredChanges != null) {
+                itemNodes.putAll(newNodes);
+                tests.putAll(newTests);
+                deferredChanges.forEach(Runnable::run);
+            }
         }
     }
-    
-    private void populateItemNodeChildren() {
-        for (Item item : items) {
-            String parentId = item.getParentId();
-            ItemNode node = itemNodes.get(item.getId());
-            ItemNode parent = itemNodes.get(parentId == null ? reporterId : parentId);
-            parent.add(node);
+
+    /**
+     * Same result as {@link Item#getParentId()}, but avoids creating a string for the common case.
+     */
+    private String getParentId(final Item item, final String containerId) {
+        final String id = item.getId();
+        final String name = item.getName();
+        if (id != null && name != null && id.length() == containerId.length() + 1 + name.length()
+                && id.startsWith(containerId) && id.endsWith(name)) {
+            return containerId;
         }
+        final String parentId = item.getParentId();
+        return parentId == null ? reporterId : parentId;
     }
     
     public Test getTest(final String id) {
@@ -301,4 +407,20 @@ public class Run {
         this.consumerConn = consumerConn;
     }
 
+    public List<Connection> getShardConsumerConns() {
+        return shardConsumerConns;
+    }
+
+    public void setShardConsumerConns(final List<Connection> shardConsumerConns) {
+        this.shardConsumerConns = shardConsumerConns;
+    }
+
+    public BooleanSupplier getStopRequest() {
+        return stopRequest;
+    }
+
+    public void setStopRequest(final BooleanSupplier stopRequest) {
+        this.stopRequest = stopRequest;
+    }
+
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.parser;
+
+import java.util.Arrays;
+
+import org.utplsql.sqldev.exception.GenericRuntimeException;
+
+/**
+ * Maps positions to lines and vice versa via binary search. Lines are separated
+ * by LF. Lines and columns start with 1, positions start with 0.
+ */
+public class LineIndex {
+    private final int[] lineStarts;
+
+    public LineIndex(final CharSequence text) {
+        int[] starts = new int[64];
+        int count = 1;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                }
+                starts[count++] = i + 1;
+            }
+        }
+        lineStarts = Arrays.copyOf(starts, count);
+    }
+
+    /**
+     * @return index of the last element less than or equal to the key, -1 if
+     *         there is no such element
+     */
+    static int floorIndex(final int[] sorted, final int key) {
+        int low = 0;
+        int high = sorted.length - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (sorted[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low - 1;
+    }
+
+    /**
+     * @param position
+     *            the absolute position, starting with 0
+     * @return the line containing the position, starting with 1
+     */
+    public int getLine(final int position) {
+        return Math.max(floorIndex(lineStarts, position), 0) + 1;
+    }
+
+    /**
+     * @param line
+     *            the line, starting with 1
+     * @param column
+     *            the column, starting with 1
+     * @return the absolute position, starting with 0
+     */
+    public int getPosition(final int line, final int column) {
+        if (line < 1 || line > lineStarts.length) {
+            throw new GenericRuntimeException("Line " + line + " not found.");
+        }
+        return lineStarts[line - 1] + column - 1;
+    }
+
+    public int getLineCount() {
+        return lineStarts.length;
+    }
+}
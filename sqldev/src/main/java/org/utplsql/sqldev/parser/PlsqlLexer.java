@@ -0,0 +1,267 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.utplsql.sqldev.model.parser.PlsqlObject;
+import org.utplsql.sqldev.model.parser.Unit;
+
+/**
+ * Finds PL/SQL objects and procedures in a PL/SQL script.
+ * 
+ * Multi-line comments, single-line comments and string literals are replaced
+ * with spaces, keeping line breaks. The result is not valid PL/SQL anymore, but
+ * good enough to find the headers of PL/SQL objects and procedures. Both kinds
+ * of headers are recognized in a single sweep over the reduced text.
+ * 
+ * The results are the same as with the following case-insensitive regular
+ * expressions applied to the reduced text:
+ * - objects: (\s*)(create(\s+or\s+replace)?\s+(package|type|function|procedure)\s+(body\s+)?)([^\s]+)(\s+)
+ * - units: (\s*)(procedure)(\s+)([^\s\(;]+)
+ */
+public class PlsqlLexer {
+    private static final String[] OBJECT_TYPES = { "package", "type", "function", "procedure" };
+    private final CharSequence plsql;
+    private final char[] reduced;
+    private final List<PlsqlObject> objects = new ArrayList<>();
+    private final List<Unit> units = new ArrayList<>();
+    private boolean unterminatedToken = false;
+
+    public PlsqlLexer(final CharSequence plsql) {
+        this.plsql = plsql;
+        reduced = new char[plsql.length()];
+        reduce();
+        populateObjectsAndUnits();
+    }
+
+    private static boolean isWhitespace(final char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private int indexOf(final char c, final int fromIndex) {
+        for (int i = fromIndex; i < plsql.length(); i++) {
+            if (plsql.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOfEndOfComment(final int fromIndex) {
+        for (int i = fromIndex; i < plsql.length() - 1; i++) {
+            if (plsql.charAt(i) == '*' && plsql.charAt(i + 1) == '/') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void reduce() {
+        final int length = plsql.length();
+        int i = 0;
+        while (i < length) {
+            final char c = plsql.charAt(i);
+            final char next = i + 1 < length ? plsql.charAt(i + 1) : 0;
+            int end = -1;
+            if (c == '/' && next == '*') {
+                end = indexOfEndOfComment(i + 2);
+                end = end < 0 ? -1 : end + 2;
+            } else if (c == '-' && next == '-') {
+                // single-line comments without line break are kept
+                end = indexOf('\n', i + 2);
+                end = end < 0 ? -1 : end + 1;
+            } else if (c == '\'') {
+                end = indexOf('\'', i + 1);
+                end = end < 0 ? -1 : end + 1;
+            }
+            if (end < 0) {
+                if (c == '/' && next == '*' || c == '-' && next == '-' || c == '\'') {
+                    unterminatedToken = true;
+                }
+                reduced[i] = c;
+                i++;
+            } else {
+                for (; i < end; i++) {
+                    final char r = plsql.charAt(i);
+                    reduced[i] = r == '\n' || r == '\r' ? r : ' ';
+                }
+            }
+        }
+    }
+
+    /**
+     * case-insensitive comparison with a lower case keyword
+     */
+    private boolean isKeywordAt(final int position, final String keyword) {
+        if (position + keyword.length() > reduced.length) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            final char c = reduced[position + i];
+            final char k = keyword.charAt(i);
+            if (c != k && c != Character.toUpperCase(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int skipWhitespace(final int position) {
+        int i = position;
+        while (i < reduced.length && isWhitespace(reduced[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private int skipName(final int position, final boolean stopAtParenthesisOrSemicolon) {
+        int i = position;
+        while (i < reduced.length && !isWhitespace(reduced[i])
+                && !(stopAtParenthesisOrSemicolon && (reduced[i] == '(' || reduced[i] == ';'))) {
+            i++;
+        }
+        return i;
+    }
+
+    private int startOfWhitespace(final int position, final int lowerBound) {
+        int i = position;
+        while (i > lowerBound && isWhitespace(reduced[i - 1])) {
+            i--;
+        }
+        return i;
+    }
+
+    private void populateObjectsAndUnits() {
+        int objectsFrom = 0;
+        int unitsFrom = 0;
+        for (int i = 0; i < reduced.length; i++) {
+            if (i >= objectsFrom && isKeywordAt(i, "create")) {
+                final int end = matchObject(i, startOfWhitespace(i, objectsFrom));
+                if (end >= 0) {
+                    objectsFrom = end;
+                }
+            }
+            if (i >= unitsFrom && isKeywordAt(i, "procedure")) {
+                final int end = matchUnit(i, startOfWhitespace(i, unitsFrom));
+                if (end >= 0) {
+                    unitsFrom = end;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return end of the object header or -1 if there is no object header at
+     *         the keyword "create"
+     */
+    private int matchObject(final int createPosition, final int start) {
+        int pos = createPosition + "create".length();
+        // optional "or replace"
+        final int orPos = skipWhitespace(pos);
+        if (orPos > pos && isKeywordAt(orPos, "or")) {
+            final int replacePos = skipWhitespace(orPos + "or".length());
+            if (replacePos > orPos + "or".length() && isKeywordAt(replacePos, "replace")) {
+                pos = replacePos + "replace".length();
+            }
+        }
+        final int typePos = skipWhitespace(pos);
+        if (typePos == pos) {
+            return -1;
+        }
+        String type = null;
+        for (final String objectType : OBJECT_TYPES) {
+            if (isKeywordAt(typePos, objectType)) {
+                type = objectType;
+                break;
+            }
+        }
+        if (type == null) {
+            return -1;
+        }
+        pos = typePos + type.length();
+        int namePos = skipWhitespace(pos);
+        if (namePos == pos) {
+            return -1;
+        }
+        // optional "body", unless it is the name of the object
+        if (isKeywordAt(namePos, "body")) {
+            final int bodyNamePos = skipWhitespace(namePos + "body".length());
+            final int bodyNameEnd = skipName(bodyNamePos, false);
+            if (bodyNamePos > namePos + "body".length() && bodyNameEnd > bodyNamePos
+                    && bodyNameEnd < reduced.length) {
+                namePos = bodyNamePos;
+            }
+        }
+        final int nameEnd = skipName(namePos, false);
+        if (nameEnd == namePos || nameEnd == reduced.length) {
+            // name must be followed by whitespace
+            return -1;
+        }
+        final PlsqlObject o = new PlsqlObject();
+        o.setType(type.toUpperCase());
+        o.setName(new String(reduced, namePos, nameEnd - namePos));
+        o.setPosition(start);
+        objects.add(o);
+        return skipWhitespace(nameEnd);
+    }
+
+    /**
+     * @return end of the procedure header or -1 if there is no procedure header
+     *         at the keyword "procedure"
+     */
+    private int matchUnit(final int procedurePosition, final int start) {
+        final int pos = procedurePosition + "procedure".length();
+        final int namePos = skipWhitespace(pos);
+        if (namePos == pos) {
+            return -1;
+        }
+        final int nameEnd = skipName(namePos, true);
+        if (nameEnd == namePos) {
+            return -1;
+        }
+        final Unit u = new Unit();
+        u.setName(new String(reduced, namePos, nameEnd - namePos));
+        u.setPosition(start);
+        u.setPositionOfName(namePos);
+        units.add(u);
+        return nameEnd;
+    }
+
+    /**
+     * @return the PL/SQL script with comments and string literals replaced by spaces
+     */
+    public String getReduced() {
+        return new String(reduced);
+    }
+
+    /**
+     * @return true if a comment or string literal has no end. Its interpretation
+     *         depends on text appended to the PL/SQL script.
+     */
+    public boolean hasUnterminatedToken() {
+        return unterminatedToken;
+    }
+
+    public List<PlsqlObject> getObjects() {
+        return objects;
+    }
+
+    public List<Unit> getUnits() {
+        return units;
+    }
+}
@@ -15,10 +15,19 @@
  */
 package org.utplsql.sqldev.parser;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Set;
 
+import org.utplsql.sqldev.exception.GenericRuntimeException;
+import org.utplsql.sqldev.model.LimitedLinkedHashMap;
+
 import oracle.dbtools.parser.LexerToken;
 import oracle.dbtools.raptor.navigator.plsql.Member;
 import oracle.dbtools.raptor.navigator.plsql.PlSqlArguments;
@@ -34,31 +43,78 @@ import oracle.dbtools.raptor.navigator.plsql.PlsqlStructureParser;
  * without violating the Oracle license agreement.
  */
 public class SqlDevParser {
+    public static final int MAX_CACHED_SOURCES = 16;
+    // parse results by SHA-256 of the source, the least recently used are removed first
+    private static final LimitedLinkedHashMap<String, Entry> cache = new LimitedLinkedHashMap<>(MAX_CACHED_SOURCES);
+
+    private static class Entry {
+        private final Set<Member> members;
+        private final Map<String, Integer> offsets = new HashMap<>();
+        private final LineIndex lineIndex;
+
+        Entry(final String plsql, final Set<Member> members) {
+            this.members = Collections.unmodifiableSet(members);
+            for (final Member member : members) {
+                offsets.putIfAbsent(member.name.toUpperCase(), member.codeOffset);
+            }
+            lineIndex = new LineIndex(plsql);
+        }
+    }
+
+    private static String getHash(final String plsql) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(plsql.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new GenericRuntimeException("SHA-256 is not supported.", e);
+        }
+    }
 
     @SuppressWarnings("unchecked")
-    public Set<Member> getMembers(final String plsql) {
+    private static Set<Member> parse(final String plsql) {
         final List<LexerToken> tokens = LexerToken.parse(plsql);
         final PlsqlStructureParser parser = new PlsqlStructureParser();
         parser.parse(tokens, PlSqlArguments.getSort());
         return parser.children;
     }
 
-    private int getStartLine(final String plsql, final int offset) {
-        int line = 1;
-        for (int i = 0; i < plsql.length(); i++) {
-            final String c = plsql.substring(i, i + 1);
-            if (i > offset) {
-                return line;
-            } else if ("\n".equals(c)) {
-                line = line + 1;
+    private static Entry getEntry(final String plsql) {
+        final String hash = getHash(plsql);
+        synchronized (cache) {
+            final Entry entry = cache.remove(hash);
+            if (entry != null) {
+                // re-insert to keep the most recently used entries
+                cache.put(hash, entry);
+                return entry;
             }
         }
-        return line;
+        final Entry entry = new Entry(plsql, parse(plsql));
+        synchronized (cache) {
+            cache.put(hash, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * used for testing purposes only
+     */
+    public static void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Gets the members of a PL/SQL object. The result is cached per source
+     * content and must not be changed.
+     */
+    public Set<Member> getMembers(final String plsql) {
+        return getEntry(plsql).members;
     }
 
     public int getMemberStartLine(final String plsql, final String memberName) {
-        final Set<Member> members = this.getMembers(plsql);
-        final Optional<Member> member = members.stream().filter(it -> it.name.equalsIgnoreCase(memberName)).findFirst();
-        return member.map(value -> this.getStartLine(plsql, value.codeOffset)).orElse(1);
+        final Entry entry = getEntry(plsql);
+        final Integer offset = entry.offsets.get(memberName.toUpperCase());
+        return offset == null ? 1 : entry.lineIndex.getLine(offset);
     }
 }
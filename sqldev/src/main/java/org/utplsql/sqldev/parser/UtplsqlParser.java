@@ -18,14 +18,14 @@ package org.utplsql.sqldev.parser;
 import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Set;
 
 import javax.swing.text.JTextComponent;
 
 import org.utplsql.sqldev.dal.UtplsqlDao;
-import org.utplsql.sqldev.exception.GenericRuntimeException;
 import org.utplsql.sqldev.model.DatabaseTools;
 import org.utplsql.sqldev.model.parser.PlsqlObject;
 import org.utplsql.sqldev.model.parser.Unit;
@@ -34,15 +34,17 @@ import org.utplsql.sqldev.model.ut.Annotation;
 public class UtplsqlParser {
     private String owner;
     private String plsql;
-    private String plsqlReduced;
     private ArrayList<PlsqlObject> objects = new ArrayList<>();
     private ArrayList<Unit> units = new ArrayList<>();
+    // sorted start positions of objects and units for binary search
+    private int[] objectPositions;
+    private int[] unitPositions;
+    private LineIndex lineIndex;
 
     public UtplsqlParser(final String plsql, final Connection conn, final String owner) {
         setPlsql(plsql);
-        setPlsqlReduced();
-        populateObjects();
-        populateUnits();
+        populateObjectsAndUnits();
+        populatePositions();
         processAnnotations(conn, owner);
     }
 
@@ -50,6 +52,25 @@ public class UtplsqlParser {
         this(plsql, null, null);
     }
 
+    /**
+     * used by {@link UtplsqlParserCache} to reuse the result of {@link PlsqlLexer}
+     */
+    UtplsqlParser(final String plsql, final List<PlsqlObject> lexedObjects, final List<Unit> lexedUnits,
+            final Connection conn, final String owner) {
+        setPlsql(plsql);
+        for (final PlsqlObject lexedObject : lexedObjects) {
+            // annotations are set on a copy, lexed objects are shared
+            final PlsqlObject o = new PlsqlObject();
+            o.setType(lexedObject.getType());
+            o.setName(lexedObject.getName());
+            o.setPosition(lexedObject.getPosition());
+            objects.add(o);
+        }
+        units.addAll(lexedUnits);
+        populatePositions();
+        processAnnotations(conn, owner);
+    }
+
     /**
      * JTextComponents uses one position for EOL (end-of-line),
      * even on Windows platforms were it is two characters (CR/LF).
@@ -67,75 +88,32 @@ public class UtplsqlParser {
     }
 
     /**
-     * replace the following expressions with space to simplify 
-     * and improve performance of subsequent regular expressions:
-     * - multi-line PL/SQL comments
-     * - single-line PL/SQL comments
-     * - string literals
-     * the result is not valid PL/SQL anymore, but good enough
-     * to find PL/SQL objects and units
+     * find PL/SQL objects and units ignoring comments and string literals
      */
-    private void setPlsqlReduced() {
-        final StringBuilder sb = new StringBuilder();
-        final Pattern p = Pattern.compile("(/\\*(.|[\\n])*?\\*/)|(--[^\\n]*\\n)|(\'([^\']|[\\n])*?\')");
-        final Matcher m = p.matcher(plsql);
-        int pos = 0;
-        while (m.find()) {
-            if (pos < m.start()) {
-                sb.append(plsql.substring(pos, m.start()));
-            }
-            for (int i = m.start(); i < m.end(); i++) {
-                final String c = plsql.substring(i, i + 1);
-                if ("\n".equals(c) || "\r".equals(c)) {
-                    sb.append(c);
-                } else {
-                    sb.append(' ');
-                }
-            }
-            pos = m.end();
-        }
-        if (plsql.length() > pos) {
-            sb.append(plsql.substring(pos, plsql.length()));
-        }
-        plsqlReduced=sb.toString();
-    }
-
-    private void populateObjects() {
-        final Pattern p = Pattern.compile(
-                "(?i)(\\s*)(create(\\s+or\\s+replace)?\\s+(package|type|function|procedure)\\s+(body\\s+)?)([^\\s]+)(\\s+)");
-        final Matcher m = p.matcher(plsqlReduced);
-        while (m.find()) {
-            final PlsqlObject o = new PlsqlObject();
-            o.setType(m.group(4).toUpperCase());
-            o.setName(m.group(6));
-            o.setPosition(m.start());
-            objects.add(o);
-        }
-    }
-
-    private void populateUnits() {
-        final Pattern p = Pattern.compile("(?i)(\\s*)(procedure)(\\s+)([^\\s\\(;]+)");
-        final Matcher m = p.matcher(plsqlReduced);
-        while (m.find()) {
-            final Unit u = new Unit();
-            u.setName(m.group(4));
-            u.setPosition(m.start());
-            u.setPositionOfName(m.start(4));
-            units.add(u);
-        }
+    private void populateObjectsAndUnits() {
+        final PlsqlLexer lexer = new PlsqlLexer(plsql);
+        objects.addAll(lexer.getObjects());
+        units.addAll(lexer.getUnits());
     }
     
+    /**
+     * keeps only objects with a suite annotation and units with a test annotation,
+     * requires the positions of the lexed objects
+     */
     private void processAnnotations(final Connection conn, final String owner) {
         this.owner = owner;
         if (conn != null) {
             final UtplsqlDao dao = new UtplsqlDao(conn);
             if (dao.isUtAnnotationManagerInstalled()) {
+                final Set<String> objectNames = new HashSet<>();
+                for (final PlsqlObject o : objects) {
+                    objectNames.add(getObjectName(o));
+                }
+                final String schema = owner != null || objectNames.isEmpty() ? owner : DatabaseTools.getSchema(conn);
+                final Map<String, List<Annotation>> annotationsByObject = dao.annotations(schema, objectNames);
                 for (final PlsqlObject o : objects) {
-                    final List<String> segments = Arrays.asList(fixName(o.getName()).split("\\."));
-                    final String schema = owner != null ? owner : DatabaseTools.getSchema(conn);
-                    final List<Annotation> annotations = dao.annotations(schema,
-                            segments.get(segments.size() - 1).toUpperCase());
-                    if (annotations.stream().anyMatch(it -> it.getName().equals("suite"))) {
+                    final List<Annotation> annotations = annotationsByObject.get(getObjectName(o));
+                    if (annotations != null && annotations.stream().anyMatch(it -> it.getName().equals("suite"))) {
                         o.setAnnotations(annotations);
                     }
                 }
@@ -156,10 +134,34 @@ public class UtplsqlParser {
                     }
                 }
                 objects = fixedObjects;
+                populatePositions();
             }
         }
     }
 
+    private String getObjectName(final PlsqlObject o) {
+        final List<String> segments = Arrays.asList(fixName(o.getName()).split("\\."));
+        return segments.get(segments.size() - 1).toUpperCase();
+    }
+
+    private void populatePositions() {
+        objectPositions = new int[objects.size()];
+        for (int i = 0; i < objectPositions.length; i++) {
+            objectPositions[i] = objects.get(i).getPosition();
+        }
+        unitPositions = new int[units.size()];
+        for (int i = 0; i < unitPositions.length; i++) {
+            unitPositions[i] = units.get(i).getPosition();
+        }
+    }
+
+    private LineIndex getLineIndex() {
+        if (lineIndex == null) {
+            lineIndex = new LineIndex(plsql);
+        }
+        return lineIndex;
+    }
+
     /**
      * gets the PL/SQL object based on the current editor position
      * 
@@ -169,13 +171,8 @@ public class UtplsqlParser {
      * @return the PL/SQL object
      */
     public PlsqlObject getObjectAt(final int position) {
-        PlsqlObject obj = null;
-        for (final PlsqlObject o : objects) {
-            if (o.getPosition() <= position) {
-                obj = o;
-            }
-        }
-        return obj;
+        final int index = LineIndex.floorIndex(objectPositions, position);
+        return index >= 0 ? objects.get(index) : null;
     }
 
     /**
@@ -189,26 +186,12 @@ public class UtplsqlParser {
      * @return the position
      */
     public int toPosition(final int line, final int column) {
-        int lines = 0;
-        for (int i = 0; i < plsql.length(); i++) {
-            if ("\n".equals(plsql.substring(i, i + 1))) {
-                lines++;
-                if (lines == line - 1) {
-                    return i + column;
-                }
-            }
-        }
-        throw new GenericRuntimeException("Line " + line + " not found.");
+        return getLineIndex().getPosition(line, column);
     }
 
     private String getUnitNameAt(final int position) {
-        String name = "";
-        for (final Unit u : units) {
-            if (u.getPosition() <= position) {
-                name = u.getName();
-            }
-        }
-        return name;
+        final int index = LineIndex.floorIndex(unitPositions, position);
+        return index >= 0 ? units.get(index).getName() : "";
     }
 
     private String fixName(final String name) {
@@ -249,19 +232,6 @@ public class UtplsqlParser {
         return sb.toString();
     }
 
-    private int getStartLine(final int position) {
-        int line = 1;
-        for (int i = 0; i < plsql.length(); i++) {
-            final String c = plsql.substring(i, i + 1);
-            if (i > position) {
-                return line;
-            } else if ("\n".equals(c)) {
-                line++;
-            }
-        }
-        return line;
-    }
-
     /**
      * get the line of a PL/SQL package unit
      * 
@@ -272,7 +242,7 @@ public class UtplsqlParser {
     public int getLineOf(final String unitName) {
         for (final Unit u : units) {
             if (u.getName().equalsIgnoreCase(unitName)) {
-                return getStartLine(u.getPositionOfName());
+                return getLineIndex().getLine(u.getPositionOfName());
             }
         }
         return 1;
@@ -0,0 +1,366 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.parser;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.logging.Logger;
+
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+
+import org.springframework.core.style.ToStringCreator;
+import org.utplsql.sqldev.exception.GenericRuntimeException;
+import org.utplsql.sqldev.model.JsonToStringStyler;
+import org.utplsql.sqldev.model.parser.PlsqlObject;
+import org.utplsql.sqldev.model.parser.Unit;
+
+/**
+ * Caches the parse result of editor documents.
+ * 
+ * A document is lexed again only when it has been changed. When the changes
+ * are within the span of a single PL/SQL object, only this span and the span of
+ * the next object are lexed again. The result is used if the span of the next
+ * object is unchanged. Otherwise the whole document is lexed.
+ * 
+ * Parsers without connection are cached per document version. Parsers with
+ * connection reuse the lexer result, but check the annotations in the database
+ * on every call.
+ */
+public class UtplsqlParserCache {
+    private static final Logger logger = Logger.getLogger(UtplsqlParserCache.class.getName());
+    private static final UtplsqlParserCache INSTANCE = new UtplsqlParserCache();
+    private final Map<Document, Entry> entries = new WeakHashMap<>();
+    private long hits;
+    private long fullLexes;
+    private long incrementalLexes;
+
+    private class Entry implements DocumentListener {
+        private long version;
+        private long lexedVersion = -1;
+        private String text;
+        private List<PlsqlObject> objects;
+        private List<Unit> units;
+        private boolean unterminatedToken;
+        // region changed since the last lexer run in current positions, empty if changeEnd < 0
+        private int changeStart = Integer.MAX_VALUE;
+        private int changeEnd = -1;
+        private int delta;
+        private UtplsqlParser parser;
+
+        @Override
+        public void insertUpdate(final DocumentEvent e) {
+            changed(e.getOffset(), 0, e.getLength());
+        }
+
+        @Override
+        public void removeUpdate(final DocumentEvent e) {
+            changed(e.getOffset(), e.getLength(), 0);
+        }
+
+        @Override
+        public void changedUpdate(final DocumentEvent e) {
+            // attribute changes do not change the text
+        }
+
+        private synchronized void changed(final int offset, final int removed, final int inserted) {
+            version++;
+            final int end = Math.max(changeEnd, offset + removed);
+            changeStart = Math.min(changeStart, offset);
+            changeEnd = end - removed + inserted;
+            delta += inserted - removed;
+        }
+
+        private synchronized long getVersion() {
+            return version;
+        }
+
+        /**
+         * Lexes the document if necessary while holding the lock of the entry. The
+         * parser with connection is created outside of the lock, since it queries the
+         * database and document changes on the event dispatch thread need the lock.
+         */
+        private UtplsqlParser getParser(final String newText, final long newVersion,
+                final Connection conn, final String owner) {
+            final String lexedText;
+            final List<PlsqlObject> lexedObjects;
+            final List<Unit> lexedUnits;
+            synchronized (this) {
+                if (newVersion != version) {
+                    // changed in the meantime, do not touch the cached state
+                    lexedText = null;
+                    lexedObjects = null;
+                    lexedUnits = null;
+                } else {
+                    if (lexedVersion == version) {
+                        hit();
+                    } else {
+                        if (!lexIncrementally(newText)) {
+                            final PlsqlLexer lexer = new PlsqlLexer(newText);
+                            objects = lexer.getObjects();
+                            units = lexer.getUnits();
+                            unterminatedToken = lexer.hasUnterminatedToken();
+                            fullLex();
+                        }
+                        text = newText;
+                        lexedVersion = version;
+                        changeStart = Integer.MAX_VALUE;
+                        changeEnd = -1;
+                        delta = 0;
+                        parser = null;
+                    }
+                    if (conn == null) {
+                        if (parser == null) {
+                            parser = new UtplsqlParser(text, objects, units, null, null);
+                        }
+                        return parser;
+                    }
+                    // lists are replaced but never modified, hence they can be used without lock
+                    lexedText = text;
+                    lexedObjects = objects;
+                    lexedUnits = units;
+                }
+            }
+            if (lexedText == null) {
+                final PlsqlLexer lexer = new PlsqlLexer(newText);
+                return new UtplsqlParser(newText, lexer.getObjects(), lexer.getUnits(), conn, owner);
+            }
+            return new UtplsqlParser(lexedText, lexedObjects, lexedUnits, conn, owner);
+        }
+
+        private int getSpanStart(final int span) {
+            return span == 0 ? 0 : objects.get(span - 1).getPosition();
+        }
+
+        private int getSpanEnd(final int span) {
+            return span < objects.size() ? objects.get(span).getPosition() : text.length();
+        }
+
+        private boolean lexIncrementally(final String newText) {
+            if (text == null || changeEnd < 0 || unterminatedToken || newText.length() != text.length() + delta) {
+                return false;
+            }
+            final int oldChangeStart = changeStart;
+            final int oldChangeEnd = changeEnd - delta;
+            // span 0 precedes the first object, span n starts with object n-1
+            int span = 0;
+            while (span < objects.size() && objects.get(span).getPosition() < oldChangeStart) {
+                span++;
+            }
+            if (span < objects.size() && oldChangeEnd >= getSpanEnd(span)) {
+                // changes in more than one span
+                return false;
+            }
+            final int start = getSpanStart(span);
+            final boolean hasNextSpan = span < objects.size();
+            final int oldEnd = hasNextSpan ? getSpanEnd(span + 1) : text.length();
+            for (final Unit u : units) {
+                if (u.getPosition() < start && u.getPositionOfName() + u.getName().length() > start) {
+                    // unit name crosses the start of the span
+                    return false;
+                }
+            }
+            final PlsqlLexer lexer = new PlsqlLexer(newText.subSequence(start, oldEnd + delta));
+            if (lexer.hasUnterminatedToken()
+                    || span > 0 && (lexer.getObjects().isEmpty() || lexer.getObjects().get(0).getPosition() != 0)) {
+                return false;
+            }
+            final List<PlsqlObject> lexedObjects = shiftObjects(lexer.getObjects(), 0, Integer.MAX_VALUE, start);
+            final List<Unit> lexedUnits = shiftUnits(lexer.getUnits(), 0, Integer.MAX_VALUE, start);
+            if (hasNextSpan) {
+                // the next span must be unchanged to continue with the previous result
+                final int oldNextStart = getSpanStart(span + 1);
+                final int nextStart = oldNextStart + delta;
+                if (!sameObjects(shiftObjects(objects, oldNextStart, oldEnd, delta),
+                        shiftObjects(lexedObjects, nextStart, Integer.MAX_VALUE, 0))
+                        || !sameUnits(shiftUnits(units, oldNextStart, oldEnd, delta),
+                                shiftUnits(lexedUnits, nextStart, Integer.MAX_VALUE, 0))) {
+                    return false;
+                }
+            }
+            final List<PlsqlObject> newObjects = shiftObjects(objects, 0, start, 0);
+            newObjects.addAll(lexedObjects);
+            newObjects.addAll(shiftObjects(objects, oldEnd, Integer.MAX_VALUE, delta));
+            final List<Unit> newUnits = shiftUnits(units, 0, start, 0);
+            newUnits.addAll(lexedUnits);
+            newUnits.addAll(shiftUnits(units, oldEnd, Integer.MAX_VALUE, delta));
+            objects = newObjects;
+            units = newUnits;
+            incrementalLex();
+            return true;
+        }
+    }
+
+    /**
+     * @return copies of the objects within [from, to) moved by delta
+     */
+    private static List<PlsqlObject> shiftObjects(final List<PlsqlObject> objects, final int from, final int to,
+            final int delta) {
+        final List<PlsqlObject> result = new ArrayList<>();
+        for (final PlsqlObject o : objects) {
+            if (o.getPosition() >= from && o.getPosition() < to) {
+                final PlsqlObject shifted = new PlsqlObject();
+                shifted.setType(o.getType());
+                shifted.setName(o.getName());
+                shifted.setPosition(o.getPosition() + delta);
+                result.add(shifted);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return copies of the units within [from, to) moved by delta
+     */
+    private static List<Unit> shiftUnits(final List<Unit> units, final int from, final int to, final int delta) {
+        final List<Unit> result = new ArrayList<>();
+        for (final Unit u : units) {
+            if (u.getPosition() >= from && u.getPosition() < to) {
+                final Unit shifted = new Unit();
+                shifted.setName(u.getName());
+                shifted.setPosition(u.getPosition() + delta);
+                shifted.setPositionOfName(u.getPositionOfName() + delta);
+                result.add(shifted);
+            }
+        }
+        return result;
+    }
+
+    private static boolean sameObjects(final List<PlsqlObject> objects1, final List<PlsqlObject> objects2) {
+        if (objects1.size() != objects2.size()) {
+            return false;
+        }
+        for (int i = 0; i < objects1.size(); i++) {
+            final PlsqlObject o1 = objects1.get(i);
+            final PlsqlObject o2 = objects2.get(i);
+            if (!o1.getType().equals(o2.getType()) || !o1.getName().equals(o2.getName())
+                    || !o1.getPosition().equals(o2.getPosition())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameUnits(final List<Unit> units1, final List<Unit> units2) {
+        if (units1.size() != units2.size()) {
+            return false;
+        }
+        for (int i = 0; i < units1.size(); i++) {
+            final Unit u1 = units1.get(i);
+            final Unit u2 = units2.get(i);
+            if (!u1.getName().equals(u2.getName()) || !u1.getPosition().equals(u2.getPosition())
+                    || !u1.getPositionOfName().equals(u2.getPositionOfName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static UtplsqlParserCache getInstance() {
+        return INSTANCE;
+    }
+
+    private synchronized Entry getEntry(final Document document) {
+        return entries.computeIfAbsent(document, k -> {
+            final Entry entry = new Entry();
+            document.addDocumentListener(entry);
+            return entry;
+        });
+    }
+
+    /**
+     * Gets the version of a document. The version changes with every change of
+     * the text.
+     * 
+     * @param document
+     *            the document of an editor
+     * @return the version of the document
+     */
+    public long getVersion(final Document document) {
+        return getEntry(document).getVersion();
+    }
+
+    /**
+     * Gets the parser for the current text of a document.
+     * 
+     * @param document
+     *            the document of an editor
+     * @param conn
+     *            connection to check utPLSQL annotations, null to get all objects and units
+     * @param owner
+     *            owner of the objects, null to use the schema of the connection
+     * @return the parser for the current text of the document
+     */
+    public UtplsqlParser getParser(final Document document, final Connection conn, final String owner) {
+        final Entry entry = getEntry(document);
+        final String[] text = new String[1];
+        final long[] version = new long[1];
+        // text and version are consistent while the document is not changed
+        document.render(() -> {
+            try {
+                text[0] = document.getText(0, document.getLength());
+            } catch (BadLocationException e) {
+                throw new GenericRuntimeException("Cannot get text of document.", e);
+            }
+            version[0] = entry.getVersion();
+        });
+        return entry.getParser(text[0], version[0], conn, owner);
+    }
+
+    private synchronized void hit() {
+        hits++;
+    }
+
+    private synchronized void fullLex() {
+        fullLexes++;
+    }
+
+    private synchronized void incrementalLex() {
+        incrementalLexes++;
+        logger.finer(() -> "lexed document incrementally.");
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getFullLexes() {
+        return fullLexes;
+    }
+
+    public synchronized long getIncrementalLexes() {
+        return incrementalLexes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return new ToStringCreator(this, JsonToStringStyler.getInstance())
+                .append("documents", entries.size())
+                .append("hits", hits)
+                .append("fullLexes", fullLexes)
+                .append("incrementalLexes", incrementalLexes)
+                .toString();
+    }
+}
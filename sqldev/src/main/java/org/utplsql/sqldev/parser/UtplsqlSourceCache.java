@@ -0,0 +1,220 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.parser;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import org.springframework.core.style.ToStringCreator;
+import org.utplsql.sqldev.dal.UtplsqlDao;
+import org.utplsql.sqldev.dal.UtplsqlMetadataCache;
+import org.utplsql.sqldev.model.JsonToStringStyler;
+import org.utplsql.sqldev.model.LimitedLinkedHashMap;
+import org.utplsql.sqldev.model.parser.Unit;
+
+/**
+ * Caches the lines of the units in database objects for the navigation from
+ * the runner to the source code.
+ * 
+ * An entry is identified by connection, owner, object name, object type and
+ * last DDL time. A lookup costs a single query to read the last DDL time. The
+ * source is read via DBMS_METADATA and parsed only when the object has changed
+ * or is not cached yet. The least recently used entries are removed when the
+ * cache is full.
+ */
+public class UtplsqlSourceCache {
+    private static final Logger logger = Logger.getLogger(UtplsqlSourceCache.class.getName());
+    public static final int MAX_ENTRIES = 200;
+    private static final UtplsqlSourceCache INSTANCE = new UtplsqlSourceCache();
+    private static final String[] PREFETCH_OBJECT_TYPES = { "PACKAGE", "PACKAGE BODY" };
+    private final LimitedLinkedHashMap<String, Map<String, Integer>> entries = new LimitedLinkedHashMap<>(
+            MAX_ENTRIES);
+    private long hits;
+    private long loads;
+
+    private UtplsqlSourceCache() {
+        super();
+    }
+
+    public static UtplsqlSourceCache getInstance() {
+        return INSTANCE;
+    }
+
+    private static String getKey(final String connKey, final String owner, final String objectName,
+            final String objectType, final Timestamp lastDdlTime) {
+        return connKey + "/" + owner + "." + objectName + "/" + objectType + "/" + lastDdlTime.getTime();
+    }
+
+    private synchronized Map<String, Integer> getEntry(final String key) {
+        final Map<String, Integer> unitLines = entries.remove(key);
+        if (unitLines != null) {
+            // re-insert to keep the most recently used entries
+            entries.put(key, unitLines);
+            hits++;
+        }
+        return unitLines;
+    }
+
+    private synchronized boolean containsEntry(final String key) {
+        return entries.containsKey(key);
+    }
+
+    private synchronized void putEntry(final String key, final Map<String, Integer> unitLines) {
+        entries.put(key, unitLines);
+        loads++;
+    }
+
+    private static Map<String, Integer> loadUnitLines(final UtplsqlDao dao, final String owner,
+            final String objectName, final String objectType) {
+        final String source = dao.getSource(owner, objectType, objectName).trim();
+        final UtplsqlParser parser = new UtplsqlParser(source);
+        final Map<String, Integer> unitLines = new HashMap<>();
+        for (final Unit unit : parser.getUnits()) {
+            unitLines.computeIfAbsent(unit.getName().toUpperCase(), k -> parser.getLineOf(k));
+        }
+        return unitLines;
+    }
+
+    private Map<String, Integer> getUnitLines(final Connection conn, final String owner, final String objectName,
+            final String objectType, final Timestamp lastDdlTime) {
+        final String connKey = UtplsqlMetadataCache.getKey(conn);
+        final UtplsqlDao dao = new UtplsqlDao(conn);
+        if (connKey == null || lastDdlTime == null) {
+            return loadUnitLines(dao, owner, objectName, objectType);
+        }
+        final String key = getKey(connKey, owner, objectName, objectType, lastDdlTime);
+        Map<String, Integer> unitLines = getEntry(key);
+        if (unitLines == null) {
+            unitLines = loadUnitLines(dao, owner, objectName, objectType);
+            putEntry(key, unitLines);
+        }
+        return unitLines;
+    }
+
+    private static Map<String, Timestamp> getLastDdlTimes(final UtplsqlDao dao, final String owner,
+            final String objectName) {
+        return dao.getLastDdlTimes(owner, Collections.singletonList(objectName)).get(objectName);
+    }
+
+    /**
+     * Gets the object type of a database object with a single query. The types
+     * "PACKAGE BODY" and "TYPE BODY" have higher priority as in
+     * {@link UtplsqlDao#getObjectType(String, String)}.
+     */
+    public String getObjectType(final Connection conn, final String owner, final String objectName) {
+        final UtplsqlDao dao = new UtplsqlDao(conn);
+        final Map<String, Timestamp> lastDdlTimes = getLastDdlTimes(dao, owner, objectName);
+        if (lastDdlTimes == null) {
+            // not visible, let the DAO report it
+            return dao.getObjectType(owner, objectName);
+        }
+        return lastDdlTimes.keySet().iterator().next();
+    }
+
+    /**
+     * Gets the line of a unit in a database object. Reads and parses the source
+     * only if the object is not cached in its current version.
+     * 
+     * @param conn
+     *            connection to read the source from
+     * @param owner
+     *            owner of the object (schema)
+     * @param objectType
+     *            expected object types are PACKAGE, PACKAGE BODY
+     * @param objectName
+     *            name of the object
+     * @param unitName
+     *            name of the procedure or function, case-insensitive
+     * @return line of the first unit with the given name or 1 if not found
+     */
+    public int getLineOf(final Connection conn, final String owner, final String objectType,
+            final String objectName, final String unitName) {
+        final UtplsqlDao dao = new UtplsqlDao(conn);
+        final Map<String, Timestamp> lastDdlTimes = getLastDdlTimes(dao, owner, objectName);
+        final Timestamp lastDdlTime = lastDdlTimes == null ? null : lastDdlTimes.get(objectType);
+        final Integer line = getUnitLines(conn, owner, objectName, objectType, lastDdlTime)
+                .get(unitName.toUpperCase());
+        return line == null ? 1 : line;
+    }
+
+    /**
+     * Loads the package specifications and bodies that are not cached in their
+     * current version. Reads the last DDL times of all objects with a single
+     * query.
+     * 
+     * @param conn
+     *            connection to read the source from
+     * @param owner
+     *            owner of the packages (schema)
+     * @param objectNames
+     *            names of the packages
+     * @return number of loaded objects
+     */
+    public int prefetch(final Connection conn, final String owner, final Collection<String> objectNames) {
+        final String connKey = UtplsqlMetadataCache.getKey(conn);
+        if (connKey == null || objectNames.isEmpty()) {
+            return 0;
+        }
+        final UtplsqlDao dao = new UtplsqlDao(conn);
+        int loaded = 0;
+        for (final Map.Entry<String, Map<String, Timestamp>> object : dao.getLastDdlTimes(owner, objectNames)
+                .entrySet()) {
+            for (final String objectType : PREFETCH_OBJECT_TYPES) {
+                final Timestamp lastDdlTime = object.getValue().get(objectType);
+                if (lastDdlTime != null) {
+                    final String key = getKey(connKey, owner, object.getKey(), objectType, lastDdlTime);
+                    if (!containsEntry(key)) {
+                        putEntry(key, loadUnitLines(dao, owner, object.getKey(), objectType));
+                        loaded++;
+                    }
+                }
+            }
+        }
+        final int loadedObjects = loaded;
+        logger.fine(() -> "prefetched " + loadedObjects + " objects of " + owner + " into source cache.");
+        return loaded;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getLoads() {
+        return loads;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringCreator(this, JsonToStringStyler.getInstance())
+                .append("size", size())
+                .append("hits", getHits())
+                .append("loads", getLoads())
+                .toString();
+    }
+}
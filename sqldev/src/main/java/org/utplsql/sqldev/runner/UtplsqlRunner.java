@@ -17,22 +17,38 @@ package org.utplsql.sqldev.runner;
 
 import java.awt.Dimension;
 import java.awt.Toolkit;
+import java.lang.reflect.InvocationTargetException;
 import java.net.URL;
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
 
 import org.utplsql.sqldev.coverage.CodeCoverageReporter;
 import org.utplsql.sqldev.dal.RealtimeReporterDao;
 import org.utplsql.sqldev.dal.RealtimeReporterEventConsumer;
+import org.utplsql.sqldev.dal.UtplsqlMetadataCache;
+import org.utplsql.sqldev.dal.UtplsqlSessionPool;
 import org.utplsql.sqldev.exception.GenericRuntimeException;
 import org.utplsql.sqldev.model.DatabaseTools;
 import org.utplsql.sqldev.model.StringTools;
-import org.utplsql.sqldev.model.SystemTools;
+import org.utplsql.sqldev.model.UtplsqlExecutor;
+import org.utplsql.sqldev.model.preference.PreferenceModel;
+import org.utplsql.sqldev.model.runner.Counter;
 import org.utplsql.sqldev.model.runner.ItemNode;
 import org.utplsql.sqldev.model.runner.PostRunEvent;
 import org.utplsql.sqldev.model.runner.PostSuiteEvent;
@@ -44,6 +60,7 @@ import org.utplsql.sqldev.model.runner.RealtimeReporterEvent;
 import org.utplsql.sqldev.model.runner.Run;
 import org.utplsql.sqldev.model.runner.Suite;
 import org.utplsql.sqldev.model.runner.Test;
+import org.utplsql.sqldev.parser.UtplsqlSourceCache;
 import org.utplsql.sqldev.resources.UtplsqlResources;
 import org.utplsql.sqldev.ui.runner.RunnerFactory;
 import org.utplsql.sqldev.ui.runner.RunnerPanel;
@@ -51,12 +68,16 @@ import org.utplsql.sqldev.ui.runner.RunnerView;
 
 import oracle.dbtools.raptor.runner.DBStarterFactory;
 import oracle.ide.Context;
+import oracle.ide.config.Preferences;
 import oracle.jdevimpl.runner.debug.DebuggingProcess;
 import oracle.jdevimpl.runner.run.JRunner;
 
 public class UtplsqlRunner implements RealtimeReporterEventConsumer {
     private static final Logger logger = Logger.getLogger(UtplsqlRunner.class.getName());
     private static final int DEBUG_TIMEOUT_SECONDS = 60*60;
+    private static final int CONSUMER_READY_TIMEOUT_SECONDS = 30;
+    // the shared executor is configured from the preferences with the first run
+    private static final AtomicBoolean executorConfigured = new AtomicBoolean();
 
     private final boolean withCodeCoverage;
     private final List<String> pathList;
@@ -72,10 +93,50 @@ public class UtplsqlRunner implements RealtimeReporterEventConsumer {
     private Run run;
     private RunnerPanel panel;
     private JFrame frame; // for testing purposes only (outside of SQL Developer)
-    private Thread producerThread;
-    private Thread consumerThread;
     private boolean debug = false;
     private final URL htmlReportAssetPath;
+    // creates the sessions of the additional shards in a parallel run
+    private Supplier<Connection> connectionFactory;
+    private Integer numberOfShards;
+    private final List<Shard> shards = new ArrayList<>();
+    private final AtomicInteger runningConsumers = new AtomicInteger();
+    // producer and consumer tasks of all shards, the run completes with the last one
+    private final AtomicInteger runningTasks = new AtomicInteger();
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private volatile boolean consumerFailed = false;
+    private volatile boolean stopRequested = false;
+    // passed to the shared executor, identifies a queued run and starts it in a worker thread
+    private final Runnable starter = () -> UtplsqlExecutor.getInstance().execute("realtime starter",
+            this::startRun);
+    private int finishedShards;
+    private long startNanos;
+    private volatile long startupLatencyMillis = -1;
+
+    /**
+     * Part of a run executed in its own producer and consumer session. A serial
+     * run has a single shard.
+     */
+    private static class Shard {
+        private final String reporterId;
+        private final List<String> pathList;
+        private final Connection producerConn;
+        private final Connection consumerConn;
+        // released when the consumer has opened its cursor or has failed
+        private final CountDownLatch consumerReady = new CountDownLatch(1);
+        private volatile boolean cursorOpened;
+        // the producer task releases its session when done
+        private volatile boolean producerSubmitted;
+        // the test started last in this shard, receives warnings and output of its suites
+        private Test currentTest;
+
+        Shard(final String reporterId, final List<String> pathList, final Connection producerConn,
+                final Connection consumerConn) {
+            this.reporterId = reporterId;
+            this.pathList = pathList;
+            this.producerConn = producerConn;
+            this.consumerConn = consumerConn;
+        }
+    }
 
     public UtplsqlRunner(final List<String> pathList, final String connectionName) {
         this.withCodeCoverage = false;
@@ -115,6 +176,16 @@ public class UtplsqlRunner implements RealtimeReporterEventConsumer {
         this.consumerConn = consumerConn;
     }
 
+    /**
+     * this constructor is intended for tests only (without code coverage, parallel run)
+     */
+    public UtplsqlRunner(final List<String> pathList, final int numberOfShards,
+            final Supplier<Connection> connectionFactory) {
+        this(pathList, connectionFactory.get(), connectionFactory.get());
+        this.numberOfShards = numberOfShards;
+        this.connectionFactory = connectionFactory;
+    }
+
     /**
      * this constructor is intended for tests only (with code coverage and default htmlReportAssetPath)
      */
@@ -135,8 +206,9 @@ public class UtplsqlRunner implements RealtimeReporterEventConsumer {
         if (connectionName == null) {
             throw new NullPointerException("Cannot initialize a RealtimeConsumer without a ConnectionName");
         } else {
-            producerConn = DatabaseTools.cloneConnection(connectionName);
-            consumerConn = DatabaseTools.cloneConnection(connectionName);
+            // sessions are borrowed when the run is started by the shared executor
+            final UtplsqlSessionPool pool = UtplsqlSessionPool.getInstance();
+            connectionFactory = () -> pool.borrow(connectionName);
         }
         this.connectionName = connectionName;
     }
@@ -145,24 +217,61 @@ public class UtplsqlRunner implements RealtimeReporterEventConsumer {
         this.debug = true;
     }
 
+    /**
+     * Returns a session to the pool when running in SQL Developer, otherwise it
+     * is closed.
+     */
+    private void releaseConnection(final Connection conn) {
+        if (conn == null) {
+            // not borrowed, the run has not been started
+            return;
+        }
+        if (connectionName == null) {
+            DatabaseTools.closeConnection(conn);
+        } else {
+            UtplsqlSessionPool.getInstance().release(connectionName, conn);
+        }
+    }
+
     public void dispose() {
         // running in SQL Developer
-        DatabaseTools.closeConnection(producerConn);
-        DatabaseTools.closeConnection(consumerConn);
+        if (shards.isEmpty()) {
+            releaseConnection(producerConn);
+            releaseConnection(consumerConn);
+        }
+        for (final Shard shard : shards) {
+            // a submitted producer might still run after a stop, it releases its own session
+            if (!shard.producerSubmitted) {
+                releaseConnection(shard.producerConn);
+            }
+            releaseConnection(shard.consumerConn);
+        }
         if (frame != null) {
             frame.setVisible(false);
         }
         run.setConsumerConn(null);
+        run.setShardConsumerConns(new ArrayList<>());
     }
 
+    /**
+     * Processes the events of a serial run.
+     */
     @Override
     public void process(final RealtimeReporterEvent event) {
+        process(shards.isEmpty() ? null : shards.get(0), event);
+    }
+
+    /**
+     * Processes the events of all shards. The events of a shard are processed in
+     * order, the events of different shards are interleaved.
+     */
+    private synchronized void process(final Shard shard, final RealtimeReporterEvent event) {
         logger.fine(event::toString);
         // dynamic dispatching code originally generated by Xtend
         if (event instanceof PostRunEvent) {
             doProcess((PostRunEvent) event);
         } else if (event instanceof PostSuiteEvent) {
-            doProcess((PostSuiteEvent) event);
+            doProcess(shard, (PostSuiteEvent) event);
         } else if (event instanceof PostTestEvent) {
             doProcess((PostTestEvent) event);
         } else if (event instanceof PreRunEvent) {
@@ -170,7 +279,7 @@ public class UtplsqlRunner implements RealtimeReporterEventConsumer {
         } else if (event instanceof PreSuiteEvent) {
             doProcess((PreSuiteEvent) event);
         } else if (event instanceof PreTestEvent) {
-            doProcess((PreTestEvent) event);
+            doProcess(shard, (PreTestEvent) event);
         } else {
             throw new IllegalArgumentException("Unhandled event: " + event.toString());
         }
@@ -193,6 +302,7 @@ public class UtplsqlRunner implements RealtimeReporterEventConsumer {
         run.setCurrentTestNumber(0);
         run.setStatus(UtplsqlResources.getString("RUNNER_INITIALIZING_TEXT"));
         run.setConsumerConn(consumerConn);
+        run.setStopRequest(this::stop);
         panel.setModel(run);
         panel.update(realtimeReporterId);
     }
@@ -205,18 +315,68 @@ public class UtplsqlRunner implements RealtimeReporterEventConsumer {
     }
     
     private void doProcess(final PreRunEvent event) {
-        run.setTotalNumberOfTests(event.getTotalNumberOfTests());
-        run.put(event.getItems());
+        if (startupLatencyMillis < 0) {
+            startupLatencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            logger.fine(() -> "First event received " + startupLatencyMillis + " ms after start.");
+        }
+        // in a parallel run every shard announces its own tests
+        run.setTotalNumberOfTests(Math.max(run.getTotalNumberOfTests(), 0) + event.getTotalNumberOfTests());
+        if (getPreferenceModel().isShowTopLevelSuitesFirst()) {
+            run.put(event.getItems(), this::publish);
+        } else {
+            run.put(event.getItems());
+        }
         run.setStatus(UtplsqlResources.getString("RUNNER_RUNNING_TEXT"));
         panel.update(realtimeReporterId);
     }
 
+    /**
+     * Applies a change of the run on the event dispatch thread, which reads the
+     * run while the runner panel is updated.
+     */
+    private void publish(final Runnable change) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            change.run();
+        } else {
+            try {
+                SwingUtilities.invokeAndWait(change);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warning(() -> "Interrupted while publishing items of run " + realtimeReporterId + ".");
+            } catch (InvocationTargetException e) {
+                throw new GenericRuntimeException("Error while publishing items of run " + realtimeReporterId + ".",
+                        e.getCause());
+            }
+        }
+        panel.update(realtimeReporterId);
+    }
+
+    private static String appendText(final String text, final String otherText) {
+        if (text == null) {
+            return otherText;
+        }
+        return otherText == null ? text : text + "\n\n" + otherText;
+    }
+
     private void doProcess(final PostRunEvent event) {
-        run.setStartTime(event.getStartTime());
-        run.setEndTime(event.getEndTime());
-        run.setExecutionTime(event.getExecutionTime());
-        run.setErrorStack(event.getErrorStack());
-        run.setServerOutput(event.getServerOutput());
+        if (shards.size() <= 1) {
+            run.setStartTime(event.getStartTime());
+            run.setEndTime(event.getEndTime());
+            run.setExecutionTime(event.getExecutionTime());
+            run.setErrorStack(event.getErrorStack());
+            run.setServerOutput(event.getServerOutput());
+        } else {
+            // parallel run, finished with the last shard
+            finishedShards++;
+            run.setErrorStack(appendText(run.getErrorStack(), event.getErrorStack()));
+            run.setServerOutput(appendText(run.getServerOutput(), event.getServerOutput()));
+            if (finishedShards < shards.size()) {
+                panel.update(realtimeReporterId);
+                return;
+            }
+            run.setEndTime(event.getEndTime());
+            run.setExecutionTime((System.currentTimeMillis() - Double.valueOf(run.getStart())) / 1000);
+        }
         run.setStatus(UtplsqlResources.getString("RUNNER_FINISHED_TEXT"));
         panel.update(realtimeReporterId);
     }
@@ -230,7 +390,7 @@ public class UtplsqlRunner implements RealtimeReporterEventConsumer {
         panel.update(realtimeReporterId);
     }
 
-    private void doProcess(final PostSuiteEvent event) {
+    private void doProcess(final Shard shard, final PostSuiteEvent event) {
         final ItemNode node = run.getItemNodes().get(event.getId());
         assert logFalseCondition(node != null, () -> "Could not find suite id \"" + event.getId()
                 + "\" when processing PostSuiteEvent " + event.toString() + ".");
@@ -273,7 +433,8 @@ public class UtplsqlRunner implements RealtimeReporterEventConsumer {
             }
         }
         
-        final Test test = run.getCurrentTest();
+        // the current test of the run might belong to another shard
+        final Test test = shard != null ? shard.currentTest : run.getCurrentTest();
         // Errors on suite levels are reported as warnings by the utPLSQL framework, 
         // since an error on suite level does not affect a status of a test.
         // It is possible that the test is OK, but contains error messages on suite level(s)
@@ -312,14 +473,18 @@ public class UtplsqlRunner implements RealtimeReporterEventConsumer {
         panel.update(realtimeReporterId, suite);
     }
 
-    private void doProcess(final PreTestEvent event) {
+    private void doProcess(final Shard shard, final PreTestEvent event) {
         final Test test = run.getTest(event.getId());
         assert logFalseCondition(test != null, () -> "Could not find test id \"" + event.getId()
                 + "\" when processing PreTestEvent " + event.toString() + ".");
         test.setStartTime(StringTools.getSysdate());
         run.setStatus(event.getId() + "...");
-        run.setCurrentTestNumber(event.getTestNumber());
+        // numbered within the run, the event's number is relative to its shard
+        run.setCurrentTestNumber(test.getTestNumber());
         run.setCurrentTest(test);
+        if (shard != null) {
+            shard.currentTest = test;
+        }
         panel.update(realtimeReporterId, test);
     }
 
@@ -364,50 +529,128 @@ public class UtplsqlRunner implements RealtimeReporterEventConsumer {
         }
     }
 
-    private void produce() {
+    /**
+     * Waits until the consumer has opened its cursor. Avoids concurrency on
+     * the output header table, see issue #80.
+     * 
+     * @return true if the consumer is ready
+     */
+    private boolean awaitConsumer(final Shard shard) {
+        try {
+            if (!shard.consumerReady.await(CONSUMER_READY_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warning(() -> "Consumer for reporter id " + shard.reporterId + " not ready after "
+                        + CONSUMER_READY_TIMEOUT_SECONDS + " seconds, producing events anyway.");
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return shard.cursorOpened;
+    }
+
+    private void produce(final Shard shard) {
+        final String reporterId = shard.reporterId;
         try {
-            logger.fine(() -> "Running utPLSQL tests and producing events via reporter id " + realtimeReporterId + "...");
-            final RealtimeReporterDao dao = new RealtimeReporterDao(producerConn);
+            if (!awaitConsumer(shard)) {
+                logger.severe(() -> "No consumer for reporter id " + reporterId + ", tests are not run.");
+                return;
+            }
+            logger.fine(() -> "Running utPLSQL tests and producing events via reporter id " + reporterId + "...");
+            final RealtimeReporterDao dao = new RealtimeReporterDao(shard.producerConn);
             if (withCodeCoverage) {
-                dao.produceReportWithCoverage(realtimeReporterId, coverageReporterId, pathList, schemaList, includeObjectList, excludeObjectList, htmlReportAssetPath);
+                dao.produceReportWithCoverage(reporterId, coverageReporterId, shard.pathList, schemaList, includeObjectList, excludeObjectList, htmlReportAssetPath);
             } else {
                 if (!debug) {
-                    dao.produceReport(realtimeReporterId, pathList);
+                    dao.produceReport(reporterId, shard.pathList);
                 } else {
-                    produceReportWithDebugger(dao.getProduceReportPlsql(realtimeReporterId, pathList));
+                    produceReportWithDebugger(dao.getProduceReportPlsql(reporterId, shard.pathList));
                 }
             }
-            logger.fine(() -> "All events produced for reporter id " + realtimeReporterId + ".");
+            logger.fine(() -> "All events produced for reporter id " + reporterId + ".");
         } catch (Exception e) {
-            logger.severe(() -> "Error while producing events for reporter id " + realtimeReporterId + ": " + e.getMessage() + ".");
+            logger.severe(() -> "Error while producing events for reporter id " + reporterId + ": " + e.getMessage() + ".");
+        } finally {
+            releaseConnection(shard.producerConn);
+            taskCompleted();
         }
     }
 
-    private void consume() {
+    private void consume(final Shard shard) {
+        final String reporterId = shard.reporterId;
         try {
-            try {
-                logger.fine(() -> "Consuming events from reporter id " + realtimeReporterId + " in realtime...");
-                final RealtimeReporterDao dao = new RealtimeReporterDao(consumerConn);
-                if (!debug) {
-                    dao.consumeReport(realtimeReporterId, this);
-                } else {
-                    dao.consumeReport(realtimeReporterId, this, DEBUG_TIMEOUT_SECONDS);
-                }
-                logger.fine(() -> "All events consumed.");
-                if (withCodeCoverage) {
-                    String html = dao.getHtmlCoverage(coverageReporterId);
-                    CodeCoverageReporter.openInBrowser(html);
-                }
-            } catch (Exception e) {
-                logger.severe(() -> "Error while consuming events for reporter id " + realtimeReporterId + ": " + e.getMessage() + ".");
+            logger.fine(() -> "Consuming events from reporter id " + reporterId + " in realtime...");
+            final RealtimeReporterDao dao = new RealtimeReporterDao(shard.consumerConn);
+            dao.setUseAdaptiveFetchSize(getPreferenceModel().isUseAdaptiveFetchSize());
+            final Runnable onCursorOpened = () -> {
+                shard.cursorOpened = true;
+                shard.consumerReady.countDown();
+                logger.fine(() -> "Consumer for reporter id " + reporterId + " ready after "
+                        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + " ms.");
+            };
+            final RealtimeReporterEventConsumer consumer = event -> process(shard, event);
+            if (!debug) {
+                dao.consumeReport(reporterId, consumer, RealtimeReporterDao.DEFAULT_CONSUMER_TIMEOUT_SECONDS,
+                        onCursorOpened);
+            } else {
+                dao.consumeReport(reporterId, consumer, DEBUG_TIMEOUT_SECONDS, onCursorOpened);
+            }
+            logger.fine(() -> "All events consumed.");
+            if (withCodeCoverage) {
+                String html = dao.getHtmlCoverage(coverageReporterId);
+                CodeCoverageReporter.openInBrowser(html);
             }
+        } catch (Exception e) {
+            consumerFailed = true;
+            logger.severe(() -> "Error while consuming events for reporter id " + reporterId + ": " + e.getMessage() + ".");
         } finally {
-            if (run.getTotalNumberOfTests() < 0) {
-                run.setStatus(UtplsqlResources.getString("RUNNER_NO_TESTS_FOUND_TEXT"));
-                run.setExecutionTime((System.currentTimeMillis() - Double.valueOf(run.getStart())) / 1000);
-                run.setEndTime(StringTools.getSysdate());
-                run.setTotalNumberOfTests(0);
-                panel.update(realtimeReporterId);
+            // do not keep the producer waiting
+            shard.consumerReady.countDown();
+            if (runningConsumers.decrementAndGet() == 0) {
+                completeRun();
+            }
+            taskCompleted();
+        }
+    }
+
+    /**
+     * Is called by every producer and consumer task. The last one frees the slot
+     * of this run in the shared executor.
+     */
+    private void taskCompleted() {
+        if (runningTasks.decrementAndGet() == 0) {
+            UtplsqlExecutor.getInstance().runCompleted();
+            completed.countDown();
+        }
+    }
+
+    /**
+     * Is called by the consumer of the last shard.
+     */
+    private void completeRun() {
+        try {
+            if (!consumerFailed) {
+                prefetchSources();
+                recordTimings();
+            }
+        } finally {
+            synchronized (this) {
+                if (stopRequested) {
+                    // the status is set by the runner panel
+                    logger.fine(() -> "Run " + realtimeReporterId + " stopped.");
+                } else if (run.getTotalNumberOfTests() < 0) {
+                    run.setStatus(UtplsqlResources.getString("RUNNER_NO_TESTS_FOUND_TEXT"));
+                    run.setExecutionTime((System.currentTimeMillis() - Double.valueOf(run.getStart())) / 1000);
+                    run.setEndTime(StringTools.getSysdate());
+                    run.setTotalNumberOfTests(0);
+                    panel.update(realtimeReporterId);
+                } else if (run.getEndTime() == null && shards.size() > 1) {
+                    // a shard ended without post-run event
+                    run.setStatus(UtplsqlResources.getString("RUNNER_FINISHED_TEXT"));
+                    run.setExecutionTime((System.currentTimeMillis() - Double.valueOf(run.getStart())) / 1000);
+                    run.setEndTime(StringTools.getSysdate());
+                    panel.update(realtimeReporterId);
+                }
             }
             if (isRunningInSqlDeveloper()) {
                 dispose();
@@ -415,6 +658,60 @@ public class UtplsqlRunner implements RealtimeReporterEventConsumer {
         }
     }
 
+    /**
+     * Stores the execution times of the completed run to balance the shards of
+     * subsequent parallel runs. Timings are needed only when parallel runs are
+     * enabled. Runs with code coverage or debugger are not representative.
+     */
+    private void recordTimings() {
+        if (connectionFactory == null || getNumberOfShards() <= 1 || withCodeCoverage || debug
+                || run.getEndTime() == null || run.getTotalNumberOfTests() <= 0) {
+            return;
+        }
+        try {
+            final UtplsqlTimingStore timingStore = UtplsqlTimingStore.getInstance();
+            final int drifts = timingStore.record(UtplsqlMetadataCache.getKey(consumerConn), run);
+            timingStore.save();
+            if (drifts > 0) {
+                logger.fine(() -> drifts + " execution times drifted, next parallel run is rebalanced.");
+            }
+        } catch (Exception e) {
+            logger.warning(() -> "Error while recording test timings: " + e.getMessage() + ".");
+        }
+    }
+
+    /**
+     * Loads the test packages with failed or erroneous tests into the source
+     * cache. Speeds up the navigation from the runner to the failing tests.
+     */
+    private void prefetchSources() {
+        final Map<String, Set<String>> objectNames = new HashMap<>();
+        for (final Test test : run.getTests().values()) {
+            final Counter counter = test.getCounter();
+            if (counter != null && (counter.getFailure() > 0 || counter.getError() > 0)) {
+                objectNames.computeIfAbsent(test.getOwnerName(), k -> new HashSet<>())
+                        .add(test.getObjectName().toUpperCase());
+            }
+        }
+        for (final Map.Entry<String, Set<String>> entry : objectNames.entrySet()) {
+            try {
+                UtplsqlSourceCache.getInstance().prefetch(consumerConn, entry.getKey(), entry.getValue());
+            } catch (Exception e) {
+                logger.warning(() -> "Error while prefetching sources of " + entry.getKey() + ": " + e.getMessage()
+                        + ".");
+            }
+        }
+    }
+
+    private PreferenceModel getPreferenceModel() {
+        try {
+            return PreferenceModel.getInstance(Preferences.getPreferences());
+        } catch (NoClassDefFoundError | ExceptionInInitializerError e) {
+            // running outside of SQL Developer
+            return PreferenceModel.getInstance(null);
+        }
+    }
+
     private boolean isRunningInSqlDeveloper() {
         return (connectionName != null);
     }
@@ -446,28 +743,172 @@ public class UtplsqlRunner implements RealtimeReporterEventConsumer {
         }
     }
 
+    private int getNumberOfShards() {
+        return numberOfShards != null ? numberOfShards : getPreferenceModel().getNumberOfShards();
+    }
+
+    /**
+     * Splits the run into shards. Runs with code coverage or debugger are never
+     * split.
+     */
+    private void initShards() {
+        List<List<String>> pathLists = Collections.singletonList(pathList);
+        if (!withCodeCoverage && !debug && connectionFactory != null && getNumberOfShards() > 1) {
+            try {
+                pathLists = UtplsqlShardPlanner.plan(producerConn, pathList, getNumberOfShards(),
+                        UtplsqlTimingStore.getInstance());
+            } catch (Exception e) {
+                logger.warning(() -> "Cannot split run into shards, running serially: " + e.getMessage() + ".");
+            }
+        }
+        shards.add(new Shard(realtimeReporterId, pathLists.get(0), producerConn, consumerConn));
+        for (int i = 1; i < pathLists.size(); i++) {
+            final Shard shard = new Shard(UUID.randomUUID().toString().replace("-", ""), pathLists.get(i),
+                    connectionFactory.get(), connectionFactory.get());
+            shards.add(shard);
+            run.getShardConsumerConns().add(shard.consumerConn);
+        }
+        if (shards.size() > 1) {
+            logger.info(() -> "Running " + pathList + " in " + shards.size() + " shards.");
+        }
+    }
+
+    /**
+     * Requests to stop the run. A queued run is removed from the queue of the
+     * shared executor. A started run is stopped by aborting its consumer
+     * sessions.
+     * 
+     * @return true if the run was queued and will not be started
+     */
+    private boolean stop() {
+        stopRequested = true;
+        if (!UtplsqlExecutor.getInstance().cancelQueuedRun(starter)) {
+            return false;
+        }
+        logger.fine(() -> "Run " + realtimeReporterId + " removed from queue.");
+        setStoppedBeforeStart();
+        completed.countDown();
+        return true;
+    }
+
+    /**
+     * Sets the status of a run stopped before it has been started. No events are
+     * processed concurrently.
+     */
+    private void setStoppedBeforeStart() {
+        run.setStatus(UtplsqlResources.getString("RUNNER_STOP_RUN_MESSAGE"));
+        run.setExecutionTime((System.currentTimeMillis() - Double.valueOf(run.getStart())) / 1000);
+        run.setEndTime(StringTools.getSysdate());
+        run.setTotalNumberOfTests(0);
+    }
+
+    /**
+     * Borrows the sessions, plans the shards and submits one consumer and one
+     * producer task per shard. Runs in a worker thread of the shared executor
+     * when the run is admitted.
+     */
+    private void startRun() {
+        try {
+            if (isRunningInSqlDeveloper() && !stopRequested) {
+                producerConn = connectionFactory.get();
+                consumerConn = connectionFactory.get();
+                run.setConsumerConn(consumerConn);
+            }
+            if (stopRequested) {
+                // stopped while being admitted, the runner panel had no session to abort
+                logger.fine(() -> "Run " + realtimeReporterId + " stopped before start.");
+                setStoppedBeforeStart();
+                if (isRunningInSqlDeveloper()) {
+                    dispose();
+                }
+                panel.update(realtimeReporterId);
+                UtplsqlExecutor.getInstance().runCompleted();
+                completed.countDown();
+                return;
+            }
+            run.setStatus(UtplsqlResources.getString("RUNNER_INITIALIZING_TEXT"));
+            panel.update(realtimeReporterId);
+            initShards();
+        } catch (RuntimeException e) {
+            logger.severe(() -> "Error while starting run " + realtimeReporterId + ": " + e.getMessage() + ".");
+            if (isRunningInSqlDeveloper()) {
+                dispose();
+            }
+            UtplsqlExecutor.getInstance().runCompleted();
+            completed.countDown();
+            return;
+        }
+        runningConsumers.set(shards.size());
+        runningTasks.set(shards.size() * 2);
+        final UtplsqlExecutor executor = UtplsqlExecutor.getInstance();
+        // the consumers
+        for (int i = 0; i < shards.size(); i++) {
+            final Shard shard = shards.get(i);
+            executor.execute("realtime consumer" + (i > 0 ? " " + (i + 1) : ""), () -> consume(shard));
+        }
+        // the producers, they wait for their consumer
+        for (int i = 0; i < shards.size(); i++) {
+            final Shard shard = shards.get(i);
+            shard.producerSubmitted = true;
+            executor.execute("realtime producer" + (i > 0 ? " " + (i + 1) : ""), () -> produce(shard));
+        }
+    }
+
     public void runTestAsync() {
+        startNanos = System.nanoTime();
         // start tests when the GUI has been successfully initialized.
         if (initGUI()) {
-            // the consumer
-            consumerThread = new Thread(this::consume);
-            consumerThread.setName("realtime consumer");
-            consumerThread.start();
-            // avoid concurrency on output header table to fix issue #80
-            SystemTools.sleep(100);
-            // the producer
-            producerThread = new Thread(this::produce);
-            producerThread.setName("realtime producer");
-            producerThread.start();
+            final UtplsqlExecutor executor = UtplsqlExecutor.getInstance();
+            if (executorConfigured.compareAndSet(false, true)) {
+                // later changes are applied when the preferences are saved
+                final PreferenceModel preferences = getPreferenceModel();
+                executor.setUseVirtualThreads(preferences.isUseVirtualThreads());
+                executor.setMaxConcurrentRuns(preferences.getMaxConcurrentRuns());
+            }
+            final int queuePosition = executor.startRun(starter);
+            if (queuePosition > 0) {
+                logger.fine(() -> "Run " + realtimeReporterId + " queued at position " + queuePosition + ".");
+                run.setStatus(String.format(UtplsqlResources.getString("RUNNER_QUEUED_TEXT"), queuePosition));
+                panel.update(realtimeReporterId);
+            }
+        }
+    }
+
+    /**
+     * Waits until all producer and consumer tasks of the run are completed.
+     * 
+     * @param maxTimeInMillis maximum time to wait
+     * @return true if the run is completed
+     */
+    public boolean awaitCompletion(final int maxTimeInMillis) {
+        try {
+            return completed.await(maxTimeInMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
         }
     }
 
-    public Thread getProducerThread() {
-        return producerThread;
+    /**
+     * @return number of runs waiting in the shared executor for a free slot
+     */
+    public int getQueueDepth() {
+        return UtplsqlExecutor.getInstance().getQueueDepth();
+    }
+
+    /**
+     * @return time in milliseconds from starting the run to receiving the
+     *         pre-run event, -1 if not received yet
+     */
+    public long getStartupLatency() {
+        return startupLatencyMillis;
     }
 
-    public Thread getConsumerThread() {
-        return consumerThread;
+    /**
+     * @return the number of shards of a started run, 1 for a serial run
+     */
+    public int getShardCount() {
+        return shards.size();
     }
     
     // for testing purposes only
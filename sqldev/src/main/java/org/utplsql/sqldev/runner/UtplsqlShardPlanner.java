@@ -0,0 +1,248 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.runner;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.utplsql.sqldev.dal.UtplsqlDao;
+import org.utplsql.sqldev.dal.UtplsqlMetadataCache;
+import org.utplsql.sqldev.model.DatabaseTools;
+
+/**
+ * Splits the paths of a run into shards that can be executed in parallel
+ * database sessions.
+ * 
+ * Schemas and suite paths are expanded to their test packages. Paths to
+ * packages and procedures are kept. Every test package is executed in exactly
+ * one shard, the suites of the suite paths above the packages are executed in
+ * every shard that contains one of their packages.
+ * 
+ * The units are balanced longest first (LPT) by their execution times in the
+ * {@link UtplsqlTimingStore}. Units without execution time are estimated by
+ * their number of tests.
+ */
+public class UtplsqlShardPlanner {
+    // used when no execution time is known at all
+    public static final double DEFAULT_SECONDS_PER_TEST = 0.1;
+
+    private UtplsqlShardPlanner() {
+        super();
+    }
+
+    private static String getOwner(final String path, final String defaultOwner) {
+        final int colonPos = path.indexOf(':');
+        if (colonPos >= 0) {
+            return colonPos == 0 ? defaultOwner : path.substring(0, colonPos).toUpperCase();
+        }
+        return path.contains(".") ? null : path.toUpperCase();
+    }
+
+    private static boolean isOnSuitePath(final String suitePath, final String path) {
+        return suitePath.equalsIgnoreCase(path) || suitePath.toLowerCase().startsWith(path.toLowerCase() + ".");
+    }
+
+    /**
+     * Expands the paths of a run to the units that can be distributed to shards.
+     * 
+     * @param pathList
+     *            paths of the run in the format owner, owner.package,
+     *            owner.package.procedure, [owner]:suitepath
+     * @param suitePaths
+     *            suite path by OWNER.PACKAGE of all test packages in the schemas
+     *            of the path list, as returned by
+     *            {@link UtplsqlDao#getSuitePaths(java.util.Collection)}
+     * @param defaultOwner
+     *            schema of suite paths without owner
+     * @return units in the order of the path list, without duplicates
+     */
+    public static List<String> expand(final List<String> pathList, final Map<String, String> suitePaths,
+            final String defaultOwner) {
+        final Set<String> units = new LinkedHashSet<>();
+        for (final String path : pathList) {
+            final String owner = getOwner(path, defaultOwner);
+            final int colonPos = path.indexOf(':');
+            final String suitePath = colonPos >= 0 ? path.substring(colonPos + 1) : null;
+            boolean found = false;
+            if (owner != null) {
+                for (final Map.Entry<String, String> entry : suitePaths.entrySet()) {
+                    if (entry.getKey().startsWith(owner + ".")
+                            && (suitePath == null || isOnSuitePath(entry.getValue(), suitePath))) {
+                        units.add(entry.getKey());
+                        found = true;
+                    }
+                }
+            }
+            if (!found) {
+                // package, procedure or unknown path, let utPLSQL resolve it
+                units.add(owner == null && path.split("\\.").length == 2 ? path.toUpperCase() : path);
+            }
+        }
+        return new ArrayList<>(units);
+    }
+
+    /**
+     * Distributes units round robin to shards, ignoring their execution times.
+     * 
+     * @return path lists of the shards, no more shards than units
+     */
+    public static List<List<String>> distribute(final List<String> units, final int numberOfShards) {
+        final int shardCount = Math.max(1, Math.min(numberOfShards, units.size()));
+        final List<List<String>> shards = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ArrayList<>());
+        }
+        for (int i = 0; i < units.size(); i++) {
+            shards.get(i % shardCount).add(units.get(i));
+        }
+        return shards;
+    }
+
+    /**
+     * Estimates the execution times of units. Units without known execution time
+     * are estimated by their number of tests and the average execution time per
+     * test of the known units.
+     * 
+     * @param units
+     *            units as returned by {@link #expand(List, Map, String)}
+     * @param executionTimes
+     *            known execution times in seconds by unit
+     * @param numberOfTests
+     *            number of tests by OWNER.PACKAGE, units not found count as one
+     *            test
+     * @return execution time in seconds by unit
+     */
+    public static Map<String, Double> estimate(final List<String> units, final Map<String, Double> executionTimes,
+            final Map<String, Integer> numberOfTests) {
+        double knownTime = 0.0;
+        int knownTests = 0;
+        for (final String unit : units) {
+            final Double executionTime = executionTimes.get(unit);
+            if (executionTime != null) {
+                knownTime += executionTime;
+                knownTests += numberOfTests.getOrDefault(unit, 1);
+            }
+        }
+        final double secondsPerTest = knownTests > 0 && knownTime > 0.0 ? knownTime / knownTests
+                : DEFAULT_SECONDS_PER_TEST;
+        final Map<String, Double> estimates = new HashMap<>();
+        for (final String unit : units) {
+            final Double executionTime = executionTimes.get(unit);
+            estimates.put(unit,
+                    executionTime != null ? executionTime : numberOfTests.getOrDefault(unit, 1) * secondsPerTest);
+        }
+        return estimates;
+    }
+
+    /**
+     * Distributes units longest first to the shard with the lowest total
+     * execution time (LPT).
+     * 
+     * @param executionTimes
+     *            estimated execution time by unit, see
+     *            {@link #estimate(List, Map, Map)}
+     * @return path lists of the shards, no more shards than units
+     */
+    public static List<List<String>> balance(final List<String> units, final Map<String, Double> executionTimes,
+            final int numberOfShards) {
+        final int shardCount = Math.max(1, Math.min(numberOfShards, units.size()));
+        final List<List<String>> shards = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ArrayList<>());
+        }
+        final List<String> sortedUnits = new ArrayList<>(units);
+        // stable, units with the same execution time keep their order
+        sortedUnits.sort(Comparator.comparingDouble((String unit) -> executionTimes.getOrDefault(unit, 0.0))
+                .reversed());
+        final double[] loads = new double[shardCount];
+        for (final String unit : sortedUnits) {
+            int shard = 0;
+            for (int i = 1; i < shardCount; i++) {
+                if (loads[i] < loads[shard]) {
+                    shard = i;
+                }
+            }
+            shards.get(shard).add(unit);
+            loads[shard] += executionTimes.getOrDefault(unit, 0.0);
+        }
+        return shards;
+    }
+
+    /**
+     * @return the execution time of the slowest shard in seconds
+     */
+    public static double getMakespan(final List<List<String>> shards, final Map<String, Double> executionTimes) {
+        double makespan = 0.0;
+        for (final List<String> shard : shards) {
+            double load = 0.0;
+            for (final String unit : shard) {
+                load += executionTimes.getOrDefault(unit, 0.0);
+            }
+            makespan = Math.max(makespan, load);
+        }
+        return makespan;
+    }
+
+    /**
+     * Plans the shards of a run. Reads the suite paths of all involved schemas
+     * with a single query. The number of tests is queried only for units without
+     * stored execution time.
+     * 
+     * @param timingStore
+     *            execution times of previous runs
+     * @return path lists of the shards, a single shard with the original path
+     *         list if the run cannot be split
+     */
+    public static List<List<String>> plan(final Connection conn, final List<String> pathList,
+            final int numberOfShards, final UtplsqlTimingStore timingStore) {
+        if (numberOfShards <= 1) {
+            return Collections.singletonList(pathList);
+        }
+        final String defaultOwner = DatabaseTools.getSchema(conn).toUpperCase();
+        final Set<String> owners = new LinkedHashSet<>();
+        for (final String path : pathList) {
+            final String owner = getOwner(path, defaultOwner);
+            if (owner != null) {
+                owners.add(owner);
+            }
+        }
+        final UtplsqlDao dao = new UtplsqlDao(conn);
+        final Map<String, String> suitePaths = dao.getSuitePaths(owners);
+        final List<String> units = expand(pathList, suitePaths, defaultOwner);
+        if (units.size() <= 1) {
+            return Collections.singletonList(pathList);
+        }
+        final String connKey = UtplsqlMetadataCache.getKey(conn);
+        final Map<String, Double> executionTimes = new HashMap<>();
+        for (final String unit : units) {
+            final Double executionTime = timingStore.getExecutionTime(connKey, unit);
+            if (executionTime != null) {
+                executionTimes.put(unit, executionTime);
+            }
+        }
+        final Map<String, Integer> numberOfTests = executionTimes.size() < units.size()
+                ? dao.getNumberOfTests(owners)
+                : Collections.emptyMap();
+        return balance(units, estimate(units, executionTimes, numberOfTests), numberOfShards);
+    }
+}
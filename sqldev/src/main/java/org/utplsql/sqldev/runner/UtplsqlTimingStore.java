@@ -0,0 +1,240 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.runner;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import org.springframework.core.style.ToStringCreator;
+import org.utplsql.sqldev.exception.GenericRuntimeException;
+import org.utplsql.sqldev.model.FileTools;
+import org.utplsql.sqldev.model.JsonToStringStyler;
+import org.utplsql.sqldev.model.LimitedLinkedHashMap;
+import org.utplsql.sqldev.model.runner.ItemNode;
+import org.utplsql.sqldev.model.runner.Run;
+import org.utplsql.sqldev.model.runner.Suite;
+import org.utplsql.sqldev.model.runner.Test;
+
+/**
+ * Stores the execution times of test packages and tests of completed runs in a
+ * local file. They are used to balance the shards of parallel runs.
+ * 
+ * A unit is identified by connection and OWNER.PACKAGE or
+ * OWNER.PACKAGE.PROCEDURE. A new execution time is smoothed with the stored
+ * one. It replaces the stored one when they differ by more than the drift
+ * factor, so that the next run is balanced with the changed timings. The number
+ * of stored units is limited, the least recently recorded ones are evicted first.
+ */
+public class UtplsqlTimingStore {
+    private static final Logger logger = Logger.getLogger(UtplsqlTimingStore.class.getName());
+    public static final Path DEFAULT_FILE = Paths.get(System.getProperty("user.home"), "utplsql",
+            "timings.properties");
+    public static final double DRIFT_FACTOR = 2.0;
+    public static final double SMOOTHING_FACTOR = 0.3;
+    public static final int MAX_ENTRIES = 10000;
+    private static UtplsqlTimingStore instance;
+    private final Path file;
+    private final Map<String, Double> executionTimes;
+    private boolean loaded;
+    private boolean changed;
+    private int drifts;
+
+    /**
+     * this constructor is intended for tests only, use {@link #getInstance()}
+     */
+    public UtplsqlTimingStore(final Path file) {
+        this(file, MAX_ENTRIES);
+    }
+
+    /**
+     * this constructor is intended for tests only, use {@link #getInstance()}
+     */
+    public UtplsqlTimingStore(final Path file, final int maxEntries) {
+        this.file = file;
+        executionTimes = new LimitedLinkedHashMap<>(maxEntries);
+    }
+
+    public static synchronized UtplsqlTimingStore getInstance() {
+        if (instance == null) {
+            instance = new UtplsqlTimingStore(DEFAULT_FILE);
+        }
+        return instance;
+    }
+
+    private static String getKey(final String connKey, final String unit) {
+        return connKey + "/" + unit.toUpperCase();
+    }
+
+    private void load() {
+        if (!loaded) {
+            loaded = true;
+            if (file != null && Files.exists(file)) {
+                try {
+                    final Properties props = new Properties();
+                    props.load(new StringReader(new String(FileTools.readFile(file), StandardCharsets.UTF_8)));
+                    for (final String key : props.stringPropertyNames()) {
+                        executionTimes.put(key, Double.valueOf(props.getProperty(key)));
+                    }
+                } catch (IOException | RuntimeException e) {
+                    logger.warning(() -> "Cannot load test timings from " + file + ": " + e.getMessage() + ".");
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the execution times to the file, if they have changed.
+     */
+    public synchronized void save() {
+        if (changed && file != null) {
+            final Properties props = new Properties();
+            for (final Map.Entry<String, Double> entry : executionTimes.entrySet()) {
+                props.setProperty(entry.getKey(), entry.getValue().toString());
+            }
+            try {
+                Files.createDirectories(file.getParent());
+                final StringWriter writer = new StringWriter();
+                props.store(writer, "utPLSQL test timings in seconds");
+                FileTools.writeFile(file, writer.toString().getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                final String msg = "Cannot write file " + file.toString() + ".";
+                throw new GenericRuntimeException(msg, e);
+            }
+            changed = false;
+        }
+    }
+
+    /**
+     * @return the stored execution time in seconds or null if unknown
+     */
+    public synchronized Double getExecutionTime(final String connKey, final String unit) {
+        load();
+        return executionTimes.get(getKey(connKey, unit));
+    }
+
+    /**
+     * Stores an execution time.
+     * 
+     * @return true if the execution time has drifted and replaced the stored one
+     */
+    public synchronized boolean putExecutionTime(final String connKey, final String unit,
+            final double executionTime) {
+        load();
+        final String key = getKey(connKey, unit);
+        final Double stored = executionTimes.get(key);
+        boolean drifted = false;
+        double value = executionTime;
+        if (stored != null) {
+            if (executionTime > stored * DRIFT_FACTOR || executionTime * DRIFT_FACTOR < stored) {
+                drifted = true;
+                drifts++;
+                logger.fine(() -> "Execution time of " + key + " drifted from " + stored + " to " + executionTime
+                        + " seconds.");
+            } else {
+                value = stored + (executionTime - stored) * SMOOTHING_FACTOR;
+            }
+        }
+        // re-insert to evict the least recently recorded units first
+        executionTimes.remove(key);
+        executionTimes.put(key, value);
+        changed = true;
+        return drifted;
+    }
+
+    private static String getPackageSuiteId(final Test test) {
+        // the suite of a package is the last path element named like the package, followed by contexts and the test
+        final String[] elements = test.getId().split("\\.");
+        for (int i = elements.length - 2; i >= 0; i--) {
+            if (elements[i].equalsIgnoreCase(test.getObjectName())) {
+                return String.join(".", Arrays.copyOfRange(elements, 0, i + 1));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores the execution times of the tests and test packages of a completed
+     * run. Disabled and not completed tests are ignored.
+     * 
+     * @return number of drifted execution times
+     */
+    public synchronized int record(final String connKey, final Run run) {
+        final Map<String, Double> packageTimes = new HashMap<>();
+        final Map<String, Double> suiteTimes = new HashMap<>();
+        int driftCount = 0;
+        for (final Test test : run.getTests().values()) {
+            if (test.getExecutionTime() == null || test.getEndTime() == null || Boolean.TRUE.equals(test.isDisabled())
+                    || test.getOwnerName() == null || test.getObjectName() == null) {
+                continue;
+            }
+            final String packageName = test.getOwnerName() + "." + test.getObjectName();
+            if (putExecutionTime(connKey, packageName + "." + test.getProcedureName(), test.getExecutionTime())) {
+                driftCount++;
+            }
+            packageTimes.merge(packageName, test.getExecutionTime(), Double::sum);
+            if (!suiteTimes.containsKey(packageName)) {
+                final ItemNode node = run.getItemNodes().get(getPackageSuiteId(test));
+                if (node != null && node.getUserObject() instanceof Suite) {
+                    suiteTimes.put(packageName, ((Suite) node.getUserObject()).getExecutionTime());
+                }
+            }
+        }
+        for (final Map.Entry<String, Double> entry : packageTimes.entrySet()) {
+            // the suite's execution time includes the setup and teardown of the package
+            final Double suiteTime = suiteTimes.get(entry.getKey());
+            final double executionTime = suiteTime != null && suiteTime >= entry.getValue() ? suiteTime
+                    : entry.getValue();
+            if (putExecutionTime(connKey, entry.getKey(), executionTime)) {
+                driftCount++;
+            }
+        }
+        return driftCount;
+    }
+
+    public synchronized void clear() {
+        executionTimes.clear();
+        loaded = true;
+        changed = true;
+    }
+
+    public synchronized int size() {
+        load();
+        return executionTimes.size();
+    }
+
+    public synchronized int getDrifts() {
+        return drifts;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return new ToStringCreator(this, JsonToStringStyler.getInstance())
+                .append("file", file)
+                .append("size", executionTimes.size())
+                .append("drifts", drifts)
+                .toString();
+    }
+}
@@ -30,6 +30,7 @@ import org.utplsql.sqldev.exception.GenericRuntimeException;
 import org.utplsql.sqldev.model.DatabaseTools;
 import org.utplsql.sqldev.model.StringTools;
 import org.utplsql.sqldev.model.SystemTools;
+import org.utplsql.sqldev.model.UtplsqlExecutor;
 import org.utplsql.sqldev.model.preference.PreferenceModel;
 import org.utplsql.sqldev.resources.UtplsqlResources;
 
@@ -43,6 +44,7 @@ import oracle.ide.controller.IdeAction;
 
 public class UtplsqlWorksheetRunner {
     private static final Logger logger = Logger.getLogger(UtplsqlWorksheetRunner.class.getName());
+    private static final int MAX_WAIT_MILLIS = 2000;
 
     private final PreferenceModel preferences;
     private final List<String> pathList;
@@ -117,14 +119,20 @@ public class UtplsqlWorksheetRunner {
         return worksheet;
     }
 
-    private void resizeResultPanel(final Worksheet worksheet) {
-        SystemTools.sleep(200);
+    private Container getResultSplitPane(final Worksheet worksheet) {
         Container splitPane = null;
         WorksheetResultPanel selectedResultPanel = worksheet.getSelectedResultPanel();
         if (selectedResultPanel != null && selectedResultPanel.getGUI() != null && selectedResultPanel.getGUI().getParent() != null
                 && selectedResultPanel.getGUI().getParent().getParent() != null && selectedResultPanel.getGUI().getParent().getParent().getParent() != null) {
             splitPane = selectedResultPanel.getGUI().getParent().getParent().getParent();
         }
+        return splitPane;
+    }
+
+    private void resizeResultPanel(final Worksheet worksheet) {
+        // wait until the result panel is shown instead of a fixed time
+        SystemTools.waitFor(() -> getResultSplitPane(worksheet) instanceof JSplitPane, MAX_WAIT_MILLIS);
+        final Container splitPane = getResultSplitPane(worksheet);
         if (splitPane instanceof JSplitPane) {
             ((JSplitPane) splitPane).setDividerLocation(0.15);
         } else {
@@ -150,7 +158,11 @@ public class UtplsqlWorksheetRunner {
 
     private void runScript(final Worksheet worksheet) {
         if (preferences.isAutoExecute()) {
-            SystemTools.sleep(100);
+            // wait until the editor of the new worksheet is shown instead of a fixed time
+            if (!SystemTools.waitFor(() -> worksheet.getFocusedEditorPane() != null
+                    && worksheet.getFocusedEditorPane().isShowing(), MAX_WAIT_MILLIS)) {
+                logger.fine(() -> "Worksheet not ready after " + MAX_WAIT_MILLIS + " ms, running script anyway.");
+            }
             if (debug) {
                 runDebugger(worksheet, worksheet.getFocusedEditorPane().getText());
             } else {
@@ -176,9 +188,15 @@ public class UtplsqlWorksheetRunner {
     }
 
     public void runTestAsync() {
-        final Thread thread = new Thread(this::runTest);
-        thread.setName("utPLSQL run test");
-        thread.start();
+        final UtplsqlExecutor executor = UtplsqlExecutor.getInstance();
+        executor.startRun(() -> executor.execute("utPLSQL run test", () -> {
+            try {
+                runTest();
+            } finally {
+                // the worksheet runs the script on its own
+                executor.runCompleted();
+            }
+        }));
     }
 
     public static void openWithCode(final String code, final String connectionName) {
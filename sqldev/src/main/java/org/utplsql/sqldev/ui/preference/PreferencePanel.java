@@ -28,6 +28,7 @@ import javax.swing.SpinnerNumberModel;
 import javax.swing.table.DefaultTableModel;
 
 import org.utplsql.sqldev.model.StringTools;
+import org.utplsql.sqldev.model.UtplsqlExecutor;
 import org.utplsql.sqldev.model.preference.PreferenceModel;
 import org.utplsql.sqldev.resources.UtplsqlResources;
 import org.utplsql.sqldev.snippet.SnippetMerger;
@@ -64,6 +65,15 @@ public class PreferencePanel extends DefaultTraversablePanel {
     private final JCheckBox showTestDescriptionCheckBox = new JCheckBox();
     private final JCheckBox syncDetailTabCheckBox = new JCheckBox();
     private final JCheckBox showSuitesCheckBox = new JCheckBox();
+    private final JCheckBox useAdaptiveFetchSizeCheckBox = new JCheckBox();
+    private final JCheckBox showTopLevelSuitesFirstCheckBox = new JCheckBox();
+    private final SpinnerNumberModel updateFramesPerSecondModel = new SpinnerNumberModel(1, 1, 60, 1);
+    private final JSpinner updateFramesPerSecondSpinner = new JSpinner(updateFramesPerSecondModel);
+    private final SpinnerNumberModel numberOfShardsModel = new SpinnerNumberModel(1, 1, 32, 1);
+    private final JSpinner numberOfShardsSpinner = new JSpinner(numberOfShardsModel);
+    private final SpinnerNumberModel maxConcurrentRunsModel = new SpinnerNumberModel(1, 1, 16, 1);
+    private final JSpinner maxConcurrentRunsSpinner = new JSpinner(maxConcurrentRunsModel);
+    private final JCheckBox useVirtualThreadsCheckBox = new JCheckBox();
     private final JPanel generateTestPanel = new JPanel();
     private final JTextField testPackagePrefixTextField = new JTextField();
     private final JTextField testPackageSuffixTextField = new JTextField();
@@ -138,6 +148,24 @@ public class PreferencePanel extends DefaultTraversablePanel {
                 .component(syncDetailTabCheckBox));
         rrTab.add(runTab.field().label().withText(UtplsqlResources.getString("PREF_SHOW_SUITES_LABEL"))
                 .component(showSuitesCheckBox));
+        rrTab.add(runTab.field().label().withText(UtplsqlResources.getString("PREF_USE_ADAPTIVE_FETCH_SIZE_LABEL"))
+                .component(useAdaptiveFetchSizeCheckBox)
+                .withHint(UtplsqlResources.getString("PREF_USE_ADAPTIVE_FETCH_SIZE_HINT")));
+        rrTab.add(runTab.field().label().withText(UtplsqlResources.getString("PREF_SHOW_TOP_LEVEL_SUITES_FIRST_LABEL"))
+                .component(showTopLevelSuitesFirstCheckBox)
+                .withHint(UtplsqlResources.getString("PREF_SHOW_TOP_LEVEL_SUITES_FIRST_HINT")));
+        rrTab.add(runTab.field().label().withText(UtplsqlResources.getString("PREF_UPDATE_FRAMES_PER_SECOND_LABEL"))
+                .component(updateFramesPerSecondSpinner)
+                .withHint(UtplsqlResources.getString("PREF_UPDATE_FRAMES_PER_SECOND_HINT")));
+        rrTab.add(runTab.field().label().withText(UtplsqlResources.getString("PREF_NUMBER_OF_SHARDS_LABEL"))
+                .component(numberOfShardsSpinner)
+                .withHint(UtplsqlResources.getString("PREF_NUMBER_OF_SHARDS_HINT")));
+        rrTab.add(runTab.field().label().withText(UtplsqlResources.getString("PREF_MAX_CONCURRENT_RUNS_LABEL"))
+                .component(maxConcurrentRunsSpinner)
+                .withHint(UtplsqlResources.getString("PREF_MAX_CONCURRENT_RUNS_HINT")));
+        rrTab.add(runTab.field().label().withText(UtplsqlResources.getString("PREF_USE_VIRTUAL_THREADS_LABEL"))
+                .component(useVirtualThreadsCheckBox)
+                .withHint(UtplsqlResources.getString("PREF_USE_VIRTUAL_THREADS_HINT")));
         rrTab.addVerticalSpring();
         
         // generate test group
@@ -378,6 +406,12 @@ public class PreferencePanel extends DefaultTraversablePanel {
         showTestDescriptionCheckBox.setSelected(info.isShowTestDescription());
         syncDetailTabCheckBox.setSelected(info.isSyncDetailTab());
         showSuitesCheckBox.setSelected(info.isShowSuites());
+        useAdaptiveFetchSizeCheckBox.setSelected(info.isUseAdaptiveFetchSize());
+        showTopLevelSuitesFirstCheckBox.setSelected(info.isShowTopLevelSuitesFirst());
+        updateFramesPerSecondSpinner.setValue(info.getUpdateFramesPerSecond());
+        numberOfShardsSpinner.setValue(info.getNumberOfShards());
+        maxConcurrentRunsSpinner.setValue(info.getMaxConcurrentRuns());
+        useVirtualThreadsCheckBox.setSelected(info.isUseVirtualThreads());
         testPackagePrefixTextField.setText(info.getTestPackagePrefix());
         testPackageSuffixTextField.setText(info.getTestPackageSuffix());
         testUnitPrefixTextField.setText(info.getTestUnitPrefix());
@@ -417,6 +451,12 @@ public class PreferencePanel extends DefaultTraversablePanel {
         info.setShowTestDescription(showTestDescriptionCheckBox.isSelected());
         info.setSyncDetailTab(syncDetailTabCheckBox.isSelected());
         info.setShowSuites(showSuitesCheckBox.isSelected());
+        info.setUseAdaptiveFetchSize(useAdaptiveFetchSizeCheckBox.isSelected());
+        info.setShowTopLevelSuitesFirst(showTopLevelSuitesFirstCheckBox.isSelected());
+        info.setUpdateFramesPerSecond((Integer) updateFramesPerSecondSpinner.getValue());
+        info.setNumberOfShards((Integer) numberOfShardsSpinner.getValue());
+        info.setMaxConcurrentRuns((Integer) maxConcurrentRunsSpinner.getValue());
+        info.setUseVirtualThreads(useVirtualThreadsCheckBox.isSelected());
         info.setTestPackagePrefix(testPackagePrefixTextField.getText());
         info.setTestPackageSuffix(testPackageSuffixTextField.getText());
         info.setTestUnitPrefix(testUnitPrefixTextField.getText());
@@ -431,6 +471,10 @@ public class PreferencePanel extends DefaultTraversablePanel {
         info.setGenerateFiles(generateFilesCheckBox.isSelected());
         info.setOutputDirectory(outputDirectoryTextField.getText());
         info.setDeleteExistingFiles(deleteExistingFilesCheckBox.isSelected());
+        // applied to new runs and tasks, running tasks keep their threads
+        final UtplsqlExecutor executor = UtplsqlExecutor.getInstance();
+        executor.setUseVirtualThreads(info.isUseVirtualThreads());
+        executor.setMaxConcurrentRuns(info.getMaxConcurrentRuns());
         super.onExit(traversableContext);
     }
 
@@ -57,6 +57,7 @@ import javax.swing.JTree;
 import javax.swing.LookAndFeel;
 import javax.swing.RepaintManager;
 import javax.swing.RowFilter;
+import javax.swing.SwingUtilities;
 import javax.swing.Timer;
 import javax.swing.UIManager;
 import javax.swing.border.Border;
@@ -74,10 +75,11 @@ import javax.swing.tree.TreePath;
 import org.springframework.web.util.HtmlUtils;
 import org.utplsql.sqldev.coverage.CodeCoverageReporter;
 import org.utplsql.sqldev.dal.UtplsqlDao;
+import org.utplsql.sqldev.dal.UtplsqlSessionPool;
 import org.utplsql.sqldev.model.DatabaseTools;
 import org.utplsql.sqldev.model.LimitedLinkedHashMap;
 import org.utplsql.sqldev.model.StringTools;
-import org.utplsql.sqldev.model.SystemTools;
+import org.utplsql.sqldev.model.UtplsqlExecutor;
 import org.utplsql.sqldev.model.preference.PreferenceModel;
 import org.utplsql.sqldev.model.runner.Counter;
 import org.utplsql.sqldev.model.runner.Expectation;
@@ -85,7 +87,7 @@ import org.utplsql.sqldev.model.runner.Item;
 import org.utplsql.sqldev.model.runner.ItemNode;
 import org.utplsql.sqldev.model.runner.Run;
 import org.utplsql.sqldev.model.runner.Test;
-import org.utplsql.sqldev.parser.UtplsqlParser;
+import org.utplsql.sqldev.parser.UtplsqlSourceCache;
 import org.utplsql.sqldev.resources.UtplsqlResources;
 import org.utplsql.sqldev.runner.UtplsqlRunner;
 import org.utplsql.sqldev.runner.UtplsqlWorksheetRunner;
@@ -101,17 +103,21 @@ public class RunnerPanel {
     private static final Color RED = new Color(153, 0, 0);
     private static final int INDICATOR_WIDTH = 20;
     private static final int OVERVIEW_TABLE_ROW_HEIGHT = 20;
+    // larger runs show the top-level suites and their children only, the other suites are loaded on expand
+    private static final int MAX_NODES_TO_EXPAND_ALL = 2000;
     private static final Dimension TEXTPANE_DIM = new Dimension(100, 100);
 
     private boolean useSmartTimes = false;
     private LimitedLinkedHashMap<String, Run> runs = new LimitedLinkedHashMap<>(10);
     private Run currentRun;
+    private boolean allNodesExpanded;
     private JPanel basePanel;
     private DefaultComboBoxModel<ComboBoxItem<String, String>> runComboBoxModel;
     private ToolbarButton stopButton;
     private JComboBox<ComboBoxItem<String, String>> runComboBox;
     private JLabel statusLabel;
     private Timer elapsedTimeTimer;
+    private final RunnerUpdateScheduler updateScheduler = new RunnerUpdateScheduler(20, this::flushUpdates);
     private JLabel testCounterValueLabel;
     private JLabel errorCounterValueLabel;
     private JLabel failureCounterValueLabel;
@@ -407,28 +413,26 @@ public class RunnerPanel {
         } else {
             // tree-table
             testOverviewTreeTableModel.updateModel(showSuccessfulTests, showDisabledTests);
-            expandAllNodes(testOverviewTreeTable.getTree(), 0);
+            expandNodes();
         }
     }
         
     private void openItemNode(final ItemNode node) {
         if (!node.getPackageName().equals("***")) {
-            final UtplsqlDao dao = new UtplsqlDao(DatabaseTools.getConnection(currentRun.getConnectionName()));
-            final String source = dao.getSource(node.getOwnerName(), "PACKAGE", node.getPackageName().toUpperCase()).trim();
-            final UtplsqlParser parser = new UtplsqlParser(source);
             int line = 1;
             if (node.getUserObject() instanceof Test) {
-                line = parser.getLineOf(node.getProcedureName());
+                line = UtplsqlSourceCache.getInstance().getLineOf(
+                        DatabaseTools.getConnection(currentRun.getConnectionName()), node.getOwnerName(), "PACKAGE",
+                        node.getPackageName().toUpperCase(), node.getProcedureName());
             }
             openEditor(node.getOwnerName(), "PACKAGE", node.getPackageName().toUpperCase(), line, 1);
         }
     }
 
     private void openTest(final Test test) {
-            final UtplsqlDao dao = new UtplsqlDao(DatabaseTools.getConnection(currentRun.getConnectionName()));
-            final String source = dao.getSource(test.getOwnerName(), "PACKAGE", test.getObjectName().toUpperCase()).trim();
-            final UtplsqlParser parser = new UtplsqlParser(source);
-            final int line = parser.getLineOf(test.getProcedureName());
+            final int line = UtplsqlSourceCache.getInstance().getLineOf(
+                    DatabaseTools.getConnection(currentRun.getConnectionName()), test.getOwnerName(), "PACKAGE",
+                    test.getObjectName().toUpperCase(), test.getProcedureName());
             openEditor(test.getOwnerName(), "PACKAGE", test.getObjectName().toUpperCase(), line, 1);
     }
 
@@ -506,13 +510,13 @@ public class RunnerPanel {
         final String ownerName = parts[1];
         final String objectName = parts[2];
         int line = Integer.parseInt(parts[3]);
-        final UtplsqlDao dao = new UtplsqlDao(DatabaseTools.getConnection(currentRun.getConnectionName()));
-        final String objectType = "UNKNOWN".equals(type) ? dao.getObjectType(ownerName, objectName) : type;
+        final Connection conn = DatabaseTools.getConnection(currentRun.getConnectionName());
+        final UtplsqlSourceCache sourceCache = UtplsqlSourceCache.getInstance();
+        final String objectType = "UNKNOWN".equals(type) ? sourceCache.getObjectType(conn, ownerName, objectName)
+                : type;
         if (parts.length == 5) {
             final String procedureName = parts[4];
-            final String source = dao.getSource(ownerName, objectType, objectName).trim();
-            final UtplsqlParser parser = new UtplsqlParser(source);
-            line = parser.getLineOf(procedureName);
+            line = sourceCache.getLineOf(conn, ownerName, objectType, objectName, procedureName);
         }
         openEditor(ownerName, objectType, objectName.toUpperCase(), line, 1);
     }
@@ -607,11 +611,17 @@ public class RunnerPanel {
         fixCheckBoxMenuItem(showSuitesCheckBoxMenuItem);
         applyShowSuites();
         useSmartTimes = preferences.isUseSmartTimes();
+        updateScheduler.setFramesPerSecond(preferences.getUpdateFramesPerSecond());
     }
 
     public void setModel(final Run run) {
         assert run != null && run.getReporterId() != null : "Cannot run without reporterId";
-        setModel(run, false);
+        if (SwingUtilities.isEventDispatchThread()) {
+            setModel(run, false);
+        } else {
+            // scheduled updates are applied on the event dispatch thread after this call
+            SwingUtilities.invokeLater(() -> setModel(run, false));
+        }
     }
     
     private void setModel(final Run run, boolean force) {
@@ -620,6 +630,39 @@ public class RunnerPanel {
         setCurrentRun(run, force);
     }
     
+    private void expandNodes() {
+        final JTree tree = testOverviewTreeTable.getTree();
+        allNodesExpanded = currentRun == null || currentRun.getItemNodes().size() <= MAX_NODES_TO_EXPAND_ALL;
+        if (allNodesExpanded) {
+            expandAllNodes(tree, 0);
+        } else {
+            final int rowCount = tree.getRowCount();
+            for (int i = rowCount - 1; i >= 0; i--) {
+                tree.expandRow(i);
+            }
+        }
+    }
+
+    /**
+     * Calculates the row of an item in the tree-table. When the tree is not fully
+     * expanded, the path to the item is expanded.
+     * 
+     * @return the row or -1 if the item is hidden by the filter criteria
+     */
+    private int getTreeRow(final String id) {
+        if (allNodesExpanded) {
+            return testOverviewTreeTableModel.getRow(id);
+        }
+        final ItemNode node = testOverviewTreeTableModel.getItemNode(id);
+        if (node == null || !node.getId().equals(id)) {
+            return -1;
+        }
+        final JTree tree = testOverviewTreeTable.getTree();
+        final TreePath path = new TreePath(node.getPath());
+        tree.makeVisible(path);
+        return tree.getRowForPath(path);
+    }
+
     private void expandAllNodes(JTree tree, int startingRow) {
         int rowCount = tree.getRowCount();
         for (int i = startingRow; i < rowCount; i++) {
@@ -680,7 +723,7 @@ public class RunnerPanel {
             // tree-table
             testOverviewTreeTableModel.updateModel();
             testOverviewTreeTableModel.reload();
-            expandAllNodes(testOverviewTreeTable.getTree(), 0);
+            expandNodes();
         }
         // ensure that the runComboBox shows always the currentRun
         @SuppressWarnings("unchecked")
@@ -696,11 +739,19 @@ public class RunnerPanel {
         stopButton.setEnabled(currentRun.getEndTime() == null);
     }
     
-    public synchronized void update(final String reporterId) {
+    public void update(final String reporterId) {
         update(reporterId, null);
     }
 
-    public synchronized void update(final String reporterId, Item item) {
+    /**
+     * Schedules the update of the runner. The changes are applied on the event
+     * dispatch thread with the next frame. Does not block the caller.
+     */
+    public void update(final String reporterId, Item item) {
+        updateScheduler.schedule(reporterId, item);
+    }
+
+    private void flushUpdates(final String reporterId, final List<Item> items) {
         try {
             setCurrentRun(runs.get(reporterId), false);
             if (!currentRun.getReporterId().equals(reporterId)) {
@@ -710,43 +761,61 @@ public class RunnerPanel {
             enableOrDisableStopButton();
             fixColumnHeader(testOverviewTableModel.getTestIdColumnName(), testOverviewTable, 1);
             fixColumnHeader(testOverviewTreeTableModel.getTreeColumnName(), testOverviewTreeTable, 0);       
+            Test currentTest = null;
             if (!showSuitesCheckBoxMenuItem.isSelected()) {
                 // table
-                if (item instanceof Test) {
-                    final int row = ((Test) item).getTestNumber() - 1;
-                    if (row >= 0 && testOverviewTableModel.getRowCount() > row) {
-                        final Rectangle positionOfCurrentTest = testOverviewTable
-                                .getCellRect(testOverviewTable.convertRowIndexToView(row), 0, true);
-                        testOverviewTable.scrollRectToVisible(positionOfCurrentTest);
-                        testOverviewTableModel.fireTableRowsUpdated(row, row);
-                        SystemTools.sleep(5);
-                        if (!showSuccessfulTestsCheckBoxMenuItem.isSelected()
-                                || !showDisabledTestsCheckBoxMenuItem.isSelected()) {
-                            applyFilter(showSuccessfulTestsCheckBoxMenuItem.isSelected(),
-                                    showDisabledTestsCheckBoxMenuItem.isSelected());
+                final List<Integer> rows = new ArrayList<>();
+                for (final Item item : items) {
+                    if (item instanceof Test) {
+                        final int row = ((Test) item).getTestNumber() - 1;
+                        if (row >= 0 && testOverviewTableModel.getRowCount() > row) {
+                            rows.add(row);
+                            currentTest = (Test) item;
                         }
-                        testOverviewTable.scrollRectToVisible(positionOfCurrentTest);
+                    }
+                }
+                if (!rows.isEmpty()) {
+                    for (final int[] range : RunnerUpdateScheduler.getRanges(rows)) {
+                        testOverviewTableModel.fireTableRowsUpdated(range[0], range[1]);
+                    }
+                    if (!showSuccessfulTestsCheckBoxMenuItem.isSelected()
+                            || !showDisabledTestsCheckBoxMenuItem.isSelected()) {
+                        applyFilter(showSuccessfulTestsCheckBoxMenuItem.isSelected(),
+                                showDisabledTestsCheckBoxMenuItem.isSelected());
+                    }
+                    final int viewRow = testOverviewTable.convertRowIndexToView(currentTest.getTestNumber() - 1);
+                    if (viewRow >= 0) {
+                        testOverviewTable.scrollRectToVisible(testOverviewTable.getCellRect(viewRow, 0, true));
                     }
                 }
             } 
             if (showSuitesCheckBoxMenuItem.isSelected()) {
                 // tree-table
-                if (item != null && testOverviewTreeTableModel.isComplete()) {
-                    if (item instanceof Test) {
-                        final Test test = (Test) item;
-                        int treeRow = testOverviewTreeTableModel.getRow(test.getId());
+                if (testOverviewTreeTableModel.isComplete()) {
+                    for (final Item item : items) {
+                        testOverviewTreeTableModel.updateModel(item.getId());
+                        if (item instanceof Test) {
+                            currentTest = (Test) item;
+                        }
+                    }
+                    if (currentTest != null) {
+                        int treeRow = getTreeRow(currentTest.getId());
                         if (treeRow >= 0) {
                             final Rectangle positionOfCurrentTestInTree = testOverviewTreeTable
                                     .getCellRect(testOverviewTreeTable.convertRowIndexToView(treeRow), 0, true);
                             testOverviewTreeTable.scrollRectToVisible(positionOfCurrentTestInTree);
-                            testOverviewTreeTableModel.updateModel(test.getId());
                         }
-                    } else {
-                        testOverviewTreeTableModel.updateModel(item.getId());
                     }
                 }
             }
             statusLabel.setText(currentRun.getStatus());
+            final UtplsqlSessionPool pool = UtplsqlSessionPool.getInstance();
+            final UtplsqlExecutor executor = UtplsqlExecutor.getInstance();
+            statusLabel.setToolTipText(String.format(UtplsqlResources.getString("RUNNER_SESSION_POOL_TOOLTIP"),
+                    pool.getIdleCount(), pool.getBorrowedCount(), pool.getCreated(), pool.getReused(),
+                    pool.getAverageWait(), pool.getMaxWait()) + "; "
+                    + String.format(UtplsqlResources.getString("RUNNER_EXECUTOR_TOOLTIP"), executor.getRunningRuns(),
+                            executor.getQueueDepth(), executor.getMaxConcurrentRuns()));
             testCounterValueLabel.setText(currentRun.getTotalNumberOfCompletedTests()
                     + (currentRun.getTotalNumberOfTests() >= 0 ? "/" + currentRun.getTotalNumberOfTests() : ""));
             errorCounterValueLabel.setText(String.valueOf(currentRun.getCounter().getError()));
@@ -767,8 +836,8 @@ public class RunnerPanel {
             }
         } catch (Exception e) {
             logger.warning(() -> "Ignored exception " + (e.getMessage() == null ? e.getClass().getSimpleName()
-                    : e.getMessage()) + " while processing reporterId " + reporterId + (item == null ? "."
-                            : " for item id " + item.getId() + "."));
+                    : e.getMessage()) + " while processing reporterId " + reporterId + " with "
+                    + items.size() + " changed items.");
         }
     }
 
@@ -852,7 +921,7 @@ public class RunnerPanel {
             if (path != null) {
                 ItemNode itemNode = (ItemNode) path.getLastPathComponent();
                 Item item = (Item) itemNode.getUserObject();
-                int treeRow = testOverviewTreeTableModel.getRow(item.getId());
+                int treeRow = getTreeRow(item.getId());
                 if (treeRow >= 0) {
                     final Rectangle position = testOverviewTreeTable
                             .getCellRect(testOverviewTreeTable.convertRowIndexToView(treeRow), 0, true);
@@ -867,7 +936,7 @@ public class RunnerPanel {
         testOverviewTableModel.fireTableDataChanged();
         // tree-table
         testOverviewTreeTableModel.updateModel();
-        expandAllNodes(testOverviewTreeTable.getTree(), 0);
+        expandNodes();
         // common
         showFirstRow();
         resetDerived();
@@ -1132,9 +1201,15 @@ public class RunnerPanel {
         stopButton.setToolTipText(UtplsqlResources.getString("RUNNER_STOP_TOOLTIP"));
         stopButton.setBorder(buttonBorder);
         stopButton.addActionListener(event -> {
-            if (currentRun.getConsumerConn() != null) {
+            if (currentRun.getStopRequest() != null && currentRun.getStopRequest().getAsBoolean()) {
+                // removed from the queue, the run is not started
+                fixCountersAndUpdate();
+            } else if (currentRun.getConsumerConn() != null) {
                 // Aborts JDBC Connection. Connection might still run in the background. That's expected.
                 DatabaseTools.abortConnection(currentRun.getConsumerConn());
+                for (final Connection shardConsumerConn : currentRun.getShardConsumerConns()) {
+                    DatabaseTools.abortConnection(shardConsumerConn);
+                }
                 List<Item> notCompletedItems = currentRun.getItemNodes().values().stream()
                         .map(node -> (Item) node.getUserObject())
                         .filter(item -> item.getEndTime() == null && !(item instanceof Test && ((Test) item).isDisabled()))
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.ui.runner;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import javax.swing.Timer;
+
+import org.utplsql.sqldev.model.runner.Item;
+
+/**
+ * Collects the items changed by the realtime reporter and passes them in batches
+ * to the runner on the event dispatch thread.
+ * 
+ * Scheduling an update does not block. The items are queued and flushed at most
+ * once per frame. Multiple changes of the same item within a frame are
+ * reported once.
+ */
+public class RunnerUpdateScheduler {
+    private final ConcurrentLinkedQueue<Update> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final AtomicLong scheduledUpdates = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final BiConsumer<String, List<Item>> flusher;
+    private final Timer timer;
+
+    private static class Update {
+        private final String reporterId;
+        private final Item item;
+
+        Update(final String reporterId, final Item item) {
+            this.reporterId = reporterId;
+            this.item = item;
+        }
+    }
+
+    /**
+     * @param framesPerSecond maximum number of flushes per second
+     * @param flusher called on the event dispatch thread per reporterId with the changed 
+     *                items in the order of their last change, the list is empty when
+     *                only the run has changed
+     */
+    public RunnerUpdateScheduler(final int framesPerSecond, final BiConsumer<String, List<Item>> flusher) {
+        this.flusher = flusher;
+        timer = new Timer(getDelay(framesPerSecond), event -> flush());
+        timer.setRepeats(false);
+    }
+
+    private static int getDelay(final int framesPerSecond) {
+        return 1000 / Math.max(1, framesPerSecond);
+    }
+
+    public void setFramesPerSecond(final int framesPerSecond) {
+        timer.setInitialDelay(getDelay(framesPerSecond));
+    }
+
+    /**
+     * Queues an update. Can be called from any thread.
+     * 
+     * @param reporterId the run to update
+     * @param item the changed item or null if only the run has changed
+     */
+    public void schedule(final String reporterId, final Item item) {
+        queue.add(new Update(reporterId, item));
+        scheduledUpdates.incrementAndGet();
+        if (scheduled.compareAndSet(false, true)) {
+            timer.restart();
+        }
+    }
+
+    private void flush() {
+        scheduled.set(false);
+        final Map<String, LinkedHashMap<String, Item>> batches = new LinkedHashMap<>();
+        Update update = queue.poll();
+        while (update != null) {
+            final LinkedHashMap<String, Item> items = batches.computeIfAbsent(update.reporterId,
+                    k -> new LinkedHashMap<>());
+            if (update.item != null) {
+                // move to the end, the last changed item is the current one
+                items.remove(update.item.getId());
+                items.put(update.item.getId(), update.item);
+            }
+            update = queue.poll();
+        }
+        if (!batches.isEmpty()) {
+            flushes.incrementAndGet();
+            for (final Map.Entry<String, LinkedHashMap<String, Item>> entry : batches.entrySet()) {
+                flusher.accept(entry.getKey(), new ArrayList<>(entry.getValue().values()));
+            }
+        }
+    }
+
+    /**
+     * Merges row numbers into ranges of consecutive rows.
+     * 
+     * @param rows row numbers in any order, duplicates are allowed
+     * @return ascending list of ranges, each range as array of first and last row
+     */
+    public static List<int[]> getRanges(final Collection<Integer> rows) {
+        final List<int[]> ranges = new ArrayList<>();
+        int[] range = null;
+        for (final int row : new TreeSet<>(rows)) {
+            if (range != null && range[1] + 1 == row) {
+                range[1] = row;
+            } else {
+                range = new int[] { row, row };
+                ranges.add(range);
+            }
+        }
+        return ranges;
+    }
+
+    public long getScheduledUpdates() {
+        return scheduledUpdates.get();
+    }
+
+    public long getFlushes() {
+        return flushes.get();
+    }
+}
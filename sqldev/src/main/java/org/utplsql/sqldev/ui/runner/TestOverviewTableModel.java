@@ -16,7 +16,9 @@
 package org.utplsql.sqldev.ui.runner;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 
 import javax.swing.Icon;
 import javax.swing.table.DefaultTableModel;
@@ -29,6 +31,7 @@ public class TestOverviewTableModel extends DefaultTableModel {
     private static final long serialVersionUID = -4087082648970132657L;
 
     private LinkedHashMap<String, Test> tests;
+    private volatile List<Test> rows = Collections.emptyList();
     private String commonPrefix;
     private boolean commonPrefixCalculated;
     private boolean showDescription;
@@ -50,6 +53,7 @@ public class TestOverviewTableModel extends DefaultTableModel {
             final boolean useSmartTimes) {
         commonPrefixCalculated = false;
         this.tests = tests;
+        rows = Collections.emptyList();
         this.showDescription = showDescription;
         this.useSmartTimes = useSmartTimes;
         calcCommonPrefix();
@@ -87,8 +91,21 @@ public class TestOverviewTableModel extends DefaultTableModel {
         return UtplsqlResources.getString("RUNNER_TEST_EXECUTION_TIME_COLUMN") + (!useSmartTimes ? " [s]" : "");
     }
 
+    /**
+     * Returns the tests addressable by row. The list is built once and rebuilt
+     * when the number of tests in the run changes or the data changed event is fired.
+     */
+    private List<Test> getRows() {
+        List<Test> current = rows;
+        if (tests != null && current.size() != tests.size()) {
+            current = new ArrayList<>(tests.values());
+            rows = current;
+        }
+        return current;
+    }
+
     public Test getTest(final int row) {
-        return new ArrayList<>(tests.entrySet()).get(row).getValue();
+        return getRows().get(row);
     }
 
     @Override
@@ -96,7 +113,14 @@ public class TestOverviewTableModel extends DefaultTableModel {
         if (tests == null) {
             return 0;
         }
-        return tests.size();
+        return getRows().size();
+    }
+
+    @Override
+    public void fireTableDataChanged() {
+        // tests might have been replaced in the run
+        rows = Collections.emptyList();
+        super.fireTableDataChanged();
     }
 
     @Override
@@ -16,7 +16,9 @@
 package org.utplsql.sqldev.ui.runner;
 
 import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.Set;
 
 import javax.swing.Icon;
 import javax.swing.event.EventListenerList;
@@ -43,11 +45,53 @@ public class TestOverviewTreeTableModel implements TreeTableModel {
     private String rootId;
     private LinkedHashMap<String, ItemNode> sources = new LinkedHashMap<>();
     private final LinkedHashMap<String, ItemNode> nodes = new LinkedHashMap<>();
+    private final Set<String> loadedSuiteIds = new HashSet<>();
+    private int sourceCount;
+    private TreeRowIndex rowIndex;
     protected final EventListenerList listenerList = new EventListenerList();
 
     public TestOverviewTreeTableModel() {
         super();
     }
+
+    /**
+     * Copy of a node of the run. Derived properties are calculated based on the
+     * node of the run, since the children of the copy might not be loaded yet.
+     */
+    private static class LazyItemNode extends ItemNode {
+        private static final long serialVersionUID = 2727364617380741306L;
+        private final ItemNode source;
+
+        LazyItemNode(final ItemNode source) {
+            super((Item) source.getUserObject());
+            this.source = source;
+        }
+
+        @Override
+        public Set<String> getTestPackages() {
+            return source.getTestPackages();
+        }
+
+        @Override
+        public Set<String> getOwners() {
+            return source.getOwners();
+        }
+
+        @Override
+        public String getOwnerName() {
+            return source.getOwnerName();
+        }
+
+        @Override
+        public String getPackageName() {
+            return source.getPackageName();
+        }
+
+        @Override
+        public String getProcedureName() {
+            return source.getProcedureName();
+        }
+    }
     
     private boolean hasVisibleDisabledTests(ItemNode startNode) {
         if (!showDisabledTests || startNode.getUserObject() instanceof Test) {
@@ -83,31 +127,75 @@ public class TestOverviewTreeTableModel implements TreeTableModel {
     }
 
     /**
-     * Copies the original nodes determined by the run to the local nodes. 
+     * Resets the local nodes. The original nodes determined by the run are copied
+     * lazily, when the children of a suite are requested, see {@link #loadChildren(ItemNode)}.
      * Keeps references to items in the run, so changes in the run are automatically applied.
      * However, the listeners need to by notified about the changes to display them
      * in the underlying tree and table. 
      */
     private void setClonedItemNodes() {
-        nodes.clear();
-        for (ItemNode source : sources.values()) {
-            ItemNode node = new ItemNode((Item) source.getUserObject());
-            nodes.put(node.getId(), node);
+        synchronized (nodes) {
+            nodes.clear();
+            loadedSuiteIds.clear();
+            rowIndex = null;
+            sourceCount = sources.size();
+            final ItemNode source = sources.get(rootId);
+            if (source != null) {
+                nodes.put(rootId, new LazyItemNode(source));
+            }
         }
-        for (ItemNode source : sources.values()) {
-            if (source.getUserObject() instanceof Suite) {
-                ItemNode parent = nodes.get(source.getId());
-                Enumeration<?> sourceChildren = source.children();
-                while (sourceChildren.hasMoreElements()) {
-                    ItemNode sourceChild = (ItemNode) sourceChildren.nextElement();
-                    ItemNode child = nodes.get(sourceChild.getId());
-                    if (isVisible(child)) {
-                        parent.add(child);
+        reload();
+    }
+
+    /**
+     * Copies the children of a suite on first access. Invisible children are copied
+     * but not attached, as for the filter criteria.
+     */
+    private void loadChildren(final ItemNode parent) {
+        synchronized (nodes) {
+            if (parent.getUserObject() instanceof Suite && loadedSuiteIds.add(parent.getId())) {
+                final ItemNode source = sources.get(parent.getId());
+                if (source != null) {
+                    Enumeration<?> sourceChildren = source.children();
+                    while (sourceChildren.hasMoreElements()) {
+                        ItemNode sourceChild = (ItemNode) sourceChildren.nextElement();
+                        ItemNode child = new LazyItemNode(sourceChild);
+                        nodes.put(child.getId(), child);
+                        if (isVisible(child)) {
+                            parent.add(child);
+                            if (rowIndex != null && rowIndex.contains(parent.getId())) {
+                                rowIndex.add(child.getId());
+                            }
+                        }
                     }
                 }
             }
         }
-        reload();
+    }
+
+    /**
+     * Copies the nodes on the path to the requested node.
+     * 
+     * @return the requested node or the deepest copied node on its path if
+     *         the requested node is not part of the tree (anymore), null if the
+     *         requested node is unknown
+     */
+    private ItemNode loadPath(final String id) {
+        final ItemNode source = sources.get(id);
+        if (source == null) {
+            return nodes.get(id);
+        }
+        ItemNode node = null;
+        for (TreeNode sourceNode : source.getPath()) {
+            final ItemNode next = nodes.get(((ItemNode) sourceNode).getId());
+            if (next == null || (node != null && next.getParent() != node)) {
+                break;
+            }
+            node = next;
+            loadChildren(node);
+        }
+        final ItemNode requested = nodes.get(id);
+        return requested != null && requested.getParent() != null ? requested : node;
     }
 
     /**
@@ -162,6 +250,11 @@ public class TestOverviewTreeTableModel implements TreeTableModel {
                     int childIndex = parent.getIndex(node);
                     if (childIndex >= 0) {
                         parent.remove(childIndex);
+                        synchronized (nodes) {
+                            if (rowIndex != null) {
+                                rowIndex.removeSubtree(((ItemNode) node).getId());
+                            }
+                        }
                         // Delaying the fireTreeNodesRemove call would avoid the following exception:
                         //   Exception in thread "AWT-EventQueue-0" java.lang.ArrayIndexOutOfBoundsException: n >= m
                         //   at java.util.Vector.elementAt(Vector.java:479)
@@ -202,7 +295,7 @@ public class TestOverviewTreeTableModel implements TreeTableModel {
      */
     public void updateModel(final String id) {
         nodeChanged(id);
-        ItemNode startNode = nodes.get(id);
+        ItemNode startNode = loadPath(id);
         if (startNode != null) {
             removeInvisibleNodes(startNode);
         }
@@ -223,7 +316,7 @@ public class TestOverviewTreeTableModel implements TreeTableModel {
      * Notifies all listeners that a node and its parents have changed.
      */
     public void nodeChanged(String id) {
-        ItemNode startNode = nodes.get(id);
+        ItemNode startNode = loadPath(id);
         if (startNode != null) {
             TreeNode[] path = startNode.getPath();
             for (TreeNode node : path) {
@@ -240,38 +333,60 @@ public class TestOverviewTreeTableModel implements TreeTableModel {
 
     /**
      * Determines if the model is fully initialized and can be used.
-     * For that it the pseudo root must contain a child.
+     * For that it the pseudo root must contain a child and the model must be based on all nodes of the run.
      */
     public boolean isComplete() {
-        return nodes.size() > 1; // return sources.size() != nodes.size();
+        // sources grow after publishing the top-level suites of a run
+        return sourceCount > 1 && sources.size() == sourceCount;
     }
 
     /**
      * Calculates the row of the underlying table when the tree is fully expanded.
+     * The path to the node is loaded. Returns -1 for nodes hidden by the filter criteria.
      */
     public int getRow(final String id) {
-        // do not count root
-        int i = -1;
+        synchronized (nodes) {
+            if (isRowIndexValid() && rowIndex.contains(id)) {
+                return rowIndex.getRow(id);
+            }
+        }
+        final ItemNode target = loadPath(id);
+        if (target == null || !target.getId().equals(id)) {
+            return -1;
+        }
+        synchronized (nodes) {
+            if (!isRowIndexValid()) {
+                rowIndex = createRowIndex();
+            }
+            return rowIndex.getRow(target.getId());
+        }
+    }
+
+    private boolean isRowIndexValid() {
+        return rowIndex != null && rowIndex.size() == sources.size();
+    }
 
-        // The order of orderedNodes can differ to nodes.values()
-        // when run is based on list of tests.
+    /**
+     * Creates the row index for the nodes in the tree. It is maintained when
+     * children are loaded or invisible nodes are removed.
+     */
+    private TreeRowIndex createRowIndex() {
+        final TreeRowIndex index = new TreeRowIndex(sources.get(rootId), sources.size());
         Enumeration<?> orderedNodes = getRoot().preorderEnumeration();
         while (orderedNodes.hasMoreElements()) {
-            ItemNode node = (ItemNode) orderedNodes.nextElement();
-            if (((Item) node.getUserObject()).getId().equals(id)) {
-                return i;
-            }
-            i++;
+            index.add(((ItemNode) orderedNodes.nextElement()).getId());
         }
-        return -1;
+        return index;
     }
     
     public Test getTestOf(final ItemNode startNode) {
-        Enumeration<?> orderedNodes = startNode.preorderEnumeration();
+        // the children of the start node might not be loaded yet
+        final ItemNode source = sources.get(startNode.getId());
+        Enumeration<?> orderedNodes = (source != null ? source : startNode).preorderEnumeration();
         while (orderedNodes.hasMoreElements()) {
             ItemNode node = (ItemNode) orderedNodes.nextElement();
             Item item = (Item) node.getUserObject();
-            if (item instanceof Test) {
+            if (item instanceof Test && isVisible(node)) {
                 return (Test) item;
             }
         }
@@ -279,6 +394,7 @@ public class TestOverviewTreeTableModel implements TreeTableModel {
     }
     
     public ItemNode getItemNode(final String id) {
+        loadPath(id);
         return nodes.get(id);
     }
     
@@ -337,11 +453,13 @@ public class TestOverviewTreeTableModel implements TreeTableModel {
 
     @Override
     public ItemNode getChild(Object parent, int index) {
+        loadChildren((ItemNode) parent);
         return (ItemNode) ((ItemNode) parent).getChildAt(index);
     }
 
     @Override
     public int getChildCount(Object parent) {
+        loadChildren((ItemNode) parent);
         return ((ItemNode) parent).getChildCount();
     }
 
@@ -357,6 +475,7 @@ public class TestOverviewTreeTableModel implements TreeTableModel {
 
     @Override
     public int getIndexOfChild(Object parent, Object child) {
+        loadChildren((ItemNode) parent);
         return ((ItemNode) parent).getIndex((ItemNode) child);
     }
 
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.ui.runner;
+
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.utplsql.sqldev.model.runner.ItemNode;
+
+/**
+ * Row numbers of the nodes in a filtered copy of a tree when it is fully expanded.
+ * 
+ * Every node of the original tree gets its preorder position. A Fenwick tree counts
+ * the nodes which are part of the copy. Hence, the row of a node is the number of 
+ * nodes in the copy with a lower position. Adding a node or removing a subtree 
+ * does not require to renumber the subsequent rows.
+ */
+class TreeRowIndex {
+    private final Map<String, Integer> positions;
+    private final int[] subtreeSizes;
+    private final boolean[] present;
+    private final int[] counts;
+
+    /**
+     * @param sourceRoot root node of the original tree, it is part of the copy, but it has no row
+     */
+    TreeRowIndex(final ItemNode sourceRoot, final int size) {
+        positions = new HashMap<>(size * 4 / 3 + 1);
+        final ItemNode[] nodes = new ItemNode[size];
+        int n = 0;
+        final Enumeration<?> orderedNodes = sourceRoot.preorderEnumeration();
+        while (orderedNodes.hasMoreElements() && n < size) {
+            final ItemNode node = (ItemNode) orderedNodes.nextElement();
+            positions.put(node.getId(), n);
+            nodes[n] = node;
+            n++;
+        }
+        subtreeSizes = new int[n];
+        for (int i = n - 1; i >= 0; i--) {
+            subtreeSizes[i] += 1;
+            final ItemNode parent = (ItemNode) nodes[i].getParent();
+            if (parent != null && i > 0) {
+                final Integer parentPosition = positions.get(parent.getId());
+                if (parentPosition != null) {
+                    subtreeSizes[parentPosition] += subtreeSizes[i];
+                }
+            }
+        }
+        present = new boolean[n];
+        counts = new int[n + 1];
+        add(sourceRoot.getId());
+    }
+
+    public int size() {
+        return subtreeSizes.length;
+    }
+
+    /**
+     * Marks a node as part of the copy.
+     */
+    public void add(final String id) {
+        final Integer position = positions.get(id);
+        if (position != null && !present[position]) {
+            present[position] = true;
+            update(position, 1);
+        }
+    }
+
+    /**
+     * Marks a node and all its descendants as not part of the copy.
+     */
+    public void removeSubtree(final String id) {
+        final Integer position = positions.get(id);
+        if (position != null) {
+            for (int i = position; i < position + subtreeSizes[position]; i++) {
+                if (present[i]) {
+                    present[i] = false;
+                    update(i, -1);
+                }
+            }
+        }
+    }
+
+    public boolean contains(final String id) {
+        final Integer position = positions.get(id);
+        return position != null && present[position];
+    }
+
+    /**
+     * @return the row of a node in the fully expanded copy or -1 if the node is not part of the copy
+     */
+    public int getRow(final String id) {
+        final Integer position = positions.get(id);
+        if (position == null || !present[position]) {
+            return -1;
+        }
+        // do not count root
+        return countBefore(position) - 1;
+    }
+
+    private void update(final int position, final int delta) {
+        for (int i = position + 1; i < counts.length; i += i & -i) {
+            counts[i] += delta;
+        }
+    }
+
+    private int countBefore(final int position) {
+        int count = 0;
+        for (int i = position; i > 0; i -= i & -i) {
+            count += counts[i];
+        }
+        return count;
+    }
+}
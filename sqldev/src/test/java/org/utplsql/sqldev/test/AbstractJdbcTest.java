@@ -24,6 +24,7 @@ import java.util.Properties;
 import org.springframework.jdbc.BadSqlGrammarException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.utplsql.sqldev.dal.UtplsqlSuiteCatalog;
 import org.utplsql.sqldev.exception.GenericRuntimeException;
 
 import oracle.dbtools.raptor.newscriptrunner.ISQLCommand;
@@ -59,6 +60,8 @@ public abstract class AbstractJdbcTest {
         sysDataSource.setUsername(p.getProperty("sys_username"));
         sysDataSource.setPassword(p.getProperty("sys_password"));
         sysJdbcTemplate = new JdbcTemplate(sysDataSource);
+        // tests change packages and expect to see the changes immediately
+        UtplsqlSuiteCatalog.setCheckInterval(0);
     }
 
     public static List<String> getStatements(final String sqlplusScript) {
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.utplsql.sqldev.menu.DebouncedEnablement;
+import org.utplsql.sqldev.model.SystemTools;
+
+public class DebouncedEnablementTest {
+    private final List<String> results = new CopyOnWriteArrayList<>();
+    private final AtomicInteger evaluations = new AtomicInteger();
+
+    private boolean get(final DebouncedEnablement enablement, final String key, final boolean value) {
+        return enablement.get(key, () -> {
+            evaluations.incrementAndGet();
+            return value;
+        }, result -> {
+            Assert.assertTrue(SwingUtilities.isEventDispatchThread());
+            results.add(key + "=" + result);
+        });
+    }
+
+    @Test
+    public void disabledUntilEvaluated() {
+        final DebouncedEnablement enablement = new DebouncedEnablement("test enablement", 50);
+        Assert.assertFalse(get(enablement, "a", true));
+        Assert.assertFalse(get(enablement, "a", true));
+        SystemTools.sleep(300);
+        Assert.assertEquals("[a=true]", results.toString());
+        Assert.assertTrue(get(enablement, "a", true));
+        // disabled until the evaluation of b is done, the result of a is not reused
+        Assert.assertFalse(get(enablement, "b", true));
+        Assert.assertFalse(get(enablement, "b", true));
+        SystemTools.sleep(300);
+        Assert.assertTrue(get(enablement, "b", true));
+        Assert.assertEquals("[a=true, b=true]", results.toString());
+        Assert.assertEquals(2, evaluations.get());
+    }
+
+    @Test
+    public void failedEvaluation() {
+        final DebouncedEnablement enablement = new DebouncedEnablement("test enablement", 10);
+        Assert.assertFalse(enablement.get("failing", () -> {
+            throw new IllegalStateException("no connection");
+        }, result -> results.add("failing=" + result)));
+        SystemTools.sleep(300);
+        Assert.assertEquals("[failing=false]", results.toString());
+        Assert.assertFalse(enablement.get("failing", () -> true, result -> results.add("failing=" + result)));
+    }
+
+    @Test
+    public void debounce() {
+        final DebouncedEnablement enablement = new DebouncedEnablement("test enablement", 100);
+        for (int i = 0; i < 10; i++) {
+            get(enablement, "caret" + i, i % 2 == 0);
+        }
+        SystemTools.sleep(400);
+        Assert.assertEquals("[caret9=false]", results.toString());
+        Assert.assertEquals(1, evaluations.get());
+    }
+
+    @Test
+    public void discardStaleResult() throws InterruptedException {
+        final DebouncedEnablement enablement = new DebouncedEnablement("test enablement", 10);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        enablement.get("slow", () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        }, result -> results.add("slow=" + result));
+        started.await();
+        get(enablement, "fast", false);
+        release.countDown();
+        SystemTools.sleep(300);
+        Assert.assertEquals("[fast=false]", results.toString());
+    }
+}
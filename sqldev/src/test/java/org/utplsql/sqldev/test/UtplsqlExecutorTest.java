@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.utplsql.sqldev.model.SystemTools;
+import org.utplsql.sqldev.model.UtplsqlExecutor;
+
+public class UtplsqlExecutorTest {
+    private final UtplsqlExecutor executor = UtplsqlExecutor.getInstance();
+    private final List<String> started = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setup() {
+        executor.setMaxConcurrentRuns(1);
+    }
+
+    @After
+    public void teardown() {
+        executor.setUseVirtualThreads(false);
+        executor.setMaxConcurrentRuns(UtplsqlExecutor.DEFAULT_MAX_CONCURRENT_RUNS);
+    }
+
+    @Test
+    public void queueStartsBeyondMaximum() {
+        Assert.assertEquals(0, executor.startRun(() -> started.add("a")));
+        Assert.assertEquals(1, executor.startRun(() -> started.add("b")));
+        Assert.assertEquals(2, executor.startRun(() -> started.add("c")));
+        Assert.assertEquals("[a]", started.toString());
+        Assert.assertEquals(1, executor.getRunningRuns());
+        Assert.assertEquals(2, executor.getQueueDepth());
+        executor.runCompleted();
+        Assert.assertEquals("[a, b]", started.toString());
+        Assert.assertEquals(1, executor.getQueueDepth());
+        executor.runCompleted();
+        executor.runCompleted();
+        Assert.assertEquals("[a, b, c]", started.toString());
+        Assert.assertEquals(0, executor.getRunningRuns());
+        Assert.assertEquals(0, executor.getQueueDepth());
+    }
+
+    @Test
+    public void raisingMaximumStartsQueuedRuns() {
+        executor.startRun(() -> started.add("a"));
+        executor.startRun(() -> started.add("b"));
+        executor.startRun(() -> started.add("c"));
+        executor.setMaxConcurrentRuns(2);
+        Assert.assertEquals("[a, b]", started.toString());
+        Assert.assertEquals(2, executor.getRunningRuns());
+        Assert.assertEquals(1, executor.getQueueDepth());
+        executor.runCompleted();
+        executor.runCompleted();
+        executor.runCompleted();
+        Assert.assertEquals("[a, b, c]", started.toString());
+        Assert.assertEquals(0, executor.getRunningRuns());
+    }
+
+    @Test
+    public void cancelQueuedRun() {
+        final Runnable queued = () -> started.add("b");
+        executor.startRun(() -> started.add("a"));
+        executor.startRun(queued);
+        Assert.assertTrue(executor.cancelQueuedRun(queued));
+        Assert.assertEquals(0, executor.getQueueDepth());
+        executor.runCompleted();
+        Assert.assertEquals("[a]", started.toString());
+        Assert.assertEquals(0, executor.getRunningRuns());
+    }
+
+    @Test
+    public void failingStarterFreesSlot() {
+        try {
+            executor.startRun(() -> {
+                throw new IllegalStateException("failed");
+            });
+            Assert.fail("exception expected");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals(0, executor.getRunningRuns());
+        }
+    }
+
+    @Test
+    public void namedThreads() {
+        final Future<?> task = executor.execute("utPLSQL test task",
+                () -> started.add(Thread.currentThread().getName()));
+        SystemTools.waitForFuture(task, 2000);
+        Assert.assertTrue(task.isDone());
+        Assert.assertEquals("[utPLSQL test task]", started.toString());
+    }
+
+    @Test
+    public void virtualThreadsIfSupported() {
+        executor.setUseVirtualThreads(true);
+        final Future<?> task = executor.execute("utPLSQL virtual task",
+                () -> started.add(Thread.currentThread().getName()));
+        SystemTools.waitForFuture(task, 2000);
+        Assert.assertEquals("[utPLSQL virtual task]", started.toString());
+        Assert.assertEquals(Runtime.version().feature() >= 21, executor.isVirtualThreads());
+    }
+
+    @Test
+    public void maxThreadsFollowMaxConcurrentRuns() {
+        final int maxThreads = executor.getMaxThreads();
+        executor.setMaxConcurrentRuns(2);
+        Assert.assertTrue(executor.getMaxThreads() > maxThreads);
+        executor.setMaxConcurrentRuns(1);
+        Assert.assertEquals(maxThreads, executor.getMaxThreads());
+        final Future<?> task = executor.execute("utPLSQL test task",
+                () -> started.add(Thread.currentThread().getName()));
+        SystemTools.waitForFuture(task, 2000);
+        Assert.assertEquals("[utPLSQL test task]", started.toString());
+    }
+
+    @Test
+    public void switchingThreadsKeepsRunningTasks() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        executor.execute("utPLSQL running task", () -> {
+            try {
+                release.await();
+                // submitted by a task of a running run after the switch
+                SystemTools.waitForFuture(executor.execute("utPLSQL follow-up task", () -> started.add("follow-up")),
+                        2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                done.countDown();
+            }
+        });
+        executor.setUseVirtualThreads(true);
+        executor.setUseVirtualThreads(false);
+        release.countDown();
+        Assert.assertTrue(done.await(2, TimeUnit.SECONDS));
+        final Future<?> task = executor.execute("utPLSQL test task", () -> started.add("new"));
+        SystemTools.waitForFuture(task, 2000);
+        Assert.assertEquals("[follow-up, new]", started.toString());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.utplsql.sqldev.model.XMLTools;
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+public class XMLToolsTest {
+    private final XMLTools xmlTools = new XMLTools();
+
+    private Document getDocument() {
+        final String xml = "<event><items><test id=\"a\"/><test id=\"b\"/><suite id=\"c\"/></items>"
+                + "<totalNumberOfTests>2</totalNumberOfTests></event>";
+        return xmlTools.parse(xmlTools.createDocumentBuilder(), new InputSource(new StringReader(xml)));
+    }
+
+    @Test
+    public void cachedExpression() {
+        final Document doc = getDocument();
+        final long hits = XMLTools.getExpressionCacheHits();
+        final long misses = XMLTools.getExpressionCacheMisses();
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals("2", xmlTools.getNode(doc, "/event/totalNumberOfTests").getTextContent());
+            Assert.assertEquals(3, xmlTools.getNodeList(doc, "/event/items/*").getLength());
+        }
+        // other tests may run concurrently, hence the checks are not exact
+        Assert.assertTrue(XMLTools.getExpressionCacheHits() - hits >= 18);
+        Assert.assertTrue(XMLTools.getExpressionCacheMisses() - misses <= 2);
+    }
+
+    @Test
+    public void boundedCache() {
+        final Document doc = getDocument();
+        xmlTools.getNodeList(doc, "/event/items/test[@id=\"boundedCache\"]");
+        for (int i = 0; i < 200; i++) {
+            xmlTools.getNodeList(doc, "/event/items/test[@id=\"" + i + "\"]");
+        }
+        final long misses = XMLTools.getExpressionCacheMisses();
+        // evicted, must be compiled again
+        xmlTools.getNodeList(doc, "/event/items/test[@id=\"boundedCache\"]");
+        Assert.assertTrue(XMLTools.getExpressionCacheMisses() > misses);
+    }
+
+    @Test
+    public void concurrentAccess() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                final String id = i % 2 == 0 ? "a" : "b";
+                futures.add(executor.submit(() -> {
+                    final Document doc = getDocument();
+                    final NodeList nodes = xmlTools.getNodeList(doc, "/event/items/test[@id=\"" + id + "\"]");
+                    return nodes.getLength();
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                Assert.assertEquals(Integer.valueOf(1), future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -21,6 +21,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.Future;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -96,8 +97,8 @@ public class CodeCoverageReporterTest extends AbstractJdbcTest {
         final List<String> pathList = Collections.singletonList(":test_f");
         final List<String> includeObjectList = Collections.singletonList("f");
         final CodeCoverageReporter reporter = new CodeCoverageReporter(pathList, includeObjectList, DatabaseTools.getConnection(dataSource));
-        final Thread run = reporter.runAsync();
-        SystemTools.waitForThread(run, 20000);
+        final Future<?> run = reporter.runAsync();
+        SystemTools.waitForFuture(run, 20000);
         final Path outputFile = this.getNewestOutputFile();
         Assert.assertNotNull(outputFile);
         final String content = new String(FileTools.readFile(outputFile), StandardCharsets.UTF_8);
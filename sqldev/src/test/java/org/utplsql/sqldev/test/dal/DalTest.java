@@ -23,7 +23,9 @@ import org.junit.Before;
 import org.junit.Test;
 import org.oddgen.sqldev.generators.model.Node;
 import org.utplsql.sqldev.dal.UtplsqlDao;
+import org.utplsql.sqldev.dal.UtplsqlSuiteCatalog;
 import org.utplsql.sqldev.model.DatabaseTools;
+import org.utplsql.sqldev.model.SystemTools;
 import org.utplsql.sqldev.model.ut.Annotation;
 import org.utplsql.sqldev.test.AbstractJdbcTest;
 
@@ -93,6 +95,10 @@ public class DalTest extends AbstractJdbcTest {
         Assert.assertTrue(dao.containsUtplsqlTest("scott", "junit_utplsql_test_pkg", "t1"));
         Assert.assertTrue(dao.containsUtplsqlTest("scott", "junit_utplsql_test_pkg", "t2"));
         Assert.assertFalse(dao.containsUtplsqlTest("scott", "junit_utplsql_test_pkg", "t3"));
+        Assert.assertTrue(dao.containsUtplsqlTests(Arrays.asList("scott.junit_utplsql_test_pkg.t1",
+                "scott.junit_utplsql_test_pkg.t2", "scott.junit_utplsql_test_pkg")));
+        Assert.assertFalse(dao.containsUtplsqlTests(Arrays.asList("scott.junit_utplsql_test_pkg.t1",
+                "scott.junit_utplsql_test_pkg.t3")));
     }
     
     @Test
@@ -631,4 +637,35 @@ public class DalTest extends AbstractJdbcTest {
         final String version = dao.normalizedUtPlsqlVersion();
         Assert.assertNotNull(version);
     }
+
+    @Test
+    public void suiteCatalogIncrementalRefresh() {
+        final UtplsqlDao dao = new UtplsqlDao(DatabaseTools.getConnection(dataSource));
+        StringBuilder sb = new StringBuilder();
+        sb.append("CREATE OR REPLACE PACKAGE junit_utplsql_test_pkg IS\n");
+        sb.append("   -- %suite\n\n");
+
+        sb.append("   -- %test\n");
+        sb.append("   PROCEDURE t1;\n");
+        sb.append("END junit_utplsql_test_pkg;");
+        jdbcTemplate.execute(sb.toString());
+        final UtplsqlSuiteCatalog catalog = dao.getSuiteCatalog("scott");
+        Assert.assertTrue(catalog.containsUtplsqlTest("junit_utplsql_test_pkg", "t1"));
+        final long fullLoads = catalog.getFullLoads();
+        final long incrementalLoads = catalog.getIncrementalLoads();
+        // unchanged, within the same second of the last DDL the package is read again
+        SystemTools.sleep(1100);
+        dao.getSuiteCatalog("scott");
+        dao.getSuiteCatalog("scott");
+        Assert.assertEquals(fullLoads, catalog.getFullLoads());
+        Assert.assertTrue(catalog.getIncrementalLoads() - incrementalLoads <= 1);
+        // changed package
+        jdbcTemplate.execute(sb.toString().replace("t1", "t2"));
+        Assert.assertTrue(dao.containsUtplsqlTest("scott", "junit_utplsql_test_pkg", "t2"));
+        Assert.assertFalse(dao.containsUtplsqlTest("scott", "junit_utplsql_test_pkg", "t1"));
+        Assert.assertEquals(fullLoads, catalog.getFullLoads());
+        // dropped package
+        jdbcTemplate.execute("DROP PACKAGE junit_utplsql_test_pkg");
+        Assert.assertFalse(dao.containsUtplsqlTest("scott", "junit_utplsql_test_pkg"));
+    }
 }
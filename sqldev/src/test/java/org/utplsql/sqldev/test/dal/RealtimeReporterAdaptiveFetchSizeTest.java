@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test.dal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.utplsql.sqldev.dal.AdaptiveFetchSize;
+import org.utplsql.sqldev.dal.RealtimeReporterDao;
+import org.utplsql.sqldev.model.runner.PreTestEvent;
+
+public class RealtimeReporterAdaptiveFetchSizeTest {
+    private static final Logger logger = Logger.getLogger(RealtimeReporterAdaptiveFetchSizeTest.class.getName());
+    private static final int BURST_SIZE = 500;
+    private static final int SLOW_SIZE = 20;
+
+    private static class Result {
+        private int roundTrips;
+        private List<Integer> batchSizes;
+        private final List<Long> latencyMillis = new ArrayList<>();
+
+        private long getMaxLatency(final int from, final int to) {
+            return latencyMillis.subList(from, to).stream().mapToLong(Long::longValue).max().orElse(0);
+        }
+
+        private double getAvgLatency(final int from, final int to) {
+            return latencyMillis.subList(from, to).stream().mapToLong(Long::longValue).average().orElse(0);
+        }
+
+        /*
+         * Number of round trips fetching more than one row of the rows from (inclusive) to (exclusive).
+         */
+        private int getBatchedRoundTrips(final int from, final int to) {
+            int count = 0;
+            int row = 0;
+            for (final int size : batchSizes) {
+                final int rowsInRange = Math.min(row + size, to) - Math.max(row, from);
+                if (rowsInRange > 0 && size > 1) {
+                    count++;
+                }
+                row += size;
+            }
+            return count;
+        }
+    }
+
+    private String preTest(final int i) {
+        return "<event type=\"pre-test\"><test id=\"" + i + "\"><testNumber>" + i
+                + "</testNumber><totalNumberOfTests>0</totalNumberOfTests></test></event>";
+    }
+
+    /*
+     * Replays a run with a burst of fast tests, some slow tests and another burst of fast tests.
+     */
+    private TestReplayCursor createCursor() {
+        final TestReplayCursor cursor = new TestReplayCursor(200);
+        int i = 0;
+        for (int j = 0; j < BURST_SIZE; j++) {
+            cursor.addRow(TimeUnit.MICROSECONDS.toNanos(10L * j), "pre-test", preTest(i++));
+        }
+        for (int j = 0; j < SLOW_SIZE; j++) {
+            cursor.addRow(TimeUnit.MILLISECONDS.toNanos(200L + 50L * j), "pre-test", preTest(i++));
+        }
+        for (int j = 0; j < BURST_SIZE; j++) {
+            cursor.addRow(TimeUnit.MILLISECONDS.toNanos(200L + 50L * SLOW_SIZE) + TimeUnit.MICROSECONDS.toNanos(10L * j),
+                    "pre-test", preTest(i++));
+        }
+        return cursor;
+    }
+
+    private Result replay(final boolean useAdaptiveFetchSize) throws Exception {
+        final TestReplayCursor cursor = createCursor();
+        final RealtimeReporterDao dao = new RealtimeReporterDao(TestReplayCursor.createConnection());
+        dao.setUseAdaptiveFetchSize(useAdaptiveFetchSize);
+        final Result result = new Result();
+        dao.consumeLines(cursor.open(), event -> {
+            final int i = Integer.parseInt(((PreTestEvent) event).getId());
+            Assert.assertEquals(result.latencyMillis.size(), i);
+            final long producedNanos = cursor.getStartNanos() + cursor.getRows().get(i).getOffsetNanos();
+            result.latencyMillis.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - producedNanos));
+        });
+        result.roundTrips = cursor.getRoundTrips();
+        result.batchSizes = cursor.getBatchSizes();
+        Assert.assertEquals(cursor.getRows().size(), result.latencyMillis.size());
+        logger.info(() -> (useAdaptiveFetchSize ? "adaptive" : "fixed") + " fetch size: round trips: "
+                + result.roundTrips + ", avg/max latency [ms] first burst: " + result.getAvgLatency(0, BURST_SIZE)
+                + "/" + result.getMaxLatency(0, BURST_SIZE) + ", slow tests: "
+                + result.getAvgLatency(BURST_SIZE, BURST_SIZE + SLOW_SIZE) + "/"
+                + result.getMaxLatency(BURST_SIZE, BURST_SIZE + SLOW_SIZE));
+        return result;
+    }
+
+    @Test
+    public void growAndShrink() {
+        final AdaptiveFetchSize fetchSize = new AdaptiveFetchSize(8, 10);
+        final long quick = TimeUnit.MILLISECONDS.toNanos(1);
+        final long slow = TimeUnit.MILLISECONDS.toNanos(11);
+        Assert.assertEquals(2, fetchSize.next(quick));
+        Assert.assertEquals(2, fetchSize.next(quick));
+        Assert.assertEquals(4, fetchSize.next(quick));
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(4, fetchSize.next(quick));
+        }
+        Assert.assertEquals(8, fetchSize.next(quick));
+        for (int i = 0; i < 16; i++) {
+            Assert.assertEquals(8, fetchSize.next(quick));
+        }
+        for (int i = 0; i < 7; i++) {
+            Assert.assertEquals(8, fetchSize.next(quick / 2));
+        }
+        Assert.assertEquals(1, fetchSize.next(slow));
+        Assert.assertEquals(1, fetchSize.next(slow));
+        Assert.assertEquals(2, fetchSize.next(quick));
+    }
+
+    @Test
+    public void fixedFetchSize() throws Exception {
+        final Result result = replay(false);
+        Assert.assertEquals(2 * BURST_SIZE + SLOW_SIZE, result.roundTrips);
+        // every row is fetched on its own, slow tests are streamed without delay
+        Assert.assertTrue(result.batchSizes.stream().allMatch(size -> size == 1));
+    }
+
+    @Test
+    public void adaptiveFetchSize() throws Exception {
+        final Result result = replay(true);
+        Assert.assertTrue(result.roundTrips < (2 * BURST_SIZE + SLOW_SIZE) / 4);
+        Assert.assertTrue(result.batchSizes.stream().allMatch(size -> size <= AdaptiveFetchSize.DEFAULT_MAX_FETCH_SIZE));
+        Assert.assertTrue(result.batchSizes.contains(AdaptiveFetchSize.DEFAULT_MAX_FETCH_SIZE));
+        // at most one batch is delayed at the end of a burst, then slow tests are streamed row by row
+        Assert.assertTrue(result.getBatchedRoundTrips(BURST_SIZE, BURST_SIZE + SLOW_SIZE) <= 1);
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test.dal;
+
+import java.io.StringReader;
+import java.util.logging.Logger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.utplsql.sqldev.dal.RealtimeReporterDomEventDecoder;
+import org.utplsql.sqldev.dal.RealtimeReporterEventDecoder;
+import org.utplsql.sqldev.dal.RealtimeReporterStaxEventDecoder;
+import org.utplsql.sqldev.exception.GenericRuntimeException;
+import org.utplsql.sqldev.model.runner.PostTestEvent;
+import org.utplsql.sqldev.model.runner.PreRunEvent;
+import org.utplsql.sqldev.model.runner.RealtimeReporterEvent;
+import org.utplsql.sqldev.model.runner.Suite;
+
+public class RealtimeReporterEventDecoderTest {
+    private static final Logger logger = Logger.getLogger(RealtimeReporterEventDecoderTest.class.getName());
+    private final RealtimeReporterEventDecoder domDecoder = new RealtimeReporterDomEventDecoder();
+    private final RealtimeReporterEventDecoder staxDecoder = new RealtimeReporterStaxEventDecoder();
+
+    // payloads as produced by ut_realtime_reporter of utPLSQL v3.1.13
+    private static final String PRE_RUN = "<event type=\"pre-run\">"
+            + "<items><suite id=\"a\"><name>a</name><description/><items>"
+            + "<suite id=\"a.junit_utplsql_test1_pkg\"><name>junit_utplsql_test1_pkg</name><description>JUnit testing</description><items>"
+            + "<suite id=\"a.junit_utplsql_test1_pkg.test_context\"><name>test_context</name><description>test context</description><items>"
+            + "<test id=\"a.junit_utplsql_test1_pkg.test_context.test_1_ok\"><executableType>procedure</executableType>"
+            + "<ownerName>SCOTT</ownerName><objectName>JUNIT_UTPLSQL_TEST1_PKG</objectName><procedureName>TEST_1_OK</procedureName>"
+            + "<disabled>false</disabled><disabledReason/><name>test_1_ok</name><description>test 1 - OK</description><testNumber>1</testNumber></test>"
+            + "<test id=\"a.junit_utplsql_test1_pkg.test_context.test_2_nok\"><executableType>procedure</executableType>"
+            + "<ownerName>SCOTT</ownerName><objectName>JUNIT_UTPLSQL_TEST1_PKG</objectName><procedureName>TEST_2_NOK</procedureName>"
+            + "<disabled>true</disabled><disabledReason><![CDATA[not yet <implemented>]]></disabledReason><name>test_2_nok</name>"
+            + "<description>test 2 - NOK</description><testNumber>2</testNumber></test>"
+            + "</items></suite></items></suite></items></suite></items>"
+            + "<totalNumberOfTests>2</totalNumberOfTests></event>";
+
+    private static final String PRE_SUITE = "<event type=\"pre-suite\"><suite id=\"a.junit_utplsql_test1_pkg\"/></event>";
+
+    private static final String PRE_TEST = "<event type=\"pre-test\">"
+            + "<test id=\"a.junit_utplsql_test1_pkg.test_context.test_2_nok\"><testNumber>2</testNumber>"
+            + "<totalNumberOfTests>2</totalNumberOfTests></test></event>";
+
+    private static final String POST_TEST = "<event type=\"post-test\">"
+            + "<test id=\"a.junit_utplsql_test1_pkg.test_context.test_2_nok\"><testNumber>2</testNumber>"
+            + "<totalNumberOfTests>2</totalNumberOfTests><startTime>2026-10-18T10:11:12.123456</startTime>"
+            + "<endTime>2026-10-18T10:11:12.234567</endTime><executionTime>.111111</executionTime>"
+            + "<counter><disabled>0</disabled><success>0</success><failure>1</failure><error>0</error><warning>0</warning></counter>"
+            + "<serverOutput><![CDATA[line 1\nline 2\n]]></serverOutput>"
+            + "<failedExpectations><expectation><description><![CDATA[first]]></description>"
+            + "<message><![CDATA[Actual: 1 (number) was expected to equal: 2 (number)]]></message>"
+            + "<caller><![CDATA[\"SCOTT.JUNIT_UTPLSQL_TEST1_PKG\", line 9 ut.expect(1).to_equal(2);]]></caller></expectation>"
+            + "<expectation><message>Actual: 'a' &amp; 'b' was expected to be null</message>"
+            + "<caller><![CDATA[\"SCOTT.JUNIT_UTPLSQL_TEST1_PKG\", line 10 ut.expect('a').to_be_null;]]></caller></expectation>"
+            + "</failedExpectations></test></event>";
+
+    private static final String POST_SUITE = "<event type=\"post-suite\">"
+            + "<suite id=\"a.junit_utplsql_test1_pkg\"><startTime>2026-10-18T10:11:12.000001</startTime>"
+            + "<endTime>2026-10-18T10:11:13.000001</endTime><executionTime>1.0</executionTime>"
+            + "<counter><disabled>1</disabled><success>0</success><failure>1</failure><error>0</error><warning>1</warning></counter>"
+            + "<errorStack/><serverOutput/><warnings><![CDATA[deprecated annotation]]></warnings></suite></event>";
+
+    private static final String POST_RUN = "<event type=\"post-run\">"
+            + "<run><startTime>2026-10-18T10:11:11.000001</startTime><endTime>2026-10-18T10:11:13.000002</endTime>"
+            + "<executionTime>2.000001</executionTime>"
+            + "<counter><disabled>1</disabled><success>0</success><failure>1</failure><error>0</error><warning>1</warning></counter>"
+            + "</run></event>";
+
+    private RealtimeReporterEvent decode(final RealtimeReporterEventDecoder decoder, final String itemType, final String text) {
+        return decoder.decode(itemType, new StringReader(text));
+    }
+
+    private void assertSameAsDom(final String itemType, final String text) {
+        final RealtimeReporterEvent expected = decode(domDecoder, itemType, text);
+        final RealtimeReporterEvent actual = decode(staxDecoder, itemType, text);
+        Assert.assertEquals(expected.getClass(), actual.getClass());
+        Assert.assertEquals(expected.toString(), actual.toString());
+    }
+
+    private String getLargePreRun(final int suites, final int testsPerSuite) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("<event type=\"pre-run\"><items><suite id=\"large\"><name>large</name><description/><items>");
+        int testNumber = 0;
+        for (int i = 0; i < suites; i++) {
+            final String suiteName = "pkg_" + i;
+            sb.append("<suite id=\"large.").append(suiteName).append("\"><name>").append(suiteName);
+            sb.append("</name><description>suite ").append(i).append("</description><items>");
+            for (int j = 0; j < testsPerSuite; j++) {
+                testNumber++;
+                final String testName = "test_" + j;
+                sb.append("<test id=\"large.").append(suiteName).append('.').append(testName).append("\">");
+                sb.append("<executableType>procedure</executableType><ownerName>SCOTT</ownerName>");
+                sb.append("<objectName>").append(suiteName.toUpperCase()).append("</objectName>");
+                sb.append("<procedureName>").append(testName.toUpperCase()).append("</procedureName>");
+                sb.append("<disabled>false</disabled><disabledReason/><name>").append(testName).append("</name>");
+                sb.append("<description>test ").append(j).append("</description>");
+                sb.append("<testNumber>").append(testNumber).append("</testNumber></test>");
+            }
+            sb.append("</items></suite>");
+        }
+        sb.append("</items></suite></items><totalNumberOfTests>").append(testNumber);
+        sb.append("</totalNumberOfTests></event>");
+        return sb.toString();
+    }
+
+    private long measure(final RealtimeReporterEventDecoder decoder, final String itemType, final String text, final int runs) {
+        final long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            decode(decoder, itemType, text);
+        }
+        return (System.nanoTime() - start) / runs / 1000;
+    }
+
+    @Test
+    public void preRun() {
+        assertSameAsDom("pre-run", PRE_RUN);
+        final PreRunEvent event = (PreRunEvent) decode(staxDecoder, "pre-run", PRE_RUN);
+        Assert.assertEquals(Integer.valueOf(2), event.getTotalNumberOfTests());
+        Assert.assertEquals(1, event.getItems().size());
+        final Suite context = (Suite) ((Suite) ((Suite) event.getItems().get(0)).getItems().get(0)).getItems().get(0);
+        final org.utplsql.sqldev.model.runner.Test test = (org.utplsql.sqldev.model.runner.Test) context.getItems().get(1);
+        Assert.assertEquals("a.junit_utplsql_test1_pkg.test_context.test_2_nok", test.getId());
+        Assert.assertTrue(test.isDisabled());
+        Assert.assertEquals("not yet <implemented>", test.getDisabledReason());
+        Assert.assertEquals(Integer.valueOf(2), test.getTestNumber());
+    }
+
+    @Test
+    public void preSuite() {
+        assertSameAsDom("pre-suite", PRE_SUITE);
+    }
+
+    @Test
+    public void preTest() {
+        assertSameAsDom("pre-test", PRE_TEST);
+    }
+
+    @Test
+    public void postTest() {
+        assertSameAsDom("post-test", POST_TEST);
+        final PostTestEvent event = (PostTestEvent) decode(staxDecoder, "post-test", POST_TEST);
+        Assert.assertEquals(Integer.valueOf(1), event.getCounter().getFailure());
+        Assert.assertEquals(0.111111, event.getExecutionTime(), 0.0000001);
+        Assert.assertEquals("line 1\nline 2\n", event.getServerOutput());
+        Assert.assertNull(event.getErrorStack());
+        Assert.assertEquals(2, event.getFailedExpectations().size());
+        Assert.assertEquals(Integer.valueOf(9), event.getFailedExpectations().get(0).getCallerLine());
+        Assert.assertEquals("Actual: 'a' & 'b' was expected to be null", event.getFailedExpectations().get(1).getMessage());
+    }
+
+    @Test
+    public void postSuite() {
+        assertSameAsDom("post-suite", POST_SUITE);
+    }
+
+    @Test
+    public void postRun() {
+        assertSameAsDom("post-run", POST_RUN);
+    }
+
+    @Test
+    public void unknownItemType() {
+        Assert.assertNull(decode(staxDecoder, "unknown", POST_RUN));
+    }
+
+    @Test
+    public void parseError() {
+        try {
+            decode(staxDecoder, "post-test", "<event><test id=\"x\"></event>");
+            Assert.fail("GenericRuntimeException expected");
+        } catch (GenericRuntimeException e) {
+            Assert.assertEquals("Parse error while processing post-test", e.getMessage());
+        }
+    }
+
+    @Test
+    public void largePreRunBenchmark() {
+        // 20000 tests in 200 suites, comparable with large test suites of customers
+        final String preRun = getLargePreRun(200, 100);
+        assertSameAsDom("pre-run", preRun);
+        // warm up
+        measure(domDecoder, "pre-run", preRun, 1);
+        measure(staxDecoder, "pre-run", preRun, 1);
+        final long domMicros = measure(domDecoder, "pre-run", preRun, 2);
+        final long staxMicros = measure(staxDecoder, "pre-run", preRun, 2);
+        logger.info(() -> "pre-run with 20000 tests (" + preRun.length() + " chars), DOM: " + domMicros
+                + " us, StAX: " + staxMicros + " us");
+        final long domPostTestMicros = measure(domDecoder, "post-test", POST_TEST, 1000);
+        final long staxPostTestMicros = measure(staxDecoder, "post-test", POST_TEST, 1000);
+        logger.info(() -> "post-test, DOM: " + domPostTestMicros + " us, StAX: " + staxPostTestMicros + " us");
+    }
+}
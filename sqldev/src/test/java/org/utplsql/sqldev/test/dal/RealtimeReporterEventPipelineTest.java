@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test.dal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.utplsql.sqldev.dal.RealtimeReporterEventPipeline;
+import org.utplsql.sqldev.model.SystemTools;
+import org.utplsql.sqldev.model.runner.PreTestEvent;
+import org.utplsql.sqldev.model.runner.RealtimeReporterEvent;
+
+public class RealtimeReporterEventPipelineTest {
+
+    private RealtimeReporterEvent decode(final String itemType, final String text) {
+        if ("unknown".equals(itemType)) {
+            return null;
+        }
+        final PreTestEvent event = new PreTestEvent();
+        event.setId(text);
+        return event;
+    }
+
+    @Test
+    public void orderPreservedWithSlowConsumer() {
+        final List<String> ids = new ArrayList<>();
+        final RealtimeReporterEventPipeline pipeline = new RealtimeReporterEventPipeline(this::decode, event -> {
+            SystemTools.sleep(1);
+            ids.add(((PreTestEvent) event).getId());
+        }, 5);
+        pipeline.start();
+        for (int i = 0; i < 100; i++) {
+            pipeline.put("pre-test", "test" + i, 0);
+            if (i % 10 == 0) {
+                pipeline.put("unknown", "ignored", 0);
+            }
+        }
+        pipeline.finish();
+        Assert.assertEquals(100, ids.size());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals("test" + i, ids.get(i));
+        }
+        Assert.assertEquals(110, pipeline.getFetchStage().getCount());
+        Assert.assertEquals(110, pipeline.getParseStage().getCount());
+        Assert.assertEquals(100, pipeline.getDispatchStage().getCount());
+        Assert.assertTrue(pipeline.getMaxRowQueueSize() <= 5);
+        Assert.assertTrue(pipeline.getMaxEventQueueSize() <= 5);
+        Assert.assertTrue(pipeline.getDispatchStage().getAverageMillis() >= 1.0);
+        Assert.assertEquals(0, pipeline.getRowQueueSize());
+        Assert.assertEquals(0, pipeline.getEventQueueSize());
+    }
+
+    @Test
+    public void fetchNotBlockedByConsumer() {
+        final RealtimeReporterEventPipeline pipeline = new RealtimeReporterEventPipeline(this::decode,
+                event -> SystemTools.sleep(100), 50);
+        pipeline.start();
+        final long start = System.currentTimeMillis();
+        for (int i = 0; i < 20; i++) {
+            pipeline.put("pre-test", "test" + i, 0);
+        }
+        final long fetchTime = System.currentTimeMillis() - start;
+        pipeline.finish();
+        final long totalTime = System.currentTimeMillis() - start;
+        Assert.assertTrue("fetch stage was blocked by consumer", fetchTime < 1000);
+        Assert.assertTrue("consumer was not called for every event", totalTime >= 2000);
+    }
+
+    @Test
+    public void consumerException() {
+        final RealtimeReporterEventPipeline pipeline = new RealtimeReporterEventPipeline(this::decode, event -> {
+            throw new IllegalStateException("consumer failed");
+        }, 2);
+        pipeline.start();
+        try {
+            for (int i = 0; i < 100; i++) {
+                pipeline.put("pre-test", "test" + i, 0);
+            }
+            pipeline.finish();
+            Assert.fail("Exception expected.");
+        } catch (RuntimeException e) {
+            // either thrown by put or finish
+            final Throwable cause = e instanceof IllegalStateException ? e : e.getCause();
+            Assert.assertEquals("consumer failed", cause.getMessage());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test.dal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.utplsql.sqldev.dal.RealtimeReporterDao;
+import org.utplsql.sqldev.model.runner.PostTestEvent;
+import org.utplsql.sqldev.model.runner.PreTestEvent;
+import org.utplsql.sqldev.model.runner.RealtimeReporterEvent;
+
+public class RealtimeReporterLobTest {
+
+    private String preTest(final int i) {
+        return "<event type=\"pre-test\"><test id=\"" + i + "\"><testNumber>" + i
+                + "</testNumber><totalNumberOfTests>0</totalNumberOfTests></test></event>";
+    }
+
+    private String postTest(final int i, final String serverOutput) {
+        return "<event type=\"post-test\"><test id=\"" + i + "\"><testNumber>" + i
+                + "</testNumber><totalNumberOfTests>0</totalNumberOfTests><serverOutput><![CDATA["
+                + serverOutput + "]]></serverOutput></test></event>";
+    }
+
+    private String largeText(final int length) {
+        final StringBuilder sb = new StringBuilder();
+        while (sb.length() < length) {
+            sb.append("line ");
+            sb.append(sb.length());
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private List<RealtimeReporterEvent> consume(final TestReplayCursor cursor, final RealtimeReporterDao dao)
+            throws Exception {
+        final List<RealtimeReporterEvent> events = new ArrayList<>();
+        dao.consumeLines(cursor.open(), events::add);
+        return events;
+    }
+
+    @Test
+    public void smallPayloadsInOneCall() throws Exception {
+        final TestReplayCursor cursor = new TestReplayCursor(0);
+        for (int i = 0; i < 100; i++) {
+            cursor.addRow(0, "pre-test", preTest(i));
+        }
+        final RealtimeReporterDao dao = new RealtimeReporterDao(TestReplayCursor.createConnection());
+        final List<RealtimeReporterEvent> events = consume(cursor, dao);
+        Assert.assertEquals(100, events.size());
+        Assert.assertEquals("99", ((PreTestEvent) events.get(99)).getId());
+        Assert.assertEquals(100, dao.getLobCalls());
+        // length and getSubString per row, the length is prefetched
+        Assert.assertEquals(200, cursor.getLobCalls());
+    }
+
+    @Test
+    public void largePayloadStreamed() throws Exception {
+        final String serverOutput = largeText(RealtimeReporterDao.MAX_INLINE_TEXT_LENGTH * 3);
+        final TestReplayCursor cursor = new TestReplayCursor(0);
+        cursor.addRow(0, "pre-test", preTest(1));
+        cursor.addRow(0, "post-test", postTest(1, serverOutput));
+        cursor.addRow(0, "pre-test", preTest(2));
+        cursor.addRow(0, "post-test", postTest(2, "small"));
+        final RealtimeReporterDao dao = new RealtimeReporterDao(TestReplayCursor.createConnection());
+        final List<RealtimeReporterEvent> events = consume(cursor, dao);
+        Assert.assertEquals(4, events.size());
+        Assert.assertEquals("1", ((PreTestEvent) events.get(0)).getId());
+        Assert.assertEquals(serverOutput, ((PostTestEvent) events.get(1)).getServerOutput());
+        Assert.assertEquals("2", ((PreTestEvent) events.get(2)).getId());
+        Assert.assertEquals("small", ((PostTestEvent) events.get(3)).getServerOutput());
+        // getSubString per small row, getCharacterStream and reads for the large payload
+        Assert.assertTrue(dao.getLobCalls() > 4);
+        // length per row, the large payload is read from the stream only
+        Assert.assertEquals(8, cursor.getLobCalls());
+        // the large payload is decoded by the fetching thread
+        Assert.assertEquals(3, dao.getEventPipeline().getParseStage().getCount());
+    }
+
+    @Test
+    public void rowWithoutTextSkipped() throws Exception {
+        final TestReplayCursor cursor = new TestReplayCursor(0);
+        cursor.addRow(0, "pre-test", preTest(1));
+        cursor.addRow(0, "pre-test", null);
+        cursor.addRow(0, "pre-test", preTest(2));
+        final RealtimeReporterDao dao = new RealtimeReporterDao(TestReplayCursor.createConnection());
+        final List<RealtimeReporterEvent> events = consume(cursor, dao);
+        Assert.assertEquals(2, events.size());
+        Assert.assertEquals("2", ((PreTestEvent) events.get(1)).getId());
+        Assert.assertEquals(2, dao.getLobCalls());
+    }
+}
@@ -174,6 +174,19 @@ public class RealtimeReporterTest extends AbstractJdbcTest {
         Assert.assertEquals(28, consumer.getConsumedList().size());
     }
     
+    @Test
+    public void consumerReadyBeforeFirstEvent() {
+        final RealtimeReporterDao dao = new RealtimeReporterDao(DatabaseTools.getConnection(dataSource));
+        final String reporterId = UUID.randomUUID().toString().replace("-", "");
+        final TestRealtimerReporterEventConsumer consumer = new TestRealtimerReporterEventConsumer();
+        final int[] eventsWhenReady = { -1 };
+        dao.produceReport(reporterId, Collections.singletonList(":b"));
+        dao.consumeReport(reporterId, consumer, RealtimeReporterDao.DEFAULT_CONSUMER_TIMEOUT_SECONDS,
+                () -> eventsWhenReady[0] = consumer.getConsumedList().size());
+        Assert.assertEquals(0, eventsWhenReady[0]);
+        Assert.assertTrue(consumer.getConsumedList().size() > 0);
+    }
+
     @Test
     public void produceAndConsumeWithCoverage() {
         final RealtimeReporterDao dao = new RealtimeReporterDao(DatabaseTools.getConnection(dataSource));
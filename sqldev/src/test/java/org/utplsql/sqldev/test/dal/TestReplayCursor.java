@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test.dal;
+
+import java.io.StringReader;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Stand-in for the cursor returned by ut_realtime_reporter.get_lines_cursor.
+ * Replays recorded rows at their original point in time relative to opening the cursor.
+ * A fetch blocks until the requested number of rows has been produced, like a fetch
+ * on a pipelined table function does.
+ */
+public class TestReplayCursor {
+    private final List<Row> rows = new ArrayList<>();
+    private final long roundTripNanos;
+    private final ArrayDeque<Row> buffer = new ArrayDeque<>();
+    private long startNanos;
+    private int nextRow;
+    private int fetchSize = 1;
+    private int roundTrips;
+    // number of rows fetched per round trip, indexed by round trip
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private int lobCalls;
+    private Row current;
+
+    public static class Row {
+        private final long offsetNanos;
+        private final String itemType;
+        private final String text;
+
+        public Row(final long offsetNanos, final String itemType, final String text) {
+            this.offsetNanos = offsetNanos;
+            this.itemType = itemType;
+            this.text = text;
+        }
+
+        public long getOffsetNanos() {
+            return offsetNanos;
+        }
+    }
+
+    public TestReplayCursor(final long roundTripMicros) {
+        roundTripNanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+    }
+
+    public static Connection createConnection() {
+        return (Connection) Proxy.newProxyInstance(TestReplayCursor.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> defaultValue(method));
+    }
+
+    private static Object defaultValue(final Method method) {
+        if (method.getReturnType() == boolean.class) {
+            return false;
+        } else if (method.getReturnType() == int.class) {
+            return 0;
+        }
+        return null;
+    }
+
+    public void addRow(final long offsetNanos, final String itemType, final String text) {
+        rows.add(new Row(offsetNanos, itemType, text));
+    }
+
+    public List<Row> getRows() {
+        return rows;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public int getRoundTrips() {
+        return roundTrips;
+    }
+
+    public List<Integer> getBatchSizes() {
+        return batchSizes;
+    }
+
+    public int getLobCalls() {
+        return lobCalls;
+    }
+
+    public ResultSet open() {
+        startNanos = System.nanoTime();
+        return (ResultSet) Proxy.newProxyInstance(TestReplayCursor.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "next":
+                        return next();
+                    case "getFetchSize":
+                        return fetchSize;
+                    case "setFetchSize":
+                        fetchSize = Math.max(1, (Integer) args[0]);
+                        return null;
+                    case "getString":
+                        return "item_type".equals(args[0]) ? current.itemType : current.text;
+                    case "getClob":
+                        return current.text == null ? null : createClob(current.text);
+                    case "close":
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private Clob createClob(final String text) {
+        return (Clob) Proxy.newProxyInstance(TestReplayCursor.class.getClassLoader(), new Class<?>[] { Clob.class },
+                (proxy, method, args) -> {
+                    lobCalls++;
+                    switch (method.getName()) {
+                    case "length":
+                        return (long) text.length();
+                    case "getSubString":
+                        final int pos = (int) (long) (Long) args[0] - 1;
+                        return text.substring(pos, Math.min(pos + (Integer) args[1], text.length()));
+                    case "getCharacterStream":
+                        return new StringReader(text);
+                    case "free":
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private boolean next() {
+        if (buffer.isEmpty()) {
+            if (nextRow >= rows.size()) {
+                return false;
+            }
+            roundTrips++;
+            final int lastRow = Math.min(nextRow + fetchSize, rows.size()) - 1;
+            final long readyNanos = startNanos + rows.get(lastRow).offsetNanos;
+            final long now = System.nanoTime();
+            // a round trip takes at least the network latency
+            LockSupport.parkNanos(Math.max(readyNanos - now, 0) + roundTripNanos);
+            while (System.nanoTime() < readyNanos) {
+                LockSupport.parkNanos(readyNanos - System.nanoTime());
+            }
+            for (int i = nextRow; i <= lastRow; i++) {
+                buffer.add(rows.get(i));
+            }
+            batchSizes.add(lastRow - nextRow + 1);
+            nextRow = lastRow + 1;
+        }
+        current = buffer.poll();
+        return true;
+    }
+}
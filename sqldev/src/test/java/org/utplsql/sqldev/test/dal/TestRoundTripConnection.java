@@ -0,0 +1,253 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test.dal;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Array;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import oracle.jdbc.OracleConnection;
+
+/**
+ * Stand-in for a JDBC connection to an Oracle Database. Answers queries with
+ * canned results and counts the round trips to the database server. Every
+ * execution of a statement is a round trip and takes the configured time.
+ */
+public class TestRoundTripConnection {
+    private final long roundTripNanos;
+    private final String url = "jdbc:oracle:thin:@" + UUID.randomUUID();
+    private final Map<String, Result> results = new LinkedHashMap<>();
+    private final Map<String, Object[]> callResults = new LinkedHashMap<>();
+    private final List<String> executedStatements = new ArrayList<>();
+
+    private static class Result {
+        private final String[] columns;
+        private final List<Object[]> rows;
+
+        Result(final String[] columns, final List<Object[]> rows) {
+            this.columns = columns;
+            this.rows = rows;
+        }
+    }
+
+    public TestRoundTripConnection(final long roundTripMicros) {
+        roundTripNanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+    }
+
+    /**
+     * Registers the result of the statements containing a SQL fragment.
+     * The first matching fragment wins.
+     */
+    public void addResult(final String sqlFragment, final String[] columns, final List<Object[]> rows) {
+        results.put(sqlFragment, new Result(columns, rows));
+    }
+
+    /**
+     * Registers the values of the out parameters of the calls containing a SQL
+     * fragment. The first matching fragment wins.
+     */
+    public void addCallResult(final String sqlFragment, final Object... outValues) {
+        callResults.put(sqlFragment, outValues);
+    }
+
+    public int getRoundTrips() {
+        return executedStatements.size();
+    }
+
+    public List<String> getExecutedStatements() {
+        return executedStatements;
+    }
+
+    public void reset() {
+        executedStatements.clear();
+    }
+
+    private static Object defaultValue(final Method method) {
+        if (method.getReturnType() == boolean.class) {
+            return false;
+        } else if (method.getReturnType() == int.class) {
+            return 0;
+        } else if (method.getReturnType() == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+
+    private <T> T proxy(final Class<T> type, final java.lang.reflect.InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(TestRoundTripConnection.class.getClassLoader(),
+                new Class<?>[] { type }, handler));
+    }
+
+    public Connection getConnection() {
+        final DatabaseMetaData metaData = proxy(DatabaseMetaData.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+            case "getURL":
+                return url;
+            case "getUserName":
+                return "SCOTT";
+            default:
+                return defaultValue(method);
+            }
+        });
+        final boolean[] closed = { false };
+        return proxy(OracleConnection.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+            case "abort":
+            case "close":
+                closed[0] = true;
+                return null;
+            case "isClosed":
+                return closed[0];
+            case "isValid":
+                if (!closed[0]) {
+                    executedStatements.add("ping");
+                    LockSupport.parkNanos(roundTripNanos);
+                }
+                return !closed[0];
+            case "prepareStatement":
+                return createStatement((String) args[0]);
+            case "prepareCall":
+                return createCall((String) args[0]);
+            case "createStatement":
+                return createStatement();
+            case "getMetaData":
+                return metaData;
+            case "unwrap":
+                return proxy;
+            case "isWrapperFor":
+                return true;
+            case "createOracleArray":
+                return proxy(Array.class, (p, m, a) -> defaultValue(m));
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+                return defaultValue(method);
+            }
+        });
+    }
+
+    private PreparedStatement createStatement(final String sql) {
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            if ("executeQuery".equals(method.getName())) {
+                executedStatements.add(sql);
+                LockSupport.parkNanos(roundTripNanos);
+                for (final Map.Entry<String, Result> entry : results.entrySet()) {
+                    if (sql.contains(entry.getKey())) {
+                        return createResultSet(entry.getValue());
+                    }
+                }
+                throw new UnsupportedOperationException("no result for " + sql);
+            }
+            return defaultValue(method);
+        });
+    }
+
+    private Statement createStatement() {
+        return proxy(Statement.class, (proxy, method, args) -> {
+            if ("execute".equals(method.getName())) {
+                final String sql = (String) args[0];
+                executedStatements.add(sql);
+                LockSupport.parkNanos(roundTripNanos);
+                for (final String sqlFragment : results.keySet()) {
+                    if (sql.contains(sqlFragment)) {
+                        return true;
+                    }
+                }
+                throw new SQLException("no result for " + sql);
+            }
+            return defaultValue(method);
+        });
+    }
+
+    private CallableStatement createCall(final String sql) {
+        final Object[][] outValues = { null };
+        return proxy(CallableStatement.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+            case "execute":
+                executedStatements.add(sql);
+                LockSupport.parkNanos(roundTripNanos);
+                for (final Map.Entry<String, Object[]> entry : callResults.entrySet()) {
+                    if (sql.contains(entry.getKey())) {
+                        outValues[0] = entry.getValue();
+                        return false;
+                    }
+                }
+                throw new UnsupportedOperationException("no result for " + sql);
+            case "getString":
+            case "getObject":
+                return outValues[0][(Integer) args[0] - 1];
+            default:
+                return defaultValue(method);
+            }
+        });
+    }
+
+    private ResultSet createResultSet(final Result result) {
+        final ResultSetMetaData metaData = proxy(ResultSetMetaData.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+            case "getColumnCount":
+                return result.columns.length;
+            case "getColumnLabel":
+            case "getColumnName":
+                return result.columns[(Integer) args[0] - 1];
+            default:
+                return defaultValue(method);
+            }
+        });
+        final int[] rowIndex = { -1 };
+        final boolean[] wasNull = { false };
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+            case "next":
+                rowIndex[0]++;
+                return rowIndex[0] < result.rows.size();
+            case "getMetaData":
+                return metaData;
+            case "wasNull":
+                return wasNull[0];
+            case "getInt":
+            case "getString":
+            case "getTimestamp":
+            case "getObject":
+                final Object value = result.rows.get(rowIndex[0])[(Integer) args[0] - 1];
+                wasNull[0] = value == null;
+                if ("getInt".equals(method.getName())) {
+                    return value == null ? 0 : ((Number) value).intValue();
+                }
+                return value;
+            default:
+                return defaultValue(method);
+            }
+        });
+    }
+}
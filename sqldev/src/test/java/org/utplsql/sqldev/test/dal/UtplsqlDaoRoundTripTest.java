@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test.dal;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.utplsql.sqldev.dal.UtplsqlDao;
+import org.utplsql.sqldev.dal.UtplsqlSuiteCatalog;
+
+public class UtplsqlDaoRoundTripTest {
+    private static final Logger logger = Logger.getLogger(UtplsqlDaoRoundTripTest.class.getName());
+    private static final int PACKAGES = 200;
+    private static final long ROUND_TRIP_MICROS = 500;
+
+    private TestRoundTripConnection db;
+    private List<String> paths;
+
+    @Before
+    public void setup() {
+        db = new TestRoundTripConnection(ROUND_TRIP_MICROS);
+        final long now = System.currentTimeMillis();
+        final List<Object[]> state = new ArrayList<>();
+        state.add(new Object[] { PACKAGES, new Timestamp(now - 3600000L), new Timestamp(now) });
+        final List<Object[]> suites = new ArrayList<>();
+        paths = new ArrayList<>();
+        for (int i = 1; i <= PACKAGES; i++) {
+            suites.add(new Object[] { "SCOTT", "PKG" + i, "suite", null });
+            suites.add(new Object[] { "SCOTT", "PKG" + i, "test", "T1" });
+            paths.add("SCOTT.PKG" + i);
+        }
+        final List<Object[]> notFound = new ArrayList<>();
+        notFound.add(new Object[] { 0 });
+        db.addResult("paths AS", new String[] { "COUNT(*)" }, notFound);
+        db.addResult("max(last_ddl_time)", new String[] { "PACKAGE_COUNT", "MAX_LAST_DDL_TIME", "CHECK_TIME" },
+                state);
+        db.addResult("SELECT object_name, created", new String[] { "OBJECT_NAME", "CREATED" },
+                Collections.emptyList());
+        db.addResult("get_suites_info(?)",
+                new String[] { "OBJECT_OWNER", "OBJECT_NAME", "NAME", "SUBOBJECT_NAME" }, suites);
+    }
+
+    private UtplsqlDao createDao() {
+        final UtplsqlDao dao = new UtplsqlDao(db.getConnection());
+        dao.setUtPlsqlVersion("3.1.10");
+        return dao;
+    }
+
+    @Test
+    public void emptySelection() {
+        Assert.assertTrue(createDao().containsUtplsqlTests(Collections.emptyList()));
+        Assert.assertEquals(0, db.getRoundTrips());
+    }
+
+    @Test
+    public void bulkCheckInOneRoundTrip() {
+        Assert.assertTrue(createDao().containsUtplsqlTests(paths));
+        Assert.assertEquals(1, db.getRoundTrips());
+        Assert.assertTrue(db.getExecutedStatements().get(0).contains("paths AS"));
+        Assert.assertTrue(db.getExecutedStatements().get(0).contains("get_suites_info(o.owner, o.object_name)"));
+    }
+
+    @Test
+    public void singleElementSelection() {
+        Assert.assertTrue(createDao().containsUtplsqlTests(paths.subList(0, 1)));
+        Assert.assertFalse(db.getExecutedStatements().get(0).contains("paths AS"));
+    }
+
+    @Test
+    public void bulkCheckWithLoadedCatalog() {
+        final UtplsqlDao dao = createDao();
+        Assert.assertTrue(dao.containsUtplsqlTest("SCOTT"));
+        db.reset();
+        Assert.assertTrue(dao.containsUtplsqlTests(paths));
+        Assert.assertEquals(0, db.getRoundTrips());
+    }
+
+    @Test
+    public void perElementVersusBulk() {
+        // bulk, before the suite catalog is loaded
+        long start = System.nanoTime();
+        Assert.assertTrue(createDao().containsUtplsqlTests(paths));
+        final long bulkMillis = (System.nanoTime() - start) / 1000000;
+        final int bulkRoundTrips = db.getRoundTrips();
+        // per element, the suite catalog is loaded once, further checks are within the check interval
+        db.reset();
+        final UtplsqlDao perElementDao = createDao();
+        start = System.nanoTime();
+        for (final String path : paths) {
+            final String[] parts = path.split("\\.");
+            Assert.assertTrue(perElementDao.containsUtplsqlTest(parts[0], parts[1]));
+        }
+        final long perElementMillis = (System.nanoTime() - start) / 1000000;
+        final int perElementRoundTrips = db.getRoundTrips();
+        logger.info(() -> "checking " + PACKAGES + " paths: per element " + perElementRoundTrips
+                + " round trips in " + perElementMillis + " ms, bulk " + bulkRoundTrips + " round trips in "
+                + bulkMillis + " ms.");
+        Assert.assertEquals(2, perElementRoundTrips);
+        Assert.assertEquals(1, bulkRoundTrips);
+    }
+
+    @Test
+    public void checkInterval() {
+        final UtplsqlDao dao = createDao();
+        final long checkInterval = UtplsqlSuiteCatalog.getCheckInterval();
+        try {
+            // every check queries the package state
+            UtplsqlSuiteCatalog.setCheckInterval(0);
+            Assert.assertTrue(dao.containsUtplsqlTest("SCOTT", "PKG1"));
+            Assert.assertTrue(dao.containsUtplsqlTest("SCOTT", "PKG2"));
+            Assert.assertEquals(3, db.getRoundTrips());
+            // owner is the current user
+            Assert.assertTrue(db.getExecutedStatements().get(0).contains("user_objects"));
+            // other checks are within the check interval
+            UtplsqlSuiteCatalog.setCheckInterval(60000);
+            Assert.assertTrue(dao.containsUtplsqlTest("SCOTT", "PKG3"));
+            Assert.assertEquals(3, db.getRoundTrips());
+        } finally {
+            UtplsqlSuiteCatalog.setCheckInterval(checkInterval);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test.dal;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.utplsql.sqldev.dal.UtplsqlMetadataCache;
+
+public class UtplsqlMetadataCacheTest {
+    private final String url = "jdbc:oracle:thin:@" + UUID.randomUUID();
+    private final UtplsqlMetadataCache cache = UtplsqlMetadataCache.getInstance();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private Connection connection(final String user) {
+        final DatabaseMetaData metaData = (DatabaseMetaData) Proxy.newProxyInstance(
+                UtplsqlMetadataCacheTest.class.getClassLoader(), new Class<?>[] { DatabaseMetaData.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "getURL":
+                        return url;
+                    case "getUserName":
+                        return user;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        return (Connection) Proxy.newProxyInstance(UtplsqlMetadataCacheTest.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "getMetaData":
+                        return metaData;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private String version(final Connection conn) {
+        return cache.get(conn, "utPlsqlVersion", () -> {
+            loads.incrementAndGet();
+            return "v3.1.13";
+        });
+    }
+
+    @After
+    public void teardown() {
+        cache.setTimeToLive(UtplsqlMetadataCache.DEFAULT_TIME_TO_LIVE_MILLIS);
+    }
+
+    @Test
+    public void sharedByConnectionsOfSameUser() {
+        final long hits = cache.getHits();
+        final long misses = cache.getMisses();
+        Assert.assertEquals("v3.1.13", version(connection("SCOTT")));
+        Assert.assertEquals("v3.1.13", version(connection("SCOTT")));
+        Assert.assertEquals("v3.1.13", version(connection("SCOTT")));
+        Assert.assertEquals(1, loads.get());
+        Assert.assertEquals(2, cache.getHits() - hits);
+        Assert.assertEquals(1, cache.getMisses() - misses);
+        version(connection("TIGER"));
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void nullValuesNotCached() {
+        final Connection conn = connection("SCOTT");
+        for (int i = 0; i < 3; i++) {
+            Assert.assertNull(cache.get(conn, "utplsqlSchema", () -> {
+                loads.incrementAndGet();
+                return null;
+            }));
+        }
+        // not installed or failed, loaded again
+        Assert.assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void invalidate() {
+        final Connection conn = connection("SCOTT");
+        version(conn);
+        final long invalidations = cache.getInvalidations();
+        cache.invalidate(connection("SCOTT"));
+        Assert.assertEquals(1, cache.getInvalidations() - invalidations);
+        version(conn);
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void timeToLive() throws InterruptedException {
+        final Connection conn = connection("SCOTT");
+        cache.setTimeToLive(50);
+        version(conn);
+        version(conn);
+        Assert.assertEquals(1, loads.get());
+        Thread.sleep(100);
+        version(conn);
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void unusableConnection() {
+        final Connection conn = (Connection) Proxy.newProxyInstance(UtplsqlMetadataCacheTest.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    throw new IllegalStateException("closed");
+                });
+        version(conn);
+        version(conn);
+        Assert.assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test.dal;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.logging.Logger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.utplsql.sqldev.dal.UtplsqlSessionPool;
+import org.utplsql.sqldev.model.DatabaseTools;
+import org.utplsql.sqldev.model.SystemTools;
+
+public class UtplsqlSessionPoolTest {
+    private static final Logger logger = Logger.getLogger(UtplsqlSessionPoolTest.class.getName());
+    private static final String CONNECTION_NAME = "scott";
+    private static final int LOGON_MILLIS = 20;
+    private static final int RERUNS = 20;
+
+    private TestRoundTripConnection db;
+    private UtplsqlSessionPool pool;
+    private int logons;
+    private String originKey;
+
+    private Connection logon(final String connectionName) {
+        logons++;
+        SystemTools.sleep(LOGON_MILLIS);
+        return db.getConnection();
+    }
+
+    @Before
+    public void setup() {
+        db = new TestRoundTripConnection(200);
+        db.addResult("dbms_session.reset_package", new String[] {}, Collections.emptyList());
+        pool = UtplsqlSessionPool.getInstance();
+        pool.clear();
+        pool.setSessionFactory(this::logon);
+        originKey = "SCOTT@jdbc:oracle:thin:@localhost:1521/db";
+        pool.setOriginKeyProvider(connectionName -> originKey);
+    }
+
+    @After
+    public void teardown() {
+        pool.clear();
+        pool.setIdleTimeout(UtplsqlSessionPool.DEFAULT_IDLE_TIMEOUT_MILLIS);
+        pool.setMaxIdleSessions(UtplsqlSessionPool.DEFAULT_MAX_IDLE_SESSIONS);
+        pool.setSessionFactory(DatabaseTools::cloneConnection);
+        pool.setOriginKeyProvider(UtplsqlSessionPool::getOriginKey);
+    }
+
+    @Test
+    public void reuseSession() {
+        final Connection conn = pool.borrow(CONNECTION_NAME);
+        pool.release(CONNECTION_NAME, conn);
+        Assert.assertEquals(1, pool.getIdleCount());
+        Assert.assertTrue(db.getExecutedStatements().get(0).contains("dbms_session.reset_package"));
+        db.reset();
+        Assert.assertSame(conn, pool.borrow(CONNECTION_NAME));
+        Assert.assertEquals(1, logons);
+        Assert.assertEquals(1, pool.getBorrowedCount());
+        // health check
+        Assert.assertEquals("ping", db.getExecutedStatements().get(0));
+        pool.release(CONNECTION_NAME, conn);
+        Assert.assertEquals(0, pool.getBorrowedCount());
+    }
+
+    @Test
+    public void poolPerConnectionName() {
+        final Connection conn = pool.borrow(CONNECTION_NAME);
+        pool.release(CONNECTION_NAME, conn);
+        Assert.assertNotSame(conn, pool.borrow("hr"));
+        Assert.assertEquals(2, logons);
+    }
+
+    @Test
+    public void evictOnReconnect() throws SQLException {
+        final Connection conn = pool.borrow(CONNECTION_NAME);
+        pool.release(CONNECTION_NAME, conn);
+        Assert.assertEquals(0, pool.evict("hr"));
+        Assert.assertEquals(1, pool.evict(CONNECTION_NAME));
+        Assert.assertEquals(0, pool.getIdleCount());
+        Assert.assertTrue(conn.isClosed());
+    }
+
+    @Test
+    public void discardSessionOfChangedUser() throws SQLException {
+        final Connection conn = pool.borrow(CONNECTION_NAME);
+        pool.release(CONNECTION_NAME, conn);
+        originKey = "HR@jdbc:oracle:thin:@localhost:1521/db";
+        Assert.assertNotSame(conn, pool.borrow(CONNECTION_NAME));
+        Assert.assertEquals(2, logons);
+        Assert.assertTrue(conn.isClosed());
+    }
+
+    @Test
+    public void replaceAbortedSession() {
+        final Connection conn = pool.borrow(CONNECTION_NAME);
+        pool.release(CONNECTION_NAME, conn);
+        DatabaseTools.abortConnection(conn);
+        Assert.assertNotSame(conn, pool.borrow(CONNECTION_NAME));
+        Assert.assertEquals(2, logons);
+    }
+
+    @Test
+    public void discardAbortedSessionOnRelease() {
+        final long discarded = pool.getDiscarded();
+        final Connection conn = pool.borrow(CONNECTION_NAME);
+        DatabaseTools.abortConnection(conn);
+        pool.release(CONNECTION_NAME, conn);
+        Assert.assertEquals(0, pool.getIdleCount());
+        Assert.assertEquals(discarded + 1, pool.getDiscarded());
+    }
+
+    @Test
+    public void discardSessionWithFailedReset() throws SQLException {
+        final TestRoundTripConnection otherDb = new TestRoundTripConnection(200);
+        pool.setSessionFactory(connectionName -> otherDb.getConnection());
+        final Connection conn = pool.borrow(CONNECTION_NAME);
+        pool.release(CONNECTION_NAME, conn);
+        Assert.assertEquals(0, pool.getIdleCount());
+        Assert.assertTrue(conn.isClosed());
+    }
+
+    @Test
+    public void evictIdleSessions() throws SQLException {
+        pool.setIdleTimeout(0);
+        final Connection conn = pool.borrow(CONNECTION_NAME);
+        pool.release(CONNECTION_NAME, conn);
+        SystemTools.sleep(5);
+        Assert.assertEquals(1, pool.evictIdleSessions());
+        Assert.assertEquals(0, pool.getIdleCount());
+        Assert.assertTrue(conn.isClosed());
+    }
+
+    @Test
+    public void maxIdleSessions() throws SQLException {
+        pool.setMaxIdleSessions(1);
+        final Connection conn1 = pool.borrow(CONNECTION_NAME);
+        final Connection conn2 = pool.borrow(CONNECTION_NAME);
+        pool.release(CONNECTION_NAME, conn1);
+        pool.release(CONNECTION_NAME, conn2);
+        Assert.assertEquals(1, pool.getIdleCount());
+        Assert.assertTrue(conn2.isClosed());
+    }
+
+    @Test
+    public void rerunBenchmark() {
+        // a rerun needs a producer and a consumer session
+        long start = System.nanoTime();
+        for (int i = 0; i < RERUNS; i++) {
+            DatabaseTools.abortConnection(logon(CONNECTION_NAME));
+            DatabaseTools.abortConnection(logon(CONNECTION_NAME));
+        }
+        final long withoutPool = (System.nanoTime() - start) / 1000000;
+        logons = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < RERUNS; i++) {
+            final Connection producerConn = pool.borrow(CONNECTION_NAME);
+            final Connection consumerConn = pool.borrow(CONNECTION_NAME);
+            pool.release(CONNECTION_NAME, producerConn);
+            pool.release(CONNECTION_NAME, consumerConn);
+        }
+        final long withPool = (System.nanoTime() - start) / 1000000;
+        Assert.assertEquals(2, logons);
+        Assert.assertTrue(withPool < withoutPool);
+        logger.info(() -> RERUNS + " reruns without pool: " + withoutPool + " ms, with pool: " + withPool + " ms, "
+                + pool + ".");
+    }
+}
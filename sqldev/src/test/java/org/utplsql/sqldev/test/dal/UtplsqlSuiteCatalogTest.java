@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test.dal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.utplsql.sqldev.dal.UtplsqlSuiteCatalog;
+import org.utplsql.sqldev.model.ut.Annotation;
+
+public class UtplsqlSuiteCatalogTest {
+
+    private Annotation annotation(final String objectName, final String name, final String subobjectName) {
+        final Annotation annotation = new Annotation();
+        annotation.setObjectOwner("SCOTT");
+        annotation.setObjectName(objectName);
+        annotation.setName(name);
+        annotation.setSubobjectName(subobjectName);
+        return annotation;
+    }
+
+    private List<Annotation> suite(final String objectName, final String... tests) {
+        final List<Annotation> annotations = new ArrayList<>();
+        annotations.add(annotation(objectName, "suite", objectName));
+        for (final String test : tests) {
+            annotations.add(annotation(objectName, "test", test));
+        }
+        return annotations;
+    }
+
+    private UtplsqlSuiteCatalog createCatalog() {
+        final UtplsqlSuiteCatalog catalog = new UtplsqlSuiteCatalog("SCOTT");
+        final List<Annotation> annotations = new ArrayList<>();
+        annotations.addAll(suite("PKG1", "T1", "T2"));
+        annotations.addAll(suite("PKG2", "T3"));
+        catalog.load(annotations);
+        return catalog;
+    }
+
+    @Test
+    public void containsUtplsqlTest() {
+        final UtplsqlSuiteCatalog catalog = createCatalog();
+        Assert.assertTrue(catalog.isLoaded());
+        Assert.assertTrue(catalog.containsUtplsqlTest(null, null));
+        Assert.assertTrue(catalog.containsUtplsqlTest("pkg1", null));
+        Assert.assertTrue(catalog.containsUtplsqlTest("pkg1", "t2"));
+        Assert.assertTrue(catalog.containsUtplsqlTest("PKG2", "T3"));
+        Assert.assertFalse(catalog.containsUtplsqlTest("pkg1", "t3"));
+        Assert.assertFalse(catalog.containsUtplsqlTest("pkg3", null));
+    }
+
+    @Test
+    public void annotations() {
+        final UtplsqlSuiteCatalog catalog = createCatalog();
+        Assert.assertEquals(suite("PKG1", "T1", "T2").toString(), catalog.getAnnotations("pkg1").toString());
+        Assert.assertEquals(5, catalog.getAnnotations(null).size());
+        Assert.assertEquals(0, catalog.getAnnotations("pkg3").size());
+        Assert.assertEquals(Arrays.asList("PKG1", "PKG2"), new ArrayList<>(catalog.getSuiteNames()));
+    }
+
+    @Test
+    public void replace() {
+        final UtplsqlSuiteCatalog catalog = createCatalog();
+        // PKG1 changed, PKG2 is not a suite anymore, PKG3 is a new suite
+        final List<Annotation> changed = new ArrayList<>();
+        changed.addAll(suite("PKG1", "T4"));
+        changed.addAll(suite("PKG3", "T5"));
+        catalog.replace(Arrays.asList("PKG1", "PKG2", "PKG3"), changed);
+        Assert.assertEquals(Arrays.asList("PKG1", "PKG3"), new ArrayList<>(catalog.getSuiteNames()));
+        Assert.assertTrue(catalog.containsUtplsqlTest("pkg1", "t4"));
+        Assert.assertFalse(catalog.containsUtplsqlTest("pkg1", "t1"));
+        Assert.assertFalse(catalog.containsUtplsqlTest("pkg2", null));
+        Assert.assertEquals(1, catalog.getFullLoads());
+        Assert.assertEquals(1, catalog.getIncrementalLoads());
+        catalog.replace(Collections.singletonList("PKG1"), Collections.emptyList());
+        Assert.assertFalse(catalog.containsUtplsqlTest("pkg1", null));
+    }
+}
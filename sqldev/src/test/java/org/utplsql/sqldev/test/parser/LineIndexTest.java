@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test.parser;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.utplsql.sqldev.exception.GenericRuntimeException;
+import org.utplsql.sqldev.parser.LineIndex;
+
+public class LineIndexTest {
+
+    private static int naiveLine(final String text, final int position) {
+        int line = 1;
+        for (int i = 0; i < position && i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                line++;
+            }
+        }
+        return line;
+    }
+
+    @Test
+    public void lines() {
+        final LineIndex index = new LineIndex("a\nbc\n\nd");
+        Assert.assertEquals(4, index.getLineCount());
+        Assert.assertEquals(1, index.getLine(0));
+        Assert.assertEquals(1, index.getLine(1));
+        Assert.assertEquals(2, index.getLine(2));
+        Assert.assertEquals(3, index.getLine(5));
+        Assert.assertEquals(4, index.getLine(6));
+        Assert.assertEquals(4, index.getLine(100));
+        Assert.assertEquals(0, index.getPosition(1, 1));
+        Assert.assertEquals(3, index.getPosition(2, 2));
+        Assert.assertEquals(6, index.getPosition(4, 1));
+    }
+
+    @Test
+    public void lineNotFound() {
+        try {
+            new LineIndex("a\nb").getPosition(3, 1);
+            Assert.fail("GenericRuntimeException expected");
+        } catch (GenericRuntimeException e) {
+            Assert.assertEquals("Line 3 not found.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void sameAsNaive() {
+        final Random random = new Random(7);
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            sb.append(random.nextInt(5) == 0 ? '\n' : 'x');
+        }
+        final String text = sb.toString();
+        final LineIndex index = new LineIndex(text);
+        for (int position = 0; position < text.length(); position++) {
+            final int line = index.getLine(position);
+            Assert.assertEquals(naiveLine(text, position), line);
+            final int lineStart = index.getPosition(line, 1);
+            Assert.assertTrue(lineStart <= position);
+            Assert.assertEquals(line, index.getLine(lineStart));
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.utplsql.sqldev.model.parser.PlsqlObject;
+import org.utplsql.sqldev.model.parser.Unit;
+import org.utplsql.sqldev.parser.PlsqlLexer;
+
+public class PlsqlLexerTest {
+    private static final Logger logger = Logger.getLogger(PlsqlLexerTest.class.getName());
+    private static final Pattern REDUCE_PATTERN = Pattern
+            .compile("(/\\*(.|[\\n])*?\\*/)|(--[^\\n]*\\n)|(\'([^\']|[\\n])*?\')");
+    private static final Pattern OBJECT_PATTERN = Pattern.compile(
+            "(?i)(\\s*)(create(\\s+or\\s+replace)?\\s+(package|type|function|procedure)\\s+(body\\s+)?)([^\\s]+)(\\s+)");
+    private static final Pattern UNIT_PATTERN = Pattern.compile("(?i)(\\s*)(procedure)(\\s+)([^\\s\\(;]+)");
+
+    /**
+     * reference implementation based on regular expressions
+     */
+    private static String reduceWithRegex(final String plsql) {
+        final StringBuilder sb = new StringBuilder();
+        final Matcher m = REDUCE_PATTERN.matcher(plsql);
+        int pos = 0;
+        while (m.find()) {
+            sb.append(plsql, pos, m.start());
+            for (int i = m.start(); i < m.end(); i++) {
+                final char c = plsql.charAt(i);
+                sb.append(c == '\n' || c == '\r' ? c : ' ');
+            }
+            pos = m.end();
+        }
+        sb.append(plsql, pos, plsql.length());
+        return sb.toString();
+    }
+
+    private static List<String> objectsWithRegex(final String reduced) {
+        final List<String> result = new ArrayList<>();
+        final Matcher m = OBJECT_PATTERN.matcher(reduced);
+        while (m.find()) {
+            result.add(m.group(4).toUpperCase() + " " + m.group(6) + "@" + m.start());
+        }
+        return result;
+    }
+
+    private static List<String> unitsWithRegex(final String reduced) {
+        final List<String> result = new ArrayList<>();
+        final Matcher m = UNIT_PATTERN.matcher(reduced);
+        while (m.find()) {
+            result.add(m.group(4) + "@" + m.start() + "/" + m.start(4));
+        }
+        return result;
+    }
+
+    private static List<String> objects(final PlsqlLexer lexer) {
+        final List<String> result = new ArrayList<>();
+        for (final PlsqlObject o : lexer.getObjects()) {
+            result.add(o.getType() + " " + o.getName() + "@" + o.getPosition());
+        }
+        return result;
+    }
+
+    private static List<String> units(final PlsqlLexer lexer) {
+        final List<String> result = new ArrayList<>();
+        for (final Unit u : lexer.getUnits()) {
+            result.add(u.getName() + "@" + u.getPosition() + "/" + u.getPositionOfName());
+        }
+        return result;
+    }
+
+    private static void assertSameAsRegex(final String plsql) {
+        final PlsqlLexer lexer = new PlsqlLexer(plsql);
+        final String reduced = reduceWithRegex(plsql);
+        Assert.assertEquals(plsql, reduced, lexer.getReduced());
+        Assert.assertEquals(plsql, objectsWithRegex(reduced), objects(lexer));
+        Assert.assertEquals(plsql, unitsWithRegex(reduced), units(lexer));
+    }
+
+    private static String generatePackageBody(final int procedures) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("CREATE OR REPLACE PACKAGE BODY \"SCOTT\".\"PKG\" IS\n");
+        for (int i = 0; i < procedures; i++) {
+            sb.append("   /*\n");
+            sb.append("    * procedure p");
+            sb.append(i);
+            sb.append(" -- not a single-line comment\n");
+            sb.append("    */\n");
+            sb.append("   PROCEDURE p");
+            sb.append(i);
+            sb.append("(in_p1 IN INTEGER) IS\n");
+            sb.append("      l_text VARCHAR2(100) := 'create package x is procedure y; /* ';\n");
+            sb.append("   BEGIN\n");
+            sb.append("      -- procedure in comment\n");
+            sb.append("      dbms_output.put_line(l_text || ' */ ' || in_p1);\n");
+            sb.append("      NULL;\n");
+            sb.append("   END p");
+            sb.append(i);
+            sb.append(";\n\n");
+        }
+        sb.append("END pkg;\n");
+        sb.append("/\n");
+        return sb.toString();
+    }
+
+    @Test
+    public void sameAsRegex() {
+        assertSameAsRegex("");
+        assertSameAsRegex("create package");
+        assertSameAsRegex("create package body ");
+        assertSameAsRegex("create package body x");
+        assertSameAsRegex("create package body x ");
+        assertSameAsRegex("create package bodyx y ");
+        assertSameAsRegex("  Create Or Replace Type Body t1 AS\n  create or foo package p\n");
+        assertSameAsRegex("create or replacepackage p is\ncreate\tor\nreplace\fprocedure \"P\"(x)\n");
+        assertSameAsRegex("xcreate function f return ...\ncreate types t is\n");
+        assertSameAsRegex("procedure\nprocedure p;procedure (x) procedure q(x) proceduree r");
+        assertSameAsRegex("-- comment at end without line break 'create package p is");
+        assertSameAsRegex("/* unterminated comment create package p is\n");
+        assertSameAsRegex("'unterminated literal create package p is\n");
+        assertSameAsRegex("x := 'it''s'; /**/ y := '--'; -- 'x'\nprocedure p;");
+        assertSameAsRegex(generatePackageBody(10));
+    }
+
+    @Test
+    public void sameAsRegexOnRandomSources() {
+        final String[] tokens = { "create", "CREATE", "or", "replace", "package", "body", "type", "function",
+                "procedure", "Procedure", "p1", "\"P2\"", "(", ")", ";", " ", "  ", "\n", "\t", "'", "--", "/*",
+                "*/", "*", "/", "-", "x" };
+        final Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            final StringBuilder sb = new StringBuilder();
+            final int length = random.nextInt(60);
+            for (int j = 0; j < length; j++) {
+                sb.append(tokens[random.nextInt(tokens.length)]);
+            }
+            assertSameAsRegex(sb.toString());
+        }
+    }
+
+    @Test
+    public void largePackageBody() {
+        final String plsql = generatePackageBody(2000);
+        final int lines = plsql.split("\n").length;
+        // warm-up
+        for (int i = 0; i < 5; i++) {
+            new PlsqlLexer(plsql);
+            objectsWithRegex(reduceWithRegex(plsql));
+        }
+        final int runs = 10;
+        long start = System.nanoTime();
+        PlsqlLexer lexer = null;
+        for (int i = 0; i < runs; i++) {
+            lexer = new PlsqlLexer(plsql);
+        }
+        final long lexerMillis = (System.nanoTime() - start) / 1000000 / runs;
+        start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            final String reduced = reduceWithRegex(plsql);
+            objectsWithRegex(reduced);
+            unitsWithRegex(reduced);
+        }
+        final long regexMillis = (System.nanoTime() - start) / 1000000 / runs;
+        logger.info(() -> "package body with " + lines + " lines: lexer " + lexerMillis + " ms, regex "
+                + regexMillis + " ms.");
+        Assert.assertEquals(1, lexer.getObjects().size());
+        Assert.assertEquals(2000, lexer.getUnits().size());
+    }
+}
@@ -16,6 +16,7 @@
 package org.utplsql.sqldev.test.parser;
 
 import java.util.Set;
+import java.util.logging.Logger;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -24,6 +25,7 @@ import org.utplsql.sqldev.parser.SqlDevParser;
 import oracle.dbtools.raptor.navigator.plsql.Member;
 
 public class SqlDevParserTest {
+    private static final Logger logger = Logger.getLogger(SqlDevParserTest.class.getName());
     
     private String getPackageSpec() {
         StringBuilder sb = new StringBuilder();
@@ -98,6 +100,22 @@ public class SqlDevParserTest {
         return sb.toString();
     }
 
+    /**
+     * Repeats the members of the package body to get a large package.
+     */
+    private String getLargePackageBody(final int copies) {
+        final String body = getPackageBody();
+        final String members = body.substring(body.indexOf('\n') + 1, body.lastIndexOf("END;"));
+        StringBuilder sb = new StringBuilder();
+        sb.append("CREATE OR REPLACE PACKAGE BODY junit_utplsql_test1_pkg IS\n");
+        for (int i = 1; i <= copies; i++) {
+            sb.append(members.replace("test_", "t" + i + "_").replace("my_Func", "my_Func" + i));
+            sb.append('\n');
+        }
+        sb.append("END;");
+        return sb.toString();
+    }
+
     @Test
     public void packageSpecMembers() {
         final SqlDevParser parser = new SqlDevParser();
@@ -145,4 +163,41 @@ public class SqlDevParserTest {
         final int last = parser.getMemberStartLine(getPackageBody(), "my_func");
         Assert.assertEquals(35, last);
     }
+
+    @Test
+    public void cachedMembers() {
+        final SqlDevParser parser = new SqlDevParser();
+        final Set<Member> first = parser.getMembers(getPackageBody());
+        Assert.assertSame(first, new SqlDevParser().getMembers(getPackageBody()));
+        Assert.assertNotSame(first, parser.getMembers(getPackageSpec()));
+        try {
+            first.clear();
+            Assert.fail("cached members must not be changed");
+        } catch (UnsupportedOperationException e) {
+            Assert.assertEquals(6, first.size());
+        }
+    }
+
+    @Test
+    public void startLineLargePackageBenchmark() {
+        final int copies = 500;
+        final int lookups = 20;
+        final String plsql = getLargePackageBody(copies);
+        final SqlDevParser parser = new SqlDevParser();
+        final int linesPerCopy = getPackageBody().split("\n").length - 1;
+        final long uncachedStart = System.nanoTime();
+        for (int i = 1; i <= lookups; i++) {
+            SqlDevParser.clearCache();
+            Assert.assertEquals(2 + (i - 1) * linesPerCopy, parser.getMemberStartLine(plsql, "t" + i + "_1_ok"));
+        }
+        final long uncachedMillis = (System.nanoTime() - uncachedStart) / 1000000;
+        final long cachedStart = System.nanoTime();
+        for (int i = 1; i <= lookups; i++) {
+            Assert.assertEquals(2 + (i - 1) * linesPerCopy, parser.getMemberStartLine(plsql, "t" + i + "_1_ok"));
+        }
+        Assert.assertEquals(copies * linesPerCopy - 2, parser.getMemberStartLine(plsql, "my_func" + copies));
+        final long cachedMillis = (System.nanoTime() - cachedStart) / 1000000;
+        logger.info(() -> lookups + " start lines in package body with " + copies * 6 + " members: " + uncachedMillis
+                + " ms uncached, " + cachedMillis + " ms cached.");
+    }
 }
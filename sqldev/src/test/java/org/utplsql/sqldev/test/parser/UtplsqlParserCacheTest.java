@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test.parser;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.PlainDocument;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.utplsql.sqldev.model.parser.PlsqlObject;
+import org.utplsql.sqldev.model.parser.Unit;
+import org.utplsql.sqldev.parser.UtplsqlParser;
+import org.utplsql.sqldev.parser.UtplsqlParserCache;
+import org.utplsql.sqldev.test.dal.TestRoundTripConnection;
+
+public class UtplsqlParserCacheTest {
+    private final UtplsqlParserCache cache = UtplsqlParserCache.getInstance();
+
+    private static String getScript(final int packages) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= packages; i++) {
+            sb.append("CREATE OR REPLACE PACKAGE pkg");
+            sb.append(i);
+            sb.append(" IS\n");
+            sb.append("   --%suite\n\n");
+            sb.append("   --%test\n");
+            sb.append("   PROCEDURE t1;\n\n");
+            sb.append("   /* not a test */\n");
+            sb.append("   PROCEDURE t2(in_text VARCHAR2 := 'procedure x');\n");
+            sb.append("END;\n");
+            sb.append("/\n\n");
+        }
+        return sb.toString();
+    }
+
+    private static Document createDocument(final String text) throws BadLocationException {
+        final Document document = new PlainDocument();
+        document.insertString(0, text, null);
+        return document;
+    }
+
+    private static List<String> describe(final UtplsqlParser parser) {
+        final List<String> result = new ArrayList<>();
+        for (final PlsqlObject o : parser.getObjects()) {
+            result.add(o.getType() + " " + o.getName() + "@" + o.getPosition());
+        }
+        for (final Unit u : parser.getUnits()) {
+            result.add(u.getName() + "@" + u.getPosition() + "/" + u.getPositionOfName());
+        }
+        return result;
+    }
+
+    private void assertSameAsFullParse(final Document document) throws BadLocationException {
+        final String text = document.getText(0, document.getLength());
+        Assert.assertEquals(text, describe(new UtplsqlParser(text)), describe(cache.getParser(document, null, null)));
+    }
+
+    @Test
+    public void unchangedDocument() throws BadLocationException {
+        final Document document = createDocument(getScript(3));
+        final UtplsqlParser parser = cache.getParser(document, null, null);
+        final long hits = cache.getHits();
+        final long version = cache.getVersion(document);
+        Assert.assertSame(parser, cache.getParser(document, null, null));
+        Assert.assertEquals(hits + 1, cache.getHits());
+        Assert.assertEquals(version, cache.getVersion(document));
+        Assert.assertEquals("pkg2.t1", parser.getPathAt(parser.toPosition(15, 5)));
+    }
+
+    @Test
+    public void editWithinObject() throws BadLocationException {
+        final Document document = createDocument(getScript(3));
+        final UtplsqlParser parser = cache.getParser(document, null, null);
+        final long version = cache.getVersion(document);
+        final long incrementalLexes = cache.getIncrementalLexes();
+        // rename t1 of pkg2 to test1
+        final int position = parser.getUnits().get(2).getPositionOfName();
+        document.remove(position, 2);
+        document.insertString(position, "test1", null);
+        Assert.assertEquals(version + 2, cache.getVersion(document));
+        assertSameAsFullParse(document);
+        Assert.assertEquals(incrementalLexes + 1, cache.getIncrementalLexes());
+        Assert.assertEquals("pkg2.test1", cache.getParser(document, null, null).getPathAt(position));
+    }
+
+    @Test
+    public void randomEdits() throws BadLocationException {
+        final String[] snippets = { " ", "\n", "x", "procedure p", "create package q is ", "create or replace ",
+                "/*", "*/", "--", "'", ";", "(", "body " };
+        final Random random = new Random(4711);
+        final Document document = createDocument(getScript(10));
+        assertSameAsFullParse(document);
+        final long incrementalLexes = cache.getIncrementalLexes();
+        for (int i = 0; i < 1000; i++) {
+            final int edits = 1 + random.nextInt(2);
+            for (int j = 0; j < edits; j++) {
+                final int position = random.nextInt(document.getLength() + 1);
+                if (random.nextBoolean() && position < document.getLength()) {
+                    document.remove(position, Math.min(1 + random.nextInt(5), document.getLength() - position));
+                } else {
+                    document.insertString(position, snippets[random.nextInt(snippets.length)], null);
+                }
+            }
+            assertSameAsFullParse(document);
+        }
+        Assert.assertTrue(cache.getIncrementalLexes() > incrementalLexes);
+    }
+
+    @Test
+    public void documentChangeWhileQueryingDatabase() throws BadLocationException, InterruptedException {
+        final TestRoundTripConnection db = new TestRoundTripConnection(300000);
+        final List<Object[]> state = new ArrayList<>();
+        state.add(new Object[] { 1, new Timestamp(System.currentTimeMillis() - 3600000L),
+                new Timestamp(System.currentTimeMillis()) });
+        final List<Object[]> suites = new ArrayList<>();
+        suites.add(new Object[] { "SCOTT", "PKG1", "suite", "PKG1" });
+        suites.add(new Object[] { "SCOTT", "PKG1", "test", "T1" });
+        db.addCallResult("ut.version", "v3.1.10.3349");
+        db.addResult("max(last_ddl_time)", new String[] { "PACKAGE_COUNT", "MAX_LAST_DDL_TIME", "CHECK_TIME" },
+                state);
+        db.addResult("SELECT object_name, created", new String[] { "OBJECT_NAME", "CREATED" },
+                Collections.emptyList());
+        db.addResult("get_suites_info(?)",
+                new String[] { "OBJECT_OWNER", "OBJECT_NAME", "NAME", "SUBOBJECT_NAME" }, suites);
+        final Document document = createDocument(getScript(1));
+        final List<UtplsqlParser> parsers = new ArrayList<>();
+        final Thread parserThread = new Thread(
+                () -> parsers.add(cache.getParser(document, db.getConnection(), "SCOTT")));
+        parserThread.start();
+        while (parserThread.getState() != Thread.State.TIMED_WAITING && parserThread.isAlive()) {
+            Thread.sleep(1);
+        }
+        // the document is changed while the parser waits for the database
+        document.insertString(0, "\n", null);
+        final int roundTrips = db.getRoundTrips();
+        parserThread.join();
+        Assert.assertTrue(roundTrips < db.getRoundTrips());
+        Assert.assertEquals(1, parsers.get(0).getObjects().size());
+        Assert.assertEquals(1, parsers.get(0).getUnits().size());
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test.parser;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.utplsql.sqldev.dal.UtplsqlSuiteCatalog;
+import org.utplsql.sqldev.parser.UtplsqlParser;
+import org.utplsql.sqldev.test.dal.TestRoundTripConnection;
+
+public class UtplsqlParserRoundTripTest {
+    private static final Logger logger = Logger.getLogger(UtplsqlParserRoundTripTest.class.getName());
+    private static final int PACKAGES = 30;
+
+    private TestRoundTripConnection db;
+    private String script;
+
+    @Before
+    public void setup() {
+        db = new TestRoundTripConnection(500);
+        final long now = System.currentTimeMillis();
+        final List<Object[]> state = new ArrayList<>();
+        state.add(new Object[] { PACKAGES, new Timestamp(now - 3600000L), new Timestamp(now) });
+        final List<Object[]> suites = new ArrayList<>();
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= PACKAGES; i++) {
+            suites.add(new Object[] { "SCOTT", "PKG" + i, "suite", "PKG" + i });
+            suites.add(new Object[] { "SCOTT", "PKG" + i, "test", "T1" });
+            sb.append("CREATE OR REPLACE PACKAGE pkg");
+            sb.append(i);
+            sb.append(" IS\n");
+            sb.append("   --%suite\n\n");
+            sb.append("   --%test\n");
+            sb.append("   PROCEDURE t1;\n");
+            sb.append("END;\n");
+            sb.append("/\n\n");
+        }
+        script = sb.toString();
+        db.addCallResult("ut.version", "v3.1.10.3349");
+        db.addResult("max(last_ddl_time)", new String[] { "PACKAGE_COUNT", "MAX_LAST_DDL_TIME", "CHECK_TIME" },
+                state);
+        db.addResult("SELECT object_name, created", new String[] { "OBJECT_NAME", "CREATED" },
+                Collections.emptyList());
+        db.addResult("get_suites_info(?)",
+                new String[] { "OBJECT_OWNER", "OBJECT_NAME", "NAME", "SUBOBJECT_NAME" }, suites);
+    }
+
+    @Test
+    public void oneRoundTripPerUpdate() {
+        final Connection conn = db.getConnection();
+        // first parse reads the version and loads the suite catalog
+        UtplsqlParser parser = new UtplsqlParser(script, conn, "SCOTT");
+        Assert.assertEquals(PACKAGES, parser.getObjects().size());
+        Assert.assertEquals(PACKAGES, parser.getUnits().size());
+        logger.info(() -> "first parse of " + PACKAGES + " packages: " + db.getRoundTrips() + " round trips.");
+        // subsequent parses only check the suite catalog for changes
+        db.reset();
+        final long checkInterval = UtplsqlSuiteCatalog.getCheckInterval();
+        try {
+            UtplsqlSuiteCatalog.setCheckInterval(0);
+            parser = new UtplsqlParser(script, conn, "SCOTT");
+        } finally {
+            UtplsqlSuiteCatalog.setCheckInterval(checkInterval);
+        }
+        Assert.assertEquals(PACKAGES, parser.getObjects().size());
+        Assert.assertEquals(PACKAGES, parser.getUnits().size());
+        Assert.assertEquals(1, db.getRoundTrips());
+        Assert.assertEquals("SCOTT.pkg7.t1", parser.getPathAt(parser.toPosition(6 * 8 + 5, 15)));
+    }
+
+    @Test
+    public void unitsWithoutAnnotations() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("CREATE OR REPLACE PACKAGE no_suite IS\n");
+        sb.append("   PROCEDURE p1;\n");
+        sb.append("END;\n");
+        sb.append("/\n\n");
+        sb.append("CREATE OR REPLACE PACKAGE pkg1 IS\n");
+        sb.append("   --%suite\n\n");
+        sb.append("   PROCEDURE helper;\n\n");
+        sb.append("   --%test\n");
+        sb.append("   PROCEDURE t1;\n");
+        sb.append("END;\n");
+        sb.append("/\n");
+        final UtplsqlParser parser = new UtplsqlParser(sb.toString(), db.getConnection(), "SCOTT");
+        Assert.assertEquals(1, parser.getObjects().size());
+        Assert.assertEquals(1, parser.getUnits().size());
+        Assert.assertEquals("", parser.getPathAt(parser.toPosition(2, 15)));
+        Assert.assertEquals("SCOTT.pkg1", parser.getPathAt(parser.toPosition(9, 15)));
+        Assert.assertEquals("SCOTT.pkg1.t1", parser.getPathAt(parser.toPosition(12, 15)));
+    }
+}
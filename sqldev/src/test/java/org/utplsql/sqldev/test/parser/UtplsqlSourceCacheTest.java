@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test.parser;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.utplsql.sqldev.parser.UtplsqlSourceCache;
+import org.utplsql.sqldev.test.dal.TestRoundTripConnection;
+
+public class UtplsqlSourceCacheTest {
+    private static final Logger logger = Logger.getLogger(UtplsqlSourceCacheTest.class.getName());
+    private static final int PACKAGES = 20;
+    private static final String[] COLUMNS = new String[] { "OBJECT_NAME", "OBJECT_TYPE", "LAST_DDL_TIME" };
+
+    private TestRoundTripConnection db;
+    private Connection conn;
+    private final long now = System.currentTimeMillis();
+
+    private List<Object[]> lastDdlTimes(final int packages, final long time) {
+        final List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= packages; i++) {
+            rows.add(new Object[] { "PKG" + i, "PACKAGE BODY", new Timestamp(time) });
+            rows.add(new Object[] { "PKG" + i, "PACKAGE", new Timestamp(time) });
+        }
+        return rows;
+    }
+
+    @Before
+    public void setup() {
+        db = new TestRoundTripConnection(500);
+        conn = db.getConnection();
+        final StringBuilder sb = new StringBuilder();
+        sb.append("CREATE OR REPLACE PACKAGE pkg IS\n");
+        sb.append("   --%suite\n\n");
+        sb.append("   --%test\n");
+        sb.append("   PROCEDURE t1;\n\n");
+        sb.append("   --%test\n");
+        sb.append("   PROCEDURE t2;\n");
+        sb.append("END;");
+        db.addResult("last_ddl_time", COLUMNS, lastDdlTimes(1, now));
+        db.addCallResult("dbms_metadata.get_ddl", sb.toString());
+    }
+
+    @Test
+    public void objectType() {
+        Assert.assertEquals("PACKAGE BODY", UtplsqlSourceCache.getInstance().getObjectType(conn, "SCOTT", "PKG1"));
+    }
+
+    @Test
+    public void cachedLine() {
+        final UtplsqlSourceCache cache = UtplsqlSourceCache.getInstance();
+        Assert.assertEquals(7, cache.getLineOf(conn, "SCOTT", "PACKAGE", "PKG1", "t2"));
+        db.reset();
+        // only the last DDL time is read
+        Assert.assertEquals(4, cache.getLineOf(conn, "SCOTT", "PACKAGE", "PKG1", "T1"));
+        Assert.assertEquals(1, cache.getLineOf(conn, "SCOTT", "PACKAGE", "PKG1", "t3"));
+        Assert.assertEquals(2, db.getRoundTrips());
+    }
+
+    @Test
+    public void reloadChangedObject() {
+        final UtplsqlSourceCache cache = UtplsqlSourceCache.getInstance();
+        Assert.assertEquals(7, cache.getLineOf(conn, "SCOTT", "PACKAGE", "PKG1", "t2"));
+        db.addResult("last_ddl_time", COLUMNS, lastDdlTimes(1, now + 1000L));
+        db.reset();
+        Assert.assertEquals(7, cache.getLineOf(conn, "SCOTT", "PACKAGE", "PKG1", "t2"));
+        Assert.assertEquals(2, db.getRoundTrips());
+    }
+
+    @Test
+    public void prefetch() {
+        final UtplsqlSourceCache cache = UtplsqlSourceCache.getInstance();
+        db.addResult("last_ddl_time", COLUMNS, lastDdlTimes(PACKAGES, now));
+        final List<String> objectNames = new ArrayList<>();
+        for (int i = 1; i <= PACKAGES; i++) {
+            objectNames.add("PKG" + i);
+        }
+        Assert.assertEquals(2 * PACKAGES, cache.prefetch(conn, "SCOTT", objectNames));
+        Assert.assertEquals(0, cache.prefetch(conn, "SCOTT", objectNames));
+        db.reset();
+        for (final String objectName : objectNames) {
+            Assert.assertEquals(7, cache.getLineOf(conn, "SCOTT", "PACKAGE BODY", objectName, "t2"));
+        }
+        Assert.assertEquals(PACKAGES, db.getRoundTrips());
+        logger.info(() -> PACKAGES + " prefetched packages navigated with " + db.getRoundTrips() + " round trips, "
+                + cache + ".");
+    }
+}
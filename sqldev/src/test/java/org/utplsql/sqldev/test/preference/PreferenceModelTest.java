@@ -42,6 +42,12 @@ public class PreferenceModelTest {
         Assert.assertTrue(model.isShowTestDescription());
         Assert.assertTrue(model.isSyncDetailTab());
         Assert.assertTrue(model.isShowSuites());
+        Assert.assertFalse(model.isUseAdaptiveFetchSize());
+        Assert.assertFalse(model.isShowTopLevelSuitesFirst());
+        Assert.assertEquals(20, model.getUpdateFramesPerSecond());
+        Assert.assertEquals(1, model.getNumberOfShards());
+        Assert.assertEquals(4, model.getMaxConcurrentRuns());
+        Assert.assertFalse(model.isUseVirtualThreads());
         Assert.assertEquals("test_", model.getTestPackagePrefix());
         Assert.assertEquals("", model.getTestPackageSuffix());
         Assert.assertEquals("", model.getTestUnitPrefix());
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test.runner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.utplsql.sqldev.model.runner.Item;
+import org.utplsql.sqldev.model.runner.ItemNode;
+import org.utplsql.sqldev.model.runner.Run;
+import org.utplsql.sqldev.model.runner.Suite;
+
+public class RunTest {
+    private static final Logger logger = Logger.getLogger(RunTest.class.getName());
+
+    private Suite suite(final String parentId, final String name, final List<Item> items) {
+        final Suite suite = new Suite();
+        suite.setId(parentId == null ? name : parentId + "." + name);
+        suite.setName(name);
+        suite.setItems(items);
+        return suite;
+    }
+
+    private org.utplsql.sqldev.model.runner.Test test(final String parentId, final String name) {
+        final org.utplsql.sqldev.model.runner.Test test = new org.utplsql.sqldev.model.runner.Test();
+        test.setId(parentId + "." + name);
+        test.setName(name);
+        return test;
+    }
+
+    /*
+     * Creates suites with packages, contexts and tests, similar to a pre-run event.
+     */
+    private List<Item> createItems(final int suites, final int packages, final int tests) {
+        final List<Item> items = new ArrayList<>();
+        for (int s = 0; s < suites; s++) {
+            final Suite suite = suite(null, "suite" + s, new ArrayList<>());
+            for (int p = 0; p < packages; p++) {
+                final Suite pkg = suite(suite.getId(), "pkg" + p, new ArrayList<>());
+                final Suite context = suite(pkg.getId(), "context_#1", new ArrayList<>());
+                for (int t = 0; t < tests; t++) {
+                    (t % 2 == 0 ? pkg : context).getItems().add(test(t % 2 == 0 ? pkg.getId() : context.getId(), "test" + t));
+                }
+                pkg.getItems().add(context);
+                suite.getItems().add(pkg);
+            }
+            items.add(suite);
+        }
+        return items;
+    }
+
+    /*
+     * Previous implementation with three passes, used as reference.
+     */
+    private Map<String, ItemNode> createReferenceNodes(final String reporterId, final List<Item> items) {
+        final Set<Item> allItems = new LinkedHashSet<>();
+        collect(items, allItems);
+        final Map<String, ItemNode> nodes = new LinkedHashMap<>();
+        final Suite rootSuite = new Suite();
+        rootSuite.setId(reporterId);
+        rootSuite.setName(reporterId);
+        nodes.put(reporterId, new ItemNode(rootSuite));
+        for (final Item item : allItems) {
+            nodes.put(item.getId(), new ItemNode(item));
+        }
+        for (final Item item : allItems) {
+            final String parentId = item.getParentId();
+            nodes.get(parentId == null ? reporterId : parentId).add(nodes.get(item.getId()));
+        }
+        return nodes;
+    }
+
+    private void collect(final List<Item> items, final Set<Item> allItems) {
+        for (final Item item : items) {
+            allItems.add(item);
+            if (item instanceof Suite) {
+                collect(((Suite) item).getItems(), allItems);
+            }
+        }
+    }
+
+    private String dump(final ItemNode root) {
+        final StringBuilder sb = new StringBuilder();
+        final Enumeration<?> nodes = root.preorderEnumeration();
+        // the pseudo root node is created by the run
+        nodes.nextElement();
+        while (nodes.hasMoreElements()) {
+            final ItemNode node = (ItemNode) nodes.nextElement();
+            sb.append(node.getLevel());
+            sb.append(' ');
+            sb.append(node.getId());
+            sb.append(' ');
+            sb.append(System.identityHashCode(node.getUserObject()));
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void sameTreeAsReference() {
+        final List<Item> items = createItems(3, 4, 5);
+        // suites are delivered multiple times when running a list of paths
+        items.add(suite(null, "suite1", Collections.singletonList(
+                suite("suite1", "pkg2", Collections.singletonList(test("suite1.pkg2", "test9"))))));
+        final Run run = new Run("r1", null, Collections.emptyList());
+        run.put(items);
+        final Map<String, ItemNode> expected = createReferenceNodes("r1", items);
+        Assert.assertEquals(expected.keySet(), run.getItemNodes().keySet());
+        Assert.assertEquals(dump(expected.get("r1")), dump(run.getItemNodes().get("r1")));
+        Assert.assertEquals(3 * 4 * 5 + 1, run.getTests().size());
+    }
+
+    @Test
+    public void topLevelSuitesFirst() {
+        final List<Item> items = createItems(3, 2, 2);
+        final Run run = new Run("r1", null, Collections.emptyList());
+        final List<Integer> published = new ArrayList<>();
+        run.put(items, change -> {
+            // the run is not changed before the change is published
+            published.add(run.getItemNodes().size());
+            change.run();
+            published.add(run.getItemNodes().size());
+        });
+        final int total = 1 + 3 * (1 + 2 * (2 + 2));
+        Assert.assertEquals(Arrays.asList(1, 4, 4, total), published);
+        Assert.assertEquals(total, run.getItemNodes().size());
+        final Run reference = new Run("r1", null, Collections.emptyList());
+        reference.put(items);
+        Assert.assertEquals(dump(reference.getItemNodes().get("r1")), dump(run.getItemNodes().get("r1")));
+        Assert.assertEquals(reference.getTests().keySet().toString(), run.getTests().keySet().toString());
+    }
+
+    @Test
+    public void topLevelSuitesFirstWithExistingSuites() {
+        final List<Item> items = createItems(3, 2, 2);
+        final List<Item> otherItems = createItems(2, 3, 1);
+        final Run run = new Run("r1", null, Collections.emptyList());
+        run.put(items);
+        run.put(otherItems, Runnable::run);
+        final Run reference = new Run("r1", null, Collections.emptyList());
+        reference.put(items);
+        reference.put(otherItems);
+        Assert.assertEquals(dump(reference.getItemNodes().get("r1")), dump(run.getItemNodes().get("r1")));
+        Assert.assertEquals(reference.getTests().keySet().toString(), run.getTests().keySet().toString());
+    }
+
+    @Test
+    public void itemsWithoutHierarchicalIds() {
+        final Suite suite = new Suite();
+        suite.setId("s");
+        suite.setName("suite");
+        final org.utplsql.sqldev.model.runner.Test test = new org.utplsql.sqldev.model.runner.Test();
+        test.setId("t");
+        test.setName("test");
+        suite.setItems(Collections.singletonList(test));
+        final Run run = new Run("r1", null, Collections.emptyList());
+        run.put(Collections.singletonList(suite));
+        // no parent id, shown on top level as before
+        Assert.assertEquals(2, run.getItemNodes().get("r1").getChildCount());
+    }
+
+    @Test
+    public void largeRun() {
+        final List<Item> items = createItems(10, 500, 10);
+        final long startReference = System.nanoTime();
+        createReferenceNodes("r1", items);
+        final long referenceNanos = System.nanoTime() - startReference;
+        final Run run = new Run("r1", null, Collections.emptyList());
+        final long start = System.nanoTime();
+        run.put(items);
+        final long nanos = System.nanoTime() - start;
+        Assert.assertEquals(50000, run.getTests().size());
+        logger.info(() -> "Run.put with 50000 tests: " + nanos / 1000000 + " ms, three passes: "
+                + referenceNanos / 1000000 + " ms.");
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test.runner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.utplsql.sqldev.model.SystemTools;
+import org.utplsql.sqldev.model.runner.Item;
+import org.utplsql.sqldev.ui.runner.RunnerUpdateScheduler;
+
+public class RunnerUpdateSchedulerTest {
+    private static final Logger logger = Logger.getLogger(RunnerUpdateSchedulerTest.class.getName());
+
+    private org.utplsql.sqldev.model.runner.Test test(final int i) {
+        final org.utplsql.sqldev.model.runner.Test test = new org.utplsql.sqldev.model.runner.Test();
+        test.setId("a.pkg.test" + i);
+        test.setTestNumber(i + 1);
+        return test;
+    }
+
+    private String toString(final List<int[]> ranges) {
+        final StringBuilder sb = new StringBuilder();
+        for (final int[] range : ranges) {
+            sb.append(Arrays.toString(range));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void ranges() {
+        Assert.assertEquals("", toString(RunnerUpdateScheduler.getRanges(Collections.emptyList())));
+        Assert.assertEquals("[3, 3]", toString(RunnerUpdateScheduler.getRanges(Arrays.asList(3))));
+        Assert.assertEquals("[1, 4][7, 8][10, 10]",
+                toString(RunnerUpdateScheduler.getRanges(Arrays.asList(8, 2, 1, 3, 4, 7, 10, 3))));
+    }
+
+    @Test
+    public void coalesceItems() {
+        final List<String> flushed = new CopyOnWriteArrayList<>();
+        final RunnerUpdateScheduler scheduler = new RunnerUpdateScheduler(20, (reporterId, items) -> {
+            Assert.assertTrue(SwingUtilities.isEventDispatchThread());
+            final List<String> ids = new ArrayList<>();
+            for (final Item item : items) {
+                ids.add(item.getId());
+            }
+            flushed.add(reporterId + ":" + ids);
+        });
+        scheduler.schedule("r1", null);
+        scheduler.schedule("r1", test(1));
+        scheduler.schedule("r1", test(2));
+        scheduler.schedule("r2", null);
+        scheduler.schedule("r1", test(1));
+        SystemTools.sleep(500);
+        Assert.assertEquals(Arrays.asList("r1:[a.pkg.test2, a.pkg.test1]", "r2:[]"), flushed);
+        Assert.assertEquals(1, scheduler.getFlushes());
+        Assert.assertEquals(5, scheduler.getScheduledUpdates());
+    }
+
+    @Test
+    public void rateLimitedWithoutBlocking() {
+        final int count = 100000;
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        final RunnerUpdateScheduler scheduler = new RunnerUpdateScheduler(20, (reporterId, items) -> {
+            // simulate an expensive repaint
+            SystemTools.sleep(10);
+            batchSizes.add(items.size());
+        });
+        final long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            scheduler.schedule("r1", test(i));
+        }
+        final long scheduleMillis = (System.nanoTime() - start) / 1000000;
+        SystemTools.sleep(500);
+        logger.info(() -> "scheduled " + count + " updates in " + scheduleMillis + " ms, flushed in "
+                + batchSizes.size() + " frames.");
+        Assert.assertEquals(count, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        // the previous implementation slept 5 ms per update
+        Assert.assertTrue(scheduleMillis < count * 5L / 100);
+        Assert.assertTrue(batchSizes.size() < 20);
+    }
+}
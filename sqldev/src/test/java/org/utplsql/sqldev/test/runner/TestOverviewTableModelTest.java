@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test.runner;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.function.IntFunction;
+import java.util.logging.Logger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.utplsql.sqldev.ui.runner.TestOverviewTableModel;
+
+public class TestOverviewTableModelTest {
+    private static final Logger logger = Logger.getLogger(TestOverviewTableModelTest.class.getName());
+    private static final int VISIBLE_ROWS = 50;
+
+    private org.utplsql.sqldev.model.runner.Test test(final int i) {
+        final org.utplsql.sqldev.model.runner.Test test = new org.utplsql.sqldev.model.runner.Test();
+        test.setId("a.pkg" + i / 100 + ".test" + i);
+        test.setName("test" + i);
+        test.setTestNumber(i + 1);
+        return test;
+    }
+
+    private LinkedHashMap<String, org.utplsql.sqldev.model.runner.Test> createTests(final int count) {
+        final LinkedHashMap<String, org.utplsql.sqldev.model.runner.Test> tests = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            final org.utplsql.sqldev.model.runner.Test test = test(i);
+            tests.put(test.getId(), test);
+        }
+        return tests;
+    }
+
+    /*
+     * Reads all cells of the visible rows at the end of the table, like a repaint.
+     */
+    private long paintNanos(final int rowCount, final int columnCount, final IntFunction<Object> rowReader) {
+        final long start = System.nanoTime();
+        for (int row = rowCount - VISIBLE_ROWS; row < rowCount; row++) {
+            for (int col = 0; col < columnCount; col++) {
+                Assert.assertNotNull(rowReader.apply(row));
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    @Test
+    public void rowsInSyncWithRun() {
+        final LinkedHashMap<String, org.utplsql.sqldev.model.runner.Test> tests = new LinkedHashMap<>();
+        final TestOverviewTableModel model = new TestOverviewTableModel();
+        model.setModel(tests, false, false);
+        Assert.assertEquals(0, model.getRowCount());
+        // tests are added to the run after the model is set
+        tests.putAll(createTests(10));
+        Assert.assertEquals(10, model.getRowCount());
+        Assert.assertEquals("a.pkg0.test9", model.getTest(9).getId());
+        // tests delivered multiple times are replaced in the run
+        final org.utplsql.sqldev.model.runner.Test replacement = test(3);
+        tests.put(replacement.getId(), replacement);
+        model.fireTableDataChanged();
+        Assert.assertSame(replacement, model.getTest(3));
+        Assert.assertEquals("a.pkg0.test3", model.getValueAt(3, 1));
+    }
+
+    @Test
+    public void paintCost() {
+        for (final int count : new int[] { 1000, 10000, 100000 }) {
+            final LinkedHashMap<String, org.utplsql.sqldev.model.runner.Test> tests = createTests(count);
+            final TestOverviewTableModel model = new TestOverviewTableModel();
+            model.setModel(tests, false, false);
+            final int columnCount = model.getColumnCount();
+            // previous implementation copied the map for every cell
+            paintNanos(count, columnCount, row -> new ArrayList<>(tests.entrySet()).get(row).getValue());
+            final long before = paintNanos(count, columnCount,
+                    row -> new ArrayList<>(tests.entrySet()).get(row).getValue());
+            paintNanos(count, columnCount, model::getTest);
+            final long after = paintNanos(count, columnCount, model::getTest);
+            logger.info(() -> "repaint of " + VISIBLE_ROWS + " rows with " + count + " tests: before "
+                    + before / 1000 + " us, after " + after / 1000 + " us.");
+        }
+    }
+}
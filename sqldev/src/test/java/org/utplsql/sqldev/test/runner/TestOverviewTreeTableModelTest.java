@@ -0,0 +1,182 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test.runner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.utplsql.sqldev.model.runner.Item;
+import org.utplsql.sqldev.model.runner.ItemNode;
+import org.utplsql.sqldev.model.runner.Run;
+import org.utplsql.sqldev.model.runner.Suite;
+import org.utplsql.sqldev.ui.runner.TestOverviewTreeTableModel;
+
+public class TestOverviewTreeTableModelTest {
+    private static final Logger logger = Logger.getLogger(TestOverviewTreeTableModelTest.class.getName());
+
+    private Suite suite(final String parentId, final String name) {
+        final Suite suite = new Suite();
+        suite.setId(parentId == null ? name : parentId + "." + name);
+        suite.setName(name);
+        suite.setItems(new ArrayList<>());
+        return suite;
+    }
+
+    private org.utplsql.sqldev.model.runner.Test test(final Suite parent, final String objectName, final String name) {
+        final org.utplsql.sqldev.model.runner.Test test = new org.utplsql.sqldev.model.runner.Test();
+        test.setId(parent.getId() + "." + name);
+        test.setName(name);
+        test.setOwnerName("SCOTT");
+        test.setObjectName(objectName);
+        test.setProcedureName(name);
+        parent.getItems().add(test);
+        return test;
+    }
+
+    private Run createRun(final int suites, final int packages, final int tests) {
+        final List<Item> items = new ArrayList<>();
+        for (int s = 0; s < suites; s++) {
+            final Suite suite = suite(null, "suite" + s);
+            for (int p = 0; p < packages; p++) {
+                final Suite pkg = suite(suite.getId(), "pkg" + p);
+                final Suite context = suite(pkg.getId(), "context_#1");
+                for (int t = 0; t < tests; t++) {
+                    test(t % 2 == 0 ? pkg : context, pkg.getName(), "test" + t);
+                }
+                pkg.getItems().add(context);
+                suite.getItems().add(pkg);
+            }
+            items.add(suite);
+        }
+        final Run run = new Run("r1", null, Collections.emptyList());
+        run.put(items);
+        return run;
+    }
+
+    private TestOverviewTreeTableModel createModel(final Run run) {
+        final TestOverviewTreeTableModel model = new TestOverviewTreeTableModel();
+        model.setModel(run, false, false, true, true);
+        return model;
+    }
+
+    private void expandAll(final TestOverviewTreeTableModel model, final Object parent, final List<String> ids) {
+        for (int i = 0; i < model.getChildCount(parent); i++) {
+            final ItemNode child = model.getChild(parent, i);
+            ids.add(child.getId());
+            Assert.assertEquals(i, model.getIndexOfChild(parent, child));
+            expandAll(model, child, ids);
+        }
+    }
+
+    private List<String> preorderIds(final ItemNode root) {
+        final List<String> ids = new ArrayList<>();
+        final Enumeration<?> nodes = root.preorderEnumeration();
+        nodes.nextElement();
+        while (nodes.hasMoreElements()) {
+            ids.add(((ItemNode) nodes.nextElement()).getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void sameTreeAsRun() {
+        final Run run = createRun(3, 4, 5);
+        final TestOverviewTreeTableModel model = createModel(run);
+        Assert.assertTrue(model.isComplete());
+        final List<String> ids = new ArrayList<>();
+        expandAll(model, model.getRoot(), ids);
+        Assert.assertEquals(preorderIds(run.getItemNodes().get("r1")), ids);
+        Assert.assertEquals(ids.indexOf("suite2.pkg3.context_#1.test3"), model.getRow("suite2.pkg3.context_#1.test3"));
+    }
+
+    @Test
+    public void collapsedSuites() {
+        final Run run = createRun(3, 4, 5);
+        final TestOverviewTreeTableModel model = createModel(run);
+        Assert.assertEquals(3, model.getChildCount(model.getRoot()));
+        // derived properties of collapsed suites are based on the run
+        final ItemNode pkg = model.getChild(model.getChild(model.getRoot(), 1), 2);
+        Assert.assertEquals("suite1.pkg2", pkg.getId());
+        Assert.assertEquals("pkg2", pkg.getPackageName());
+        Assert.assertEquals("SCOTT", pkg.getOwnerName());
+        Assert.assertEquals("suite1.pkg2.test0", model.getTestOf(pkg).getId());
+        // loads the path to the node, rows of loaded nodes only: suite0, suite1, 4 packages, suite2, pkg0
+        Assert.assertEquals(8, model.getRow("suite2.pkg0.test0"));
+        final ItemNode test = model.getItemNode("suite2.pkg0.context_#1.test1");
+        Assert.assertEquals(5, test.getPath().length);
+        Assert.assertSame(model.getRoot(), test.getPath()[0]);
+    }
+
+    private void assertRows(final TestOverviewTreeTableModel model, final Run run) {
+        final List<String> ids = preorderIds(model.getRoot());
+        for (final String id : run.getItemNodes().keySet()) {
+            if (!id.equals("r1")) {
+                final int row = ids.indexOf(id);
+                if (row >= 0) {
+                    Assert.assertEquals(id, row, model.getRow(id));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void rowIndexAfterRemovingSuccessfulTests() {
+        final Run run = createRun(3, 4, 5);
+        final TestOverviewTreeTableModel model = new TestOverviewTreeTableModel();
+        model.setModel(run, false, false, false, true);
+        expandAll(model, model.getRoot(), new ArrayList<>());
+        assertRows(model, run);
+        for (final org.utplsql.sqldev.model.runner.Test test : run.getTests().values()) {
+            if (test.getId().endsWith("test1") || test.getId().startsWith("suite1.pkg2")) {
+                test.getCounter().setSuccess(1);
+                model.updateModel(test.getId());
+            }
+        }
+        // successful tests are removed, the rows of the remaining nodes are shifted
+        Assert.assertEquals(-1, model.getRow("suite0.pkg0.context_#1.test1"));
+        Assert.assertEquals(preorderIds(model.getRoot()).indexOf("suite2.pkg3.context_#1.test3"),
+                model.getRow("suite2.pkg3.context_#1.test3"));
+        assertRows(model, run);
+    }
+
+    @Test
+    public void largeRun() {
+        final Run run = createRun(10, 1000, 3);
+        final long start = System.nanoTime();
+        final TestOverviewTreeTableModel model = createModel(run);
+        final long setModelNanos = System.nanoTime() - start;
+        final List<String> ids = new ArrayList<>();
+        final long startExpand = System.nanoTime();
+        expandAll(model, model.getRoot(), ids);
+        final long expandNanos = System.nanoTime() - startExpand;
+        Assert.assertEquals(run.getItemNodes().size() - 1, ids.size());
+        // creates the row index
+        model.getRow("suite0");
+        final long startRows = System.nanoTime();
+        for (final String id : run.getTests().keySet()) {
+            Assert.assertTrue(model.getRow(id) > 0);
+        }
+        final long rowsNanos = System.nanoTime() - startRows;
+        logger.info(() -> "setModel with " + run.getTests().size() + " tests: " + setModelNanos / 1000000
+                + " ms, expanding all nodes: " + expandNanos / 1000000 + " ms, getRow for all tests: "
+                + rowsNanos / 1000000 + " ms.");
+    }
+}
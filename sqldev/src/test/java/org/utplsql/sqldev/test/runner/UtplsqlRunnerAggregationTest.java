@@ -87,8 +87,7 @@ public class UtplsqlRunnerAggregationTest extends AbstractJdbcTest {
     public void aggregateDescription() {
         UtplsqlRunner runner = new UtplsqlRunner(Collections.singletonList(":foo"), getNewConnection(), getNewConnection());
         runner.runTestAsync();
-        SystemTools.waitForThread(runner.getProducerThread(), 10000);
-        SystemTools.waitForThread(runner.getConsumerThread(), 10000);
+        runner.awaitCompletion(10000);
         Assert.assertNotNull(runner);
         LinkedHashMap<String, ItemNode> nodes = runner.getRun().getItemNodes();
         Assert.assertEquals(9, nodes.size()); // 8 + 1 for the run node 
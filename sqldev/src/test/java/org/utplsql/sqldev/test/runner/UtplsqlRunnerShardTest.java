@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test.runner;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.utplsql.sqldev.model.DatabaseTools;
+import org.utplsql.sqldev.model.runner.Counter;
+import org.utplsql.sqldev.model.runner.Run;
+import org.utplsql.sqldev.model.runner.Suite;
+import org.utplsql.sqldev.runner.UtplsqlRunner;
+import org.utplsql.sqldev.test.AbstractJdbcTest;
+
+public class UtplsqlRunnerShardTest extends AbstractJdbcTest {
+    private static final Logger logger = Logger.getLogger(UtplsqlRunnerShardTest.class.getName());
+    private static final int NUMBER_OF_PACKAGES = 6;
+
+    @Before
+    public void setup() {
+        for (int i = 1; i <= NUMBER_OF_PACKAGES; i++) {
+            jdbcTemplate.execute(
+                      "create or replace package shard_" + i + " is\n"
+                    + "   --%suite\n"
+                    + "   --%suitepath(shard)\n"
+                    + "\n"
+                    + "   --%test\n"
+                    + "   procedure test_ok;\n"
+                    + "\n"
+                    + "   --%test\n"
+                    + "   procedure test_fail;\n"
+                    + "\n"
+                    + "   --%test\n"
+                    + "   --%disabled\n"
+                    + "   procedure test_disabled;\n"
+                    + "end;");
+            jdbcTemplate.execute(
+                      "create or replace package body shard_" + i + " is\n"
+                    + "   procedure test_ok is\n"
+                    + "   begin\n"
+                    + "      dbms_session.sleep(0.2);\n"
+                    + "      ut.expect(1).to_equal(1);\n"
+                    + "   end;\n"
+                    + "\n"
+                    + "   procedure test_fail is\n"
+                    + "   begin\n"
+                    + "      ut.expect(" + i + ").to_equal(0);\n"
+                    + "   end;\n"
+                    + "\n"
+                    + "   procedure test_disabled is\n"
+                    + "   begin\n"
+                    + "      null;\n"
+                    + "   end;\n"
+                    + "end;");
+        }
+    }
+
+    @After
+    public void teardown() {
+        for (int i = 1; i <= NUMBER_OF_PACKAGES; i++) {
+            executeAndIgnore(jdbcTemplate, "DROP PACKAGE shard_" + i);
+        }
+    }
+
+    private Connection getNewConnection() {
+        final SingleConnectionDataSource ds = new SingleConnectionDataSource();
+        ds.setDriverClassName("oracle.jdbc.OracleDriver");
+        ds.setUrl(dataSource.getUrl());
+        ds.setUsername(dataSource.getUsername());
+        ds.setPassword(dataSource.getPassword());
+        return DatabaseTools.getConnection(ds);
+    }
+
+    private void waitForRunner(final UtplsqlRunner runner) {
+        Assert.assertTrue(runner.awaitCompletion(20000));
+    }
+
+    private void assertCounterEquals(final Counter expected, final Counter actual) {
+        Assert.assertEquals(expected.getSuccess(), actual.getSuccess());
+        Assert.assertEquals(expected.getFailure(), actual.getFailure());
+        Assert.assertEquals(expected.getError(), actual.getError());
+        Assert.assertEquals(expected.getDisabled(), actual.getDisabled());
+        Assert.assertEquals(expected.getWarning(), actual.getWarning());
+    }
+
+    @Test
+    public void shardedRunEqualsSerialRun() {
+        final List<String> pathList = Collections.singletonList(":shard");
+        // serial run
+        final UtplsqlRunner serialRunner = new UtplsqlRunner(pathList, getNewConnection(), getNewConnection());
+        long start = System.currentTimeMillis();
+        serialRunner.runTestAsync();
+        waitForRunner(serialRunner);
+        final long serialTime = System.currentTimeMillis() - start;
+        // sharded run
+        final UtplsqlRunner shardedRunner = new UtplsqlRunner(pathList, 3, this::getNewConnection);
+        start = System.currentTimeMillis();
+        shardedRunner.runTestAsync();
+        waitForRunner(shardedRunner);
+        final long shardedTime = System.currentTimeMillis() - start;
+        logger.info(() -> "serial run: " + serialTime + " ms, sharded run: " + shardedTime + " ms.");
+        // compare
+        final Run serial = serialRunner.getRun();
+        final Run sharded = shardedRunner.getRun();
+        Assert.assertEquals(1, serialRunner.getShardCount());
+        Assert.assertEquals(3, shardedRunner.getShardCount());
+        Assert.assertEquals(NUMBER_OF_PACKAGES * 3, serial.getTotalNumberOfTests());
+        Assert.assertEquals(serial.getTotalNumberOfTests(), sharded.getTotalNumberOfTests());
+        Assert.assertEquals(serial.getTotalNumberOfCompletedTests(), sharded.getTotalNumberOfCompletedTests());
+        assertCounterEquals(serial.getCounter(), sharded.getCounter());
+        Assert.assertNotNull(sharded.getEndTime());
+        final Set<String> serialIds = new HashSet<>(serial.getItemNodes().keySet());
+        serialIds.remove(serial.getReporterId());
+        final Set<String> shardedIds = new HashSet<>(sharded.getItemNodes().keySet());
+        shardedIds.remove(sharded.getReporterId());
+        Assert.assertEquals(serialIds, shardedIds);
+        final List<Integer> testNumbers = new ArrayList<>();
+        for (final org.utplsql.sqldev.model.runner.Test test : serial.getTests().values()) {
+            final org.utplsql.sqldev.model.runner.Test shardedTest = sharded.getTest(test.getId());
+            assertCounterEquals(test.getCounter(), shardedTest.getCounter());
+            testNumbers.add(shardedTest.getTestNumber());
+        }
+        Collections.sort(testNumbers);
+        for (int i = 0; i < testNumbers.size(); i++) {
+            Assert.assertEquals(Integer.valueOf(i + 1), testNumbers.get(i));
+        }
+        final Suite serialSuite = (Suite) serial.getItemNodes().get("shard").getUserObject();
+        final Suite shardedSuite = (Suite) sharded.getItemNodes().get("shard").getUserObject();
+        assertCounterEquals(serialSuite.getCounter(), shardedSuite.getCounter());
+        serialRunner.dispose();
+        shardedRunner.dispose();
+    }
+}
@@ -17,6 +17,7 @@ package org.utplsql.sqldev.test.runner;
 
 import java.sql.Connection;
 import java.util.Collections;
+import java.util.logging.Logger;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -25,7 +26,9 @@ import org.junit.Test;
 import org.springframework.jdbc.datasource.SingleConnectionDataSource;
 import org.utplsql.sqldev.model.DatabaseTools;
 import org.utplsql.sqldev.model.SystemTools;
+import org.utplsql.sqldev.model.UtplsqlExecutor;
 import org.utplsql.sqldev.model.preference.PreferenceModel;
+import org.utplsql.sqldev.resources.UtplsqlResources;
 import org.utplsql.sqldev.runner.UtplsqlRunner;
 import org.utplsql.sqldev.test.AbstractJdbcTest;
 import org.utplsql.sqldev.test.coverage.CodeCoverageReporterTest;
@@ -33,6 +36,7 @@ import org.utplsql.sqldev.test.coverage.CodeCoverageReporterTest;
 import oracle.ide.config.Preferences;
 
 public class UtplsqlRunnerTest extends AbstractJdbcTest {
+    private static final Logger logger = Logger.getLogger(UtplsqlRunnerTest.class.getName());
     PreferenceModel preferences;
     
     @Before
@@ -181,8 +185,7 @@ public class UtplsqlRunnerTest extends AbstractJdbcTest {
         UtplsqlRunner runner = new UtplsqlRunner(Collections.singletonList(":a"), getNewConnection(), getNewConnection());
         runner.runTestAsync();
 
-        SystemTools.waitForThread(runner.getProducerThread(), 200000);
-        SystemTools.waitForThread(runner.getConsumerThread(), 200000);
+        runner.awaitCompletion(200000);
         SystemTools.sleep(4 * 1000);
         Assert.assertNotNull(runner);
         runner.dispose();
@@ -196,8 +199,7 @@ public class UtplsqlRunnerTest extends AbstractJdbcTest {
         UtplsqlRunner runner = new UtplsqlRunner(Collections.singletonList(":a"), getNewConnection(), getNewConnection());
         runner.runTestAsync();
 
-        SystemTools.waitForThread(runner.getProducerThread(), 200000);
-        SystemTools.waitForThread(runner.getConsumerThread(), 200000);
+        runner.awaitCompletion(200000);
         SystemTools.sleep(4 * 1000);
         Assert.assertNotNull(runner);
         runner.dispose();
@@ -209,20 +211,69 @@ public class UtplsqlRunnerTest extends AbstractJdbcTest {
         UtplsqlRunner runner = new UtplsqlRunner(Collections.singletonList(":test_f"), null, null, null, getNewConnection(), getNewConnection());
         runner.runTestAsync();
 
-        SystemTools.waitForThread(runner.getProducerThread(), 200000);
-        SystemTools.waitForThread(runner.getConsumerThread(), 200000);
+        runner.awaitCompletion(200000);
         SystemTools.sleep(4 * 1000);
         Assert.assertNotNull(runner);
         runner.dispose();
     }
 
+    @Test
+    public void rerunSingleTestLatency() {
+        for (int i = 0; i < 3; i++) {
+            // logons are not part of the measurement
+            final UtplsqlRunner runner = new UtplsqlRunner(Collections.singletonList(":b"), getNewConnection(),
+                    getNewConnection());
+            final long start = System.currentTimeMillis();
+            runner.runTestAsync();
+            Assert.assertTrue(runner.awaitCompletion(20000));
+            final long elapsed = System.currentTimeMillis() - start;
+            logger.info(() -> "rerun of a single test: startup latency " + runner.getStartupLatency()
+                    + " ms, total " + elapsed + " ms.");
+            // the consumer received the first event of the producer before the run completed
+            Assert.assertTrue(runner.getStartupLatency() >= 0);
+            Assert.assertTrue(runner.getStartupLatency() <= elapsed);
+            Assert.assertNotNull(runner.getRun().getEndTime());
+            Assert.assertFalse(runner.isRunning());
+            runner.dispose();
+        }
+    }
+
+    @Test
+    public void stopQueuedRun() {
+        final UtplsqlExecutor executor = UtplsqlExecutor.getInstance();
+        // as configured by the first run or when saving the preferences
+        executor.setMaxConcurrentRuns(preferences.getMaxConcurrentRuns());
+        final int runningRuns = executor.getRunningRuns();
+        // occupy all slots of the shared executor
+        for (int i = runningRuns; i < preferences.getMaxConcurrentRuns(); i++) {
+            executor.startRun(() -> {});
+        }
+        final UtplsqlRunner runner = new UtplsqlRunner(Collections.singletonList(":b"), null, null);
+        try {
+            runner.runTestAsync();
+            Assert.assertEquals(1, runner.getQueueDepth());
+            Assert.assertTrue(runner.getRun().getStopRequest().getAsBoolean());
+            Assert.assertEquals(0, runner.getQueueDepth());
+            Assert.assertTrue(runner.awaitCompletion(0));
+        } finally {
+            for (int i = runningRuns; i < preferences.getMaxConcurrentRuns(); i++) {
+                executor.runCompleted();
+            }
+        }
+        // not started when a slot is freed, the status is kept
+        Assert.assertEquals(0, runner.getShardCount());
+        Assert.assertNotNull(runner.getRun().getEndTime());
+        Assert.assertFalse(runner.isRunning());
+        Assert.assertEquals(UtplsqlResources.getString("RUNNER_STOP_RUN_MESSAGE"), runner.getRun().getStatus());
+        runner.dispose();
+    }
+
     @Test
     public void runTestWithNestedCdataSection() {
         UtplsqlRunner runner = new UtplsqlRunner(Collections.singletonList(":b"), getNewConnection(), getNewConnection());
         runner.runTestAsync();
 
-        SystemTools.waitForThread(runner.getProducerThread(), 200000);
-        SystemTools.waitForThread(runner.getConsumerThread(), 200000);
+        runner.awaitCompletion(200000);
         SystemTools.sleep(4 * 1000);
         Assert.assertNotNull(runner);
         Assert.assertFalse(runner.isRunning());
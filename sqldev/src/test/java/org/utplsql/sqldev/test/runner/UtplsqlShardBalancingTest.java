@@ -0,0 +1,193 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test.runner;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.utplsql.sqldev.model.runner.Item;
+import org.utplsql.sqldev.model.runner.Run;
+import org.utplsql.sqldev.model.runner.Suite;
+import org.utplsql.sqldev.runner.UtplsqlShardPlanner;
+import org.utplsql.sqldev.runner.UtplsqlTimingStore;
+
+public class UtplsqlShardBalancingTest {
+    private static final Logger logger = Logger.getLogger(UtplsqlShardBalancingTest.class.getName());
+    private static final String CONN_KEY = "SCOTT@jdbc:oracle:thin:@localhost:1521/db";
+
+    // recorded execution times in seconds of test packages, in order of their suite paths
+    private static final double[] RECORDED_TIMES = { 42.0, 35.5, 1.2, 0.8, 0.4, 18.3, 0.3, 0.2, 9.7, 0.9, 0.1,
+            0.1, 6.4, 0.5, 0.2, 0.3, 3.1, 0.7, 0.1, 2.2, 0.4, 0.3, 1.6, 0.2 };
+
+    private Run createRun(final double[] executionTimes) {
+        final List<Item> items = new ArrayList<>();
+        for (int i = 0; i < executionTimes.length; i++) {
+            final Suite suite = new Suite();
+            suite.setId("app.pkg_" + i);
+            suite.setName("pkg_" + i);
+            suite.setItems(new ArrayList<>());
+            // setup and teardown of the package take 10 percent
+            suite.setExecutionTime(executionTimes[i]);
+            for (int t = 0; t < 2; t++) {
+                final org.utplsql.sqldev.model.runner.Test test = new org.utplsql.sqldev.model.runner.Test();
+                test.setId(suite.getId() + ".test_" + t);
+                test.setName("test_" + t);
+                test.setOwnerName("SCOTT");
+                test.setObjectName("PKG_" + i);
+                test.setProcedureName("TEST_" + t);
+                test.setExecutionTime(executionTimes[i] * 0.45);
+                test.setEndTime("2026-10-18T10:00:00.000");
+                suite.getItems().add(test);
+            }
+            items.add(suite);
+        }
+        final Run run = new Run("1", "scott", Collections.singletonList("scott"));
+        run.put(items);
+        return run;
+    }
+
+    private List<String> getUnits(final int count) {
+        final List<String> units = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            units.add("SCOTT.PKG_" + i);
+        }
+        return units;
+    }
+
+    private Map<String, Double> getExecutionTimes(final UtplsqlTimingStore store, final List<String> units) {
+        final Map<String, Double> executionTimes = new HashMap<>();
+        for (final String unit : units) {
+            final Double executionTime = store.getExecutionTime(CONN_KEY, unit);
+            if (executionTime != null) {
+                executionTimes.put(unit, executionTime);
+            }
+        }
+        return executionTimes;
+    }
+
+    @Test
+    public void simulateRecordedTimings() throws IOException {
+        final Path file = Files.createTempFile("timings", ".properties");
+        try {
+            // record and persist
+            final UtplsqlTimingStore recorder = new UtplsqlTimingStore(file);
+            recorder.record(CONN_KEY, createRun(RECORDED_TIMES));
+            recorder.save();
+            Assert.assertEquals(RECORDED_TIMES.length * 3, recorder.size());
+            // replay
+            final UtplsqlTimingStore store = new UtplsqlTimingStore(file);
+            final List<String> units = getUnits(RECORDED_TIMES.length);
+            final Map<String, Double> executionTimes = getExecutionTimes(store, units);
+            Assert.assertEquals(units.size(), executionTimes.size());
+            Assert.assertEquals(RECORDED_TIMES[0], executionTimes.get("SCOTT.PKG_0"), 0.0001);
+            double total = 0.0;
+            for (final double time : RECORDED_TIMES) {
+                total += time;
+            }
+            for (int shards = 2; shards <= 6; shards++) {
+                final double naive = UtplsqlShardPlanner
+                        .getMakespan(UtplsqlShardPlanner.distribute(units, shards), executionTimes);
+                final double balanced = UtplsqlShardPlanner
+                        .getMakespan(UtplsqlShardPlanner.balance(units, executionTimes, shards), executionTimes);
+                final double lowerBound = Math.max(total / shards, RECORDED_TIMES[0]);
+                final int numberOfShards = shards;
+                logger.info(() -> numberOfShards + " shards: naive makespan " + String.format("%.1f", naive)
+                        + " s, balanced makespan " + String.format("%.1f", balanced) + " s, lower bound "
+                        + String.format("%.1f", lowerBound) + " s.");
+                Assert.assertTrue(balanced <= naive);
+                Assert.assertTrue(balanced >= lowerBound - 0.0001);
+                // LPT guarantee
+                Assert.assertTrue(balanced <= lowerBound * 4 / 3);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void balanceLongestFirst() {
+        final Map<String, Double> executionTimes = new HashMap<>();
+        executionTimes.put("a", 1.0);
+        executionTimes.put("b", 5.0);
+        executionTimes.put("c", 2.0);
+        executionTimes.put("d", 4.0);
+        final List<List<String>> actual = UtplsqlShardPlanner.balance(Arrays.asList("a", "b", "c", "d"),
+                executionTimes, 2);
+        Assert.assertEquals(Arrays.asList("b", "a"), actual.get(0));
+        Assert.assertEquals(Arrays.asList("d", "c"), actual.get(1));
+        Assert.assertEquals(6.0, UtplsqlShardPlanner.getMakespan(actual, executionTimes), 0.0001);
+    }
+
+    @Test
+    public void estimateUnknownByNumberOfTests() {
+        final Map<String, Double> executionTimes = new HashMap<>();
+        executionTimes.put("SCOTT.A", 4.0);
+        final Map<String, Integer> numberOfTests = new HashMap<>();
+        numberOfTests.put("SCOTT.A", 2);
+        numberOfTests.put("SCOTT.B", 3);
+        final Map<String, Double> actual = UtplsqlShardPlanner
+                .estimate(Arrays.asList("SCOTT.A", "SCOTT.B", "scott.c.test_x"), executionTimes, numberOfTests);
+        Assert.assertEquals(4.0, actual.get("SCOTT.A"), 0.0001);
+        Assert.assertEquals(6.0, actual.get("SCOTT.B"), 0.0001);
+        Assert.assertEquals(2.0, actual.get("scott.c.test_x"), 0.0001);
+    }
+
+    @Test
+    public void estimateWithoutTimings() {
+        final Map<String, Integer> numberOfTests = new HashMap<>();
+        numberOfTests.put("SCOTT.A", 10);
+        numberOfTests.put("SCOTT.B", 1);
+        final Map<String, Double> actual = UtplsqlShardPlanner.estimate(Arrays.asList("SCOTT.A", "SCOTT.B"),
+                new HashMap<>(), numberOfTests);
+        Assert.assertTrue(actual.get("SCOTT.A") > actual.get("SCOTT.B"));
+    }
+
+    @Test
+    public void driftReplacesExecutionTime() {
+        final UtplsqlTimingStore store = new UtplsqlTimingStore(null);
+        Assert.assertFalse(store.putExecutionTime(CONN_KEY, "scott.a", 1.0));
+        Assert.assertFalse(store.putExecutionTime(CONN_KEY, "SCOTT.A", 1.5));
+        Assert.assertEquals(1.15, store.getExecutionTime(CONN_KEY, "SCOTT.A"), 0.0001);
+        Assert.assertTrue(store.putExecutionTime(CONN_KEY, "SCOTT.A", 5.0));
+        Assert.assertEquals(5.0, store.getExecutionTime(CONN_KEY, "SCOTT.A"), 0.0001);
+        Assert.assertEquals(1, store.getDrifts());
+        Assert.assertNull(store.getExecutionTime("other", "SCOTT.A"));
+    }
+
+    @Test
+    public void evictLeastRecentlyRecorded() {
+        final UtplsqlTimingStore store = new UtplsqlTimingStore(null, 3);
+        store.putExecutionTime(CONN_KEY, "SCOTT.A", 1.0);
+        store.putExecutionTime(CONN_KEY, "SCOTT.B", 1.0);
+        store.putExecutionTime(CONN_KEY, "SCOTT.C", 1.0);
+        store.putExecutionTime(CONN_KEY, "SCOTT.A", 1.0);
+        store.putExecutionTime(CONN_KEY, "SCOTT.D", 1.0);
+        Assert.assertEquals(3, store.size());
+        Assert.assertNull(store.getExecutionTime(CONN_KEY, "SCOTT.B"));
+        Assert.assertNotNull(store.getExecutionTime(CONN_KEY, "SCOTT.A"));
+        Assert.assertNotNull(store.getExecutionTime(CONN_KEY, "SCOTT.D"));
+    }
+}
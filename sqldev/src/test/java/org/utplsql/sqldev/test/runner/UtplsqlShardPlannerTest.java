@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 Philipp Salvisberg <philipp.salvisberg@trivadis.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.utplsql.sqldev.test.runner;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.utplsql.sqldev.runner.UtplsqlShardPlanner;
+
+public class UtplsqlShardPlannerTest {
+
+    private Map<String, String> getSuitePaths() {
+        final Map<String, String> suitePaths = new LinkedHashMap<>();
+        suitePaths.put("SCOTT.X", "foo.bar.x");
+        suitePaths.put("SCOTT.Y", "foo.bar.y");
+        suitePaths.put("SCOTT.Z", "foo.z");
+        suitePaths.put("SCOTT.FOOBAR", "foobar");
+        suitePaths.put("HR.A", "a");
+        return suitePaths;
+    }
+
+    @Test
+    public void expandSchema() {
+        final List<String> actual = UtplsqlShardPlanner.expand(Arrays.asList("scott"), getSuitePaths(), "SCOTT");
+        Assert.assertEquals(Arrays.asList("SCOTT.X", "SCOTT.Y", "SCOTT.Z", "SCOTT.FOOBAR"), actual);
+    }
+
+    @Test
+    public void expandSuitePath() {
+        final List<String> actual = UtplsqlShardPlanner.expand(Arrays.asList(":foo", "hr:a"), getSuitePaths(), "SCOTT");
+        Assert.assertEquals(Arrays.asList("SCOTT.X", "SCOTT.Y", "SCOTT.Z", "HR.A"), actual);
+    }
+
+    @Test
+    public void expandKeepsPackagesAndProcedures() {
+        final List<String> actual = UtplsqlShardPlanner.expand(
+                Arrays.asList("scott.x", "scott.y.test_a", ":unknown", "SCOTT.X"), getSuitePaths(), "SCOTT");
+        Assert.assertEquals(Arrays.asList("SCOTT.X", "scott.y.test_a", ":unknown"), actual);
+    }
+
+    @Test
+    public void distributeRoundRobin() {
+        final List<List<String>> actual = UtplsqlShardPlanner.distribute(Arrays.asList("a", "b", "c", "d", "e"), 2);
+        Assert.assertEquals(2, actual.size());
+        Assert.assertEquals(Arrays.asList("a", "c", "e"), actual.get(0));
+        Assert.assertEquals(Arrays.asList("b", "d"), actual.get(1));
+    }
+
+    @Test
+    public void distributeNoEmptyShards() {
+        final List<List<String>> actual = UtplsqlShardPlanner.distribute(Arrays.asList("a", "b"), 4);
+        Assert.assertEquals(2, actual.size());
+    }
+}